@@ -0,0 +1,19 @@
+package com.banking.backend.GlobalExceptationHandlers;
+
+/**
+ * Thrown when a synchronous transfer is shed because the adaptive concurrency limit is reached.
+ * The GlobalExceptionHandler maps it to HTTP 503 with a Retry-After header.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
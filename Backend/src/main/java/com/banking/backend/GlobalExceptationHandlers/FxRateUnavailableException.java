@@ -0,0 +1,20 @@
+package com.banking.backend.GlobalExceptationHandlers;
+
+/**
+ * Thrown when a cross-currency transfer cannot be priced because no FX rates have been loaded, or the
+ * loaded ones are older than allowed. Same-currency transfers are unaffected. The GlobalExceptionHandler
+ * maps it to HTTP 503 with a Retry-After header.
+ */
+public class FxRateUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public FxRateUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -2,6 +2,7 @@ package com.banking.backend.GlobalExceptationHandlers;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -59,6 +60,81 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    /**
+     * Handles requests rejected by per-customer admission control.
+     * Returns HTTP 429 Too Many Requests with a Retry-After header.
+     *
+     * @param ex The RateLimitExceededException thrown.
+     * @return A ResponseEntity with TOO_MANY_REQUESTS status and the exception message.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimitExceeded(RateLimitExceededException ex){
+        log.debug("RateLimitExceededException caught: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles asynchronous transfers that could not be queued.
+     * Returns HTTP 503 Service Unavailable with a Retry-After header.
+     *
+     * @param ex The TransferQueueFullException thrown.
+     * @return A ResponseEntity with SERVICE_UNAVAILABLE status and the exception message.
+     */
+    @ExceptionHandler(TransferQueueFullException.class)
+    public ResponseEntity<String> handleTransferQueueFull(TransferQueueFullException ex){
+        log.warn("TransferQueueFullException caught: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles synchronous transfers shed by the adaptive concurrency limit.
+     * Returns HTTP 503 Service Unavailable with a Retry-After header.
+     *
+     * @param ex The ConcurrencyLimitExceededException thrown.
+     * @return A ResponseEntity with SERVICE_UNAVAILABLE status and the exception message.
+     */
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<String> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex){
+        log.debug("ConcurrencyLimitExceededException caught: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles account event streams refused because the node holds its maximum of subscriptions.
+     * Returns HTTP 503 Service Unavailable with a Retry-After header.
+     *
+     * @param ex The SubscriberLimitExceededException thrown.
+     * @return A ResponseEntity with SERVICE_UNAVAILABLE status and the exception message.
+     */
+    @ExceptionHandler(SubscriberLimitExceededException.class)
+    public ResponseEntity<String> handleSubscriberLimitExceeded(SubscriberLimitExceededException ex){
+        log.warn("SubscriberLimitExceededException caught: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Handles cross-currency transfers that cannot be priced because FX rates are missing or stale.
+     * Returns HTTP 503 Service Unavailable with a Retry-After header.
+     *
+     * @param ex The FxRateUnavailableException thrown.
+     * @return A ResponseEntity with SERVICE_UNAVAILABLE status and the exception message.
+     */
+    @ExceptionHandler(FxRateUnavailableException.class)
+    public ResponseEntity<String> handleFxRateUnavailable(FxRateUnavailableException ex){
+        log.warn("FxRateUnavailableException caught: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
     /**
      * Handles illegal argument exceptions, typically for invalid inputs or state.
      * Returns HTTP 400 Bad Request.
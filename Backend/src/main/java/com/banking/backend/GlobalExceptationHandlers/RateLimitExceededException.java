@@ -0,0 +1,20 @@
+package com.banking.backend.GlobalExceptationHandlers;
+
+/**
+ * Thrown when a customer has exhausted its admission budget for the transfer endpoint.
+ * Carries the number of seconds the client should wait before retrying, which the
+ * GlobalExceptionHandler exposes as a Retry-After header on the HTTP 429 response.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.backend.GlobalExceptationHandlers;
+
+/**
+ * Thrown when an account event stream cannot be opened because the node already holds as many
+ * subscriptions as it is configured for. The GlobalExceptionHandler maps it to HTTP 503 with a
+ * Retry-After header, so the client reconnects later, possibly to another node.
+ */
+public class SubscriberLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SubscriberLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.backend.GlobalExceptationHandlers;
+
+/**
+ * Thrown when an asynchronous transfer cannot be accepted because the sender's sequencer
+ * partition is full or the service is shutting down. The GlobalExceptionHandler maps it to
+ * HTTP 503 with a Retry-After header.
+ */
+public class TransferQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TransferQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
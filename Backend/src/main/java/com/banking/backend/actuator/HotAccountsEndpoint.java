@@ -0,0 +1,37 @@
+package com.banking.backend.actuator;
+
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.service.interfaces.IHotAccountService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/hotaccounts}) listing the accounts that sent and received the
+ * most transfers over the hot-account window, with the time their transfers spent on the account rows.
+ */
+@Component
+@Endpoint(id = "hotaccounts")
+public class HotAccountsEndpoint {
+
+    private final IHotAccountService hotAccountService;
+    private final HotAccountProperties properties;
+
+    public HotAccountsEndpoint(IHotAccountService hotAccountService, HotAccountProperties properties) {
+        this.hotAccountService = hotAccountService;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotAccounts() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("enabled", properties.isEnabled());
+        body.put("windowSeconds", properties.getWindowLength().multipliedBy(properties.getWindows()).toSeconds());
+        body.put("senders", hotAccountService.getHotSenders());
+        body.put("recipients", hotAccountService.getHotRecipients());
+        return body;
+    }
+}
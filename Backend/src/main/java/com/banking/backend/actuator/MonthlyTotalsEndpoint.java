@@ -0,0 +1,42 @@
+package com.banking.backend.actuator;
+
+import com.banking.backend.dto.MonthlyTotalsRebuildDTO;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/monthlytotals}) that rebuilds the per-account monthly totals from the
+ * transaction history. POST takes an optional {@code since} month ({@code yyyy-MM}); without it every month
+ * that still has transactions is recomputed. It answers once the rebuild has finished, with 400 for an
+ * invalid month and 409 while another rebuild is running.
+ */
+@Component
+@WebEndpoint(id = "monthlytotals")
+public class MonthlyTotalsEndpoint {
+
+    private final IMonthlyTotalsService monthlyTotalsService;
+
+    public MonthlyTotalsEndpoint(IMonthlyTotalsService monthlyTotalsService) {
+        this.monthlyTotalsService = monthlyTotalsService;
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> rebuild(@Nullable String since) {
+        try {
+            MonthlyTotalsRebuildDTO rebuilt = monthlyTotalsService.rebuild(since != null ? YearMonth.parse(since) : null);
+            return new WebEndpointResponse<>(rebuilt);
+        } catch (DateTimeParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), 409);
+        }
+    }
+}
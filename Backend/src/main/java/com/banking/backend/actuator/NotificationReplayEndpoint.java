@@ -0,0 +1,70 @@
+package com.banking.backend.actuator;
+
+import com.banking.backend.dto.NotificationReplayDTO;
+import com.banking.backend.enums.NotificationReplaySource;
+import com.banking.backend.service.interfaces.INotificationReplayService;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/notificationreplay}) that replays failed or dead-lettered notifications
+ * to the notification queue. POST starts a replay, GET reports its progress and DELETE cancels it.
+ * <p>
+ * POST takes {@code source} ({@code FAILED_QUEUE} or {@code DEAD_LETTER_QUEUE}) and optionally {@code from}
+ * and {@code to} (ISO local date-times), {@code transactionId}, {@code ratePerSecond} and {@code parallelism}.
+ * It answers 400 for invalid arguments and 409 while another replay is running.
+ */
+@Component
+@WebEndpoint(id = "notificationreplay")
+public class NotificationReplayEndpoint {
+
+    private final INotificationReplayService notificationReplayService;
+
+    public NotificationReplayEndpoint(INotificationReplayService notificationReplayService) {
+        this.notificationReplayService = notificationReplayService;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<NotificationReplayDTO> progress() {
+        return notificationReplayService.getProgress()
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> replay(String source, @Nullable String from, @Nullable String to,
+                                              @Nullable String transactionId, @Nullable Integer ratePerSecond,
+                                              @Nullable Integer parallelism) {
+        try {
+            NotificationReplayDTO started = notificationReplayService.start(
+                    NotificationReplaySource.valueOf(source.toUpperCase(Locale.ROOT)), parse(from), parse(to),
+                    transactionId, ratePerSecond, parallelism);
+            return new WebEndpointResponse<>(started);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), 409);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<NotificationReplayDTO> cancel() {
+        return notificationReplayService.cancel()
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    private static LocalDateTime parse(String dateTime) {
+        return dateTime != null ? LocalDateTime.parse(dateTime) : null;
+    }
+}
@@ -0,0 +1,337 @@
+package com.banking.backend.archive;
+
+import com.banking.backend.enums.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only view of an archive segment written by {@link ArchiveSegmentWriter}.
+ * <p>
+ * The block area is memory-mapped, so reads are served from the page cache without copying
+ * through the heap or issuing system calls, and only the sparse index is held on the heap.
+ * Segments larger than a single mapping are mapped in windows that never split a block.
+ * Instances are safe for concurrent use.
+ */
+public final class ArchiveSegment implements Closeable {
+
+    // Mappings are limited to 2 GiB; windows stay well below that and always end on a block boundary.
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+
+    private final Path path;
+    private final YearMonth month;
+    private final long recordCount;
+    private final FileChannel channel;
+    private final long[] firstAccountIds;
+    private final long[] firstTimestamps;
+    private final int[] windows;
+    private final int[] windowOffsets;
+    private final int[] compressedLengths;
+    private final int[] uncompressedLengths;
+    private final int[] recordCounts;
+    private final int[] checksums;
+    private final List<MappedByteBuffer> mappings = new ArrayList<>();
+
+    private ArchiveSegment(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < ArchiveSegmentWriter.HEADER_BYTES + ArchiveSegmentWriter.TRAILER_BYTES) {
+            throw new IOException("Archive segment " + path + " is truncated");
+        }
+
+        ByteBuffer trailer = read(size - ArchiveSegmentWriter.TRAILER_BYTES, ArchiveSegmentWriter.TRAILER_BYTES);
+        long indexOffset = trailer.getLong();
+        int blockCount = trailer.getInt();
+        this.recordCount = trailer.getLong();
+        int encodedMonth = trailer.getInt();
+        int version = trailer.getInt();
+        if (trailer.getInt() != ArchiveSegmentWriter.MAGIC || version != ArchiveSegmentWriter.VERSION) {
+            throw new IOException("Not a version " + ArchiveSegmentWriter.VERSION + " archive segment: " + path);
+        }
+        this.month = YearMonth.of(encodedMonth / 100, encodedMonth % 100);
+
+        firstAccountIds = new long[blockCount];
+        firstTimestamps = new long[blockCount];
+        windows = new int[blockCount];
+        windowOffsets = new int[blockCount];
+        compressedLengths = new int[blockCount];
+        uncompressedLengths = new int[blockCount];
+        recordCounts = new int[blockCount];
+        checksums = new int[blockCount];
+
+        ByteBuffer index = read(indexOffset, blockCount * ArchiveSegmentWriter.INDEX_ENTRY_BYTES);
+        long windowStart = ArchiveSegmentWriter.HEADER_BYTES;
+        for (int b = 0; b < blockCount; b++) {
+            firstAccountIds[b] = index.getLong();
+            firstTimestamps[b] = index.getLong();
+            index.getLong(); // first id, kept in the format for tooling
+            long offset = index.getLong();
+            compressedLengths[b] = index.getInt();
+            uncompressedLengths[b] = index.getInt();
+            recordCounts[b] = index.getInt();
+            checksums[b] = index.getInt();
+
+            if (offset + compressedLengths[b] - windowStart > MAX_WINDOW_BYTES) {
+                mappings.add(channel.map(FileChannel.MapMode.READ_ONLY, windowStart, offset - windowStart));
+                windowStart = offset;
+            }
+            windows[b] = mappings.size();
+            windowOffsets[b] = (int) (offset - windowStart);
+        }
+        if (indexOffset > windowStart) {
+            mappings.add(channel.map(FileChannel.MapMode.READ_ONLY, windowStart, indexOffset - windowStart));
+        }
+    }
+
+    public static ArchiveSegment open(Path path) throws IOException {
+        return new ArchiveSegment(path);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public YearMonth month() {
+        return month;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    public int blockCount() {
+        return firstAccountIds.length;
+    }
+
+    /**
+     * Returns an account's records with {@code from <= timestamp < to}, oldest first.
+     */
+    public List<ArchivedTransaction> findByAccount(long accountId, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = ArchiveSegmentWriter.toMicros(from);
+        long toMicros = ArchiveSegmentWriter.toMicros(to);
+        List<ArchivedTransaction> result = new ArrayList<>();
+        for (int b = firstCandidateBlock(accountId, fromMicros); b < firstAccountIds.length; b++) {
+            if (compareKey(firstAccountIds[b], firstTimestamps[b], accountId, toMicros) >= 0) {
+                break;
+            }
+            DataInputStream records = decompress(b);
+            try {
+                for (int r = 0; r < recordCounts[b]; r++) {
+                    long recordAccount = records.readLong();
+                    long id = records.readLong();
+                    long timestamp = records.readLong();
+                    if (compareKey(recordAccount, timestamp, accountId, toMicros) >= 0) {
+                        return result;
+                    }
+                    if (recordAccount == accountId && timestamp >= fromMicros) {
+                        result.add(readRest(records, recordAccount, id, timestamp));
+                    } else {
+                        skipRest(records);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt archive block " + b + " in " + path, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an account's last record with {@code timestamp <= asOf}. Such a record can only be in the
+     * block the sparse index points at for {@code (accountId, asOf)}, so at most one block is decompressed.
+     */
+    public Optional<ArchivedTransaction> findLast(long accountId, LocalDateTime asOf) {
+        long asOfMicros = ArchiveSegmentWriter.toMicros(asOf);
+        if (firstAccountIds.length == 0) {
+            return Optional.empty();
+        }
+        int b = firstCandidateBlock(accountId, asOfMicros + 1);
+        ArchivedTransaction last = null;
+        DataInputStream records = decompress(b);
+        try {
+            for (int r = 0; r < recordCounts[b]; r++) {
+                long recordAccount = records.readLong();
+                long id = records.readLong();
+                long timestamp = records.readLong();
+                if (compareKey(recordAccount, timestamp, accountId, asOfMicros) > 0) {
+                    break;
+                }
+                if (recordAccount == accountId) {
+                    last = readRest(records, recordAccount, id, timestamp);
+                } else {
+                    skipRest(records);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archive block " + b + " in " + path, e);
+        }
+        return Optional.ofNullable(last);
+    }
+
+    /**
+     * Returns an account's first record with {@code timestamp > after}.
+     */
+    public Optional<ArchivedTransaction> findFirstAfter(long accountId, LocalDateTime after) {
+        long afterMicros = ArchiveSegmentWriter.toMicros(after);
+        for (int b = firstCandidateBlock(accountId, afterMicros + 1); b < firstAccountIds.length; b++) {
+            if (firstAccountIds[b] > accountId) {
+                break;
+            }
+            DataInputStream records = decompress(b);
+            try {
+                for (int r = 0; r < recordCounts[b]; r++) {
+                    long recordAccount = records.readLong();
+                    long id = records.readLong();
+                    long timestamp = records.readLong();
+                    if (recordAccount > accountId) {
+                        return Optional.empty();
+                    }
+                    if (recordAccount == accountId && timestamp > afterMicros) {
+                        return Optional.of(readRest(records, recordAccount, id, timestamp));
+                    }
+                    skipRest(records);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt archive block " + b + " in " + path, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Decodes every record in segment order.
+     *
+     * @return The number of records passed to the consumer.
+     */
+    public long scan(Consumer<ArchivedTransaction> consumer) {
+        long count = 0;
+        for (int b = 0; b < firstAccountIds.length; b++) {
+            DataInputStream records = decompress(b);
+            try {
+                for (int r = 0; r < recordCounts[b]; r++) {
+                    long accountId = records.readLong();
+                    long id = records.readLong();
+                    long timestamp = records.readLong();
+                    consumer.accept(readRest(records, accountId, id, timestamp));
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Corrupt archive block " + b + " in " + path, e);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mapped regions are released by the garbage collector once unreachable.
+        channel.close();
+    }
+
+    /**
+     * Index of the last block whose first key is strictly before {@code (accountId, fromMicros)}:
+     * every earlier block only holds smaller keys, so matching rows cannot start before it.
+     */
+    private int firstCandidateBlock(long accountId, long fromMicros) {
+        int low = 0;
+        int high = firstAccountIds.length - 1;
+        int candidate = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (compareKey(firstAccountIds[middle], firstTimestamps[middle], accountId, fromMicros) < 0) {
+                candidate = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return candidate;
+    }
+
+    private DataInputStream decompress(int block) {
+        ByteBuffer compressed = mappings.get(windows[block]).slice(windowOffsets[block], compressedLengths[block]);
+        CRC32 crc = new CRC32();
+        crc.update(compressed.duplicate());
+        if ((int) crc.getValue() != checksums[block]) {
+            throw new UncheckedIOException(new IOException("Checksum mismatch in archive block " + block + " of " + path));
+        }
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(compressed);
+        byte[] raw = new byte[uncompressedLengths[block]];
+        try {
+            int inflated = 0;
+            while (inflated < raw.length && !inflater.finished()) {
+                inflated += inflater.inflate(raw, inflated, raw.length - inflated);
+            }
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt archive block " + block + " in " + path, e));
+        }
+        return new DataInputStream(new ByteArrayInputStream(raw));
+    }
+
+    private static ArchivedTransaction readRest(DataInputStream records, long accountId, long id, long timestamp) throws IOException {
+        TransactionType type = TransactionType.valueOf(records.readUTF());
+        String transactionId = records.readUTF();
+        BigDecimal amount = readDecimal(records);
+        BigDecimal balanceAfter = readDecimal(records);
+        String description = records.readBoolean() ? records.readUTF() : null;
+        return new ArchivedTransaction(id, accountId, transactionId, type, amount, description,
+                fromMicros(timestamp), balanceAfter);
+    }
+
+    private static void skipRest(DataInputStream records) throws IOException {
+        records.readUTF();
+        records.readUTF();
+        records.skipBytes(18);
+        if (records.readBoolean()) {
+            records.readUTF();
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream records) throws IOException {
+        int scale = records.readByte();
+        return BigDecimal.valueOf(records.readLong(), scale);
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static int compareKey(long accountId, long timestamp, long otherAccountId, long otherTimestamp) {
+        int result = Long.compare(accountId, otherAccountId);
+        return result != 0 ? result : Long.compare(timestamp, otherTimestamp);
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive segment " + path);
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,206 @@
+package com.banking.backend.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one immutable archive segment holding a month of transactions.
+ * <p>
+ * Layout of a segment file:
+ * <pre>
+ *   header   magic:int version:int yearMonth:int (yyyyMM)
+ *   blocks   deflate-compressed runs of records, each about {@code blockSize} bytes uncompressed
+ *   index    one entry per block: firstAccountId:long firstTimestampMicros:long firstId:long
+ *            offset:long compressedLength:int uncompressedLength:int recordCount:int crc32:int
+ *   trailer  indexOffset:long blockCount:int recordCount:long yearMonth:int version:int magic:int
+ * </pre>
+ * Records must be appended in {@code (accountId, timestamp, id)} order, so the sparse index of
+ * block-first keys is enough to find any account's rows by binary search. The file is written
+ * under a temporary name and atomically moved into place by {@link #finish()}, so readers never
+ * see a partial segment.
+ */
+public final class ArchiveSegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x424B4152; // "BKAR"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int INDEX_ENTRY_BYTES = 48;
+    static final int TRAILER_BYTES = 32;
+
+    private final Path target;
+    private final Path temporary;
+    private final YearMonth month;
+    private final int blockSize;
+    private final FileChannel channel;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final ByteArrayOutputStream blockBytes;
+    private final DataOutputStream block;
+    private final List<long[]> index = new ArrayList<>();
+    private long position;
+    private long recordCount;
+    private int blockRecords;
+    private long firstAccountId;
+    private long firstTimestamp;
+    private long firstId;
+    private long lastAccountId = Long.MIN_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long lastId = Long.MIN_VALUE;
+    private boolean finished;
+
+    public ArchiveSegmentWriter(Path target, YearMonth month, int blockSize) throws IOException {
+        this.target = target;
+        this.temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        this.month = month;
+        this.blockSize = blockSize;
+        this.blockBytes = new ByteArrayOutputStream(blockSize + 1024);
+        this.block = new DataOutputStream(blockBytes);
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(encode(month)).flip();
+        write(header);
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @throws IllegalArgumentException If the record is out of {@code (accountId, timestamp, id)} order
+     * or an amount does not fit the segment encoding.
+     */
+    public void append(ArchivedTransaction transaction) throws IOException {
+        long timestamp = toMicros(transaction.timestamp());
+        if (compare(transaction.accountId(), timestamp, transaction.id(), lastAccountId, lastTimestamp, lastId) < 0) {
+            throw new IllegalArgumentException("Archive records must be appended in (accountId, timestamp, id) order");
+        }
+        if (blockRecords == 0) {
+            firstAccountId = transaction.accountId();
+            firstTimestamp = timestamp;
+            firstId = transaction.id();
+        }
+        block.writeLong(transaction.accountId());
+        block.writeLong(transaction.id());
+        block.writeLong(timestamp);
+        block.writeUTF(transaction.transactionType().name());
+        block.writeUTF(transaction.transactionId());
+        writeDecimal(transaction.amount());
+        writeDecimal(transaction.balanceAfter());
+        block.writeBoolean(transaction.description() != null);
+        if (transaction.description() != null) {
+            block.writeUTF(transaction.description());
+        }
+        blockRecords++;
+        recordCount++;
+        lastAccountId = transaction.accountId();
+        lastTimestamp = timestamp;
+        lastId = transaction.id();
+        if (blockBytes.size() >= blockSize) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Writes the last block, the index and the trailer, forces the file to disk and moves it into place.
+     */
+    public void finish() throws IOException {
+        flushBlock();
+        long indexOffset = position;
+        ByteBuffer entries = ByteBuffer.allocate(index.size() * INDEX_ENTRY_BYTES);
+        for (long[] entry : index) {
+            entries.putLong(entry[0]).putLong(entry[1]).putLong(entry[2]).putLong(entry[3])
+                    .putInt((int) entry[4]).putInt((int) entry[5]).putInt((int) entry[6]).putInt((int) entry[7]);
+        }
+        write(entries.flip());
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES)
+                .putLong(indexOffset).putInt(index.size()).putLong(recordCount)
+                .putInt(encode(month)).putInt(VERSION).putInt(MAGIC)
+                .flip();
+        write(trailer);
+        channel.force(true);
+        channel.close();
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        finished = true;
+    }
+
+    public long recordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        if (!finished) {
+            channel.close();
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRecords == 0) {
+            return;
+        }
+        byte[] raw = blockBytes.toByteArray();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2);
+        byte[] chunk = new byte[16 * 1024];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(chunk);
+            compressed.write(chunk, 0, length);
+        }
+        byte[] bytes = compressed.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+
+        index.add(new long[]{firstAccountId, firstTimestamp, firstId, position, bytes.length, raw.length, blockRecords,
+                (int) crc.getValue()});
+        write(ByteBuffer.wrap(bytes));
+        blockBytes.reset();
+        blockRecords = 0;
+    }
+
+    private void writeDecimal(BigDecimal value) throws IOException {
+        if (value.unscaledValue().bitLength() > 63 || value.scale() < Byte.MIN_VALUE || value.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Amount out of range for the archive encoding: " + value);
+        }
+        block.writeByte(value.scale());
+        block.writeLong(value.unscaledValue().longValue());
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    static int encode(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    static int compare(long accountId, long timestamp, long id, long otherAccountId, long otherTimestamp, long otherId) {
+        int result = Long.compare(accountId, otherAccountId);
+        if (result == 0) {
+            result = Long.compare(timestamp, otherTimestamp);
+        }
+        return result != 0 ? result : Long.compare(id, otherId);
+    }
+}
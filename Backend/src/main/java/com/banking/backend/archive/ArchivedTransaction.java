@@ -0,0 +1,22 @@
+package com.banking.backend.archive;
+
+import com.banking.backend.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A {@code transaction} row as stored in an archive segment.
+ *
+ * @param id The surrogate id of the row.
+ * @param accountId The id of the account the row belongs to.
+ */
+public record ArchivedTransaction(long id,
+                                  long accountId,
+                                  String transactionId,
+                                  TransactionType transactionType,
+                                  BigDecimal amount,
+                                  String description,
+                                  LocalDateTime timestamp,
+                                  BigDecimal balanceAfter) {
+}
@@ -6,40 +6,98 @@ import com.azure.messaging.servicebus.ServiceBusProcessorClient;
 import com.azure.messaging.servicebus.ServiceBusErrorContext;
 import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
 
+import com.banking.backend.config.notification.NotificationInboxProperties;
 import com.banking.backend.dto.TransactionNotification;
+import com.banking.backend.service.interfaces.INotificationInboxService;
+import com.banking.backend.util.NotificationTracing;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
 
 @Component
 public class NotificationProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationProcessor.class);
-    private final ServiceBusClientBuilder.ServiceBusProcessorClientBuilder serviceBusProcessorClientBuilder;
+    private final ObjectFactory<ServiceBusClientBuilder.ServiceBusProcessorClientBuilder> serviceBusProcessorClientBuilder;
     private final ObjectMapper objectMapper;
-    private ServiceBusProcessorClient serviceBusProcessorClient;
-
-    public NotificationProcessor(ServiceBusClientBuilder.ServiceBusProcessorClientBuilder serviceBusProcessorClientBuilder, ObjectMapper objectMapper) {
+    private final INotificationInboxService notificationInboxService;
+    private final NotificationInboxProperties inboxProperties;
+    private final ObservationRegistry observationRegistry;
+    private final Timer dwellTime;
+    private final Timer transferDeliveryTime;
+    private final Timer digestDeliveryTime;
+    private final boolean backgroundStart;
+    private volatile ServiceBusProcessorClient serviceBusProcessorClient;
+
+    public NotificationProcessor(ObjectFactory<ServiceBusClientBuilder.ServiceBusProcessorClientBuilder> serviceBusProcessorClientBuilder, ObjectMapper objectMapper,
+                                 INotificationInboxService notificationInboxService, NotificationInboxProperties inboxProperties,
+                                 MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+                                 @Value("${banking.messaging.processor.background-start:false}") boolean backgroundStart) {
         this.serviceBusProcessorClientBuilder = serviceBusProcessorClientBuilder;
         this.objectMapper = objectMapper;
+        this.notificationInboxService = notificationInboxService;
+        this.inboxProperties = inboxProperties;
+        this.observationRegistry = observationRegistry;
+        this.dwellTime = Timer.builder("banking.notifications.dwell")
+                .description("Time notifications waited in the Service Bus queue, from enqueue to dequeue")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.transferDeliveryTime = deliveryTimer("transfer", meterRegistry);
+        this.digestDeliveryTime = deliveryTimer("digest", meterRegistry);
+        this.backgroundStart = backgroundStart;
+    }
+
+    /**
+     * Starts listening as soon as the bean is initialized, unless background start is enabled,
+     * in which case {@link #startListeningInBackground()} takes over once the application is ready.
+     */
+    @PostConstruct
+    public void init() {
+        if (!backgroundStart) {
+            startListening();
+        }
+    }
+
+    /**
+     * Starts the processor on a separate thread after the application has started serving requests,
+     * so connecting to Service Bus does not add to time-to-first-request.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListeningInBackground() {
+        if (backgroundStart) {
+            Thread.ofVirtual().name("servicebus-processor-start").start(this::startListening);
+        }
     }
 
     /**
      * Initializes and starts the Azure Service Bus Processor Client.
-     * This method is automatically called by Spring after the bean's construction and dependency injection are complete.
      * It configures the message and error handlers and then starts listening for messages on the configured queue/topic.
      */
-    @PostConstruct
-    public void startListening() {
+    public synchronized void startListening() {
+        if (serviceBusProcessorClient != null) {
+            return;
+        }
         log.info("Starting Service Bus Processor Client to listen for messages...");
         // Build the client here, providing handlers from this class instance
-        this.serviceBusProcessorClient = serviceBusProcessorClientBuilder
+        this.serviceBusProcessorClient = serviceBusProcessorClientBuilder.getObject()
                 .processMessage(this::handleMessage)
                 .processError(this::handleError)
                 .buildProcessorClient();
@@ -52,15 +110,23 @@ public class NotificationProcessor {
      * Handles a received message from Azure Service Bus.
      * This method is invoked by the Service Bus Processor Client for each message received.
      * It deserializes the message body into a {@link TransactionNotification} object,
-     * processes it, and then completes the message on the Service Bus.
-     * If deserialization fails, the message is dead-lettered. If any other error occurs during processing,
+     * stores it in the customer's inbox, and then completes the message on the Service Bus.
+     * If deserialization fails, or the notification has no customer to deliver it to, the message is dead-lettered.
+     * If any other error occurs during processing, including the inbox write not committing in time,
      * the message is abandoned, making it available for re-delivery.
+     * <p>
+     * Processing is traced as a child of the send, and so of the transfer, whose trace context the message
+     * carries. The time the message waited in the queue, and the time from the transfer committing to its
+     * notification being stored, are recorded as histograms.
      *
      * @param context The {@link ServiceBusReceivedMessageContext} containing the received message and completion/abandonment controls.
      */
     public void handleMessage(ServiceBusReceivedMessageContext context) {
         ServiceBusReceivedMessage message = context.getMessage();
-        try {
+        recordDwellTime(message, Instant.now());
+        Observation observation = Observation.createNotStarted(NotificationTracing.PROCESS_OBSERVATION,
+                () -> NotificationTracing.receiverContext(message), observationRegistry).start();
+        try (Observation.Scope scope = observation.openScope()) {
             String messageBody = message.getBody().toString();
             log.debug("Received message from Service Bus (Sequence #{}): {}", message.getSequenceNumber(), messageBody);
 
@@ -68,17 +134,65 @@ public class NotificationProcessor {
             processNotification(notification);
 
             context.complete();
+            recordDeliveryTime(message, notification, Instant.now());
             log.info("Successfully processed and completed message for transaction ID: {}", notification.getTransactionId());
 
         } catch (JsonProcessingException e) {
+            observation.error(e);
             log.error("Failed to deserialize message body to TransactionNotification. Message will be dead-lettered. Message body: {}", message.getBody().toString(), e);
             context.deadLetter();
+        } catch (IllegalArgumentException e) {
+            observation.error(e);
+            log.error("Notification cannot be stored in an inbox. Message will be dead-lettered. Message body: {}", message.getBody().toString(), e);
+            context.deadLetter();
         } catch (Exception e) {
+            observation.error(e);
             log.error("Error processing message from Service Bus. Message will be abandoned. Message body: {}. Sequence #{}", message.getBody().toString(), message.getSequenceNumber(), e);
             context.abandon();
+        } finally {
+            observation.stop();
         }
     }
 
+    /**
+     * Records how long the message sat in the queue, from the sender's enqueue time, or the broker's for
+     * messages sent without one.
+     */
+    private void recordDwellTime(ServiceBusReceivedMessage message, Instant dequeuedAt) {
+        Instant enqueuedAt = NotificationTracing.instant(message, NotificationTracing.ENQUEUED_AT);
+        if (enqueuedAt == null && message.getEnqueuedTime() != null) {
+            enqueuedAt = message.getEnqueuedTime().toInstant();
+        }
+        if (enqueuedAt != null) {
+            dwellTime.record(nonNegative(Duration.between(enqueuedAt, dequeuedAt)));
+        }
+    }
+
+    /**
+     * Records the time from the transfer committing to its notification being stored. Digests are held back
+     * on purpose, so they are kept apart and measured from when the digest was closed.
+     */
+    private void recordDeliveryTime(ServiceBusReceivedMessage message, TransactionNotification notification, Instant storedAt) {
+        Instant committedAt = NotificationTracing.instant(message, NotificationTracing.COMMITTED_AT);
+        if (committedAt != null) {
+            Timer timer = notification.getDigestCount() != null ? digestDeliveryTime : transferDeliveryTime;
+            timer.record(nonNegative(Duration.between(committedAt, storedAt)));
+        }
+    }
+
+    // Clocks of the sending and receiving nodes may disagree slightly.
+    private static Duration nonNegative(Duration duration) {
+        return duration.isNegative() ? Duration.ZERO : duration;
+    }
+
+    private static Timer deliveryTimer(String kind, MeterRegistry meterRegistry) {
+        return Timer.builder("banking.notifications.delivery")
+                .description("Time from a transfer committing to its notification being stored in the customer's inbox")
+                .tag("kind", kind)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
     /**
      * Handles errors that occur during message processing by the Service Bus Processor Client.
      * This method provides a centralized point for logging and reacting to Service Bus-related errors,
@@ -93,32 +207,17 @@ public class NotificationProcessor {
     }
 
     /**
-     * Processes the received {@link TransactionNotification}.
-     * This method contains the core business logic for handling a transaction notification.
-     * In a real application, this would involve more complex operations like updating a database,
-     * sending emails, or triggering other downstream services.
+     * Processes the received {@link TransactionNotification} by adding it to the customer's inbox.
+     * It blocks until the inbox batch holding it has committed, so the message is only completed once the
+     * notification is stored; the processor runs several of these calls at once, which is what fills the batches.
      *
      * @param notification The {@link TransactionNotification} object parsed from the Service Bus message.
      */
-    private void processNotification(TransactionNotification notification) {
-        log.info("Starting processing for notification: {}, Notification details: Transaction ID: {}, User ID: {}, Message: {}",
-                notification.getTransactionId(), notification.getTransactionId(), notification.getUserId(), notification.getMessage());
-
-        // System.out.println for immediate console output, typically replaced with a more robust notification system
-        System.out.println("----**NEW NOTIFICATION**----");
-        System.out.println("Transaction ID: " + notification.getTransactionId());
-        System.out.println("User ID: " + notification.getUserId());
-        System.out.println("Message: " + notification.getMessage());
-        System.out.println("Timestamp: " + notification.getTimestamp());
-        System.out.println("Transaction Type: " + notification.getTransactionType());
-        System.out.println("Amount: " + notification.getAmount());
-        if (notification.getRecipientName() != null) {
-            System.out.println("Recipient Name: " + notification.getRecipientName());
-        }
-        if (notification.getSenderName() != null) {
-            System.out.println("Sender Name: " + notification.getSenderName());
-        }
-        System.out.println("-------------------------");
+    private void processNotification(TransactionNotification notification) throws Exception {
+        log.debug("Storing notification for transaction ID: {} in the inbox of user ID: {}",
+                notification.getTransactionId(), notification.getUserId());
+        notificationInboxService.store(notification)
+                .get(inboxProperties.getStoreTimeout().toMillis(), TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -128,7 +227,7 @@ public class NotificationProcessor {
      * message loss or incomplete processing during shutdown.
      */
     @PreDestroy
-    public void stopListening() {
+    public synchronized void stopListening() {
         if (serviceBusProcessorClient != null) {
             log.info("Stopping Service Bus Processor Client...");
             serviceBusProcessorClient.stop();
@@ -0,0 +1,12 @@
+package com.banking.backend.config.admission;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link AdmissionControlProperties} bound from the {@code banking.admission} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+}
@@ -0,0 +1,114 @@
+package com.banking.backend.config.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for per-customer admission control on the transfer endpoint.
+ * Customers are assigned to a named tier through {@code customer-tiers}; any customer
+ * without an explicit assignment falls back to {@code default-tier}. Customers who arrive while
+ * {@code max-tracked-customers} buckets are held share the {@code overflow} limit.
+ */
+@ConfigurationProperties(prefix = "banking.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+    private int maxTrackedCustomers = 100_000;
+    private Duration idleEviction = Duration.ofMinutes(10);
+    private String defaultTier = "standard";
+    private Map<String, Tier> tiers = new HashMap<>();
+    private Map<String, String> customerTiers = new HashMap<>();
+    private Tier overflow = new Tier(50, 100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxTrackedCustomers() {
+        return maxTrackedCustomers;
+    }
+
+    public void setMaxTrackedCustomers(int maxTrackedCustomers) {
+        this.maxTrackedCustomers = maxTrackedCustomers;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    public String getDefaultTier() {
+        return defaultTier;
+    }
+
+    public void setDefaultTier(String defaultTier) {
+        this.defaultTier = defaultTier;
+    }
+
+    public Map<String, Tier> getTiers() {
+        return tiers;
+    }
+
+    public void setTiers(Map<String, Tier> tiers) {
+        this.tiers = tiers;
+    }
+
+    public Tier getOverflow() {
+        return overflow;
+    }
+
+    public void setOverflow(Tier overflow) {
+        this.overflow = overflow;
+    }
+
+    public Map<String, String> getCustomerTiers() {
+        return customerTiers;
+    }
+
+    public void setCustomerTiers(Map<String, String> customerTiers) {
+        this.customerTiers = customerTiers;
+    }
+
+    /**
+     * Rate limit applied to every customer of a tier.
+     */
+    public static class Tier {
+
+        private double requestsPerSecond = 5;
+        private int burst = 10;
+
+        public Tier() {
+        }
+
+        public Tier(double requestsPerSecond, int burst) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+        }
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.backend.config.archive;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link ArchiveProperties} bound from the {@code banking.archive} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+}
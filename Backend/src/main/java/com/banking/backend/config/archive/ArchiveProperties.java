@@ -0,0 +1,44 @@
+package com.banking.backend.config.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the cold transaction archive. The archiving schedule is read from
+ * {@code banking.archive.archive-cron}.
+ */
+@ConfigurationProperties(prefix = "banking.archive")
+public class ArchiveProperties {
+
+    /** Whether closed months are archived and old history is served from the archive. */
+    private boolean enabled = true;
+    /** Directory holding one segment file per month. */
+    private Path directory = Path.of("archive");
+    /** Uncompressed size of a compressed block; one sparse index entry is kept per block. */
+    private int blockSize = 64 * 1024;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+}
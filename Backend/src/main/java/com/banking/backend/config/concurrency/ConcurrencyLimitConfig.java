@@ -0,0 +1,12 @@
+package com.banking.backend.config.concurrency;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link ConcurrencyLimitProperties} bound from the {@code banking.concurrency-limit} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+}
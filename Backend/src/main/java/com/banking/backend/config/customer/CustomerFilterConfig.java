@@ -0,0 +1,12 @@
+package com.banking.backend.config.customer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link CustomerFilterProperties} bound from the {@code banking.customer-filter} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(CustomerFilterProperties.class)
+public class CustomerFilterConfig {
+}
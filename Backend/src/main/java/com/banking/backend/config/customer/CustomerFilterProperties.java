@@ -0,0 +1,72 @@
+package com.banking.backend.config.customer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the in-memory filter of existing customer ids. The filter starts sized for
+ * {@code expectedCustomers} and grows past it, keeping its false-positive rate below
+ * {@code falsePositiveRate}. Accounts created on other replicas are read every {@code catch-up-interval-ms}.
+ * Account ids skipped by a read are read again for {@code missingIdWindow}, up to the {@code maxMissingIds}
+ * newest, to pick up inserts that committed out of id order; the whole filter is rebuilt every
+ * {@code rebuild-interval-ms} for any slower than that.
+ */
+@ConfigurationProperties(prefix = "banking.customer-filter")
+public class CustomerFilterProperties {
+
+    private boolean enabled = true;
+    private long expectedCustomers = 1_000_000;
+    private double falsePositiveRate = 0.01;
+    private Duration missingIdWindow = Duration.ofMinutes(1);
+    private int maxMissingIds = 1_000;
+    private int fetchSize = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getExpectedCustomers() {
+        return expectedCustomers;
+    }
+
+    public void setExpectedCustomers(long expectedCustomers) {
+        this.expectedCustomers = expectedCustomers;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public Duration getMissingIdWindow() {
+        return missingIdWindow;
+    }
+
+    public void setMissingIdWindow(Duration missingIdWindow) {
+        this.missingIdWindow = missingIdWindow;
+    }
+
+    public int getMaxMissingIds() {
+        return maxMissingIds;
+    }
+
+    public void setMaxMissingIds(int maxMissingIds) {
+        this.maxMissingIds = maxMissingIds;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+}
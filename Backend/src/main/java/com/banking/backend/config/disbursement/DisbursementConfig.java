@@ -0,0 +1,12 @@
+package com.banking.backend.config.disbursement;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link DisbursementProperties} bound from the {@code banking.disbursements} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(DisbursementProperties.class)
+public class DisbursementConfig {
+}
@@ -0,0 +1,61 @@
+package com.banking.backend.config.disbursement;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for bulk disbursements. A job's lines are split by recipient into
+ * {@code workersPerJob} partitions, each worked through {@code chunkSize} lines per database
+ * transaction. At most {@code maxWorkers} partitions are worked on at once across all jobs. A running
+ * job that has committed nothing for {@code staleAfter} is taken over by the next instance to look.
+ */
+@ConfigurationProperties(prefix = "banking.disbursements")
+public class DisbursementProperties {
+
+    private int chunkSize = 500;
+    private int workersPerJob = 4;
+    private int maxWorkers = 8;
+    private int maxLines = 100_000;
+    private Duration staleAfter = Duration.ofMinutes(2);
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getWorkersPerJob() {
+        return workersPerJob;
+    }
+
+    public void setWorkersPerJob(int workersPerJob) {
+        this.workersPerJob = workersPerJob;
+    }
+
+    public int getMaxWorkers() {
+        return maxWorkers;
+    }
+
+    public void setMaxWorkers(int maxWorkers) {
+        this.maxWorkers = maxWorkers;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    public void setMaxLines(int maxLines) {
+        this.maxLines = maxLines;
+    }
+
+    public Duration getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(Duration staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.backend.config.endofday;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link EndOfDayProperties} bound from the {@code banking.end-of-day} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(EndOfDayProperties.class)
+public class EndOfDayConfig {
+}
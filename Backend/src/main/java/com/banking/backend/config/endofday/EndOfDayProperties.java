@@ -0,0 +1,99 @@
+package com.banking.backend.config.endofday;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration for the end-of-day batch run by {@code EndOfDayService}. Accounts are split into
+ * {@code partitions} id ranges when a run starts, of which {@code parallelism} are worked on at once,
+ * {@code chunkSize} account ids per database transaction. The schedule is read from
+ * {@code banking.end-of-day.cron}.
+ */
+@ConfigurationProperties(prefix = "banking.end-of-day")
+public class EndOfDayProperties {
+
+    /** Number of partitions processed concurrently; each holds one database connection. */
+    private int parallelism = 4;
+    /** Number of id ranges a run is split into. More than {@code parallelism}, so that workers finishing early pick up more. */
+    private int partitions = 32;
+    /** Width of the account id range locked and posted in one database transaction. */
+    private int chunkSize = 1_000;
+    /** Yearly interest paid on positive balances, accrued and posted daily; zero disables interest. */
+    private BigDecimal annualInterestRate = new BigDecimal("0.02");
+    /** Days in the year the annual rate is divided by. */
+    private int dayCountBasis = 365;
+    /** Monthly account fee by currency code; accounts in other currencies are not charged. */
+    private Map<String, BigDecimal> monthlyFees = new HashMap<>();
+    /** Day of the month whose end-of-day run charges the monthly fee. */
+    private int feeDayOfMonth = 1;
+    /** A run whose partitions have committed nothing for this long is resumed by the next instance to look. */
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public BigDecimal getAnnualInterestRate() {
+        return annualInterestRate;
+    }
+
+    public void setAnnualInterestRate(BigDecimal annualInterestRate) {
+        this.annualInterestRate = annualInterestRate;
+    }
+
+    public int getDayCountBasis() {
+        return dayCountBasis;
+    }
+
+    public void setDayCountBasis(int dayCountBasis) {
+        this.dayCountBasis = dayCountBasis;
+    }
+
+    public Map<String, BigDecimal> getMonthlyFees() {
+        return monthlyFees;
+    }
+
+    public void setMonthlyFees(Map<String, BigDecimal> monthlyFees) {
+        this.monthlyFees = monthlyFees;
+    }
+
+    public int getFeeDayOfMonth() {
+        return feeDayOfMonth;
+    }
+
+    public void setFeeDayOfMonth(int feeDayOfMonth) {
+        this.feeDayOfMonth = feeDayOfMonth;
+    }
+
+    public Duration getStaleAfter() {
+        return staleAfter;
+    }
+
+    public void setStaleAfter(Duration staleAfter) {
+        this.staleAfter = staleAfter;
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.backend.config.events;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link AccountEventProperties} bound from the {@code banking.account-events} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(AccountEventProperties.class)
+public class AccountEventConfig {
+}
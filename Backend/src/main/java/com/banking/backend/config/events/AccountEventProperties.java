@@ -0,0 +1,51 @@
+package com.banking.backend.config.events;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the account event streams. Each stream may fall {@code bufferSize} events behind
+ * before it is closed as a slow consumer; a node holds at most {@code maxSubscribers} streams. Streams
+ * are closed after {@code streamTimeout}, and clients reconnect.
+ */
+@ConfigurationProperties(prefix = "banking.account-events")
+public class AccountEventProperties {
+
+    private boolean enabled = true;
+    private int bufferSize = 64;
+    private int maxSubscribers = 10_000;
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getMaxSubscribers() {
+        return maxSubscribers;
+    }
+
+    public void setMaxSubscribers(int maxSubscribers) {
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+
+    public void setStreamTimeout(Duration streamTimeout) {
+        this.streamTimeout = streamTimeout;
+    }
+}
@@ -0,0 +1,23 @@
+package com.banking.backend.config.fx;
+
+import com.banking.backend.service.FileFxRateProvider;
+import com.banking.backend.service.interfaces.IFxRateProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link FxProperties} bound from the {@code banking.fx} prefix, and the file-based rate
+ * provider unless another {@link IFxRateProvider} bean is declared.
+ */
+@Configuration
+@EnableConfigurationProperties(FxProperties.class)
+public class FxConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(IFxRateProvider.class)
+    public IFxRateProvider fileFxRateProvider(FxProperties properties) {
+        return new FileFxRateProvider(properties.getRatesFile());
+    }
+}
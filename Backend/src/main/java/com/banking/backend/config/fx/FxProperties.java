@@ -0,0 +1,35 @@
+package com.banking.backend.config.fx;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+
+/**
+ * Configuration for FX rates. Rates are reloaded every {@code banking.fx.refresh-interval-ms}, well
+ * within {@code maxAge}, so transfers always find fresh rates in memory; only if the provider keeps
+ * failing for {@code maxAge} are cross-currency transfers refused.
+ */
+@ConfigurationProperties(prefix = "banking.fx")
+public class FxProperties {
+
+    /** Rate file read by the default file-based provider. */
+    private Resource ratesFile;
+    private Duration maxAge = Duration.ofMinutes(15);
+
+    public Resource getRatesFile() {
+        return ratesFile;
+    }
+
+    public void setRatesFile(Resource ratesFile) {
+        this.ratesFile = ratesFile;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.backend.config.hotaccount;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link HotAccountProperties} bound from the {@code banking.hot-accounts} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(HotAccountProperties.class)
+public class HotAccountConfig {
+}
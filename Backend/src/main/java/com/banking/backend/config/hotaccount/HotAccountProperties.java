@@ -0,0 +1,70 @@
+package com.banking.backend.config.hotaccount;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for hot-account detection. Transfer counts are kept in Count-Min sketches of
+ * {@code depth} rows by {@code width} counters, over a sliding window of {@code windows} slots of
+ * {@code windowLength} each. Memory is fixed by these settings, not by the number of accounts.
+ */
+@ConfigurationProperties(prefix = "banking.hot-accounts")
+public class HotAccountProperties {
+
+    private boolean enabled = true;
+    private int depth = 4;
+    /** Counters per row; must be a power of two. */
+    private int width = 2048;
+    private int topK = 10;
+    private int windows = 6;
+    private Duration windowLength = Duration.ofSeconds(10);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public int getWindows() {
+        return windows;
+    }
+
+    public void setWindows(int windows) {
+        this.windows = windows;
+    }
+
+    public Duration getWindowLength() {
+        return windowLength;
+    }
+
+    public void setWindowLength(Duration windowLength) {
+        this.windowLength = windowLength;
+    }
+}
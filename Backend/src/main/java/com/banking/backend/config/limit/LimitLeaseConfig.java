@@ -0,0 +1,12 @@
+package com.banking.backend.config.limit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link LimitLeaseProperties} bound from the {@code banking.limits.lease} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(LimitLeaseProperties.class)
+public class LimitLeaseConfig {
+}
@@ -0,0 +1,45 @@
+package com.banking.backend.config.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for leasing daily-limit allowance from the database. When enabled, each replica
+ * reserves up to {@code chunkSize} of a customer's remaining allowance at a time and spends it
+ * locally; allowance still unspent after {@code ttl} is returned. When disabled, every transfer
+ * reserves exactly its own amount in the database.
+ */
+@ConfigurationProperties(prefix = "banking.limits.lease")
+public class LimitLeaseProperties {
+
+    private boolean enabled = true;
+    /** Preferred size of one lease; a smaller lease covering just the transfer is taken when less is left. */
+    private long chunkSize = 50_000;
+    /** How long leased allowance is kept after the last top-up before the unspent rest is returned. */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
@@ -0,0 +1,43 @@
+package com.banking.backend.config.loadtest;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes every {@link DataSource} through a {@link DatabaseLatencyInjector} in the {@code loadtest} profile,
+ * so the LoadTest harness can slow the database down in the middle of a run.
+ */
+@Configuration
+@Profile("loadtest")
+public class DatabaseLatencyInjectionConfig {
+
+    @Bean
+    static DatabaseLatencyInjector databaseLatencyInjector() {
+        return new DatabaseLatencyInjector();
+    }
+
+    /**
+     * Static so the post-processor is registered before the data source is created.
+     */
+    @Bean
+    static BeanPostProcessor latencyInjectingDataSourcePostProcessor(ObjectProvider<DatabaseLatencyInjector> injector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(injector.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.backend.config.loadtest;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delays every SQL statement by a configurable amount before it is executed, while the statement's
+ * connection is held, so a load test can make the database behave as if it had slowed down.
+ */
+public class DatabaseLatencyInjector implements QueryExecutionListener {
+
+    private volatile long delayNanos;
+
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public void setDelay(Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("Injected database latency cannot be negative");
+        }
+        this.delayNanos = delay.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long delay = delayNanos;
+        if (delay > 0) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.backend.config.monthlytotals;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link MonthlyTotalsProperties} bound from the {@code banking.monthly-totals} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(MonthlyTotalsProperties.class)
+public class MonthlyTotalsConfig {
+}
@@ -0,0 +1,43 @@
+package com.banking.backend.config.monthlytotals;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the per-account monthly totals kept by {@code MonthlyTotalsService}. The rebuild
+ * recomputes the totals from the transaction history in account id ranges of {@code rebuildRangeSize},
+ * {@code rebuildParallelism} at a time.
+ */
+@ConfigurationProperties(prefix = "banking.monthly-totals")
+public class MonthlyTotalsProperties {
+
+    /** Number of account ranges rebuilt concurrently; each holds one database connection. */
+    private int rebuildParallelism = 4;
+    /** Width of the account id range rebuilt in one database transaction. */
+    private int rebuildRangeSize = 1_000;
+    /** Most months one request may read. */
+    private int maxMonths = 120;
+
+    public int getRebuildParallelism() {
+        return rebuildParallelism;
+    }
+
+    public void setRebuildParallelism(int rebuildParallelism) {
+        this.rebuildParallelism = rebuildParallelism;
+    }
+
+    public int getRebuildRangeSize() {
+        return rebuildRangeSize;
+    }
+
+    public void setRebuildRangeSize(int rebuildRangeSize) {
+        this.rebuildRangeSize = rebuildRangeSize;
+    }
+
+    public int getMaxMonths() {
+        return maxMonths;
+    }
+
+    public void setMaxMonths(int maxMonths) {
+        this.maxMonths = maxMonths;
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.backend.config.notification;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the configuration properties used by the notification pipeline.
+ */
+@Configuration
+@EnableConfigurationProperties({NotificationSendProperties.class, NotificationDigestProperties.class,
+        NotificationInboxProperties.class, NotificationSpoolProperties.class, NotificationReplayProperties.class})
+public class NotificationConfig {
+}
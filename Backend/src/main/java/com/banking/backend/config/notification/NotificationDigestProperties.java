@@ -0,0 +1,71 @@
+package com.banking.backend.config.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Thresholds for coalescing a busy recipient's {@code TRANSFER_IN} notifications into digests.
+ * A recipient may receive {@code burst} notifications at once and {@code ratePerMinute} after that
+ * individually; anything above that rate is merged into one digest per {@code window}.
+ */
+@ConfigurationProperties(prefix = "banking.notifications.digest")
+public class NotificationDigestProperties {
+
+    private boolean enabled = true;
+    private double ratePerMinute = 6;
+    private int burst = 3;
+    /** How long a digest stays open after its first notification. */
+    private Duration window = Duration.ofMinutes(1);
+    /** A digest is sent early once it summarises this many transfers. */
+    private int maxSize = 500;
+    private int maxTrackedRecipients = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getRatePerMinute() {
+        return ratePerMinute;
+    }
+
+    public void setRatePerMinute(double ratePerMinute) {
+        this.ratePerMinute = ratePerMinute;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public void setWindow(Duration window) {
+        this.window = window;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxTrackedRecipients() {
+        return maxTrackedRecipients;
+    }
+
+    public void setMaxTrackedRecipients(int maxTrackedRecipients) {
+        this.maxTrackedRecipients = maxTrackedRecipients;
+    }
+}
@@ -0,0 +1,71 @@
+package com.banking.backend.config.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the notification inbox. Consumed notifications are queued to {@code writers}
+ * partitions by customer, each holding up to {@code queueCapacity}, and written {@code maxBatchSize}
+ * at a time. Unread counts of up to {@code maxCachedUsers} customers are cached.
+ */
+@ConfigurationProperties(prefix = "banking.notifications.inbox")
+public class NotificationInboxProperties {
+
+    private int writers = 2;
+    private int queueCapacity = 10_000;
+    private int maxBatchSize = 500;
+    /** How long the consumer waits for a notification's batch to commit before abandoning the message. */
+    private Duration storeTimeout = Duration.ofSeconds(10);
+    /** How long a cached unread count is served before it is read again; counts changed on this node are kept current. */
+    private Duration unreadCacheTtl = Duration.ofSeconds(5);
+    private int maxCachedUsers = 100_000;
+
+    public int getWriters() {
+        return writers;
+    }
+
+    public void setWriters(int writers) {
+        this.writers = writers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getStoreTimeout() {
+        return storeTimeout;
+    }
+
+    public void setStoreTimeout(Duration storeTimeout) {
+        this.storeTimeout = storeTimeout;
+    }
+
+    public Duration getUnreadCacheTtl() {
+        return unreadCacheTtl;
+    }
+
+    public void setUnreadCacheTtl(Duration unreadCacheTtl) {
+        this.unreadCacheTtl = unreadCacheTtl;
+    }
+
+    public int getMaxCachedUsers() {
+        return maxCachedUsers;
+    }
+
+    public void setMaxCachedUsers(int maxCachedUsers) {
+        this.maxCachedUsers = maxCachedUsers;
+    }
+}
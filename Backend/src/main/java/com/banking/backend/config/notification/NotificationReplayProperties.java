@@ -0,0 +1,62 @@
+package com.banking.backend.config.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for replaying failed and dead-lettered notifications to the notification queue.
+ * {@code parallelism} workers each take up to {@code batchSize} messages at a time, and together send at
+ * most {@code ratePerSecond} notifications per second, so the consumer is not flooded. A replay may
+ * override the rate and the parallelism.
+ */
+@ConfigurationProperties(prefix = "banking.notifications.replay")
+public class NotificationReplayProperties {
+
+    private int batchSize = 100;
+    private int ratePerSecond = 2000;
+    private int parallelism = 4;
+    /** How long a worker waits for messages before it takes the source as drained. */
+    private Duration receiveTimeout = Duration.ofSeconds(5);
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(int ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Duration getReceiveTimeout() {
+        return receiveTimeout;
+    }
+
+    public void setReceiveTimeout(Duration receiveTimeout) {
+        this.receiveTimeout = receiveTimeout;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+}
@@ -0,0 +1,50 @@
+package com.banking.backend.config.notification;
+
+import com.banking.backend.enums.NotificationOverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Limits on outstanding Service Bus sends made by {@code NotificationService}.
+ */
+@ConfigurationProperties(prefix = "banking.notifications.send")
+public class NotificationSendProperties {
+
+    private int maxInFlight = 256;
+    private int maxFailedInFlight = 64;
+    private NotificationOverflowPolicy overflowPolicy = NotificationOverflowPolicy.BLOCK;
+    private Duration maxWait = Duration.ofMillis(500);
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxFailedInFlight() {
+        return maxFailedInFlight;
+    }
+
+    public void setMaxFailedInFlight(int maxFailedInFlight) {
+        this.maxFailedInFlight = maxFailedInFlight;
+    }
+
+    public NotificationOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(NotificationOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.backend.config.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration for the local disk spool that keeps notifications neither Service Bus queue accepted.
+ * The spool holds at most {@code maxSegments} files of {@code segmentSize} bytes, and is drained back
+ * to the notification queue in batches of up to {@code drainBatchSize} every {@code drainInterval}.
+ */
+@ConfigurationProperties(prefix = "banking.notifications.spool")
+public class NotificationSpoolProperties {
+
+    private boolean enabled = true;
+    /** Directory holding the segment files and the delivery cursor. */
+    private Path directory = Path.of("spool");
+    private int segmentSize = 64 * 1024 * 1024;
+    private int maxSegments = 16;
+    /** Whether every append is written through to the disk, rather than every {@code force-interval-ms}. */
+    private boolean forceOnAppend = false;
+    private int drainBatchSize = 500;
+    private Duration drainInterval = Duration.ofSeconds(1);
+    /** How long a replayed batch may take to reach Service Bus before the drain gives up until the next interval. */
+    private Duration sendTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public void setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    public boolean isForceOnAppend() {
+        return forceOnAppend;
+    }
+
+    public void setForceOnAppend(boolean forceOnAppend) {
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    public int getDrainBatchSize() {
+        return drainBatchSize;
+    }
+
+    public void setDrainBatchSize(int drainBatchSize) {
+        this.drainBatchSize = drainBatchSize;
+    }
+
+    public Duration getDrainInterval() {
+        return drainInterval;
+    }
+
+    public void setDrainInterval(Duration drainInterval) {
+        this.drainInterval = drainInterval;
+    }
+
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+}
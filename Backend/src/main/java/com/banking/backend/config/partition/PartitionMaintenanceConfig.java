@@ -0,0 +1,12 @@
+package com.banking.backend.config.partition;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link PartitionMaintenanceProperties} bound from the {@code banking.partitions} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(PartitionMaintenanceProperties.class)
+public class PartitionMaintenanceConfig {
+}
@@ -0,0 +1,52 @@
+package com.banking.backend.config.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Retention policy for the monthly partitions of the {@code transaction} table. The maintenance
+ * schedule is read from {@code banking.partitions.maintenance-cron}.
+ */
+@ConfigurationProperties(prefix = "banking.partitions")
+public class PartitionMaintenanceProperties {
+
+    /** Whether partitions are maintained at all. Only has an effect on PostgreSQL. */
+    private boolean enabled = true;
+    /** Number of future months that must always have a partition. */
+    private int monthsAhead = 3;
+    /** Number of months, including the current one, kept attached; older partitions are detached. */
+    private int retentionMonths = 84;
+    /** Whether detached partitions are dropped. When false they are left as standalone tables for archiving. */
+    private boolean dropDetached = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMonthsAhead() {
+        return monthsAhead;
+    }
+
+    public void setMonthsAhead(int monthsAhead) {
+        this.monthsAhead = monthsAhead;
+    }
+
+    public int getRetentionMonths() {
+        return retentionMonths;
+    }
+
+    public void setRetentionMonths(int retentionMonths) {
+        this.retentionMonths = retentionMonths;
+    }
+
+    public boolean isDropDetached() {
+        return dropDetached;
+    }
+
+    public void setDropDetached(boolean dropDetached) {
+        this.dropDetached = dropDetached;
+    }
+}
@@ -0,0 +1,12 @@
+package com.banking.backend.config.reconciliation;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link ReconciliationProperties} bound from the {@code banking.reconciliation} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(ReconciliationProperties.class)
+public class ReconciliationConfig {
+}
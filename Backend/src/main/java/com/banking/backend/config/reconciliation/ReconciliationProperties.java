@@ -0,0 +1,55 @@
+package com.banking.backend.config.reconciliation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the ledger reconciliation job run by {@code ReconciliationService}.
+ * The schedules themselves are read from {@code banking.reconciliation.full-cron} and
+ * {@code banking.reconciliation.incremental-cron}.
+ */
+@ConfigurationProperties(prefix = "banking.reconciliation")
+public class ReconciliationProperties {
+
+    /** Number of account ranges reconciled concurrently; each holds one database connection. */
+    private int parallelism = 4;
+    /** Width of the account id range (or number of ids in incremental runs) handled by one task. */
+    private int rangeSize = 10_000;
+    /** JDBC fetch size used when streaming transactions. */
+    private int fetchSize = 5_000;
+    /** How far incremental runs look back before the previous run started, to cover transactions still committing then. */
+    private Duration incrementalOverlap = Duration.ofMinutes(5);
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getRangeSize() {
+        return rangeSize;
+    }
+
+    public void setRangeSize(int rangeSize) {
+        this.rangeSize = rangeSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public Duration getIncrementalOverlap() {
+        return incrementalOverlap;
+    }
+
+    public void setIncrementalOverlap(Duration incrementalOverlap) {
+        this.incrementalOverlap = incrementalOverlap;
+    }
+}
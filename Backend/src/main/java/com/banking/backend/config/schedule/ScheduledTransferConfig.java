@@ -0,0 +1,12 @@
+package com.banking.backend.config.schedule;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link ScheduledTransferProperties} bound from the {@code banking.scheduled-transfers} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(ScheduledTransferProperties.class)
+public class ScheduledTransferConfig {
+}
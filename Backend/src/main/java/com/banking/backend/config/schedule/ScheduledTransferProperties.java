@@ -0,0 +1,101 @@
+package com.banking.backend.config.schedule;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for executing scheduled transfers. Schedules due within {@code horizon} are held in an
+ * in-memory timing wheel of {@code levels} levels of {@code wheelSize} slots, ticking every
+ * {@code tick-interval-ms}; the rest stay in the database until the horizon reaches them. Due schedules
+ * are executed in batches of {@code batchSize}, at most {@code parallelism} batches at a time.
+ */
+@ConfigurationProperties(prefix = "banking.scheduled-transfers")
+public class ScheduledTransferProperties {
+
+    private boolean enabled = true;
+    /** Resolution of the timing wheel; a schedule runs at most this long after its due time. */
+    private long tickIntervalMs = 1_000;
+    private int wheelSize = 64;
+    private int levels = 3;
+    /** How far ahead schedules are loaded into memory. */
+    private Duration horizon = Duration.ofHours(1);
+    private int batchSize = 100;
+    private int parallelism = 4;
+    /** Rows fetched per round trip while loading the horizon. */
+    private int fetchSize = 5_000;
+    /** How long to wait before retrying a schedule that could not be executed for reasons other than the transfer itself. */
+    private Duration retryDelay = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getTickIntervalMs() {
+        return tickIntervalMs;
+    }
+
+    public void setTickIntervalMs(long tickIntervalMs) {
+        this.tickIntervalMs = tickIntervalMs;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public void setLevels(int levels) {
+        this.levels = levels;
+    }
+
+    public Duration getHorizon() {
+        return horizon;
+    }
+
+    public void setHorizon(Duration horizon) {
+        this.horizon = horizon;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+}
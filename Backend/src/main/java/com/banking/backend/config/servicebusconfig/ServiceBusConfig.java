@@ -2,6 +2,7 @@ package com.banking.backend.config.servicebusconfig;
 
 import com.azure.messaging.servicebus.*;
 import com.azure.messaging.servicebus.ServiceBusClientBuilder.ServiceBusProcessorClientBuilder;
+import com.azure.messaging.servicebus.models.SubQueue;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -9,7 +10,12 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+/**
+ * Service Bus client beans. All clients are {@link Lazy}, so they are only built when first used
+ * rather than during context refresh, which keeps connection setup off the startup path.
+ */
 @Configuration
 public class ServiceBusConfig {
 
@@ -22,12 +28,20 @@ public class ServiceBusConfig {
     @Value("${azure.servicebus.failed-transactions-queue}")
     private  String failedTransactionQueueName;
 
+    // Messages handled at once; each waits for its inbox batch to commit, so this is also the largest batch the consumer can fill.
+    @Value("${azure.servicebus.processor.max-concurrent-calls:64}")
+    private int maxConcurrentCalls;
+
+    @Value("${azure.servicebus.processor.prefetch-count:128}")
+    private int prefetchCount;
+
     /**
      * Configures and provides an asynchronous Service Bus sender client for the primary queue.
      * This client is used to send messages to the main Service Bus queue.
      * @return A ServiceBusSenderAsyncClient instance.
      */
     @Bean
+    @Lazy
     public ServiceBusSenderAsyncClient serviceBusSenderAsyncClient() {
         return new ServiceBusClientBuilder()
                 .connectionString(connectionString)
@@ -40,9 +54,11 @@ public class ServiceBusConfig {
      * Configures and provides an asynchronous Service Bus receiver client for the primary queue.
      * This client is used for manual (peek-lock) message reception from the main queue,
      * allowing explicit settlement (complete, abandon, dead-letter) of messages.
+     * Nothing injects this client today, so being lazy means it is never built.
      * @return A ServiceBusReceiverAsyncClient instance.
      */
     @Bean
+    @Lazy
     public ServiceBusReceiverAsyncClient serviceBusReceiverAsyncClient() {
         return new ServiceBusClientBuilder()
                 .connectionString(connectionString)
@@ -55,15 +71,18 @@ public class ServiceBusConfig {
     /**
      * Provides a builder for configuring a Service Bus processor client for the primary queue.
      * This builder is used to set up a push-based message processing mechanism, typically with
-     * defined message and error handlers.
+     * defined message and error handlers. Messages are handled {@code maxConcurrentCalls} at a time.
      * @return A ServiceBusProcessorClientBuilder instance.
      */
     @Bean
+    @Lazy
     public ServiceBusProcessorClientBuilder serviceBusProcessorClientBuilder() {
         return new ServiceBusClientBuilder()
                 .connectionString(connectionString)
                 .processor()
-                .queueName(queueName);
+                .queueName(queueName)
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .prefetchCount(prefetchCount);
     }
 
     /**
@@ -74,6 +93,7 @@ public class ServiceBusConfig {
      * @return A ServiceBusSenderAsyncClient instance for the DLQ.
      */
     @Bean
+    @Lazy
     public ServiceBusSenderAsyncClient failedNotificationSenderAsyncClient(@Value("${azure.servicebus.failed-transactions-queue}")String failedTransactionQueueName){
         return new ServiceBusClientBuilder()
                 .connectionString(connectionString)
@@ -82,6 +102,39 @@ public class ServiceBusConfig {
                 .buildAsyncClient();
     }
 
+    /**
+     * Provides a synchronous receiver for the failed-notifications queue, from which failed notifications
+     * are replayed to the primary queue. Messages are received in peek-lock mode and settled explicitly.
+     * @return A ServiceBusReceiverClient instance for the failed-notifications queue.
+     */
+    @Bean
+    @Lazy
+    public ServiceBusReceiverClient failedNotificationReceiverClient() {
+        return new ServiceBusClientBuilder()
+                .connectionString(connectionString)
+                .receiver()
+                .queueName(failedTransactionQueueName)
+                .disableAutoComplete()
+                .buildClient();
+    }
+
+    /**
+     * Provides a synchronous receiver for the dead-letter subqueue of the primary queue, holding the messages
+     * the notification consumer dead-lettered. Messages are received in peek-lock mode and settled explicitly.
+     * @return A ServiceBusReceiverClient instance for the primary queue's dead-letter subqueue.
+     */
+    @Bean
+    @Lazy
+    public ServiceBusReceiverClient deadLetterReceiverClient() {
+        return new ServiceBusClientBuilder()
+                .connectionString(connectionString)
+                .receiver()
+                .queueName(queueName)
+                .subQueue(SubQueue.DEAD_LETTER_QUEUE)
+                .disableAutoComplete()
+                .buildClient();
+    }
+
     /**
      * Configures and provides an ObjectMapper bean for JSON serialization and deserialization.
      * It registers the JavaTimeModule to correctly handle Java 8 Date and Time API types
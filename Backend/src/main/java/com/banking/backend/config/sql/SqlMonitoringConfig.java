@@ -0,0 +1,64 @@
+package com.banking.backend.config.sql;
+
+import com.banking.backend.util.SqlScope;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Registers the {@link SqlMonitoringProperties} bound from the {@code banking.sql.monitoring} prefix and
+ * routes every {@link DataSource} through a datasource-proxy that reports executed statements to the
+ * calling thread's {@link SqlScope}s.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlMonitoringProperties.class)
+public class SqlMonitoringConfig {
+
+    /**
+     * Static so the post-processor is registered before the data source is created.
+     */
+    @Bean
+    static BeanPostProcessor sqlCountingDataSourcePostProcessor(ObjectProvider<SqlMonitoringProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !properties.getObject().isEnabled()) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new StatementCountingListener())
+                        .build();
+            }
+        };
+    }
+
+    /**
+     * Times each execution itself, since datasource-proxy only reports elapsed time in whole milliseconds.
+     */
+    static class StatementCountingListener implements QueryExecutionListener {
+
+        private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            startedAt.set(System.nanoTime());
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            Long started = startedAt.get();
+            startedAt.remove();
+            SqlScope.recordStatement(started == null ? 0 : System.nanoTime() - started);
+        }
+    }
+}
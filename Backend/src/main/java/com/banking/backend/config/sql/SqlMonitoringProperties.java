@@ -0,0 +1,42 @@
+package com.banking.backend.config.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for per-request and per-service-method SQL statement counting. A warning is logged when
+ * an HTTP request, or a service method called outside of one, runs more than {@code warnStatements}
+ * statements or spends longer than {@code warnJdbcTime} in JDBC.
+ */
+@ConfigurationProperties(prefix = "banking.sql.monitoring")
+public class SqlMonitoringProperties {
+
+    private boolean enabled = true;
+    private int warnStatements = 25;
+    private Duration warnJdbcTime = Duration.ofMillis(250);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWarnStatements() {
+        return warnStatements;
+    }
+
+    public void setWarnStatements(int warnStatements) {
+        this.warnStatements = warnStatements;
+    }
+
+    public Duration getWarnJdbcTime() {
+        return warnJdbcTime;
+    }
+
+    public void setWarnJdbcTime(Duration warnJdbcTime) {
+        this.warnJdbcTime = warnJdbcTime;
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.backend.config.sql;
+
+import com.banking.backend.util.SqlScope;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements each HTTP request runs on its own thread. Requests are tagged with the
+ * matched route pattern rather than the raw path, so customer ids never become metric tags.
+ */
+@Component
+public class SqlRequestMetricsFilter extends OncePerRequestFilter {
+
+    private final SqlMonitoringProperties properties;
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    public SqlRequestMetricsFilter(SqlMonitoringProperties properties, SqlStatementMetrics sqlStatementMetrics) {
+        this.properties = properties;
+        this.sqlStatementMetrics = sqlStatementMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (SqlScope scope = SqlScope.open(request.getMethod() + " " + request.getRequestURI())) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                sqlStatementMetrics.recordRequest(request.getMethod(), pattern == null ? "UNKNOWN" : pattern.toString(), scope);
+            }
+        }
+    }
+}
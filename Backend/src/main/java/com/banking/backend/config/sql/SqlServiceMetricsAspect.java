@@ -0,0 +1,42 @@
+package com.banking.backend.config.sql;
+
+import com.banking.backend.util.SqlScope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements of every public call into a {@code @Service} bean. Calls a service makes
+ * to its own methods bypass the proxy and are counted as part of the caller. Calls that never touch
+ * the database are not published, so in-memory services do not add a series per method.
+ */
+@Aspect
+@Component
+public class SqlServiceMetricsAspect {
+
+    private final SqlMonitoringProperties properties;
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    public SqlServiceMetricsAspect(SqlMonitoringProperties properties, SqlStatementMetrics sqlStatementMetrics) {
+        this.properties = properties;
+        this.sqlStatementMetrics = sqlStatementMetrics;
+    }
+
+    @Around("within(com.banking.backend.service..*) && @within(org.springframework.stereotype.Service)")
+    public Object countStatements(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!properties.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        try (SqlScope scope = SqlScope.open(method)) {
+            try {
+                return joinPoint.proceed();
+            } finally {
+                if (scope.statements() > 0) {
+                    sqlStatementMetrics.recordMethod(method, scope);
+                }
+            }
+        }
+    }
+}
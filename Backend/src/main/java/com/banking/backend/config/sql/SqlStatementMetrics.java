@@ -0,0 +1,67 @@
+package com.banking.backend.config.sql;
+
+import com.banking.backend.util.SqlScope;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes what a finished {@link SqlScope} executed, and warns about scopes that ran too many
+ * statements or spent too long in JDBC. Only outermost scopes are checked against the thresholds,
+ * so one slow request is reported once rather than once per service method it called.
+ */
+@Component
+public class SqlStatementMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementMetrics.class);
+
+    private final SqlMonitoringProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetrics(SqlMonitoringProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordRequest(String httpMethod, String uri, SqlScope scope) {
+        DistributionSummary.builder("banking.sql.request.statements")
+                .description("SQL statements executed per HTTP request")
+                .tags("method", httpMethod, "uri", uri)
+                .register(meterRegistry)
+                .record(scope.statements());
+        Timer.builder("banking.sql.request.time")
+                .description("Time spent in JDBC per HTTP request")
+                .tags("method", httpMethod, "uri", uri)
+                .register(meterRegistry)
+                .record(scope.jdbcTime());
+        warnIfExpensive(scope);
+    }
+
+    public void recordMethod(String method, SqlScope scope) {
+        DistributionSummary.builder("banking.sql.method.statements")
+                .description("SQL statements executed per service method call that used the database")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(scope.statements());
+        Timer.builder("banking.sql.method.time")
+                .description("Time spent in JDBC per service method call that used the database")
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(scope.jdbcTime());
+        warnIfExpensive(scope);
+    }
+
+    private void warnIfExpensive(SqlScope scope) {
+        if (!scope.isOutermost()) {
+            return;
+        }
+        if (scope.statements() > properties.getWarnStatements()
+                || scope.jdbcTime().compareTo(properties.getWarnJdbcTime()) > 0) {
+            log.warn("{} ran {} SQL statements taking {} ms in JDBC", scope.name(), scope.statements(),
+                    scope.jdbcTime().toMillis());
+        }
+    }
+}
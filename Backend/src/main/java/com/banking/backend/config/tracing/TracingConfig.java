@@ -0,0 +1,19 @@
+package com.banking.backend.config.tracing;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Carries the current trace into {@code @Async} methods, so that a transfer's notifications are sent,
+ * and traced, as part of the transfer's trace. Spring Boot applies the decorator to the application
+ * task executor; tracing itself, and export of spans over OTLP, are configured under {@code management}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
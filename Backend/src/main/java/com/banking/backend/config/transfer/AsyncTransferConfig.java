@@ -0,0 +1,12 @@
+package com.banking.backend.config.transfer;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link AsyncTransferProperties} bound from the {@code banking.transfers.async} prefix.
+ */
+@Configuration
+@EnableConfigurationProperties(AsyncTransferProperties.class)
+public class AsyncTransferConfig {
+}
@@ -0,0 +1,80 @@
+package com.banking.backend.config.transfer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration for asynchronously accepted transfers. Transfers are routed by sender into
+ * {@code partitions} queues of at most {@code queueCapacity} entries; each queue's worker commits
+ * up to {@code maxBatchSize} transfers per database transaction.
+ */
+@ConfigurationProperties(prefix = "banking.transfers.async")
+public class AsyncTransferProperties {
+
+    private boolean enabled = true;
+    private int partitions = 8;
+    private int queueCapacity = 10_000;
+    private int maxBatchSize = 100;
+    /** How long the outcome of a finished transfer stays available to the status endpoint. */
+    private Duration statusTtl = Duration.ofMinutes(10);
+    private int maxTrackedTransfers = 200_000;
+    /** How long shutdown waits for queued transfers to be applied. */
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getStatusTtl() {
+        return statusTtl;
+    }
+
+    public void setStatusTtl(Duration statusTtl) {
+        this.statusTtl = statusTtl;
+    }
+
+    public int getMaxTrackedTransfers() {
+        return maxTrackedTransfers;
+    }
+
+    public void setMaxTrackedTransfers(int maxTrackedTransfers) {
+        this.maxTrackedTransfers = maxTrackedTransfers;
+    }
+
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    public void setDrainTimeout(Duration drainTimeout) {
+        this.drainTimeout = drainTimeout;
+    }
+}
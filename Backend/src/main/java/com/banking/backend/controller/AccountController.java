@@ -0,0 +1,202 @@
+package com.banking.backend.controller;
+
+import com.banking.backend.GlobalExceptationHandlers.GlobalExceptionHandler;
+import com.banking.backend.dto.AccountEventDTO;
+import com.banking.backend.dto.BalanceAsOfDTO;
+import com.banking.backend.dto.BalanceReportRequestDTO;
+import com.banking.backend.dto.MonthlyTotalDTO;
+import com.banking.backend.dto.TransactionHistoryDTO;
+import com.banking.backend.service.interfaces.IAccountEventService;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import com.banking.backend.service.interfaces.ITransactionHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * REST Controller for reading account data.
+ */
+@Tag(name = "Account API",
+description = "REST APIs for reading account data such as transaction history, past balances and monthly totals, and streaming its updates")
+@RestController
+@RequestMapping("/api/accounts")
+public class AccountController {
+
+    private final ITransactionHistoryService transactionHistoryService;
+    private final IAccountEventService accountEventService;
+    private final IMonthlyTotalsService monthlyTotalsService;
+
+    public AccountController(ITransactionHistoryService transactionHistoryService,
+                             IAccountEventService accountEventService,
+                             IMonthlyTotalsService monthlyTotalsService) {
+        this.transactionHistoryService = transactionHistoryService;
+        this.accountEventService = accountEventService;
+        this.monthlyTotalsService = monthlyTotalsService;
+    }
+
+    /**
+     * Returns an account's transactions within a time range, newest first.
+     * @param customerId The customer whose history is read.
+     * @param from Inclusive ISO-8601 lower bound; defaults to 30 days before {@code to}.
+     * @param to Exclusive ISO-8601 upper bound; defaults to now.
+     * @param limit Maximum number of entries (1-1000, default 100).
+     * @return A ResponseEntity with the transactions.
+     * - 200 OK : History returned.
+     * - 400 BAD REQUEST : Unknown account, invalid range or limit.
+     */
+    @GetMapping("/{customerId}/transactions")
+    @Operation(method = "GET", summary = "Get transaction history",
+    description = "Returns the account's transactions in [from, to), newest first. The range may span at most 366 days")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transaction history returned",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TransactionHistoryDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account not found, invalid time range or limit",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<List<TransactionHistoryDTO>> getTransactionHistory(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(transactionHistoryService.getHistory(customerId, from, to, limit));
+    }
+
+    /**
+     * Returns an account's balance at a point in time, for disputes and audits.
+     * @param customerId The customer whose balance is read.
+     * @param asOf ISO-8601 instant; defaults to now.
+     * @return A ResponseEntity with the balance after the account's last transaction at or before {@code asOf}.
+     * - 200 OK : Balance returned.
+     * - 400 BAD REQUEST : Unknown account.
+     */
+    @GetMapping("/{customerId}/balance")
+    @Operation(method = "GET", summary = "Get the balance at a point in time",
+    description = "Returns the balance after the account's last transaction at or before 'asOf'")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Balance returned",
+                    content = @Content(schema = @Schema(implementation = BalanceAsOfDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account not found",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<BalanceAsOfDTO> getBalanceAsOf(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(transactionHistoryService.getBalanceAsOf(customerId, asOf));
+    }
+
+    /**
+     * Returns the balances of many accounts at the same point in time, such as for a month-end report.
+     * @param request Up to 10,000 customer IDs and the instant.
+     * @return A ResponseEntity with one balance per customer, in the order requested.
+     * - 200 OK : Balances returned.
+     * - 400 BAD REQUEST : Unknown account, missing instant or too many accounts.
+     */
+    @PostMapping("/balances")
+    @Operation(method = "POST", summary = "Get balances at a point in time",
+    description = "Returns each account's balance at 'asOf'. At most 10,000 accounts per request")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Balances returned",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = BalanceAsOfDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account not found, missing instant or too many accounts",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<List<BalanceAsOfDTO>> getBalancesAsOf(@Valid @RequestBody BalanceReportRequestDTO request) {
+        return ResponseEntity.ok(transactionHistoryService.getBalancesAsOf(request.getCustomerIds(), request.getAsOf()));
+    }
+
+    /**
+     * Returns an account's totals per month and transaction type, for spending analytics.
+     * @param customerId The customer whose totals are read.
+     * @param to The last month, as yyyy-MM; defaults to the current month.
+     * @param months Number of months up to and including {@code to} (1-120, default 24).
+     * @return A ResponseEntity with one total per month and type that has transactions, oldest month first.
+     * - 200 OK : Totals returned.
+     * - 400 BAD REQUEST : Unknown account or invalid number of months.
+     */
+    @GetMapping("/{customerId}/monthly-totals")
+    @Operation(method = "GET", summary = "Get monthly totals",
+    description = "Returns the sum and count of the account's transactions per month and type. Debits are negative; months without transactions are left out")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Monthly totals returned",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = MonthlyTotalDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account not found or invalid number of months",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<List<MonthlyTotalDTO>> getMonthlyTotals(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) Integer months) {
+        return ResponseEntity.ok(monthlyTotalsService.getMonthlyTotals(customerId, to, months));
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the account's new transactions, each with the balance after it.
+     * Entries are sent once committed, as {@code transaction} events whose id is the ledger entry id.
+     * A client that falls behind is disconnected; after reconnecting it reads what it missed from the history.
+     * - 200 OK : Stream opened.
+     * - 400 BAD REQUEST : Unknown account.
+     * - 503 SERVICE UNAVAILABLE : This node holds its maximum of streams; retry after the Retry-After delay.
+     */
+    @GetMapping(value = "/{customerId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(method = "GET", summary = "Stream account updates",
+    description = "Pushes each committed transaction of the account, with the balance after it, as a Server-Sent Event")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream of transaction events",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = AccountEventDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account not found",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many streams on this node, retry after the Retry-After delay",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public SseEmitter streamEvents(@PathVariable String customerId) {
+        return accountEventService.subscribe(customerId);
+    }
+}
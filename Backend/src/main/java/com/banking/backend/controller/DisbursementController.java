@@ -0,0 +1,162 @@
+package com.banking.backend.controller;
+
+import com.banking.backend.GlobalExceptationHandlers.GlobalExceptionHandler;
+import com.banking.backend.dto.DisbursementJobDTO;
+import com.banking.backend.dto.DisbursementLineDTO;
+import com.banking.backend.dto.DisbursementRequestDTO;
+import com.banking.backend.service.interfaces.IAdmissionControlService;
+import com.banking.backend.service.interfaces.IDisbursementService;
+import com.banking.backend.util.DisbursementFileParser;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST Controller for bulk disbursements such as payroll.
+ */
+@Tag(name = "Disbursement API",
+description = "REST APIs for paying many recipients from one account in a single job")
+@RestController
+@RequestMapping("/api/disbursements")
+public class DisbursementController {
+
+    private final IDisbursementService disbursementService;
+    private final IAdmissionControlService admissionControlService;
+
+    public DisbursementController(IDisbursementService disbursementService,
+                                  IAdmissionControlService admissionControlService) {
+        this.disbursementService = disbursementService;
+        this.admissionControlService = admissionControlService;
+    }
+
+    /**
+     * Starts a disbursement. The total is debited from the sender before this returns; recipients are
+     * credited in the background.
+     * @param request The sender and one line per recipient.
+     * @return A ResponseEntity with the job, to be followed at its Location.
+     * - 202 ACCEPTED : Job stored and started.
+     * - 400 BAD REQUEST : Invalid request (unknown sender, insufficient balance, invalid line).
+     * - 429 TOO MANY REQUESTS : The sender has exceeded its admission rate; retry after the Retry-After delay.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(method = "POST", summary = "Start a disbursement",
+    description = "Debits the total from fromUserId and credits each line's toUserId in the background")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Disbursement started",
+                    content = @Content(schema = @Schema(implementation = DisbursementJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid disbursement",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests from this sender, retry after the Retry-After delay",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<DisbursementJobDTO> create(@Valid @RequestBody DisbursementRequestDTO request) {
+        admissionControlService.admitTransfer(request.getFromUserId());
+        return accepted(disbursementService.create(request));
+    }
+
+    /**
+     * Starts a disbursement from an uploaded CSV file with one {@code toUserId,amount} line per recipient.
+     * - 202 ACCEPTED : Job stored and started.
+     * - 400 BAD REQUEST : Malformed file or invalid request.
+     * - 429 TOO MANY REQUESTS : The sender has exceeded its admission rate; retry after the Retry-After delay.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(method = "POST", summary = "Start a disbursement from a CSV file",
+    description = "Each line of the file holds toUserId,amount; blank lines, # comments and a header line are skipped")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Disbursement started",
+                    content = @Content(schema = @Schema(implementation = DisbursementJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Malformed file or invalid disbursement",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<DisbursementJobDTO> upload(@RequestParam String fromUserId,
+                                                     @RequestParam(required = false) String description,
+                                                     @RequestParam MultipartFile file) throws IOException {
+        admissionControlService.admitTransfer(fromUserId);
+        DisbursementRequestDTO request = new DisbursementRequestDTO();
+        request.setFromUserId(fromUserId);
+        request.setDescription(description);
+        try (InputStream input = file.getInputStream()) {
+            request.setLines(DisbursementFileParser.parse(input));
+        }
+        return accepted(disbursementService.create(request));
+    }
+
+    /**
+     * Returns a job with its progress: lines and amount completed, lines failed and amount refunded.
+     * - 200 OK : Job returned.
+     * - 404 NOT FOUND : Unknown job id.
+     */
+    @GetMapping("/{id}")
+    @Operation(method = "GET", summary = "Get a disbursement and its progress")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Disbursement returned",
+                    content = @Content(schema = @Schema(implementation = DisbursementJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Unknown disbursement id",
+                    content = @Content(schema = @Schema(implementation = void.class))
+            )
+    })
+    public ResponseEntity<DisbursementJobDTO> get(@PathVariable long id) {
+        return disbursementService.get(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Returns a page of the job's failed lines with their reasons, in line order.
+     * @param afterLine The last line number of the previous page, 0 for the first page.
+     * @param limit The page size, at most 1000.
+     * - 200 OK : Failed lines returned; an empty list once there are no more.
+     * - 404 NOT FOUND : Unknown job id.
+     */
+    @GetMapping("/{id}/failures")
+    @Operation(method = "GET", summary = "List the failed lines of a disbursement")
+    public ResponseEntity<List<DisbursementLineDTO>> failures(@PathVariable long id,
+                                                              @RequestParam(defaultValue = "0") int afterLine,
+                                                              @RequestParam(defaultValue = "100") int limit) {
+        if (disbursementService.get(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return ResponseEntity.ok(disbursementService.getFailures(id, afterLine, limit));
+    }
+
+    private static ResponseEntity<DisbursementJobDTO> accepted(DisbursementJobDTO job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/disbursements/" + job.getId()))
+                .body(job);
+    }
+}
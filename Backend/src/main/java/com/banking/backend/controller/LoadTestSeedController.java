@@ -0,0 +1,64 @@
+package com.banking.backend.controller;
+
+import com.banking.backend.config.loadtest.DatabaseLatencyInjector;
+import com.banking.backend.dto.AccountSeedRequestDTO;
+import com.banking.backend.service.AccountSeedService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * REST Controller used by the load-generation harness to seed synthetic accounts and to slow the database down.
+ * Only registered when the {@code loadtest} profile is active, so it is never exposed in production.
+ */
+@Tag(name = "Load Test Support API",
+description = "Seeds synthetic accounts and injects database latency for load testing. Only available in the loadtest profile")
+@RestController
+@RequestMapping("/api/loadtest")
+@Profile("loadtest")
+public class LoadTestSeedController {
+
+    private final AccountSeedService accountSeedService;
+    private final DatabaseLatencyInjector databaseLatencyInjector;
+
+    public LoadTestSeedController(AccountSeedService accountSeedService, DatabaseLatencyInjector databaseLatencyInjector) {
+        this.accountSeedService = accountSeedService;
+        this.databaseLatencyInjector = databaseLatencyInjector;
+    }
+
+    /**
+     * Creates {@code count} accounts with customer IDs derived from the given prefix.
+     * @param request The seeding parameters.
+     * @return The number of accounts created.
+     */
+    @PostMapping("/accounts")
+    @Operation(method = "POST", summary = "Seed synthetic accounts",
+    description = "Creates accounts for load testing, skipping customer IDs that already exist")
+    public ResponseEntity<Map<String, Integer>> seedAccounts(@Valid @RequestBody AccountSeedRequestDTO request) {
+        return ResponseEntity.ok(Map.of("created", accountSeedService.seedAccounts(request)));
+    }
+
+    /**
+     * Delays every SQL statement by the given number of milliseconds, or stops delaying them with zero.
+     * @param millis The latency to add to each statement.
+     * @return The latency now injected.
+     */
+    @PutMapping("/db-latency")
+    @Operation(method = "PUT", summary = "Inject database latency",
+    description = "Delays every SQL statement while its connection is held, simulating a slow database")
+    public ResponseEntity<Map<String, Long>> setDatabaseLatency(@RequestParam long millis) {
+        databaseLatencyInjector.setDelay(Duration.ofMillis(millis));
+        return ResponseEntity.ok(Map.of("millis", databaseLatencyInjector.getDelay().toMillis()));
+    }
+}
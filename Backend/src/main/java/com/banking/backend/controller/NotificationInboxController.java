@@ -0,0 +1,83 @@
+package com.banking.backend.controller;
+
+import com.banking.backend.GlobalExceptationHandlers.GlobalExceptionHandler;
+import com.banking.backend.dto.InboxPageDTO;
+import com.banking.backend.service.interfaces.INotificationInboxService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST Controller for reading a customer's notification inbox.
+ */
+@Tag(name = "Notification Inbox API",
+description = "REST APIs for reading past notifications and their unread count")
+@RestController
+@RequestMapping("/api/users/{userId}/notifications")
+public class NotificationInboxController {
+
+    private final INotificationInboxService notificationInboxService;
+
+    public NotificationInboxController(INotificationInboxService notificationInboxService) {
+        this.notificationInboxService = notificationInboxService;
+    }
+
+    /**
+     * Returns a page of the customer's notifications, newest first, with the unread count.
+     * @param userId The customer whose inbox is read.
+     * @param before The {@code nextBefore} of the previous page; omitted for the newest page.
+     * @param limit Maximum number of notifications (1-100, default 20).
+     * @return A ResponseEntity with the page.
+     * - 200 OK : Page returned; {@code nextBefore} is null on the last page.
+     * - 400 BAD REQUEST : Unknown account or invalid limit.
+     */
+    @GetMapping
+    @Operation(method = "GET", summary = "Get notifications",
+    description = "Returns the customer's notifications with an id below 'before', newest first, and the unread count")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Notifications returned",
+                    content = @Content(schema = @Schema(implementation = InboxPageDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Account not found or invalid limit",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<InboxPageDTO> getNotifications(@PathVariable String userId,
+                                                         @RequestParam(required = false) Long before,
+                                                         @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(notificationInboxService.getInbox(userId, before, limit));
+    }
+
+    /**
+     * Returns the number of the customer's unread notifications, for the badge. Served from a cache.
+     * - 200 OK : Count returned.
+     */
+    @GetMapping("/unread-count")
+    @Operation(method = "GET", summary = "Get the unread notification count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable String userId) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationInboxService.getUnreadCount(userId)));
+    }
+
+    /**
+     * Marks the customer's notifications up to and including {@code upTo} read, or all of them.
+     * - 200 OK : Notifications marked; the unread count afterwards is returned.
+     */
+    @PostMapping("/read")
+    @Operation(method = "POST", summary = "Mark notifications read",
+    description = "Marks every notification with an id up to 'upTo' read; all of them if 'upTo' is omitted")
+    public ResponseEntity<Map<String, Long>> markRead(@PathVariable String userId,
+                                                      @RequestParam(required = false) Long upTo) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationInboxService.markRead(userId, upTo)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.banking.backend.controller;
+
+import com.banking.backend.GlobalExceptationHandlers.GlobalExceptionHandler;
+import com.banking.backend.dto.ScheduledTransferDTO;
+import com.banking.backend.dto.ScheduledTransferRequestDTO;
+import com.banking.backend.service.interfaces.IAdmissionControlService;
+import com.banking.backend.service.interfaces.IScheduledTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+/**
+ * REST Controller for future-dated and recurring transfers.
+ */
+@Tag(name = "Scheduled Transfer API",
+description = "REST APIs for scheduling future-dated and recurring transfers")
+@RestController
+@RequestMapping("/api/scheduled-transfers")
+public class ScheduledTransferController {
+
+    private final IScheduledTransferService scheduledTransferService;
+    private final IAdmissionControlService admissionControlService;
+
+    public ScheduledTransferController(IScheduledTransferService scheduledTransferService,
+                                       IAdmissionControlService admissionControlService) {
+        this.scheduledTransferService = scheduledTransferService;
+        this.admissionControlService = admissionControlService;
+    }
+
+    /**
+     * Schedules a transfer. Accounts, balance and daily limit are checked when each occurrence runs.
+     * @param request The transfer, its start time and how often it repeats.
+     * @return A ResponseEntity with the stored schedule.
+     * - 201 CREATED : Schedule stored.
+     * - 400 BAD REQUEST : Invalid request (same account, end before start, validation failure).
+     * - 429 TOO MANY REQUESTS : The sender has exceeded its admission rate; retry after the Retry-After delay.
+     */
+    @PostMapping
+    @Operation(method = "POST", summary = "Schedule a transfer",
+    description = "Schedules a transfer to run once at startAt, or DAILY, WEEKLY or MONTHLY from startAt until endAt")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Transfer scheduled",
+                    content = @Content(schema = @Schema(implementation = ScheduledTransferDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Invalid schedule",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many requests from this sender, retry after the Retry-After delay",
+                    content = @Content(schema = @Schema(implementation = GlobalExceptionHandler.class))
+            )
+    })
+    public ResponseEntity<ScheduledTransferDTO> schedule(@Valid @RequestBody ScheduledTransferRequestDTO request) {
+        admissionControlService.admitTransfer(request.getFromUserId());
+        ScheduledTransferDTO schedule = scheduledTransferService.create(request);
+        return ResponseEntity.created(URI.create("/api/scheduled-transfers/" + schedule.getId())).body(schedule);
+    }
+
+    /**
+     * Returns a schedule with its next run and the outcome of its last one.
+     * - 200 OK : Schedule returned.
+     * - 404 NOT FOUND : Unknown schedule id.
+     */
+    @GetMapping("/{id}")
+    @Operation(method = "GET", summary = "Get a scheduled transfer")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Schedule returned",
+                    content = @Content(schema = @Schema(implementation = ScheduledTransferDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Unknown schedule id",
+                    content = @Content(schema = @Schema(implementation = void.class))
+            )
+    })
+    public ResponseEntity<ScheduledTransferDTO> get(@PathVariable long id) {
+        return scheduledTransferService.get(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Cancels a schedule. Cancelling a schedule that is no longer active returns it unchanged.
+     * - 200 OK : Schedule returned with its status after cancelling.
+     * - 404 NOT FOUND : Unknown schedule id.
+     */
+    @DeleteMapping("/{id}")
+    @Operation(method = "DELETE", summary = "Cancel a scheduled transfer")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Schedule cancelled",
+                    content = @Content(schema = @Schema(implementation = ScheduledTransferDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Unknown schedule id",
+                    content = @Content(schema = @Schema(implementation = void.class))
+            )
+    })
+    public ResponseEntity<ScheduledTransferDTO> cancel(@PathVariable long id) {
+        return scheduledTransferService.cancel(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+}
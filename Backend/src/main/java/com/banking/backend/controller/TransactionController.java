@@ -2,7 +2,11 @@ package com.banking.backend.controller;
 
 import com.banking.backend.GlobalExceptationHandlers.GlobalExceptionHandler;
 import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.dto.TransferStatusDTO;
 import com.banking.backend.service.TransactionService;
+import com.banking.backend.service.interfaces.IAdmissionControlService;
+import com.banking.backend.service.interfaces.IAsyncTransferService;
+import com.banking.backend.service.interfaces.IConcurrencyLimitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,9 +16,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 /**
  * REST Controller for managing financial transactions.
  * This class handles incoming HTTP requests related to fund transfers
@@ -30,24 +37,41 @@ description = "REST APIs for managing funds transfer operations among users with
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final IAdmissionControlService admissionControlService;
+    private final IAsyncTransferService asyncTransferService;
+    private final IConcurrencyLimitService concurrencyLimitService;
     private final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
     /**
      * Constructor for TransactionController
      * @param transactionService The service layer for handling transaction business logic
+     * @param admissionControlService The per-customer rate limiter applied before any transfer work
+     * @param asyncTransferService The sequencer that applies transfers accepted with {@code mode=async}
+     * @param concurrencyLimitService The adaptive limit on how many synchronous transfers run at once
      */
-    public TransactionController(TransactionService transactionService){
+    public TransactionController(TransactionService transactionService, IAdmissionControlService admissionControlService,
+                                 IAsyncTransferService asyncTransferService, IConcurrencyLimitService concurrencyLimitService){
         this.transactionService = transactionService;
+        this.admissionControlService = admissionControlService;
+        this.asyncTransferService = asyncTransferService;
+        this.concurrencyLimitService = concurrencyLimitService;
     }
 
     /**
      * Initiates funds transfer between two accounts
      * This endpoint processes a request to move a specified amount from a sender's account to a receiver's account
+     * With {@code mode=async} the transfer is only validated for shape and queued; the response carries
+     * a transfer id whose outcome is read from {@code GET /api/transactions/transfer/{transferId}}.
      * @param request The TransactionDTO containing details of the transfer (sender, receiver, amount)
      * The request body is validated against defined DTO constraints.
+     * @param mode {@code sync} (default) to apply the transfer before responding, {@code async} to queue it.
      * @return A ResponseEntity indicating the outcome of the transfer.
      * - 200 OK : Funds successfully transferred.
+     * - 202 ACCEPTED : Transfer queued (async mode); the body holds its status.
      * - 400 BAD REQUEST : Invalid request (Insufficient funds, Invalid account numbers, daily limit exceeded)
+     * - 429 TOO MANY REQUESTS : The sender has exceeded its admission rate; retry after the Retry-After delay.
+     * - 503 SERVICE UNAVAILABLE : The asynchronous transfer queue is full, or as many synchronous transfers as the
+     *   adaptive concurrency limit allows are already running; retry after the Retry-After delay.
      * - 500 INTERNAL SERVER ERROR : Unexpected server-side issues during the transaction.
      */
     @PostMapping("/transfer")
@@ -59,19 +83,76 @@ public class TransactionController {
                     description = "Funds transferred successfully",
                     content = @Content(schema = @Schema (implementation = void.class))
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Transfer accepted for asynchronous processing",
+                    content = @Content(schema = @Schema (implementation = TransferStatusDTO.class))
+            ),
             @ApiResponse(
                     responseCode = "400",
                     description = "Invalid request or transaction processing error(validation failure, Insufficient funds, daily limit exceeded, account not found)",
                     content = @Content(schema = @Schema (implementation = GlobalExceptionHandler.class))
             ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many transfer requests from this sender, retry after the Retry-After delay",
+                    content = @Content(schema = @Schema (implementation = GlobalExceptionHandler.class))
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Asynchronous transfer queue is full or the concurrency limit is reached, retry after the Retry-After delay",
+                    content = @Content(schema = @Schema (implementation = GlobalExceptionHandler.class))
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "Unexpected internal Server Error during transfer",
                     content = @Content(schema = @Schema(implementation = Exception.class))
             )
     })
-    public ResponseEntity<Void> transferFunds( @Valid @RequestBody TransactionRequestDTO request){
-            transactionService.transferFunds(request);
+    public ResponseEntity<TransferStatusDTO> transferFunds( @Valid @RequestBody TransactionRequestDTO request,
+                                                            @RequestParam(defaultValue = "sync") String mode){
+            admissionControlService.admitTransfer(request.getFromUserId());
+            if ("async".equalsIgnoreCase(mode)) {
+                if (!asyncTransferService.isEnabled()) {
+                    throw new IllegalArgumentException("Asynchronous transfers are disabled");
+                }
+                TransferStatusDTO status = asyncTransferService.submit(request);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/transactions/transfer/" + status.getTransferId()))
+                        .body(status);
+            }
+            if (!"sync".equalsIgnoreCase(mode)) {
+                throw new IllegalArgumentException("Unknown transfer mode: " + mode);
+            }
+            concurrencyLimitService.execute(() -> transactionService.transferFunds(request));
             return ResponseEntity.ok().build();
     }
+
+    /**
+     * Returns the outcome of a transfer accepted with {@code mode=async}.
+     * @param transferId The id returned when the transfer was accepted.
+     * @return A ResponseEntity with the transfer's status.
+     * - 200 OK : Status returned; ACCEPTED while queued, then COMPLETED or FAILED with a reason.
+     * - 404 NOT FOUND : Unknown transfer id, or its outcome has expired.
+     */
+    @GetMapping("/transfer/{transferId}")
+    @Operation(method = "GET", summary = "Get asynchronous transfer status",
+    description = "Returns the status of a transfer accepted with mode=async. Outcomes are kept for a limited time after completion")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transfer status returned",
+                    content = @Content(schema = @Schema (implementation = TransferStatusDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Unknown or expired transfer id",
+                    content = @Content(schema = @Schema (implementation = void.class))
+            )
+    })
+    public ResponseEntity<TransferStatusDTO> getTransferStatus(@PathVariable String transferId){
+            return asyncTransferService.getStatus(transferId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A committed ledger entry of one account, pushed to the account's event streams. It carries the
+ * balance after the entry, so clients need no separate balance event.
+ */
+public class AccountEventDTO {
+    private Long entryId;
+    private String customerId;
+    private String transactionId;
+    private String transactionType;
+    private BigDecimal amount;
+    private String currency;
+    private String description;
+    private LocalDateTime timestamp;
+    private BigDecimal balanceAfter;
+
+    public static AccountEventDTO from(Transaction transaction) {
+        AccountEventDTO dto = new AccountEventDTO();
+        dto.setEntryId(transaction.getId());
+        dto.setCustomerId(transaction.getAccount().getCustomerId());
+        dto.setTransactionId(transaction.getTransactionId());
+        dto.setTransactionType(transaction.getTransactionType().name());
+        dto.setAmount(transaction.getAmount());
+        dto.setCurrency(transaction.getAccount().getCurrency());
+        dto.setDescription(transaction.getDescription());
+        dto.setTimestamp(transaction.getTimestamp());
+        dto.setBalanceAfter(transaction.getBalanceAfter());
+        return dto;
+    }
+
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(Long entryId) {
+        this.entryId = entryId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(String transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(BigDecimal balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+}
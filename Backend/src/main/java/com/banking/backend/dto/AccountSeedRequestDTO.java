@@ -0,0 +1,73 @@
+package com.banking.backend.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+import java.math.BigDecimal;
+
+/**
+ * Request body for seeding synthetic accounts in the {@code loadtest} profile.
+ * Accounts are created with customer IDs {@code customerIdPrefix + 0 .. customerIdPrefix + (count - 1)}.
+ */
+public class AccountSeedRequestDTO {
+
+    @Min(value = 1, message = "Count must be at least 1")
+    @Max(value = 10_000_000, message = "Count must not exceed 10,000,000")
+    private int count;
+
+    @NotNull(message = "Initial balance cannot be null")
+    @DecimalMin(value = "0.00", message = "Initial balance cannot be negative")
+    private BigDecimal initialBalance;
+
+    @NotBlank(message = "Customer ID prefix cannot be blank")
+    private String customerIdPrefix = "lt-";
+
+    private BigDecimal dailyTransactionLimit = BigDecimal.valueOf(1_000_000_000L);
+
+    @Pattern(regexp = "[A-Z]{3}", message = "Currency must be a three-letter ISO 4217 code")
+    private String currency = "KES";
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public BigDecimal getInitialBalance() {
+        return initialBalance;
+    }
+
+    public void setInitialBalance(BigDecimal initialBalance) {
+        this.initialBalance = initialBalance;
+    }
+
+    public String getCustomerIdPrefix() {
+        return customerIdPrefix;
+    }
+
+    public void setCustomerIdPrefix(String customerIdPrefix) {
+        this.customerIdPrefix = customerIdPrefix;
+    }
+
+    public BigDecimal getDailyTransactionLimit() {
+        return dailyTransactionLimit;
+    }
+
+    public void setDailyTransactionLimit(BigDecimal dailyTransactionLimit) {
+        this.dailyTransactionLimit = dailyTransactionLimit;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
@@ -0,0 +1,31 @@
+package com.banking.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BalanceReportRequestDTO {
+    @NotEmpty(message = "At least one customer ID is required")
+    private List<String> customerIds;
+
+    @NotNull(message = "asOf is required")
+    private LocalDateTime asOf;
+
+    public List<String> getCustomerIds() {
+        return customerIds;
+    }
+
+    public void setCustomerIds(List<String> customerIds) {
+        this.customerIds = customerIds;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+}
@@ -0,0 +1,130 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.enums.DisbursementJobStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a disbursement. Lines neither completed nor failed are still pending;
+ * {@code amountRefunded} is returned to the sender for the failed lines once the job completes.
+ */
+public class DisbursementJobDTO {
+    private Long id;
+    private String fromUserId;
+    private String description;
+    private String transactionId;
+    private DisbursementJobStatus status;
+    private int lineCount;
+    private BigDecimal totalAmount;
+    private int linesCompleted;
+    private int linesFailed;
+    private BigDecimal amountCompleted;
+    private BigDecimal amountRefunded;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public DisbursementJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DisbursementJobStatus status) {
+        this.status = status;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public int getLinesCompleted() {
+        return linesCompleted;
+    }
+
+    public void setLinesCompleted(int linesCompleted) {
+        this.linesCompleted = linesCompleted;
+    }
+
+    public int getLinesFailed() {
+        return linesFailed;
+    }
+
+    public void setLinesFailed(int linesFailed) {
+        this.linesFailed = linesFailed;
+    }
+
+    public BigDecimal getAmountCompleted() {
+        return amountCompleted;
+    }
+
+    public void setAmountCompleted(BigDecimal amountCompleted) {
+        this.amountCompleted = amountCompleted;
+    }
+
+    public BigDecimal getAmountRefunded() {
+        return amountRefunded;
+    }
+
+    public void setAmountRefunded(BigDecimal amountRefunded) {
+        this.amountRefunded = amountRefunded;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.enums.DisbursementLineStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A processed line of a disbursement, as reported for failures.
+ */
+public class DisbursementLineDTO {
+    private int lineNumber;
+    private String toUserId;
+    private BigDecimal amount;
+    private DisbursementLineStatus status;
+    private BigDecimal creditedAmount;
+    private String failureReason;
+    private LocalDateTime processedAt;
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public String getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(String toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public DisbursementLineStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DisbursementLineStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getCreditedAmount() {
+        return creditedAmount;
+    }
+
+    public void setCreditedAmount(BigDecimal creditedAmount) {
+        this.creditedAmount = creditedAmount;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.banking.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class DisbursementRequestDTO {
+    @NotBlank(message = "From user ID cannot be blank")
+    private String fromUserId;
+
+    private String description;
+
+    @NotEmpty(message = "A disbursement needs at least one line")
+    private List<@Valid DisbursementLineRequestDTO> lines;
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<DisbursementLineRequestDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<DisbursementLineRequestDTO> lines) {
+        this.lines = lines;
+    }
+}
@@ -0,0 +1,44 @@
+package com.banking.backend.dto;
+
+/**
+ * An account among the most active senders or recipients over the hot-account window. Counts and
+ * wait times are sketch estimates: they can be slightly too high, never too low.
+ */
+public class HotAccountDTO {
+    private String customerId;
+    private long transfers;
+    private double totalWaitMillis;
+    private double meanWaitMillis;
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public long getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(long transfers) {
+        this.transfers = transfers;
+    }
+
+    public double getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    public void setTotalWaitMillis(double totalWaitMillis) {
+        this.totalWaitMillis = totalWaitMillis;
+    }
+
+    public double getMeanWaitMillis() {
+        return meanWaitMillis;
+    }
+
+    public void setMeanWaitMillis(double meanWaitMillis) {
+        this.meanWaitMillis = meanWaitMillis;
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a customer's inbox, newest first, with the unread count for the badge. {@code nextBefore}
+ * is passed as {@code before} to fetch the next page, and is null on the last one.
+ */
+public class InboxPageDTO {
+    private List<InboxNotificationDTO> notifications;
+    private long unreadCount;
+    private Long nextBefore;
+
+    public List<InboxNotificationDTO> getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(List<InboxNotificationDTO> notifications) {
+        this.notifications = notifications;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public Long getNextBefore() {
+        return nextBefore;
+    }
+
+    public void setNextBefore(Long nextBefore) {
+        this.nextBefore = nextBefore;
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * The total and number of an account's transactions of one type in one month. Debits are negative.
+ */
+public class MonthlyTotalDTO {
+    private YearMonth month;
+    private TransactionType transactionType;
+    private BigDecimal totalAmount;
+    private long transactionCount;
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public void setMonth(YearMonth month) {
+        this.month = month;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
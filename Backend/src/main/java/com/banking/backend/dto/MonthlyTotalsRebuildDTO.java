@@ -0,0 +1,36 @@
+package com.banking.backend.dto;
+
+import java.time.YearMonth;
+
+/**
+ * The outcome of recomputing the monthly totals from the transaction history.
+ */
+public class MonthlyTotalsRebuildDTO {
+    private YearMonth since;
+    private long rowsWritten;
+    private long durationMillis;
+
+    public YearMonth getSince() {
+        return since;
+    }
+
+    public void setSince(YearMonth since) {
+        this.since = since;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public void setRowsWritten(long rowsWritten) {
+        this.rowsWritten = rowsWritten;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
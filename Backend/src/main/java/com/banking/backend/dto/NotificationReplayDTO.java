@@ -0,0 +1,175 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.enums.NotificationReplaySource;
+import com.banking.backend.enums.NotificationReplayStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a replay of failed notifications. {@code received} counts every message taken from the source;
+ * those replayed or already delivered are removed from it, and the rest are left there.
+ */
+public class NotificationReplayDTO {
+    private String id;
+    private NotificationReplaySource source;
+    private NotificationReplayStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String transactionId;
+    private int ratePerSecond;
+    private int parallelism;
+    private long received;
+    private long replayed;
+    private long alreadyDelivered;
+    private long filteredOut;
+    private long unreadable;
+    private long failed;
+    private double replayedPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public NotificationReplaySource getSource() {
+        return source;
+    }
+
+    public void setSource(NotificationReplaySource source) {
+        this.source = source;
+    }
+
+    public NotificationReplayStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(NotificationReplayStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public int getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(int ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getReplayed() {
+        return replayed;
+    }
+
+    public void setReplayed(long replayed) {
+        this.replayed = replayed;
+    }
+
+    public long getAlreadyDelivered() {
+        return alreadyDelivered;
+    }
+
+    public void setAlreadyDelivered(long alreadyDelivered) {
+        this.alreadyDelivered = alreadyDelivered;
+    }
+
+    public long getFilteredOut() {
+        return filteredOut;
+    }
+
+    public void setFilteredOut(long filteredOut) {
+        this.filteredOut = filteredOut;
+    }
+
+    public long getUnreadable() {
+        return unreadable;
+    }
+
+    public void setUnreadable(long unreadable) {
+        this.unreadable = unreadable;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public double getReplayedPerSecond() {
+        return replayedPerSecond;
+    }
+
+    public void setReplayedPerSecond(double replayedPerSecond) {
+        this.replayedPerSecond = replayedPerSecond;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
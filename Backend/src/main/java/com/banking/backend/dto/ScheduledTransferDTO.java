@@ -0,0 +1,131 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.enums.ScheduledTransferRecurrence;
+import com.banking.backend.enums.ScheduledTransferStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A scheduled transfer and where it stands. {@code nextRunAt} is null once the schedule is no longer
+ * active; {@code lastError} holds why the most recent occurrence failed, if it did.
+ */
+public class ScheduledTransferDTO {
+    private Long id;
+    private String fromUserId;
+    private String toUserId;
+    private BigDecimal amount;
+    private String description;
+    private ScheduledTransferRecurrence recurrence;
+    private LocalDateTime startAt;
+    private LocalDateTime endAt;
+    private LocalDateTime nextRunAt;
+    private ScheduledTransferStatus status;
+    private long runCount;
+    private LocalDateTime lastRunAt;
+    private String lastError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(String toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ScheduledTransferRecurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(ScheduledTransferRecurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public ScheduledTransferStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduledTransferStatus status) {
+        this.status = status;
+    }
+
+    public long getRunCount() {
+        return runCount;
+    }
+
+    public void setRunCount(long runCount) {
+        this.runCount = runCount;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,91 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.enums.ScheduledTransferRecurrence;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A transfer to run at {@code startAt} and then, unless {@code recurrence} is {@code ONCE}, repeatedly
+ * until {@code endAt}. Times are in the server's time zone and are kept to the second.
+ */
+public class ScheduledTransferRequestDTO {
+    @NotBlank(message = "From user ID cannot be blank")
+    private String fromUserId;
+
+    @NotBlank(message = "To user ID cannot be blank")
+    private String toUserId;
+
+    @NotNull(message = "Amount cannot be null")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than zero")
+    private BigDecimal amount;
+
+    private String description;
+
+    @NotNull(message = "Start time cannot be null")
+    private LocalDateTime startAt;
+
+    @NotNull(message = "Recurrence cannot be null")
+    private ScheduledTransferRecurrence recurrence = ScheduledTransferRecurrence.ONCE;
+
+    private LocalDateTime endAt;
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(String toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public ScheduledTransferRecurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(ScheduledTransferRecurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+}
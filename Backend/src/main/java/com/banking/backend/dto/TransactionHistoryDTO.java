@@ -0,0 +1,89 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.archive.ArchivedTransaction;
+import com.banking.backend.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of an account's transaction history.
+ */
+public class TransactionHistoryDTO {
+    private String transactionId;
+    private String transactionType;
+    private BigDecimal amount;
+    private String description;
+    private LocalDateTime timestamp;
+    private BigDecimal balanceAfter;
+
+    public static TransactionHistoryDTO from(Transaction transaction) {
+        TransactionHistoryDTO dto = new TransactionHistoryDTO();
+        dto.setTransactionId(transaction.getTransactionId());
+        dto.setTransactionType(transaction.getTransactionType().name());
+        dto.setAmount(transaction.getAmount());
+        dto.setDescription(transaction.getDescription());
+        dto.setTimestamp(transaction.getTimestamp());
+        dto.setBalanceAfter(transaction.getBalanceAfter());
+        return dto;
+    }
+
+    public static TransactionHistoryDTO from(ArchivedTransaction transaction) {
+        TransactionHistoryDTO dto = new TransactionHistoryDTO();
+        dto.setTransactionId(transaction.transactionId());
+        dto.setTransactionType(transaction.transactionType().name());
+        dto.setAmount(transaction.amount());
+        dto.setDescription(transaction.description());
+        dto.setTimestamp(transaction.timestamp());
+        dto.setBalanceAfter(transaction.balanceAfter());
+        return dto;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public String getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(String transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public BigDecimal getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(BigDecimal balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+}
@@ -17,8 +17,12 @@ public class TransactionNotification implements Serializable {
     private LocalDateTime timestamp;
     private String transactionType;
     private BigDecimal amount;
+    // Currency of the notified customer's account, which the amount is in.
+    private String currency;
     private String recipientName;
     private String senderName;
+    // Number of transfers summarised by a digest notification; null for a single-transfer notification.
+    private Integer digestCount;
 
     public String getTransactionId() {
         return transactionId;
@@ -68,6 +72,14 @@ public class TransactionNotification implements Serializable {
         this.amount = amount;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public String getRecipientName() {
         return recipientName;
     }
@@ -84,5 +96,13 @@ public class TransactionNotification implements Serializable {
         this.senderName = senderName;
     }
 
+    public Integer getDigestCount() {
+        return digestCount;
+    }
+
+    public void setDigestCount(Integer digestCount) {
+        this.digestCount = digestCount;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.banking.backend.dto;
+
+import com.banking.backend.enums.AsyncTransferStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of an asynchronously accepted transfer. The transfer id is also the transaction id
+ * recorded on both ledger legs once the transfer completes.
+ */
+public class TransferStatusDTO {
+    private String transferId;
+    private AsyncTransferStatus status;
+    private String fromUserId;
+    private String toUserId;
+    private BigDecimal amount;
+    private String failureReason;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime completedAt;
+
+    public String getTransferId() {
+        return transferId;
+    }
+
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+
+    public AsyncTransferStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(AsyncTransferStatus status) {
+        this.status = status;
+    }
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(String toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(LocalDateTime acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
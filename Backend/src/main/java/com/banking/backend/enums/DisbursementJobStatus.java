@@ -0,0 +1,6 @@
+package com.banking.backend.enums;
+
+public enum DisbursementJobStatus {
+    RUNNING,
+    COMPLETED
+}
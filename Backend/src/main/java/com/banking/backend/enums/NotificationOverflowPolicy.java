@@ -0,0 +1,11 @@
+package com.banking.backend.enums;
+
+/**
+ * What {@code NotificationService} does with a notification when its in-flight send window is full.
+ */
+public enum NotificationOverflowPolicy {
+    /** Block the sending thread until a slot frees up, spilling only if the configured wait elapses. */
+    BLOCK,
+    /** Spill straight to the failure path without waiting. */
+    SPILL
+}
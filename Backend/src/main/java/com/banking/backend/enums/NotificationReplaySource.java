@@ -0,0 +1,8 @@
+package com.banking.backend.enums;
+
+public enum NotificationReplaySource {
+    // Notifications the sender moved to the failed-transactions queue because the notification queue refused them.
+    FAILED_QUEUE,
+    // Notifications the consumer dead-lettered on the notification queue.
+    DEAD_LETTER_QUEUE
+}
@@ -0,0 +1,8 @@
+package com.banking.backend.enums;
+
+public enum NotificationReplayStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.banking.backend.enums;
+
+/**
+ * Kinds of ledger inconsistency reported by the reconciliation job.
+ */
+public enum ReconciliationMismatchType {
+    /** A transaction's {@code balanceAfter} is not the previous {@code balanceAfter} plus its amount. */
+    CHAIN_BREAK,
+    /** The account balance is not the opening balance plus the sum of its transaction amounts. */
+    BALANCE_MISMATCH
+}
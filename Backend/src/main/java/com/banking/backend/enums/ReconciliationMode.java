@@ -0,0 +1,11 @@
+package com.banking.backend.enums;
+
+/**
+ * Scope of a ledger reconciliation run.
+ */
+public enum ReconciliationMode {
+    /** Check every account. */
+    FULL,
+    /** Check only accounts with transactions since the last completed run. */
+    INCREMENTAL
+}
@@ -0,0 +1,7 @@
+package com.banking.backend.enums;
+
+public enum ReconciliationRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,27 @@
+package com.banking.backend.enums;
+
+import java.time.LocalDateTime;
+
+/**
+ * How often a scheduled transfer repeats. Occurrences are counted from the schedule's start, so a
+ * monthly order starting on the 31st runs on the last day of shorter months and returns to the 31st.
+ */
+public enum ScheduledTransferRecurrence {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    /**
+     * @return The time of occurrence number {@code index}, counting the start as occurrence 0, or null
+     * if the schedule has no such occurrence.
+     */
+    public LocalDateTime occurrence(LocalDateTime startAt, long index) {
+        return switch (this) {
+            case ONCE -> index == 0 ? startAt : null;
+            case DAILY -> startAt.plusDays(index);
+            case WEEKLY -> startAt.plusWeeks(index);
+            case MONTHLY -> startAt.plusMonths(index);
+        };
+    }
+}
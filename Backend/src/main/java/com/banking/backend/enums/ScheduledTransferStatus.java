@@ -0,0 +1,8 @@
+package com.banking.backend.enums;
+
+public enum ScheduledTransferStatus {
+    ACTIVE,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
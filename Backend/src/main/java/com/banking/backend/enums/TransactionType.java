@@ -4,5 +4,7 @@ public enum TransactionType {
     DEPOSIT,
     WITHDRAWAL,
     TRANSFER_IN,
-    TRANSFER_OUT
+    TRANSFER_OUT,
+    INTEREST,
+    FEE
 }
@@ -2,6 +2,7 @@ package com.banking.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -31,9 +32,19 @@ public class Account {
     @Column(nullable = false)
     private BigDecimal dailyTransactionLimit = BigDecimal.valueOf(500000.00);
 
-    @Column(nullable = false)
+    // Maintained only by LimitLeaseService's conditional updates, so saving an account never overwrites it.
+    @Column(nullable = false, updatable = false)
     private BigDecimal dailyTransactionAmount = BigDecimal.ZERO;
 
+    // Bumped by the end-of-day rollover of the daily amount; maintained, like it, only by conditional updates.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long limitEpoch;
+
+    // ISO 4217 code; the balance and daily limit are held in this currency.
+    @Column(nullable = false, length = 3)
+    private String currency = "KES";
+
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY) // Default to LAZY
     private List<Transaction> transactions = new ArrayList<>();
 
@@ -93,6 +104,22 @@ public class Account {
         this.dailyTransactionAmount = dailyTransactionAmount;
     }
 
+    public long getLimitEpoch() {
+        return limitEpoch;
+    }
+
+    public void setLimitEpoch(long limitEpoch) {
+        this.limitEpoch = limitEpoch;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public List<Transaction> getTransactions() {
         return transactions;
     }
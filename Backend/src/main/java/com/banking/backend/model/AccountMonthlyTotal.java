@@ -0,0 +1,95 @@
+package com.banking.backend.model;
+
+import com.banking.backend.enums.TransactionType;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The sum and count of an account's ledger entries of one type in one month. Amounts keep their sign, so
+ * debits add up to a negative total. Rows are adjusted with plain JDBC by {@code MonthlyTotalsService} in
+ * the same transactions that write the entries; the mapping keeps the table in the schema managed
+ * alongside the other entities.
+ */
+@Entity
+@Table(name = "account_monthly_total")
+@IdClass(AccountMonthlyTotal.Key.class)
+public class AccountMonthlyTotal {
+
+    @Id
+    private Long accountId;
+
+    // First day of the month.
+    @Id
+    private LocalDate monthStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private TransactionType transactionType;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalAmount;
+
+    private long transactionCount;
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+
+    public void setMonthStart(LocalDate monthStart) {
+        this.monthStart = monthStart;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public void setTransactionType(TransactionType transactionType) {
+        this.transactionType = transactionType;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public static class Key implements Serializable {
+        private Long accountId;
+        private LocalDate monthStart;
+        private TransactionType transactionType;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(accountId, key.accountId)
+                    && Objects.equals(monthStart, key.monthStart) && transactionType == key.transactionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, monthStart, transactionType);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.banking.backend.model;
+
+import com.banking.backend.enums.DisbursementJobStatus;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk disbursement from one sender to many recipients. The sender is debited {@code totalAmount}
+ * once when the job is created; failed lines are refunded in one entry when the job completes. All of
+ * the job's ledger entries share {@code transactionId}. Rows are written with plain JDBC by
+ * {@code DisbursementService}; the mapping keeps the table in the schema managed alongside the other entities.
+ */
+@Entity
+@Table(name = "disbursement_job")
+public class DisbursementJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fromUserId;
+
+    private String description;
+
+    @Column(nullable = false, length = 36)
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DisbursementJobStatus status;
+
+    private int lineCount;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalAmount;
+
+    // Lines are split into this many partitions by recipient, one worker each.
+    private int workers;
+
+    private int linesCompleted;
+
+    private int linesFailed;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal amountCompleted;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal amountRefunded;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Touched by every committed chunk; a running job untouched for a while has lost its workers.
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public DisbursementJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DisbursementJobStatus status) {
+        this.status = status;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getLinesCompleted() {
+        return linesCompleted;
+    }
+
+    public void setLinesCompleted(int linesCompleted) {
+        this.linesCompleted = linesCompleted;
+    }
+
+    public int getLinesFailed() {
+        return linesFailed;
+    }
+
+    public void setLinesFailed(int linesFailed) {
+        this.linesFailed = linesFailed;
+    }
+
+    public BigDecimal getAmountCompleted() {
+        return amountCompleted;
+    }
+
+    public void setAmountCompleted(BigDecimal amountCompleted) {
+        this.amountCompleted = amountCompleted;
+    }
+
+    public BigDecimal getAmountRefunded() {
+        return amountRefunded;
+    }
+
+    public void setAmountRefunded(BigDecimal amountRefunded) {
+        this.amountRefunded = amountRefunded;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,127 @@
+package com.banking.backend.model;
+
+import com.banking.backend.enums.DisbursementLineStatus;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One recipient of a {@link DisbursementJob}. {@code amount} is in the sender's currency and
+ * {@code creditedAmount} in the recipient's. Rows are written with plain JDBC by {@code DisbursementService}.
+ */
+@Entity
+@Table(name = "disbursement_line", indexes = @Index(name = "idx_disbursement_line_job_status",
+        columnList = "job_id, status, partition_no, id"))
+public class DisbursementLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    // 1-based position in the submitted list or file.
+    private int lineNumber;
+
+    @Column(nullable = false)
+    private String toUserId;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "partition_no")
+    private int partitionNo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DisbursementLineStatus status;
+
+    @Column(precision = 38, scale = 2)
+    private BigDecimal creditedAmount;
+
+    private String failureReason;
+
+    private LocalDateTime processedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public String getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(String toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public int getPartitionNo() {
+        return partitionNo;
+    }
+
+    public void setPartitionNo(int partitionNo) {
+        this.partitionNo = partitionNo;
+    }
+
+    public DisbursementLineStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DisbursementLineStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getCreditedAmount() {
+        return creditedAmount;
+    }
+
+    public void setCreditedAmount(BigDecimal creditedAmount) {
+        this.creditedAmount = creditedAmount;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
@@ -0,0 +1,126 @@
+package com.banking.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An inclusive account id range of an {@link EndOfDayRun}, worked through in chunks. Every chunk advances
+ * {@code nextAccountId} in the same transaction as its postings, so a resumed run continues after the last
+ * committed chunk; the range is done once {@code nextAccountId} is past {@code lastAccountId}. Written with
+ * plain JDBC by {@code EndOfDayService}.
+ */
+@Entity
+@Table(name = "end_of_day_partition",
+        uniqueConstraints = @UniqueConstraint(name = "uk_end_of_day_partition_run_partition", columnNames = {"run_id", "partition_no"}))
+public class EndOfDayPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    @Column(nullable = false)
+    private long firstAccountId;
+
+    @Column(nullable = false)
+    private long lastAccountId;
+
+    @Column(nullable = false)
+    private long nextAccountId;
+
+    private long accountsProcessed;
+
+    private long transactionsWritten;
+
+    // Touched by every committed chunk; a run whose partitions are all untouched for a while has lost its workers.
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public int getPartitionNo() {
+        return partitionNo;
+    }
+
+    public void setPartitionNo(int partitionNo) {
+        this.partitionNo = partitionNo;
+    }
+
+    public long getFirstAccountId() {
+        return firstAccountId;
+    }
+
+    public void setFirstAccountId(long firstAccountId) {
+        this.firstAccountId = firstAccountId;
+    }
+
+    public long getLastAccountId() {
+        return lastAccountId;
+    }
+
+    public void setLastAccountId(long lastAccountId) {
+        this.lastAccountId = lastAccountId;
+    }
+
+    public long getNextAccountId() {
+        return nextAccountId;
+    }
+
+    public void setNextAccountId(long nextAccountId) {
+        this.nextAccountId = nextAccountId;
+    }
+
+    public long getAccountsProcessed() {
+        return accountsProcessed;
+    }
+
+    public void setAccountsProcessed(long accountsProcessed) {
+        this.accountsProcessed = accountsProcessed;
+    }
+
+    public long getTransactionsWritten() {
+        return transactionsWritten;
+    }
+
+    public void setTransactionsWritten(long transactionsWritten) {
+        this.transactionsWritten = transactionsWritten;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.backend.model;
+
+import com.banking.backend.enums.EndOfDayRunStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The end-of-day batch for one business date: interest accrual, monthly fees and the rollover of daily
+ * limits. A business date is processed once; a run that did not complete is resumed from the checkpoints
+ * of its {@link EndOfDayPartition}s. Rows are written with plain JDBC by {@code EndOfDayService}; the
+ * mapping keeps the table in the schema managed alongside the other entities.
+ */
+@Entity
+@Table(name = "end_of_day_run")
+public class EndOfDayRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate businessDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EndOfDayRunStatus status;
+
+    // Number of partitions processed concurrently by the last instance to work on the run.
+    private int workers;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    private long accountsProcessed;
+
+    private long transactionsWritten;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public void setBusinessDate(LocalDate businessDate) {
+        this.businessDate = businessDate;
+    }
+
+    public EndOfDayRunStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EndOfDayRunStatus status) {
+        this.status = status;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(LocalDateTime finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public long getAccountsProcessed() {
+        return accountsProcessed;
+    }
+
+    public void setAccountsProcessed(long accountsProcessed) {
+        this.accountsProcessed = accountsProcessed;
+    }
+
+    public long getTransactionsWritten() {
+        return transactionsWritten;
+    }
+
+    public void setTransactionsWritten(long transactionsWritten) {
+        this.transactionsWritten = transactionsWritten;
+    }
+}
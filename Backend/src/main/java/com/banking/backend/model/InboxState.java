@@ -0,0 +1,35 @@
+package com.banking.backend.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A customer's unread notification count, adjusted by the same transactions that add notifications to
+ * the inbox and mark them read, so that it never has to be counted. Written with plain JDBC by
+ * {@code NotificationInboxService}.
+ */
+@Entity
+@Table(name = "notification_inbox_state")
+public class InboxState {
+
+    @Id
+    private String userId;
+
+    @Column(nullable = false)
+    private long unreadCount;
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
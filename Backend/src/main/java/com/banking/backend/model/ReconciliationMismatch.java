@@ -0,0 +1,114 @@
+package com.banking.backend.model;
+
+import com.banking.backend.enums.ReconciliationMismatchType;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A ledger inconsistency found by a reconciliation run. Written in batches with plain JDBC by
+ * {@code ReconciliationService}.
+ */
+@Entity
+@Table(name = "reconciliation_mismatch", indexes = @Index(name = "idx_reconciliation_mismatch_run_id", columnList = "run_id"))
+public class ReconciliationMismatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(nullable = false)
+    private Long accountId;
+
+    private String customerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ReconciliationMismatchType mismatchType;
+
+    // Surrogate id of the transaction row where the chain broke, or the account's last row for balance mismatches.
+    private Long transactionRowId;
+
+    private BigDecimal expectedAmount;
+
+    private BigDecimal actualAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime detectedAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public void setRunId(Long runId) {
+        this.runId = runId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public ReconciliationMismatchType getMismatchType() {
+        return mismatchType;
+    }
+
+    public void setMismatchType(ReconciliationMismatchType mismatchType) {
+        this.mismatchType = mismatchType;
+    }
+
+    public Long getTransactionRowId() {
+        return transactionRowId;
+    }
+
+    public void setTransactionRowId(Long transactionRowId) {
+        this.transactionRowId = transactionRowId;
+    }
+
+    public BigDecimal getExpectedAmount() {
+        return expectedAmount;
+    }
+
+    public void setExpectedAmount(BigDecimal expectedAmount) {
+        this.expectedAmount = expectedAmount;
+    }
+
+    public BigDecimal getActualAmount() {
+        return actualAmount;
+    }
+
+    public void setActualAmount(BigDecimal actualAmount) {
+        this.actualAmount = actualAmount;
+    }
+
+    public LocalDateTime getDetectedAt() {
+        return detectedAt;
+    }
+
+    public void setDetectedAt(LocalDateTime detectedAt) {
+        this.detectedAt = detectedAt;
+    }
+}
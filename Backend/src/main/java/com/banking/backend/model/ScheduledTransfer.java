@@ -0,0 +1,173 @@
+package com.banking.backend.model;
+
+import com.banking.backend.enums.ScheduledTransferRecurrence;
+import com.banking.backend.enums.ScheduledTransferStatus;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A future-dated or recurring transfer. {@code nextRunAt} is the occurrence still to be executed; it is
+ * moved forward in the same database transaction that executes the transfer, which is what keeps an
+ * occurrence from running twice. Rows are written with plain JDBC by {@code ScheduledTransferService};
+ * the mapping keeps the table in the schema managed alongside the other entities.
+ */
+@Entity
+@Table(name = "scheduled_transfer", indexes = @Index(name = "idx_scheduled_transfer_due", columnList = "status, next_run_at"))
+public class ScheduledTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String fromUserId;
+
+    @Column(nullable = false)
+    private String toUserId;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal amount;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ScheduledTransferRecurrence recurrence;
+
+    @Column(nullable = false)
+    private LocalDateTime startAt;
+
+    // Last time an occurrence may run; null for no end.
+    private LocalDateTime endAt;
+
+    // Null once the schedule is no longer active.
+    private LocalDateTime nextRunAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ScheduledTransferStatus status;
+
+    // Occurrences executed or skipped so far; the next occurrence is counted from startAt with it.
+    private long runCount;
+
+    private LocalDateTime lastRunAt;
+
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFromUserId() {
+        return fromUserId;
+    }
+
+    public void setFromUserId(String fromUserId) {
+        this.fromUserId = fromUserId;
+    }
+
+    public String getToUserId() {
+        return toUserId;
+    }
+
+    public void setToUserId(String toUserId) {
+        this.toUserId = toUserId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ScheduledTransferRecurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public void setRecurrence(ScheduledTransferRecurrence recurrence) {
+        this.recurrence = recurrence;
+    }
+
+    public LocalDateTime getStartAt() {
+        return startAt;
+    }
+
+    public void setStartAt(LocalDateTime startAt) {
+        this.startAt = startAt;
+    }
+
+    public LocalDateTime getEndAt() {
+        return endAt;
+    }
+
+    public void setEndAt(LocalDateTime endAt) {
+        this.endAt = endAt;
+    }
+
+    public LocalDateTime getNextRunAt() {
+        return nextRunAt;
+    }
+
+    public void setNextRunAt(LocalDateTime nextRunAt) {
+        this.nextRunAt = nextRunAt;
+    }
+
+    public ScheduledTransferStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ScheduledTransferStatus status) {
+        this.status = status;
+    }
+
+    public long getRunCount() {
+        return runCount;
+    }
+
+    public void setRunCount(long runCount) {
+        this.runCount = runCount;
+    }
+
+    public LocalDateTime getLastRunAt() {
+        return lastRunAt;
+    }
+
+    public void setLastRunAt(LocalDateTime lastRunAt) {
+        this.lastRunAt = lastRunAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
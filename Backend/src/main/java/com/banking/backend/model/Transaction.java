@@ -1,6 +1,7 @@
 package com.banking.backend.model;
 
 import com.banking.backend.enums.TransactionType;
+import com.banking.backend.service.LedgerEventListener;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -10,11 +11,23 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-
+@Table(indexes = {
+        @Index(name = "idx_transaction_transaction_id", columnList = "transaction_id"),
+        // Lets reconciliation stream each account's ledger in order without sorting.
+        @Index(name = "idx_transaction_account_timestamp", columnList = "account_id, timestamp, id"),
+        @Index(name = "idx_transaction_timestamp", columnList = "timestamp")
+})
+@EntityListeners(LedgerEventListener.class)
 @EqualsAndHashCode(exclude = "account")
 @ToString(exclude = "account")
 public class Transaction {
+    // Surrogate key: the debit and credit legs of a transfer share the same transactionId.
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
     private String transactionId;
 
     @Enumerated(EnumType.STRING)
@@ -33,6 +46,13 @@ public class Transaction {
     @Column(nullable = false)
     private BigDecimal balanceAfter;
 
+    // Set on both legs of a cross-currency transfer: units of the recipient's currency per unit of the sender's.
+    @Column(precision = 19, scale = 10)
+    private BigDecimal fxRate;
+
+    // Version of the FX rate snapshot the rate was taken from.
+    private Long fxRateVersion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id", nullable = false)
     private Account account;
@@ -47,6 +67,14 @@ public class Transaction {
         }
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getTransactionId() {
         return transactionId;
     }
@@ -95,6 +123,22 @@ public class Transaction {
         this.balanceAfter = balanceAfter;
     }
 
+    public BigDecimal getFxRate() {
+        return fxRate;
+    }
+
+    public void setFxRate(BigDecimal fxRate) {
+        this.fxRate = fxRate;
+    }
+
+    public Long getFxRateVersion() {
+        return fxRateVersion;
+    }
+
+    public void setFxRateVersion(Long fxRateVersion) {
+        this.fxRateVersion = fxRateVersion;
+    }
+
     public Account getAccount() {
         return account;
     }
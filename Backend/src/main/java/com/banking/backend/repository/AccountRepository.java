@@ -1,13 +1,29 @@
 package com.banking.backend.repository;
 
 import com.banking.backend.model.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByCustomerId(String customerId);
-}
\ No newline at end of file
+
+    List<Account> findAllByCustomerIdIn(Collection<String> customerIds);
+
+    /**
+     * Loads and row-locks a set of accounts. Rows are locked in id order, so callers locking
+     * overlapping sets cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.customerId IN :customerIds ORDER BY a.id")
+    List<Account> findAllByCustomerIdForUpdate(@Param("customerIds") Collection<String> customerIds);
+}
@@ -0,0 +1,47 @@
+package com.banking.backend.repository;
+
+import com.banking.backend.model.Transaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    /**
+     * Newest-first history of one account within {@code [from, to)}. Both bounds are on the
+     * partition key, so PostgreSQL only scans the monthly partitions overlapping the range.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.account.id = :accountId " +
+            "AND t.timestamp >= :from AND t.timestamp < :to ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findHistory(@Param("accountId") Long accountId, @Param("from") LocalDateTime from,
+                                  @Param("to") LocalDateTime to, Pageable pageable);
+
+    /**
+     * {@code [accountId, balance_after]} of each account's last transaction with {@code from <= timestamp <= asOf};
+     * the balance is null for an account without one. Each subquery is one backward seek on
+     * {@code idx_transaction_account_timestamp}, however long the account's history is; ordering by
+     * the full index key lets the planner read the index instead of sorting the account's rows.
+     */
+    @Query(value = "SELECT a.id, (SELECT t.balance_after FROM transaction t WHERE t.account_id = a.id " +
+            "AND t.timestamp >= :from AND t.timestamp <= :asOf ORDER BY t.account_id DESC, t.timestamp DESC, t.id DESC LIMIT 1) " +
+            "FROM account a WHERE a.id IN (:accountIds)", nativeQuery = true)
+    List<Object[]> findLastBalances(@Param("accountIds") Collection<Long> accountIds, @Param("from") LocalDateTime from,
+                                    @Param("asOf") LocalDateTime asOf);
+
+    /**
+     * {@code [accountId, balance_after - amount]} of each account's first transaction with
+     * {@code after < timestamp < before}: the balance the account had before it. Null for an account without one.
+     */
+    @Query(value = "SELECT a.id, (SELECT t.balance_after - t.amount FROM transaction t WHERE t.account_id = a.id " +
+            "AND t.timestamp > :after AND t.timestamp < :before ORDER BY t.account_id, t.timestamp, t.id LIMIT 1) " +
+            "FROM account a WHERE a.id IN (:accountIds)", nativeQuery = true)
+    List<Object[]> findBalancesBefore(@Param("accountIds") Collection<Long> accountIds, @Param("after") LocalDateTime after,
+                                      @Param("before") LocalDateTime before);
+}
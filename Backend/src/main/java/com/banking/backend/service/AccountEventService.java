@@ -0,0 +1,122 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.SubscriberLimitExceededException;
+import com.banking.backend.config.events.AccountEventProperties;
+import com.banking.backend.dto.AccountEventDTO;
+import com.banking.backend.service.interfaces.IAccountEventService;
+import com.banking.backend.service.interfaces.ICustomerFilterService;
+import com.banking.backend.util.FanOutHub;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams each account's committed ledger entries to its clients as Server-Sent Events, so that they
+ * need not poll the transaction history.
+ * <p>
+ * Streams are held in a {@link FanOutHub}. An open stream is an asynchronous request that holds no
+ * thread, plus one small subscription object; events are written by virtual threads, one per stream
+ * with something to send, so a slow client never holds up a transfer or the other streams. A client
+ * that falls {@code bufferSize} events behind is disconnected and is expected to reconnect and read
+ * what it missed from the history endpoint. Entries are published by {@link LedgerEventListener} once
+ * their database transaction has committed, and only to streams open on this node.
+ */
+@Service
+public class AccountEventService implements IAccountEventService {
+
+    // Identity marker for the keep-alive comment; never serialized.
+    private static final AccountEventDTO HEARTBEAT = new AccountEventDTO();
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    private final AccountEventProperties properties;
+    private final ICustomerFilterService customerFilterService;
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final FanOutHub<AccountEventDTO> hub;
+    private final Counter published;
+
+    public AccountEventService(AccountEventProperties properties, ICustomerFilterService customerFilterService,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.customerFilterService = customerFilterService;
+        this.hub = new FanOutHub<>(properties.getBufferSize(), properties.getMaxSubscribers(), deliveryExecutor);
+        this.published = Counter.builder("banking.account.events.published")
+                .description("Ledger entries pushed to at least one event stream")
+                .register(meterRegistry);
+        Gauge.builder("banking.account.events.subscribers", hub, FanOutHub::size)
+                .description("Account event streams open on this node")
+                .register(meterRegistry);
+        FunctionCounter.builder("banking.account.events.evictions", hub, FanOutHub::evictions)
+                .description("Event streams closed because the client fell too far behind")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe(String customerId) {
+        if (!properties.isEnabled()) {
+            throw new SubscriberLimitExceededException("Account event streams are disabled", RETRY_AFTER_SECONDS);
+        }
+        if (!customerFilterService.mightExist(customerId)) {
+            throw new IllegalArgumentException("Account not found for user ID: " + customerId);
+        }
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        FanOutHub.Subscription<AccountEventDTO> subscription = hub.subscribe(customerId, new FanOutHub.Sink<>() {
+            @Override
+            public void send(AccountEventDTO event) throws Exception {
+                if (event == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getEntryId()))
+                            .name("transaction")
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        if (subscription == null) {
+            throw new SubscriberLimitExceededException("Too many account event streams on this node", RETRY_AFTER_SECONDS);
+        }
+        emitter.onCompletion(() -> hub.unsubscribe(subscription));
+        emitter.onTimeout(() -> hub.unsubscribe(subscription));
+        emitter.onError(error -> hub.unsubscribe(subscription));
+        // Commits the response headers at once, so the client knows the stream is open before any entry.
+        hub.publish(customerId, HEARTBEAT);
+        return emitter;
+    }
+
+    @Override
+    public boolean hasSubscribers(String customerId) {
+        return hub.hasSubscribers(customerId);
+    }
+
+    @Override
+    public void publish(AccountEventDTO event) {
+        if (hub.publish(event.getCustomerId(), event) > 0) {
+            published.increment();
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banking.account-events.heartbeat-interval-ms:20000}")
+    public void sendHeartbeats() {
+        hub.broadcastToIdle(HEARTBEAT);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deliveryExecutor.shutdownNow();
+    }
+}
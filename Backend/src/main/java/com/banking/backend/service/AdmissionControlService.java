@@ -0,0 +1,144 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.RateLimitExceededException;
+import com.banking.backend.config.admission.AdmissionControlProperties;
+import com.banking.backend.service.interfaces.IAdmissionControlService;
+import com.banking.backend.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class responsible for per-customer admission control on fund transfers.
+ * Every sender (keyed by {@code fromUserId}) gets its own lock-free {@link TokenBucket}
+ * sized by the tier the customer belongs to, so a single misbehaving client is turned away
+ * with HTTP 429 before the request reaches {@link TransactionService} or the database.
+ * <p>
+ * Buckets live in a bounded map. A bucket that has been full for longer than the configured
+ * idle period carries no state, so the periodic sweep evicts it and it is recreated on the
+ * customer's next request. Admission itself never scans the map: while it is full, customers
+ * without a bucket of their own share one overflow bucket, so a client rotating sender ids is
+ * still limited.
+ */
+@Service
+public class AdmissionControlService implements IAdmissionControlService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControlService.class);
+
+    private final boolean enabled;
+    private final int maxTrackedCustomers;
+    private final long idleEvictionNanos;
+    private final Map<String, String> customerTiers;
+    private final TierLimit defaultTier;
+    private final Map<String, TierLimit> tiers = new HashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TierLimit overflowTier;
+    private final TokenBucket overflowBucket;
+    private final Counter overflowRequests;
+
+    public AdmissionControlService(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxTrackedCustomers = properties.getMaxTrackedCustomers();
+        this.idleEvictionNanos = properties.getIdleEviction().toNanos();
+        this.customerTiers = Map.copyOf(properties.getCustomerTiers());
+
+        properties.getTiers().forEach((name, tier) -> tiers.put(name, new TierLimit(name, tier, meterRegistry)));
+        this.defaultTier = tiers.computeIfAbsent(properties.getDefaultTier(),
+                name -> new TierLimit(name, new AdmissionControlProperties.Tier(), meterRegistry));
+
+        this.overflowTier = new TierLimit("overflow", properties.getOverflow(), meterRegistry);
+        this.overflowBucket = new TokenBucket(overflowTier.requestsPerSecond, overflowTier.burst, System.nanoTime());
+        this.overflowRequests = Counter.builder("banking.admission.overflow")
+                .description("Transfer requests checked against the shared overflow bucket because the tracked-customer limit was reached")
+                .register(meterRegistry);
+        Gauge.builder("banking.admission.tracked.customers", buckets, Map::size)
+                .description("Number of customers currently holding a token bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits or rejects a transfer request for the given sender.
+     *
+     * @param customerId The customer ID of the sender ({@code fromUserId}).
+     * @throws RateLimitExceededException If the customer's token bucket is empty.
+     */
+    @Override
+    public void admitTransfer(String customerId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        TierLimit tier = tierFor(customerId);
+
+        TokenBucket bucket = buckets.get(customerId);
+        if (bucket == null) {
+            if (buckets.size() >= maxTrackedCustomers) {
+                overflowRequests.increment();
+                tier = overflowTier;
+                bucket = overflowBucket;
+            } else {
+                TierLimit customerTier = tier;
+                bucket = buckets.computeIfAbsent(customerId, id -> new TokenBucket(customerTier.requestsPerSecond, customerTier.burst, now));
+            }
+        }
+
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            tier.rejected.increment();
+            log.debug("Admission rejected for user {} in tier '{}'", customerId, tier.name);
+            throw new RateLimitExceededException("Too many transfer requests. Please retry later.",
+                    Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+    }
+
+    /**
+     * Periodically discards buckets that have refilled completely and stayed idle.
+     */
+    @Scheduled(fixedDelayString = "${banking.admission.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        evictIdleBuckets(System.nanoTime());
+    }
+
+    void evictIdleBuckets(long now) {
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleEvictionNanos));
+        log.debug("Evicted {} idle admission buckets", before - buckets.size());
+    }
+
+    private TierLimit tierFor(String customerId) {
+        String tierName = customerTiers.get(customerId);
+        if (tierName == null) {
+            return defaultTier;
+        }
+        return tiers.getOrDefault(tierName, defaultTier);
+    }
+
+    /**
+     * Resolved limits and reject counter for a single tier.
+     */
+    private static final class TierLimit {
+        private final String name;
+        private final double requestsPerSecond;
+        private final int burst;
+        private final Counter rejected;
+
+        private TierLimit(String name, AdmissionControlProperties.Tier tier, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.requestsPerSecond = tier.getRequestsPerSecond();
+            this.burst = tier.getBurst();
+            this.rejected = Counter.builder("banking.admission.rejected")
+                    .description("Transfer requests rejected by per-customer admission control")
+                    .tag("tier", name)
+                    .register(meterRegistry);
+        }
+    }
+}
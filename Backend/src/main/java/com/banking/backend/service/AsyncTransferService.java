@@ -0,0 +1,354 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.FxRateUnavailableException;
+import com.banking.backend.GlobalExceptationHandlers.InsufficientBalanceException;
+import com.banking.backend.GlobalExceptationHandlers.LimitExceededException;
+import com.banking.backend.GlobalExceptationHandlers.TransferQueueFullException;
+import com.banking.backend.config.transfer.AsyncTransferProperties;
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.dto.TransferStatusDTO;
+import com.banking.backend.enums.AsyncTransferStatus;
+import com.banking.backend.model.Account;
+import com.banking.backend.model.Transaction;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.repository.TransactionRepository;
+import com.banking.backend.service.interfaces.IAsyncTransferService;
+import com.banking.backend.service.interfaces.IHotAccountService;
+import com.banking.backend.service.interfaces.ILimitLeaseService;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import com.banking.backend.service.interfaces.INotificationService;
+import com.banking.backend.util.PartitionedSequencer;
+import com.banking.backend.util.TransactionIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accepts transfers for asynchronous processing and applies them through a per-sender sequencer.
+ * <p>
+ * Each transfer is routed by its sender's customer id to one of a fixed number of queues, and each
+ * queue is drained by a single worker, so all debits of an account are applied by one thread in the
+ * order they were accepted. A worker applies everything it drained in one database transaction
+ * (group commit): the accounts involved are row-locked once, in id order, every transfer is validated
+ * and applied in turn against the in-memory balances, and the ledger entries are written together.
+ * The id-ordered locks keep workers that share a recipient from deadlocking each other and serialise
+ * them on that recipient for the length of one batch rather than one transfer per lock.
+ * <p>
+ * Each transfer's daily-limit reservation is taken before the batch transaction and given back if the
+ * transfer does not go through. A transfer that fails validation only fails itself; if the batch
+ * transaction as a whole fails, its transfers are retried one at a time. Outcomes are kept in memory
+ * for a configurable time for the status endpoint, and notifications are sent once the batch has committed.
+ */
+@Service
+public class AsyncTransferService implements IAsyncTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncTransferService.class);
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private record PendingTransfer(String transferId, TransactionRequestDTO request, LocalDateTime acceptedAt) {
+    }
+
+    /**
+     * The result of one transfer in a batch; the account snapshots carry the balances right after it,
+     * the credited amount is in the recipient's currency, and the lock wait is how long its batch
+     * waited for the account rows.
+     */
+    private record Outcome(PendingTransfer transfer, String failureReason, Account sender, Account recipient,
+                           BigDecimal creditedAmount, long lockWaitNanos) {
+
+        static Outcome completed(PendingTransfer transfer, Account sender, Account recipient, BigDecimal creditedAmount,
+                                 long lockWaitNanos) {
+            return new Outcome(transfer, null, sender, recipient, creditedAmount, lockWaitNanos);
+        }
+
+        static Outcome failed(PendingTransfer transfer, String failureReason) {
+            return new Outcome(transfer, failureReason, null, null, null, 0);
+        }
+    }
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionService transactionService;
+    private final INotificationService notificationService;
+    private final ILimitLeaseService limitLeaseService;
+    private final IHotAccountService hotAccountService;
+    private final IMonthlyTotalsService monthlyTotalsService;
+    private final AsyncTransferProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, TransferStatusDTO> statuses = new ConcurrentHashMap<>();
+    private final PartitionedSequencer<PendingTransfer> sequencer;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+    private final Counter completedTransfers;
+    private final Counter failedTransfers;
+
+    public AsyncTransferService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                                TransactionService transactionService, INotificationService notificationService,
+                                ILimitLeaseService limitLeaseService, IHotAccountService hotAccountService,
+                                IMonthlyTotalsService monthlyTotalsService, AsyncTransferProperties properties,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionService = transactionService;
+        this.notificationService = notificationService;
+        this.limitLeaseService = limitLeaseService;
+        this.hotAccountService = hotAccountService;
+        this.monthlyTotalsService = monthlyTotalsService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sequencer = new PartitionedSequencer<>("transfer-sequencer", properties.getPartitions(),
+                properties.getQueueCapacity(), properties.getMaxBatchSize(), this::processBatch);
+
+        Gauge.builder("banking.transfers.async.queued", sequencer, PartitionedSequencer::queued)
+                .description("Accepted transfers waiting to be applied")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("banking.transfers.async.batch.size")
+                .description("Transfers applied per group commit")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("banking.transfers.async.commit")
+                .description("Time to apply and commit one batch of transfers")
+                .register(meterRegistry);
+        this.completedTransfers = Counter.builder("banking.transfers.async")
+                .tag("outcome", "completed")
+                .register(meterRegistry);
+        this.failedTransfers = Counter.builder("banking.transfers.async")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (properties.isEnabled()) {
+            sequencer.start();
+        }
+    }
+
+    /**
+     * Stops accepting transfers and gives the workers time to apply what is already queued.
+     * Anything left after the drain timeout is reported as failed.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        List<PendingTransfer> leftover = sequencer.stop(properties.getDrainTimeout());
+        if (!leftover.isEmpty()) {
+            log.error("{} accepted transfers were not applied before shutdown", leftover.size());
+            leftover.forEach(transfer -> publish(Outcome.failed(transfer, "Service shut down before the transfer was applied")));
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Accepts a transfer for asynchronous processing.
+     *
+     * @return The ACCEPTED status carrying the transfer id to poll.
+     * @throws IllegalArgumentException If the transfer is to the sender's own account, or names a customer
+     * the customer filter knows does not exist.
+     * @throws TransferQueueFullException If the sender's partition is full or too many outcomes are tracked.
+     */
+    @Override
+    public TransferStatusDTO submit(TransactionRequestDTO request) {
+        if (request.getFromUserId().equals(request.getToUserId())) {
+            throw new IllegalArgumentException("Cannot transfer funds to the same account.");
+        }
+        transactionService.requireKnownCustomers(request);
+        if (statuses.size() >= properties.getMaxTrackedTransfers()) {
+            throw new TransferQueueFullException("Too many asynchronous transfers in progress", RETRY_AFTER_SECONDS);
+        }
+
+        PendingTransfer transfer = new PendingTransfer(TransactionIdGenerator.generate(), request, LocalDateTime.now());
+        TransferStatusDTO accepted = status(transfer, AsyncTransferStatus.ACCEPTED, null, null);
+        statuses.put(transfer.transferId(), accepted);
+        if (!sequencer.offer(request.getFromUserId(), transfer)) {
+            statuses.remove(transfer.transferId());
+            throw new TransferQueueFullException("Transfer queue is full", RETRY_AFTER_SECONDS);
+        }
+        log.debug("Accepted asynchronous transfer {} from user {} to user {}", transfer.transferId(),
+                request.getFromUserId(), request.getToUserId());
+        return accepted;
+    }
+
+    @Override
+    public Optional<TransferStatusDTO> getStatus(String transferId) {
+        return Optional.ofNullable(statuses.get(transferId));
+    }
+
+    /**
+     * Forgets finished transfers whose outcome has been available for longer than the status TTL.
+     */
+    @Scheduled(fixedDelayString = "${banking.transfers.async.status-eviction-interval-ms:30000}")
+    public void evictExpiredStatuses() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getStatusTtl());
+        statuses.values().removeIf(status -> status.getCompletedAt() != null && status.getCompletedAt().isBefore(cutoff));
+    }
+
+    private void processBatch(List<PendingTransfer> batch) {
+        batchSizes.record(batch.size());
+        // Daily-limit reservations are taken before the batch locks any account rows.
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        List<PendingTransfer> reserved = new ArrayList<>(batch.size());
+        for (PendingTransfer transfer : batch) {
+            try {
+                limitLeaseService.reserve(transfer.request().getFromUserId(), transfer.request().getAmount());
+                reserved.add(transfer);
+            } catch (LimitExceededException | IllegalArgumentException e) {
+                outcomes.add(Outcome.failed(transfer, e.getMessage()));
+            } catch (RuntimeException e) {
+                log.error("Could not reserve daily limit for asynchronous transfer {}", transfer.transferId(), e);
+                outcomes.add(Outcome.failed(transfer, "Transfer could not be processed"));
+            }
+        }
+
+        for (Outcome outcome : commit(reserved)) {
+            if (outcome.failureReason() != null) {
+                limitLeaseService.release(outcome.transfer().request().getFromUserId(), outcome.transfer().request().getAmount());
+            }
+            outcomes.add(outcome);
+        }
+        outcomes.forEach(this::publish);
+    }
+
+    private List<Outcome> commit(List<PendingTransfer> batch) {
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+        List<Outcome> outcomes;
+        try {
+            outcomes = commitTimer.record(() -> transactionTemplate.execute(status -> applyBatch(batch)));
+        } catch (RuntimeException batchError) {
+            log.warn("Group commit of {} transfers failed, applying them one at a time", batch.size(), batchError);
+            outcomes = new ArrayList<>(batch.size());
+            for (PendingTransfer transfer : batch) {
+                try {
+                    outcomes.addAll(transactionTemplate.execute(status -> applyBatch(List.of(transfer))));
+                } catch (RuntimeException e) {
+                    log.error("Asynchronous transfer {} could not be applied", transfer.transferId(), e);
+                    outcomes.add(Outcome.failed(transfer, "Transfer could not be processed"));
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    private List<Outcome> applyBatch(List<PendingTransfer> batch) {
+        Set<String> customerIds = new HashSet<>();
+        for (PendingTransfer transfer : batch) {
+            customerIds.add(transfer.request().getFromUserId());
+            customerIds.add(transfer.request().getToUserId());
+        }
+        Map<String, Account> accounts = new HashMap<>();
+        long lockStarted = System.nanoTime();
+        for (Account account : accountRepository.findAllByCustomerIdForUpdate(customerIds)) {
+            accounts.put(account.getCustomerId(), account);
+        }
+        long lockWaitNanos = System.nanoTime() - lockStarted;
+
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        List<Transaction> legs = new ArrayList<>(batch.size() * 2);
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingTransfer transfer : batch) {
+            TransactionRequestDTO request = transfer.request();
+            Account fromAccount = accounts.get(request.getFromUserId());
+            Account toAccount = accounts.get(request.getToUserId());
+            if (fromAccount == null) {
+                outcomes.add(Outcome.failed(transfer, "Sender account not found for user ID: " + request.getFromUserId()));
+                continue;
+            }
+            if (toAccount == null) {
+                outcomes.add(Outcome.failed(transfer, "Recipient account not found for user ID: " + request.getToUserId()));
+                continue;
+            }
+            try {
+                TransactionService.TransferLegs transferLegs = transactionService.applyTransfer(
+                        fromAccount, toAccount, request.getAmount(), transfer.transferId(), now);
+                transferLegs.debit().setAccount(fromAccount);
+                transferLegs.credit().setAccount(toAccount);
+                legs.add(transferLegs.debit());
+                legs.add(transferLegs.credit());
+                outcomes.add(Outcome.completed(transfer, snapshot(fromAccount), snapshot(toAccount),
+                        transferLegs.credit().getAmount(), lockWaitNanos));
+            } catch (InsufficientBalanceException | IllegalArgumentException | FxRateUnavailableException e) {
+                outcomes.add(Outcome.failed(transfer, e.getMessage()));
+            }
+        }
+        transactionRepository.saveAll(legs);
+        monthlyTotalsService.record(legs);
+        return outcomes;
+    }
+
+    private void publish(Outcome outcome) {
+        PendingTransfer transfer = outcome.transfer();
+        hotAccountService.recordTransfer(transfer.request().getFromUserId(), transfer.request().getToUserId(),
+                outcome.lockWaitNanos());
+        if (outcome.failureReason() != null) {
+            failedTransfers.increment();
+            statuses.put(transfer.transferId(), status(transfer, AsyncTransferStatus.FAILED, outcome.failureReason(), LocalDateTime.now()));
+            return;
+        }
+        completedTransfers.increment();
+        statuses.put(transfer.transferId(), status(transfer, AsyncTransferStatus.COMPLETED, null, LocalDateTime.now()));
+        try {
+            // Outcomes are published as soon as their batch has committed.
+            notificationService.sendTransferNotifications(transfer.transferId(), outcome.sender(), outcome.recipient(),
+                    transfer.request().getAmount(), outcome.creditedAmount(), LocalDateTime.now());
+        } catch (Exception e) {
+            log.error("Failed to enqueue notification for transaction ID: {}. The transfer has been applied.", transfer.transferId(), e);
+        }
+    }
+
+    /**
+     * Statuses are replaced rather than updated in place, so readers never see a half-written one.
+     */
+    private static TransferStatusDTO status(PendingTransfer transfer, AsyncTransferStatus status, String failureReason,
+                                            LocalDateTime completedAt) {
+        TransferStatusDTO dto = new TransferStatusDTO();
+        dto.setTransferId(transfer.transferId());
+        dto.setStatus(status);
+        dto.setFromUserId(transfer.request().getFromUserId());
+        dto.setToUserId(transfer.request().getToUserId());
+        dto.setAmount(transfer.request().getAmount());
+        dto.setFailureReason(failureReason);
+        dto.setAcceptedAt(transfer.acceptedAt());
+        dto.setCompletedAt(completedAt);
+        return dto;
+    }
+
+    /**
+     * Detached copy of the fields the notifications read, taken while the batch is applied so each
+     * notification shows the balance right after its own transfer.
+     */
+    private static Account snapshot(Account account) {
+        Account copy = new Account();
+        copy.setCustomerId(account.getCustomerId());
+        copy.setCustomerName(account.getCustomerName());
+        copy.setBalance(account.getBalance());
+        copy.setCurrency(account.getCurrency());
+        copy.setDailyTransactionAmount(account.getDailyTransactionAmount());
+        copy.setDailyTransactionLimit(account.getDailyTransactionLimit());
+        return copy;
+    }
+}
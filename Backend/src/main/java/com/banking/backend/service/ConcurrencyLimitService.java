@@ -0,0 +1,115 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.ConcurrencyLimitExceededException;
+import com.banking.backend.config.concurrency.ConcurrencyLimitProperties;
+import com.banking.backend.service.interfaces.IConcurrencyLimitService;
+import com.banking.backend.util.AdaptiveConcurrencyLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+/**
+ * Service class responsible for the global adaptive concurrency limit on synchronous transfers.
+ * Where {@link AdmissionControlService} stops one customer from sending too much, this limit protects
+ * the database from everyone together: it caps how many transfers run at once, and moves the cap with
+ * the latency transfers are served at (see {@link AdaptiveConcurrencyLimit}). When the database slows
+ * down, the cap shrinks towards what the connection pool can serve without queueing, and transfers
+ * beyond it are turned away at once with HTTP 503 instead of waiting for a connection until they time out.
+ * <p>
+ * A transfer that fails for a business reason still measured the database, so its latency is recorded
+ * like any other. One that failed waiting for a connection, a statement or its transaction is a sign
+ * of overload and backs the limit off directly.
+ */
+@Service
+public class ConcurrencyLimitService implements IConcurrencyLimitService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitService.class);
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final AdaptiveConcurrencyLimit limit;
+    private final Counter shed;
+    private final Counter dropped;
+
+    public ConcurrencyLimitService(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        this.limit = new AdaptiveConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getTolerance(), properties.getSmoothing(),
+                properties.getBackoffRatio(), properties.getWindow().toNanos(), properties.getMinWindowSamples(), System.nanoTime());
+
+        this.shed = Counter.builder("banking.concurrency.shed")
+                .description("Synchronous transfers rejected because the concurrency limit was reached")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("banking.concurrency.dropped")
+                .description("Synchronous transfers that timed out in the database and backed the concurrency limit off")
+                .register(meterRegistry);
+        Gauge.builder("banking.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Number of synchronous transfers currently allowed to run at once")
+                .register(meterRegistry);
+        Gauge.builder("banking.concurrency.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Number of synchronous transfers currently running")
+                .register(meterRegistry);
+        Gauge.builder("banking.concurrency.latency", limit, l -> l.getLatencyNanos() / 1e9)
+                .description("Average transfer latency of the last sample window")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("banking.concurrency.latency.noload", limit, l -> l.getNoLoadLatencyNanos() / 1e9)
+                .description("Transfer latency the concurrency limit regards as free of queueing")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the work if the concurrency limit allows another transfer, timing it to adjust the limit.
+     *
+     * @param work The transfer to run.
+     * @throws ConcurrencyLimitExceededException If as many transfers as the limit allows are already running.
+     */
+    @Override
+    public void execute(Runnable work) {
+        if (!enabled) {
+            work.run();
+            return;
+        }
+        if (!limit.tryAcquire()) {
+            shed.increment();
+            log.debug("Transfer shed at concurrency limit {}", limit.getLimit());
+            throw new ConcurrencyLimitExceededException("The service is at capacity. Please retry later.", retryAfterSeconds);
+        }
+        long start = System.nanoTime();
+        boolean released = false;
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            if (isTimeout(e)) {
+                released = true;
+                limit.onDropped();
+                dropped.increment();
+                log.debug("Transfer timed out in the database, concurrency limit backed off to {}", limit.getLimit());
+            }
+            throw e;
+        } finally {
+            if (!released) {
+                long now = System.nanoTime();
+                limit.onSuccess(now - start, now);
+            }
+        }
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof QueryTimeoutException || cause instanceof CannotCreateTransactionException
+                    || cause instanceof TransactionTimedOutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
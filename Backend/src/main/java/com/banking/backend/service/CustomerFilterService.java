@@ -0,0 +1,212 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.customer.CustomerFilterProperties;
+import com.banking.backend.service.interfaces.ICustomerFilterService;
+import com.banking.backend.util.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps every existing customer id in a {@link ScalableBloomFilter}, so that transfers naming a
+ * customer that does not exist are rejected without a database query.
+ * <p>
+ * The filter is built once the application is ready, by streaming the customer ids of the whole
+ * account table; until then every id is let through. Accounts created by this instance are added as
+ * they are created, and those created by other replicas are read every {@code catch-up-interval-ms} by
+ * account id. For that long after its creation elsewhere, an account can be reported as unknown here.
+ * <p>
+ * Account ids are handed out when an insert starts, not when it commits, so a read can pass over the id
+ * of an account whose insert has not committed yet. Every id a read passes over is read again by each
+ * catch-up for {@code missing-id-window}, which also keeps re-reading the ids of rolled-back inserts for
+ * that long; only the newest {@code max-missing-ids} are kept. Inserts slower than that are picked up
+ * by the full rebuild every {@code rebuild-interval-ms}, which streams the table on a thread of its own
+ * while catch-ups carry on. Accounts are never removed from the filter, which only makes their ids a
+ * false positive.
+ */
+@Service
+public class CustomerFilterService implements ICustomerFilterService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerFilterService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerFilterProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter rejections;
+    private volatile ScalableBloomFilter filter;
+    private volatile long lastAccountId;
+    // Account ids that reads passed over, with when they were first missed; guarded by this.
+    private final NavigableMap<Long, Long> missingIds = new TreeMap<>();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ExecutorService rebuilds = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("customer-filter-rebuild").daemon().factory());
+
+    public CustomerFilterService(DataSource dataSource, CustomerFilterProperties properties,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rejections = Counter.builder("banking.customers.filter.rejections")
+                .description("Transfers rejected because a customer id is not in the filter")
+                .register(meterRegistry);
+        Gauge.builder("banking.customers.filter.size", this, service -> service.filter == null ? 0 : service.filter.size())
+                .description("Customer ids held in the filter")
+                .register(meterRegistry);
+        Gauge.builder("banking.customers.filter.memory", this, service -> service.filter == null ? 0 : service.filter.sizeInBytes())
+                .description("Memory taken by the filter's bit arrays")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("banking.customers.filter.false.positive.rate", this,
+                        service -> service.filter == null ? 0 : service.filter.expectedFalsePositiveRate())
+                .description("Expected chance that an unknown customer id passes the filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds the filter from the account table, replacing any filter built before.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        ScalableBloomFilter loaded = new ScalableBloomFilter(properties.getExpectedCustomers(), properties.getFalsePositiveRate());
+        NavigableMap<Long, Long> missed = new TreeMap<>();
+        long lastId = read(loaded, 0, List.of(), missed);
+        synchronized (this) {
+            lastAccountId = Math.max(lastAccountId, lastId);
+            missingIds.putAll(missed);
+            keepNewest(missingIds);
+            filter = loaded;
+        }
+        // Ids registered while the table was read may have been missed by the read; read past them again.
+        catchUp();
+        log.info("Loaded {} customer ids into the customer filter in {} ms ({} bytes)", loaded.size(),
+                (System.nanoTime() - started) / 1_000_000, loaded.sizeInBytes());
+    }
+
+    /**
+     * Rebuilds a loaded filter, for any account whose insert committed after its id stopped being re-read.
+     */
+    public void rebuild() {
+        if (filter != null) {
+            load();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.customer-filter.rebuild-interval-ms:3600000}",
+            initialDelayString = "${banking.customer-filter.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilds.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Rebuilding the customer filter failed; the current filter stays in use", e);
+            } finally {
+                rebuildQueued.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        rebuilds.shutdownNow();
+        rebuilds.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public boolean mightExist(String customerId) {
+        ScalableBloomFilter current = filter;
+        if (current == null || !properties.isEnabled() || current.mightContain(customerId)) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    @Override
+    public void register(String customerId) {
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(customerId);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banking.customer-filter.catch-up-interval-ms:1000}")
+    public synchronized void catchUp() {
+        ScalableBloomFilter current = filter;
+        if (current == null) {
+            return;
+        }
+        long expiredBefore = System.nanoTime() - properties.getMissingIdWindow().toNanos();
+        missingIds.values().removeIf(missedAt -> missedAt - expiredBefore < 0);
+        lastAccountId = Math.max(lastAccountId, read(current, lastAccountId, new ArrayList<>(missingIds.keySet()), missingIds));
+    }
+
+    /**
+     * Adds the customer ids of the accounts with an id above {@code afterId} or in {@code recheckIds}.
+     * Ids that turn up are removed from {@code missed}, and ids above {@code afterId} that the read passes
+     * over are added to it.
+     *
+     * @return The highest account id read, or {@code afterId} if there was none.
+     */
+    private long read(ScalableBloomFilter target, long afterId, Collection<Long> recheckIds, NavigableMap<Long, Long> missed) {
+        String sql = "SELECT id, customer_id FROM account WHERE id > ?" + (recheckIds.isEmpty() ? ""
+                : " OR id IN (" + String.join(", ", Collections.nCopies(recheckIds.size(), "?")) + ")") + " ORDER BY id";
+        List<Object> args = new ArrayList<>(recheckIds.size() + 1);
+        args.add(afterId);
+        args.addAll(recheckIds);
+        long missedAt = System.nanoTime();
+        AtomicLong lastId = new AtomicLong(afterId);
+        // Inside a transaction so that PostgreSQL streams the rows with the fetch size instead of
+        // reading the whole table into memory first.
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql, resultSet -> {
+            long id = resultSet.getLong(1);
+            target.put(resultSet.getString(2));
+            missed.remove(id);
+            if (id > lastId.get()) {
+                for (long skipped = Math.max(lastId.get() + 1, id - properties.getMaxMissingIds()); skipped < id; skipped++) {
+                    missed.put(skipped, missedAt);
+                }
+                keepNewest(missed);
+                lastId.set(id);
+            }
+        }, args.toArray()));
+        return lastId.get();
+    }
+
+    private void keepNewest(NavigableMap<Long, Long> ids) {
+        while (ids.size() > properties.getMaxMissingIds()) {
+            ids.pollFirstEntry();
+        }
+    }
+}
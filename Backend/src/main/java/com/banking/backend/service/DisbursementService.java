@@ -0,0 +1,540 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.FxRateUnavailableException;
+import com.banking.backend.GlobalExceptationHandlers.InsufficientBalanceException;
+import com.banking.backend.config.disbursement.DisbursementProperties;
+import com.banking.backend.dto.DisbursementJobDTO;
+import com.banking.backend.dto.DisbursementLineDTO;
+import com.banking.backend.dto.DisbursementLineRequestDTO;
+import com.banking.backend.dto.DisbursementRequestDTO;
+import com.banking.backend.enums.DisbursementJobStatus;
+import com.banking.backend.enums.DisbursementLineStatus;
+import com.banking.backend.enums.TransactionType;
+import com.banking.backend.model.Account;
+import com.banking.backend.model.Transaction;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.repository.TransactionRepository;
+import com.banking.backend.service.interfaces.IDisbursementService;
+import com.banking.backend.service.interfaces.IFxRateService;
+import com.banking.backend.service.interfaces.ILimitLeaseService;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import com.banking.backend.util.FxRateSnapshot;
+import com.banking.backend.util.TransactionIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class responsible for bulk disbursements such as payroll: one sender paying many recipients.
+ * <p>
+ * Creating a job reserves the total against the sender's daily limit and debits the sender once, under
+ * a single lock of the sender's row, in the same transaction that stores the job and its lines. The
+ * lines are then credited by workers running in the background, so the sender's row is never touched
+ * per line. Lines are split into {@code workersPerJob} partitions by recipient, so workers never
+ * compete for the same recipient rows, and each worker commits {@code chunkSize} lines at a time: it
+ * locks the chunk's recipients, credits them, writes their ledger entries and marks the lines done in
+ * one transaction. A line is marked done only while still {@code PENDING}, in the same transaction as
+ * its credit, so a line is never paid twice.
+ * <p>
+ * Lines that cannot be credited, because the recipient does not exist or no FX rate is available, are
+ * marked failed with the reason. When no line is left pending, the failed amount is refunded to the
+ * sender in one entry and given back to the daily limit. A job whose workers stopped, by a crash or a
+ * database error, is resumed once it has committed nothing for {@code staleAfter}; it carries on from
+ * the last committed chunk.
+ */
+@Service
+public class DisbursementService implements IDisbursementService {
+
+    private static final Logger log = LoggerFactory.getLogger(DisbursementService.class);
+
+    private static final String JOB_COLUMNS = "id, from_user_id, description, transaction_id, status, line_count, total_amount, " +
+            "lines_completed, lines_failed, amount_completed, amount_refunded, created_at, finished_at";
+    private static final String INSERT_JOB_SQL = "INSERT INTO disbursement_job (from_user_id, description, transaction_id, status, " +
+            "line_count, total_amount, workers, lines_completed, lines_failed, amount_completed, amount_refunded, created_at, updated_at) " +
+            "VALUES (?, ?, ?, 'RUNNING', ?, ?, ?, 0, 0, 0, 0, ?, ?)";
+    private static final String INSERT_LINE_SQL = "INSERT INTO disbursement_line (job_id, line_number, to_user_id, amount, partition_no, status) " +
+            "VALUES (?, ?, ?, ?, ?, 'PENDING')";
+    private static final String NEXT_CHUNK_SQL = "SELECT id, to_user_id, amount FROM disbursement_line " +
+            "WHERE job_id = ? AND status = 'PENDING' AND partition_no = ? ORDER BY id LIMIT ?";
+    private static final String CLAIM_LINE_SQL = "UPDATE disbursement_line SET status = ?, credited_amount = ?, failure_reason = ?, " +
+            "processed_at = ? WHERE id = ? AND status = 'PENDING'";
+    private static final String PROGRESS_SQL = "UPDATE disbursement_job SET lines_completed = lines_completed + ?, " +
+            "lines_failed = lines_failed + ?, amount_completed = amount_completed + ?, updated_at = ? WHERE id = ?";
+    private static final String FINISH_SQL = "UPDATE disbursement_job SET status = 'COMPLETED', amount_refunded = ?, " +
+            "finished_at = ?, updated_at = ? WHERE id = ? AND status = 'RUNNING'";
+    private static final int INSERT_BATCH_SIZE = 1_000;
+    private static final int MAX_REASON_LENGTH = 255;
+
+    /**
+     * What every chunk of a job needs to know about its sender, read once per worker.
+     */
+    private record JobContext(long jobId, String transactionId, String fromUserId, String senderName, String senderCurrency) {
+    }
+
+    /**
+     * The workers this instance runs for one job. The last to stop completes the job, unless one was cut short.
+     */
+    private static final class JobRun {
+        private final AtomicInteger remaining;
+        private final AtomicBoolean interrupted = new AtomicBoolean();
+
+        private JobRun(int workers) {
+            this.remaining = new AtomicInteger(workers);
+        }
+    }
+
+    /**
+     * Raised inside a chunk's transaction when another worker already processed one of its lines.
+     */
+    private static final class LineAlreadyClaimedException extends RuntimeException {
+        private LineAlreadyClaimedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ILimitLeaseService limitLeaseService;
+    private final IFxRateService fxRateService;
+    private final IMonthlyTotalsService monthlyTotalsService;
+    private final DisbursementProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final Map<Long, JobRun> runs = new ConcurrentHashMap<>();
+    private final Counter linesCompleted;
+    private final Counter linesFailed;
+
+    public DisbursementService(DataSource dataSource, AccountRepository accountRepository,
+                               TransactionRepository transactionRepository, ILimitLeaseService limitLeaseService,
+                               IFxRateService fxRateService, IMonthlyTotalsService monthlyTotalsService,
+                               DisbursementProperties properties,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.limitLeaseService = limitLeaseService;
+        this.fxRateService = fxRateService;
+        this.monthlyTotalsService = monthlyTotalsService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxWorkers()),
+                Thread.ofPlatform().name("disbursement-", 0).factory());
+        this.linesCompleted = Counter.builder("banking.disbursements.lines")
+                .description("Disbursement lines processed, by outcome")
+                .tag("outcome", "completed")
+                .register(meterRegistry);
+        this.linesFailed = Counter.builder("banking.disbursements.lines")
+                .description("Disbursement lines processed, by outcome")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a disbursement job, debits its total from the sender and starts crediting the recipients.
+     *
+     * @return The job as stored; lines are credited after this returns.
+     * @throws IllegalArgumentException If the sender does not exist, a line pays the sender, an amount
+     * is not a positive number of cents, or the job has more than {@code maxLines} lines.
+     * @throws InsufficientBalanceException If the sender's balance does not cover the total.
+     * @throws com.banking.backend.GlobalExceptationHandlers.LimitExceededException If the total would
+     * exceed the sender's daily limit.
+     */
+    @Override
+    public DisbursementJobDTO create(DisbursementRequestDTO request) {
+        long jobId = store(request);
+        start(jobId, Math.max(1, properties.getWorkersPerJob()));
+        return get(jobId).orElseThrow();
+    }
+
+    /**
+     * Validates, debits and stores a job without starting its workers.
+     */
+    long store(DisbursementRequestDTO request) {
+        List<DisbursementLineRequestDTO> lines = request.getLines();
+        String fromUserId = request.getFromUserId();
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("A disbursement needs at least one line");
+        }
+        if (lines.size() > properties.getMaxLines()) {
+            throw new IllegalArgumentException("A disbursement may have at most " + properties.getMaxLines() + " lines");
+        }
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines.size(); i++) {
+            DisbursementLineRequestDTO line = lines.get(i);
+            if (line.getToUserId() == null || line.getToUserId().isBlank() || line.getToUserId().equals(fromUserId)) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": recipient must be another account");
+            }
+            if (line.getAmount() == null || line.getAmount().signum() <= 0 || line.getAmount().stripTrailingZeros().scale() > 2) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": amount must be a positive number of cents");
+            }
+            total = total.add(line.getAmount());
+        }
+
+        BigDecimal jobTotal = total;
+        int workers = Math.max(1, properties.getWorkersPerJob());
+        limitLeaseService.reserve(fromUserId, jobTotal);
+        long jobId;
+        try {
+            jobId = transactionTemplate.execute(status -> debitAndStore(request, jobTotal, workers));
+        } catch (RuntimeException e) {
+            limitLeaseService.release(fromUserId, jobTotal);
+            throw e;
+        }
+        log.info("Created disbursement job {} from user {}: {} lines, {} in total", jobId, fromUserId, lines.size(), jobTotal);
+        return jobId;
+    }
+
+    private long debitAndStore(DisbursementRequestDTO request, BigDecimal total, int workers) {
+        Account sender = accountRepository.findAllByCustomerIdForUpdate(List.of(request.getFromUserId())).stream()
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Sender account not found for user ID: " + request.getFromUserId()));
+        if (sender.getBalance().compareTo(total) < 0) {
+            throw new InsufficientBalanceException("Insufficient Balance");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String transactionId = TransactionIdGenerator.generate();
+        List<DisbursementLineRequestDTO> lines = request.getLines();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_JOB_SQL, Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, request.getFromUserId());
+            statement.setString(2, request.getDescription());
+            statement.setString(3, transactionId);
+            statement.setInt(4, lines.size());
+            statement.setBigDecimal(5, total);
+            statement.setInt(6, workers);
+            statement.setTimestamp(7, Timestamp.valueOf(now));
+            statement.setTimestamp(8, Timestamp.valueOf(now));
+            return statement;
+        }, keyHolder);
+        long jobId = ((Number) keyHolder.getKeys().get("id")).longValue();
+
+        List<Object[]> rows = new ArrayList<>(Math.min(lines.size(), INSERT_BATCH_SIZE));
+        for (int i = 0; i < lines.size(); i++) {
+            DisbursementLineRequestDTO line = lines.get(i);
+            rows.add(new Object[]{jobId, i + 1, line.getToUserId(), line.getAmount(),
+                    Math.floorMod(line.getToUserId().hashCode(), workers)});
+            if (rows.size() == INSERT_BATCH_SIZE || i == lines.size() - 1) {
+                jdbcTemplate.batchUpdate(INSERT_LINE_SQL, rows);
+                rows.clear();
+            }
+        }
+
+        sender.setBalance(sender.getBalance().subtract(total));
+        Transaction debit = ledgerEntry(transactionId, TransactionType.TRANSFER_OUT, total.negate(),
+                String.format("Disbursement %d to %d recipients", jobId, lines.size()), now, sender);
+        transactionRepository.save(debit);
+        monthlyTotalsService.record(List.of(debit));
+        return jobId;
+    }
+
+    @Override
+    public Optional<DisbursementJobDTO> get(long jobId) {
+        return jdbcTemplate.query("SELECT " + JOB_COLUMNS + " FROM disbursement_job WHERE id = ?", JOB_MAPPER, jobId)
+                .stream().findFirst();
+    }
+
+    @Override
+    public List<DisbursementLineDTO> getFailures(long jobId, int afterLine, int limit) {
+        if (limit < 1 || limit > 1_000) {
+            throw new IllegalArgumentException("Limit must be between 1 and 1000");
+        }
+        return jdbcTemplate.query("SELECT line_number, to_user_id, amount, status, credited_amount, failure_reason, processed_at " +
+                        "FROM disbursement_line WHERE job_id = ? AND status = 'FAILED' AND line_number > ? ORDER BY line_number LIMIT ?",
+                LINE_MAPPER, jobId, afterLine, limit);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banking.disbursements.resume-interval-ms:60000}")
+    public void resumeInterruptedJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(properties.getStaleAfter());
+        jdbcTemplate.query("SELECT id, workers FROM disbursement_job WHERE status = 'RUNNING' AND updated_at < ?",
+                (resultSet, rowNum) -> new long[]{resultSet.getLong(1), resultSet.getInt(2)},
+                Timestamp.valueOf(staleBefore)
+        ).forEach(job -> {
+            if (!runs.containsKey(job[0])) {
+                log.info("Resuming disbursement job {}", job[0]);
+                start(job[0], (int) job[1]);
+            }
+        });
+    }
+
+    private void start(long jobId, int workers) {
+        JobRun run = new JobRun(workers);
+        if (runs.putIfAbsent(jobId, run) != null) {
+            return;
+        }
+        for (int partition = 0; partition < workers; partition++) {
+            int worker = partition;
+            executor.execute(() -> runPartition(jobId, worker, run));
+        }
+    }
+
+    private void runPartition(long jobId, int partition, JobRun run) {
+        try {
+            JobContext context = loadContext(jobId);
+            while (processChunk(context, partition) > 0) {
+                // Each chunk commits on its own; the next one starts from what is still pending.
+            }
+        } catch (RuntimeException e) {
+            run.interrupted.set(true);
+            log.error("Disbursement job {} stopped in partition {}; it will be resumed", jobId, partition, e);
+        } finally {
+            if (run.remaining.decrementAndGet() == 0) {
+                runs.remove(jobId);
+                if (!run.interrupted.get()) {
+                    finish(jobId);
+                }
+            }
+        }
+    }
+
+    private JobContext loadContext(long jobId) {
+        Map<String, Object> job = jdbcTemplate.queryForMap(
+                "SELECT transaction_id, from_user_id FROM disbursement_job WHERE id = ?", jobId);
+        String fromUserId = (String) job.get("from_user_id");
+        Account sender = accountRepository.findByCustomerId(fromUserId)
+                .orElseThrow(() -> new IllegalStateException("Sender of disbursement job " + jobId + " no longer exists"));
+        return new JobContext(jobId, (String) job.get("transaction_id"), fromUserId, sender.getCustomerName(), sender.getCurrency());
+    }
+
+    /**
+     * Credits the next chunk of pending lines in one partition of a job, outside its workers.
+     *
+     * @return The number of lines processed, or 0 once the partition has nothing pending.
+     */
+    int processNextChunk(long jobId, int partition) {
+        return processChunk(loadContext(jobId), partition);
+    }
+
+    private int processChunk(JobContext context, int partition) {
+        while (true) {
+            try {
+                Integer processed = transactionTemplate.execute(status -> creditChunk(context, partition));
+                return processed == null ? 0 : processed;
+            } catch (LineAlreadyClaimedException e) {
+                // Another instance worked on this partition; read what is still pending and go again.
+                log.debug("Disbursement job {} partition {} had lines processed elsewhere", context.jobId(), partition);
+            }
+        }
+    }
+
+    private int creditChunk(JobContext context, int partition) {
+        List<PendingLine> chunk = jdbcTemplate.query(NEXT_CHUNK_SQL,
+                (resultSet, rowNum) -> new PendingLine(resultSet.getLong(1), resultSet.getString(2), resultSet.getBigDecimal(3)),
+                context.jobId(), partition, Math.max(1, properties.getChunkSize()));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> recipientIds = new HashSet<>();
+        chunk.forEach(line -> recipientIds.add(line.toUserId()));
+        Map<String, Account> recipients = new HashMap<>();
+        for (Account account : accountRepository.findAllByCustomerIdForUpdate(recipientIds)) {
+            recipients.put(account.getCustomerId(), account);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp processedAt = Timestamp.valueOf(now);
+        List<Object[]> claims = new ArrayList<>(chunk.size());
+        List<Transaction> credits = new ArrayList<>(chunk.size());
+        int failed = 0;
+        BigDecimal completedAmount = BigDecimal.ZERO;
+        for (PendingLine line : chunk) {
+            Account recipient = recipients.get(line.toUserId());
+            String failure = null;
+            FxRateSnapshot.Conversion conversion = null;
+            if (recipient == null) {
+                failure = "Recipient account not found for user ID: " + line.toUserId();
+            } else {
+                try {
+                    conversion = fxRateService.convert(line.amount(), context.senderCurrency(), recipient.getCurrency());
+                } catch (IllegalArgumentException | FxRateUnavailableException e) {
+                    failure = e.getMessage();
+                }
+            }
+            if (failure != null) {
+                failed++;
+                claims.add(new Object[]{DisbursementLineStatus.FAILED.name(), null, truncate(failure), processedAt, line.id()});
+                continue;
+            }
+            recipient.setBalance(recipient.getBalance().add(conversion.amount()));
+            Transaction credit = ledgerEntry(context.transactionId(), TransactionType.TRANSFER_IN, conversion.amount(),
+                    String.format("Disbursement %d from %s (%s)", context.jobId(), context.senderName(), context.fromUserId()),
+                    now, recipient);
+            if (conversion.isCrossCurrency()) {
+                credit.setFxRate(conversion.rate());
+                credit.setFxRateVersion(conversion.rateVersion());
+            }
+            credits.add(credit);
+            completedAmount = completedAmount.add(line.amount());
+            claims.add(new Object[]{DisbursementLineStatus.COMPLETED.name(), conversion.amount(), null, processedAt, line.id()});
+        }
+
+        for (int updated : jdbcTemplate.batchUpdate(CLAIM_LINE_SQL, claims)) {
+            if (updated != 1) {
+                // The balances above were changed in memory only; rolling back discards them.
+                throw new LineAlreadyClaimedException();
+            }
+        }
+        transactionRepository.saveAll(credits);
+        monthlyTotalsService.record(credits);
+        jdbcTemplate.update(PROGRESS_SQL, chunk.size() - failed, failed, completedAmount, processedAt, context.jobId());
+
+        linesCompleted.increment(chunk.size() - failed);
+        linesFailed.increment(failed);
+        return chunk.size();
+    }
+
+    private record PendingLine(long id, String toUserId, BigDecimal amount) {
+    }
+
+    /**
+     * Completes a job with nothing left pending: refunds the failed lines to the sender in one entry.
+     * Safe to call more than once and from several instances; only the first completes the job.
+     */
+    private void finish(long jobId) {
+        Map<String, Object> refunded = transactionTemplate.execute(status -> {
+            Integer pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM disbursement_line WHERE job_id = ? AND status = 'PENDING'", Integer.class, jobId);
+            if (pending != null && pending > 0) {
+                return null;
+            }
+            BigDecimal failedAmount = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(amount), 0) FROM disbursement_line WHERE job_id = ? AND status = 'FAILED'",
+                    BigDecimal.class, jobId);
+            LocalDateTime now = LocalDateTime.now();
+            if (jdbcTemplate.update(FINISH_SQL, failedAmount, Timestamp.valueOf(now), Timestamp.valueOf(now), jobId) == 0) {
+                return null;
+            }
+            Map<String, Object> job = jdbcTemplate.queryForMap(
+                    "SELECT from_user_id, transaction_id FROM disbursement_job WHERE id = ?", jobId);
+            String fromUserId = (String) job.get("from_user_id");
+            if (failedAmount.signum() > 0) {
+                Account sender = accountRepository.findAllByCustomerIdForUpdate(List.of(fromUserId)).stream()
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalStateException("Sender of disbursement job " + jobId + " no longer exists"));
+                sender.setBalance(sender.getBalance().add(failedAmount));
+                Transaction refund = ledgerEntry((String) job.get("transaction_id"), TransactionType.TRANSFER_IN,
+                        failedAmount, String.format("Refund of failed lines of disbursement %d", jobId), now, sender);
+                transactionRepository.save(refund);
+                monthlyTotalsService.record(List.of(refund));
+            }
+            return Map.of("fromUserId", fromUserId, "amount", failedAmount);
+        });
+        if (refunded == null) {
+            return;
+        }
+        BigDecimal failedAmount = (BigDecimal) refunded.get("amount");
+        if (failedAmount.signum() > 0) {
+            limitLeaseService.release((String) refunded.get("fromUserId"), failedAmount);
+        }
+        log.info("Completed disbursement job {}; refunded {} for failed lines", jobId, failedAmount);
+    }
+
+    private static Transaction ledgerEntry(String transactionId, TransactionType type, BigDecimal amount, String description,
+                                           LocalDateTime timestamp, Account account) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setTransactionType(type);
+        transaction.setAmount(amount);
+        transaction.setDescription(description);
+        transaction.setTimestamp(timestamp);
+        transaction.setBalanceAfter(account.getBalance());
+        transaction.setAccount(account);
+        return transaction;
+    }
+
+    private static String truncate(String reason) {
+        return reason.length() <= MAX_REASON_LENGTH ? reason : reason.substring(0, MAX_REASON_LENGTH);
+    }
+
+    /**
+     * Waits until the job has completed.
+     *
+     * @return False if it was still running after {@code timeoutMillis}.
+     */
+    boolean awaitCompletion(long jobId, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (get(jobId).orElseThrow().getStatus() != DisbursementJobStatus.COMPLETED) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        // A chunk cut short rolls back; the job resumes from its last committed chunk.
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final RowMapper<DisbursementJobDTO> JOB_MAPPER = (resultSet, rowNum) -> {
+        DisbursementJobDTO job = new DisbursementJobDTO();
+        job.setId(resultSet.getLong("id"));
+        job.setFromUserId(resultSet.getString("from_user_id"));
+        job.setDescription(resultSet.getString("description"));
+        job.setTransactionId(resultSet.getString("transaction_id"));
+        job.setStatus(DisbursementJobStatus.valueOf(resultSet.getString("status")));
+        job.setLineCount(resultSet.getInt("line_count"));
+        job.setTotalAmount(resultSet.getBigDecimal("total_amount"));
+        job.setLinesCompleted(resultSet.getInt("lines_completed"));
+        job.setLinesFailed(resultSet.getInt("lines_failed"));
+        job.setAmountCompleted(resultSet.getBigDecimal("amount_completed"));
+        job.setAmountRefunded(resultSet.getBigDecimal("amount_refunded"));
+        job.setCreatedAt(resultSet.getTimestamp("created_at").toLocalDateTime());
+        Timestamp finishedAt = resultSet.getTimestamp("finished_at");
+        job.setFinishedAt(finishedAt == null ? null : finishedAt.toLocalDateTime());
+        return job;
+    };
+
+    private static final RowMapper<DisbursementLineDTO> LINE_MAPPER = (resultSet, rowNum) -> {
+        DisbursementLineDTO line = new DisbursementLineDTO();
+        line.setLineNumber(resultSet.getInt("line_number"));
+        line.setToUserId(resultSet.getString("to_user_id"));
+        line.setAmount(resultSet.getBigDecimal("amount"));
+        line.setStatus(DisbursementLineStatus.valueOf(resultSet.getString("status")));
+        line.setCreditedAmount(resultSet.getBigDecimal("credited_amount"));
+        line.setFailureReason(resultSet.getString("failure_reason"));
+        Timestamp processedAt = resultSet.getTimestamp("processed_at");
+        line.setProcessedAt(processedAt == null ? null : processedAt.toLocalDateTime());
+        return line;
+    };
+}
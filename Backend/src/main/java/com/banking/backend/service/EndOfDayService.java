@@ -0,0 +1,483 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.endofday.EndOfDayProperties;
+import com.banking.backend.enums.EndOfDayRunStatus;
+import com.banking.backend.enums.TransactionType;
+import com.banking.backend.model.EndOfDayRun;
+import com.banking.backend.service.interfaces.IEndOfDayService;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import com.banking.backend.util.TransactionIdGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class responsible for the end-of-day batch: daily interest on positive balances, the monthly
+ * account fee and the rollover of daily transaction limits, once per business date.
+ * <p>
+ * A run splits the accounts that exist when it starts into {@code partitions} id ranges, of which
+ * {@code parallelism} are worked on at once. Each range is worked through {@code chunkSize} account ids
+ * per database transaction, with set-based statements rather than entities: the chunk's rows are locked
+ * in id order, as transfers lock them, and read once to work out the ledger entries; then one
+ * {@code UPDATE} per kind of posting changes every balance in the range, the entries are inserted in one
+ * JDBC batch, and the range's checkpoint is advanced. The updates must touch exactly the rows and amounts
+ * worked out from the locked read, or the chunk rolls back. The checkpoint row is locked first, so
+ * instances resuming the same run never post a chunk twice, and a run that stopped part way resumes after
+ * its last committed chunk. A business date that completed is never run again. Scheduled runs and resumptions
+ * are handed to a thread of their own, so the application's other scheduled jobs keep running through the
+ * rollover.
+ * <p>
+ * Entries are written without the JPA listener, so they are not published to account event streams. They
+ * are added to the accounts' monthly totals in the chunk's transaction, one row per account and kind of posting.
+ * <p>
+ * The rollover resets the daily total of every account that has one and bumps its limit epoch. Allowance that
+ * replicas leased before the rollover was taken under the old epoch, so giving it back afterwards changes
+ * nothing and the new day starts from zero; see {@link LimitLeaseService}.
+ */
+@Service
+public class EndOfDayService implements IEndOfDayService {
+
+    private static final Logger log = LoggerFactory.getLogger(EndOfDayService.class);
+
+    // Daily rate precision; the same value is bound into the SQL so both sides compute the same interest.
+    private static final int DAILY_RATE_SCALE = 12;
+
+    private static final String RUN_COLUMNS = "id, business_date, status, workers, started_at, finished_at, " +
+            "accounts_processed, transactions_written";
+    private static final String INSERT_RUN_SQL = "INSERT INTO end_of_day_run (business_date, status, workers, started_at, " +
+            "accounts_processed, transactions_written) VALUES (?, 'RUNNING', ?, ?, 0, 0)";
+    private static final String INSERT_PARTITION_SQL = "INSERT INTO end_of_day_partition (run_id, partition_no, first_account_id, " +
+            "last_account_id, next_account_id, accounts_processed, transactions_written, updated_at) VALUES (?, ?, ?, ?, ?, 0, 0, ?)";
+    private static final String LOCK_PARTITION_SQL = "SELECT next_account_id, last_account_id FROM end_of_day_partition " +
+            "WHERE run_id = ? AND partition_no = ? FOR UPDATE";
+    private static final String LOCK_ACCOUNTS_SQL = "SELECT id, balance, currency, daily_transaction_amount FROM account " +
+            "WHERE id BETWEEN ? AND ? ORDER BY id FOR UPDATE";
+    private static final String INTEREST_SQL = "UPDATE account SET balance = balance + ROUND(balance * ?, 2) " +
+            "WHERE id BETWEEN ? AND ? AND ROUND(balance * ?, 2) > 0";
+    private static final String FEE_SQL = "UPDATE account SET balance = balance - ? " +
+            "WHERE id BETWEEN ? AND ? AND currency = ? AND balance >= ?";
+    private static final String ROLLOVER_SQL = "UPDATE account SET daily_transaction_amount = 0, limit_epoch = limit_epoch + 1 " +
+            "WHERE id BETWEEN ? AND ? AND daily_transaction_amount <> 0";
+    private static final String BALANCE_SUM_SQL = "SELECT COALESCE(SUM(balance), 0) FROM account WHERE id BETWEEN ? AND ?";
+    // One sequence value per entry: each value is a block of its own for Hibernate's pooled optimizer, so the
+    // ids never collide with those JPA hands out.
+    private static final String INSERT_TRANSACTION_SQL = "INSERT INTO transaction (id, transaction_id, transaction_type, amount, " +
+            "description, timestamp, balance_after, account_id) VALUES (nextval('transaction_seq'), ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CHECKPOINT_SQL = "UPDATE end_of_day_partition SET next_account_id = ?, " +
+            "accounts_processed = accounts_processed + ?, transactions_written = transactions_written + ?, updated_at = ?, " +
+            "completed_at = ? WHERE run_id = ? AND partition_no = ?";
+
+    /**
+     * What every chunk of a run needs to know, worked out once per run.
+     */
+    private record RunContext(long runId, LocalDate businessDate, BigDecimal dailyRate, Map<String, BigDecimal> fees,
+                              String interestDescription, String feeDescription) {
+    }
+
+    private record LockedAccount(long id, BigDecimal balance, String currency, BigDecimal dailyAmount) {
+    }
+
+    private record ChunkResult(int accounts, int transactions) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EndOfDayProperties properties;
+    private final IMonthlyTotalsService monthlyTotalsService;
+    private final MeterRegistry meterRegistry;
+    private final Counter accountsCounter;
+    private final Counter transactionsCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean resumeQueued = new AtomicBoolean();
+    private final ExecutorService scheduledRuns = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("end-of-day-scheduled").daemon().factory());
+
+    public EndOfDayService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                           EndOfDayProperties properties, IMonthlyTotalsService monthlyTotalsService,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.monthlyTotalsService = monthlyTotalsService;
+        this.meterRegistry = meterRegistry;
+        this.accountsCounter = Counter.builder("banking.end-of-day.accounts")
+                .description("Accounts processed by the end-of-day batch")
+                .register(meterRegistry);
+        this.transactionsCounter = Counter.builder("banking.end-of-day.transactions")
+                .description("Interest and fee entries written by the end-of-day batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the batch for the day that has just ended.
+     */
+    @Scheduled(cron = "${banking.end-of-day.cron:-}")
+    public void scheduledRun() {
+        LocalDate businessDate = LocalDate.now().minusDays(1);
+        scheduledRuns.execute(() -> {
+            try {
+                run(businessDate);
+            } catch (IllegalStateException e) {
+                log.warn("Skipping scheduled end-of-day run for {}: {}", businessDate, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Scheduled end-of-day run for {} failed", businessDate, e);
+            }
+        });
+    }
+
+    /**
+     * Resumes runs that did not complete and whose partitions have committed nothing for {@code staleAfter},
+     * oldest business date first. Returns once the resumption is queued behind any run in progress.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${banking.end-of-day.resume-interval-ms:60000}")
+    public void resumeInterruptedRuns() {
+        if (running.get() || !resumeQueued.compareAndSet(false, true)) {
+            return;
+        }
+        scheduledRuns.execute(() -> {
+            resumeQueued.set(false);
+            try {
+                resumeStaleRuns();
+            } catch (RuntimeException e) {
+                log.error("Resuming interrupted end-of-day runs failed", e);
+            }
+        });
+    }
+
+    private void resumeStaleRuns() {
+        Timestamp staleBefore = Timestamp.valueOf(LocalDateTime.now().minus(properties.getStaleAfter()));
+        List<LocalDate> businessDates = jdbcTemplate.queryForList("SELECT r.business_date FROM end_of_day_run r " +
+                        "WHERE r.status <> 'COMPLETED' AND NOT EXISTS (SELECT 1 FROM end_of_day_partition p " +
+                        "WHERE p.run_id = r.id AND p.updated_at >= ?) ORDER BY r.business_date",
+                LocalDate.class, staleBefore);
+        for (LocalDate businessDate : businessDates) {
+            log.info("Resuming end-of-day run for {}", businessDate);
+            try {
+                run(businessDate);
+            } catch (IllegalStateException e) {
+                log.warn("Skipping resumption of end-of-day run for {}: {}", businessDate, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the batch for a business date, or resumes it if an earlier run did not complete.
+     *
+     * @return The run with its totals. Its status is {@link EndOfDayRunStatus#FAILED} if a partition
+     * stopped on an error; it is resumed from its checkpoints by the next call.
+     * @throws IllegalStateException If an end-of-day run is already in progress in this instance.
+     */
+    @Override
+    public EndOfDayRun run(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An end-of-day run is already in progress");
+        }
+        try {
+            return doRun(businessDate);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduledRuns.shutdown();
+        // A chunk cut short rolls back; the run resumes from its partitions' checkpoints.
+        if (!scheduledRuns.awaitTermination(10, TimeUnit.SECONDS)) {
+            scheduledRuns.shutdownNow();
+        }
+    }
+
+    @Override
+    public Optional<EndOfDayRun> get(LocalDate businessDate) {
+        return jdbcTemplate.query("SELECT " + RUN_COLUMNS + " FROM end_of_day_run WHERE business_date = ?", RUN_MAPPER, businessDate)
+                .stream().findFirst();
+    }
+
+    private EndOfDayRun doRun(LocalDate businessDate) {
+        EndOfDayRun run = prepare(businessDate);
+        if (run.getStatus() == EndOfDayRunStatus.COMPLETED) {
+            log.info("End-of-day run for {} has already completed", businessDate);
+            return run;
+        }
+        int workers = Math.max(1, properties.getParallelism());
+        jdbcTemplate.update("UPDATE end_of_day_run SET status = 'RUNNING', workers = ? WHERE id = ?", workers, run.getId());
+        List<Integer> pending = jdbcTemplate.queryForList("SELECT partition_no FROM end_of_day_partition " +
+                "WHERE run_id = ? AND completed_at IS NULL ORDER BY partition_no", Integer.class, run.getId());
+        log.info("Starting end-of-day run for {}: {} partitions to process with {} workers", businessDate, pending.size(), workers);
+
+        RunContext context = context(run);
+        LongAdder accounts = new LongAdder();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long started = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("end-of-day-", 0).factory());
+        try {
+            List<Future<?>> partitions = new ArrayList<>(pending.size());
+            for (int partition : pending) {
+                partitions.add(executor.submit(() -> runPartition(context, partition, accounts)));
+            }
+            for (Future<?> partition : partitions) {
+                try {
+                    partition.get();
+                } catch (ExecutionException e) {
+                    // The partition stays where its last chunk left it; the other partitions carry on.
+                    log.error("End-of-day run for {} stopped in a partition; it will be resumed", businessDate, e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        } finally {
+            executor.shutdown();
+        }
+
+        EndOfDayRun finished = finish(run.getId(), workers);
+        long elapsedNanos = System.nanoTime() - started;
+        sample.stop(Timer.builder("banking.end-of-day.duration")
+                .description("Duration of end-of-day runs")
+                .tag("status", finished.getStatus().name())
+                .register(meterRegistry));
+        log.info("End-of-day run for {} {}: {} accounts and {} entries in total; this run processed {} accounts in {} ms " +
+                        "({} accounts/s with {} workers)", businessDate, finished.getStatus(), finished.getAccountsProcessed(),
+                finished.getTransactionsWritten(), accounts.sum(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                elapsedNanos == 0 ? 0 : accounts.sum() * 1_000_000_000L / elapsedNanos, workers);
+        return finished;
+    }
+
+    /**
+     * Returns the run for a business date, storing it and splitting the accounts into partitions if there is none.
+     */
+    EndOfDayRun prepare(LocalDate businessDate) {
+        Optional<EndOfDayRun> existing = get(businessDate);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> createRun(businessDate));
+        } catch (DuplicateKeyException e) {
+            log.debug("End-of-day run for {} was created by another instance", businessDate);
+        }
+        return get(businessDate).orElseThrow();
+    }
+
+    private void createRun(LocalDate businessDate) {
+        LocalDateTime now = LocalDateTime.now();
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_RUN_SQL, new String[]{"id"});
+            statement.setObject(1, businessDate);
+            statement.setInt(2, Math.max(1, properties.getParallelism()));
+            statement.setTimestamp(3, Timestamp.valueOf(now));
+            return statement;
+        }, keyHolder);
+        long runId = keyHolder.getKeyAs(Long.class);
+
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM account");
+        if (bounds.get("min_id") == null) {
+            return;
+        }
+        long minId = ((Number) bounds.get("min_id")).longValue();
+        long maxId = ((Number) bounds.get("max_id")).longValue();
+        int partitions = Math.max(1, properties.getPartitions());
+        long width = (maxId - minId + partitions) / partitions;
+        List<Object[]> rows = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            long first = minId + partition * width;
+            if (first > maxId) {
+                break;
+            }
+            rows.add(new Object[]{runId, partition, first, Math.min(maxId, first + width - 1), first, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PARTITION_SQL, rows);
+    }
+
+    private RunContext context(EndOfDayRun run) {
+        LocalDate businessDate = run.getBusinessDate();
+        BigDecimal dailyRate = properties.getAnnualInterestRate()
+                .divide(BigDecimal.valueOf(properties.getDayCountBasis()), DAILY_RATE_SCALE, RoundingMode.HALF_UP);
+        // A fee day past the end of a short month falls on its last day.
+        boolean feeDay = businessDate.getDayOfMonth() == Math.min(properties.getFeeDayOfMonth(), businessDate.lengthOfMonth());
+        Map<String, BigDecimal> fees = new HashMap<>();
+        if (feeDay) {
+            properties.getMonthlyFees().forEach((currency, fee) -> {
+                if (fee != null && fee.signum() > 0) {
+                    fees.put(currency, fee);
+                }
+            });
+        }
+        return new RunContext(run.getId(), businessDate, dailyRate, fees, "Interest for " + businessDate,
+                "Monthly account fee for " + YearMonth.from(businessDate));
+    }
+
+    private void runPartition(RunContext context, int partition, LongAdder accounts) {
+        ChunkResult chunk;
+        while ((chunk = transactionTemplate.execute(status -> processChunk(context, partition))) != null) {
+            accounts.add(chunk.accounts());
+            accountsCounter.increment(chunk.accounts());
+            transactionsCounter.increment(chunk.transactions());
+        }
+    }
+
+    /**
+     * Processes the next chunk of one partition of a business date's run, outside its workers.
+     *
+     * @return False once the partition has been processed to its end.
+     */
+    boolean processNextChunk(LocalDate businessDate, int partition) {
+        RunContext context = context(get(businessDate).orElseThrow());
+        return transactionTemplate.execute(status -> processChunk(context, partition)) != null;
+    }
+
+    /**
+     * Posts the next chunk of a partition and advances its checkpoint, in the caller's transaction.
+     *
+     * @return What the chunk processed, or null if the partition was already done.
+     */
+    private ChunkResult processChunk(RunContext context, int partition) {
+        Map<String, Object> checkpoint = jdbcTemplate.queryForMap(LOCK_PARTITION_SQL, context.runId(), partition);
+        long from = ((Number) checkpoint.get("next_account_id")).longValue();
+        long last = ((Number) checkpoint.get("last_account_id")).longValue();
+        if (from > last) {
+            return null;
+        }
+        long to = Math.min(last, from + Math.max(1, properties.getChunkSize()) - 1);
+
+        List<LockedAccount> locked = jdbcTemplate.query(LOCK_ACCOUNTS_SQL, (resultSet, rowNum) -> new LockedAccount(
+                resultSet.getLong(1), resultSet.getBigDecimal(2), resultSet.getString(3), resultSet.getBigDecimal(4)), from, to);
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        YearMonth month = YearMonth.from(now);
+
+        List<Object[]> entries = new ArrayList<>();
+        List<IMonthlyTotalsService.Delta> deltas = new ArrayList<>();
+        int interestPostings = 0;
+        Map<String, Integer> feePostings = new HashMap<>();
+        int rollovers = 0;
+        BigDecimal balanceSum = BigDecimal.ZERO;
+        for (LockedAccount account : locked) {
+            BigDecimal balance = account.balance();
+            if (context.dailyRate().signum() > 0) {
+                BigDecimal interest = balance.multiply(context.dailyRate()).setScale(2, RoundingMode.HALF_UP);
+                if (interest.signum() > 0) {
+                    balance = balance.add(interest);
+                    interestPostings++;
+                    entries.add(entry(TransactionType.INTEREST, interest, context.interestDescription(), timestamp, balance, account.id()));
+                    deltas.add(new IMonthlyTotalsService.Delta(account.id(), month, TransactionType.INTEREST, interest, 1));
+                }
+            }
+            BigDecimal fee = context.fees().get(account.currency());
+            if (fee != null && balance.compareTo(fee) >= 0) {
+                balance = balance.subtract(fee);
+                feePostings.merge(account.currency(), 1, Integer::sum);
+                entries.add(entry(TransactionType.FEE, fee.negate(), context.feeDescription(), timestamp, balance, account.id()));
+                deltas.add(new IMonthlyTotalsService.Delta(account.id(), month, TransactionType.FEE, fee.negate(), 1));
+            }
+            if (account.dailyAmount().signum() != 0) {
+                rollovers++;
+            }
+            balanceSum = balanceSum.add(balance);
+        }
+
+        if (interestPostings > 0) {
+            expect(interestPostings, jdbcTemplate.update(INTEREST_SQL, context.dailyRate(), from, to, context.dailyRate()), "interest", from, to);
+        }
+        for (Map.Entry<String, Integer> fee : feePostings.entrySet()) {
+            BigDecimal amount = context.fees().get(fee.getKey());
+            expect(fee.getValue(), jdbcTemplate.update(FEE_SQL, amount, from, to, fee.getKey(), amount), "fee", from, to);
+        }
+        if (rollovers > 0) {
+            expect(rollovers, jdbcTemplate.update(ROLLOVER_SQL, from, to), "rollover", from, to);
+        }
+        if (!entries.isEmpty()) {
+            BigDecimal updatedSum = jdbcTemplate.queryForObject(BALANCE_SUM_SQL, BigDecimal.class, from, to);
+            if (updatedSum.compareTo(balanceSum) != 0) {
+                throw new IllegalStateException(String.format("Balances of accounts %d to %d add up to %s after posting, expected %s",
+                        from, to, updatedSum, balanceSum));
+            }
+            jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, entries);
+            monthlyTotalsService.add(deltas);
+        }
+        jdbcTemplate.update(CHECKPOINT_SQL, to + 1, locked.size(), entries.size(), timestamp, to == last ? timestamp : null,
+                context.runId(), partition);
+        return new ChunkResult(locked.size(), entries.size());
+    }
+
+    private static Object[] entry(TransactionType type, BigDecimal amount, String description, Timestamp timestamp,
+                                  BigDecimal balanceAfter, long accountId) {
+        return new Object[]{TransactionIdGenerator.generate(), type.name(), amount, description, timestamp, balanceAfter, accountId};
+    }
+
+    /**
+     * Rolls the chunk back if a set-based update touched other rows than the locked read said it would.
+     */
+    private static void expect(int expected, int updated, String posting, long from, long to) {
+        if (updated != expected) {
+            throw new IllegalStateException(String.format("The %s update of accounts %d to %d changed %d rows, expected %d",
+                    posting, from, to, updated, expected));
+        }
+    }
+
+    /**
+     * Totals the partitions into the run, which has completed once every partition has.
+     */
+    private EndOfDayRun finish(long runId, int workers) {
+        Map<String, Object> totals = jdbcTemplate.queryForMap("SELECT COUNT(*) - COUNT(completed_at) AS pending, " +
+                "COALESCE(SUM(accounts_processed), 0) AS accounts, COALESCE(SUM(transactions_written), 0) AS transactions " +
+                "FROM end_of_day_partition WHERE run_id = ?", runId);
+        EndOfDayRunStatus status = ((Number) totals.get("pending")).longValue() == 0
+                ? EndOfDayRunStatus.COMPLETED : EndOfDayRunStatus.FAILED;
+        jdbcTemplate.update("UPDATE end_of_day_run SET status = ?, workers = ?, finished_at = ?, accounts_processed = ?, " +
+                        "transactions_written = ? WHERE id = ?", status.name(), workers, Timestamp.valueOf(LocalDateTime.now()),
+                ((Number) totals.get("accounts")).longValue(), ((Number) totals.get("transactions")).longValue(), runId);
+        return jdbcTemplate.query("SELECT " + RUN_COLUMNS + " FROM end_of_day_run WHERE id = ?", RUN_MAPPER, runId).get(0);
+    }
+
+    private static final RowMapper<EndOfDayRun> RUN_MAPPER = (resultSet, rowNum) -> {
+        EndOfDayRun run = new EndOfDayRun();
+        run.setId(resultSet.getLong("id"));
+        run.setBusinessDate(resultSet.getObject("business_date", LocalDate.class));
+        run.setStatus(EndOfDayRunStatus.valueOf(resultSet.getString("status")));
+        run.setWorkers(resultSet.getInt("workers"));
+        run.setStartedAt(resultSet.getTimestamp("started_at").toLocalDateTime());
+        Timestamp finishedAt = resultSet.getTimestamp("finished_at");
+        run.setFinishedAt(finishedAt == null ? null : finishedAt.toLocalDateTime());
+        run.setAccountsProcessed(resultSet.getLong("accounts_processed"));
+        run.setTransactionsWritten(resultSet.getLong("transactions_written"));
+        return run;
+    };
+}
@@ -0,0 +1,61 @@
+package com.banking.backend.service;
+
+import com.banking.backend.service.interfaces.IFxRateProvider;
+import com.banking.backend.util.FxRateSnapshot;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads FX rates from a properties file: {@code base} names the base currency, {@code version} the
+ * publication, and every other key is a currency code with the number of its units one unit of the base
+ * buys. Without a {@code version} key the file's modification time is used. Stands in for a market
+ * data feed locally and in tests; the file is re-read on every refresh, so editing it changes the rates.
+ */
+public class FileFxRateProvider implements IFxRateProvider {
+
+    private static final String BASE_KEY = "base";
+    private static final String VERSION_KEY = "version";
+
+    private final Resource resource;
+
+    public FileFxRateProvider(Resource resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public FxRateSnapshot loadRates() {
+        Properties properties = new Properties();
+        long lastModified;
+        try (InputStream in = resource.getInputStream()) {
+            properties.load(in);
+            lastModified = resource.isFile() ? resource.lastModified() : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read FX rates from " + resource.getDescription(), e);
+        }
+
+        String base = properties.getProperty(BASE_KEY);
+        if (base == null) {
+            throw new IllegalStateException("FX rate file " + resource.getDescription() + " has no '" + BASE_KEY + "' entry");
+        }
+        String version = properties.getProperty(VERSION_KEY);
+        if (version == null && lastModified == 0) {
+            throw new IllegalStateException("FX rate file " + resource.getDescription() + " has no '" + VERSION_KEY + "' entry");
+        }
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.equals(BASE_KEY) && !key.equals(VERSION_KEY)) {
+                rates.put(key, new BigDecimal(properties.getProperty(key).trim()));
+            }
+        }
+        return new FxRateSnapshot(version != null ? Long.parseLong(version.trim()) : lastModified, base.trim(), rates,
+                lastModified != 0 ? Instant.ofEpochMilli(lastModified) : Instant.now());
+    }
+}
@@ -0,0 +1,109 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.FxRateUnavailableException;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.service.interfaces.IFxRateProvider;
+import com.banking.backend.service.interfaces.IFxRateService;
+import com.banking.backend.util.FxRateSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the current FX rates in memory so that converting a transfer never waits on I/O.
+ * <p>
+ * Rates are loaded from the {@link IFxRateProvider} at startup and then on a fixed schedule, ahead of
+ * the point where the loaded rates would become too old. A load replaces the whole snapshot in one
+ * volatile write, so a conversion sees one consistent version, and that version is recorded on the
+ * transfer's ledger entries. A failed load keeps the previous snapshot; a load that returns an older
+ * version than the one held is ignored. Once no load has succeeded for {@code banking.fx.max-age},
+ * cross-currency transfers are refused rather than priced at stale rates.
+ */
+@Service
+public class FxRateService implements IFxRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    /**
+     * A snapshot with the time it was last confirmed current by the provider.
+     */
+    private record Loaded(FxRateSnapshot snapshot, long loadedAtNanos) {
+    }
+
+    private final IFxRateProvider rateProvider;
+    private final FxProperties properties;
+    private final Counter refreshFailures;
+    private volatile Loaded loaded;
+
+    public FxRateService(IFxRateProvider rateProvider, FxProperties properties, MeterRegistry meterRegistry) {
+        this.rateProvider = rateProvider;
+        this.properties = properties;
+        this.refreshFailures = Counter.builder("banking.fx.refresh.failures")
+                .description("FX rate loads that failed and left the previous rates in place")
+                .register(meterRegistry);
+        Gauge.builder("banking.fx.rates.version", this, service -> {
+                    Loaded current = service.loaded;
+                    return current == null ? Double.NaN : current.snapshot().getVersion();
+                })
+                .description("Version of the FX rates in use")
+                .register(meterRegistry);
+        Gauge.builder("banking.fx.rates.age", this, service -> {
+                    Loaded current = service.loaded;
+                    return current == null ? Double.NaN : TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - current.loadedAtNanos());
+                })
+                .description("Time since the FX rates were last loaded")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void loadInitialRates() {
+        refreshRates();
+    }
+
+    @Override
+    public FxRateSnapshot.Conversion convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return FxRateSnapshot.Conversion.identity(amount);
+        }
+        Loaded current = loaded;
+        if (current == null) {
+            throw new FxRateUnavailableException("FX rates are not available", RETRY_AFTER_SECONDS);
+        }
+        if (System.nanoTime() - current.loadedAtNanos() > properties.getMaxAge().toNanos()) {
+            throw new FxRateUnavailableException("FX rates are out of date", RETRY_AFTER_SECONDS);
+        }
+        return current.snapshot().convert(amount, fromCurrency, toCurrency);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banking.fx.refresh-interval-ms:60000}", initialDelayString = "${banking.fx.refresh-interval-ms:60000}")
+    public void refreshRates() {
+        FxRateSnapshot next;
+        try {
+            next = rateProvider.loadRates();
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.error("Could not load FX rates; keeping version {}", loaded == null ? "none" : loaded.snapshot().getVersion(), e);
+            return;
+        }
+        Loaded current = loaded;
+        if (current != null && next.getVersion() < current.snapshot().getVersion()) {
+            log.warn("Ignoring FX rates version {}, older than version {} in use", next.getVersion(), current.snapshot().getVersion());
+            return;
+        }
+        if (current == null || next.getVersion() != current.snapshot().getVersion()) {
+            log.info("Loaded FX rates version {} against {}", next.getVersion(), next.getBaseCurrency());
+        }
+        loaded = new Loaded(next, System.nanoTime());
+    }
+}
@@ -0,0 +1,108 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.dto.HotAccountDTO;
+import com.banking.backend.service.interfaces.IHotAccountService;
+import com.banking.backend.util.HeavyHitterSketch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks which accounts send and receive the most transfers, to find the rows behind lock contention.
+ * <p>
+ * Senders and recipients each get a {@link HeavyHitterSketch}, so memory is fixed no matter how many
+ * accounts are active, and recording a transfer costs a handful of atomic increments. Alongside the
+ * count, every transfer adds the time it spent waiting for the locks on its account rows, which shows
+ * whether a busy account is also a slow one. The current top accounts are published as gauges tagged
+ * with their rank and customer id; only the top-K are ever tagged, which bounds the series count.
+ */
+@Service
+public class HotAccountService implements IHotAccountService {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final HotAccountProperties properties;
+    private final HeavyHitterSketch senders;
+    private final HeavyHitterSketch recipients;
+    private final MultiGauge transferGauge;
+    private final MultiGauge waitGauge;
+
+    public HotAccountService(HotAccountProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        long now = System.nanoTime();
+        long windowNanos = properties.getWindowLength().toNanos();
+        this.senders = new HeavyHitterSketch(properties.getDepth(), properties.getWidth(), properties.getTopK(),
+                properties.getWindows(), windowNanos, now);
+        this.recipients = new HeavyHitterSketch(properties.getDepth(), properties.getWidth(), properties.getTopK(),
+                properties.getWindows(), windowNanos, now);
+        this.transferGauge = MultiGauge.builder("banking.accounts.hot.transfers")
+                .description("Transfers of the most active accounts over the hot-account window")
+                .register(meterRegistry);
+        this.waitGauge = MultiGauge.builder("banking.accounts.hot.wait")
+                .description("Mean time transfers of the most active accounts waited for their account row locks")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordTransfer(String fromUserId, String toUserId, long waitNanos) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        senders.record(fromUserId, waitNanos, now);
+        recipients.record(toUserId, waitNanos, now);
+    }
+
+    @Override
+    public List<HotAccountDTO> getHotSenders() {
+        return toDtos(senders.top(System.nanoTime()));
+    }
+
+    @Override
+    public List<HotAccountDTO> getHotRecipients() {
+        return toDtos(recipients.top(System.nanoTime()));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banking.hot-accounts.gauge-refresh-interval-ms:10000}")
+    public void refreshGauges() {
+        List<MultiGauge.Row<?>> transferRows = new ArrayList<>();
+        List<MultiGauge.Row<?>> waitRows = new ArrayList<>();
+        addRows("sender", getHotSenders(), transferRows, waitRows);
+        addRows("recipient", getHotRecipients(), transferRows, waitRows);
+        // Overwriting drops the rows of accounts that left the top-K.
+        transferGauge.register(transferRows, true);
+        waitGauge.register(waitRows, true);
+    }
+
+    private void addRows(String direction, List<HotAccountDTO> accounts,
+                         List<MultiGauge.Row<?>> transferRows, List<MultiGauge.Row<?>> waitRows) {
+        for (int rank = 0; rank < accounts.size(); rank++) {
+            HotAccountDTO account = accounts.get(rank);
+            Tags tags = Tags.of("direction", direction, "rank", String.valueOf(rank + 1),
+                    "customer_id", account.getCustomerId());
+            transferRows.add(MultiGauge.Row.of(tags, account.getTransfers()));
+            waitRows.add(MultiGauge.Row.of(tags, account.getMeanWaitMillis()));
+        }
+    }
+
+    private List<HotAccountDTO> toDtos(List<HeavyHitterSketch.HeavyHitter> hitters) {
+        List<HotAccountDTO> accounts = new ArrayList<>(hitters.size());
+        for (HeavyHitterSketch.HeavyHitter hitter : hitters) {
+            HotAccountDTO account = new HotAccountDTO();
+            account.setCustomerId(hitter.key());
+            account.setTransfers(hitter.count());
+            account.setTotalWaitMillis(hitter.weight() / NANOS_PER_MILLI);
+            account.setMeanWaitMillis(hitter.count() == 0 ? 0 : hitter.weight() / NANOS_PER_MILLI / hitter.count());
+            accounts.add(account);
+        }
+        return accounts;
+    }
+}
@@ -0,0 +1,47 @@
+package com.banking.backend.service;
+
+import com.banking.backend.dto.AccountEventDTO;
+import com.banking.backend.model.Transaction;
+import com.banking.backend.service.interfaces.IAccountEventService;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that hands every new ledger entry to the account event streams once its
+ * transaction commits. Listening on the entity covers every path that writes the ledger, whether
+ * single transfers, group commits or disbursements, and an entry that is rolled back is never shown.
+ * <p>
+ * Hibernate creates the listener through Spring, which injects the event service. It is absent from
+ * contexts without the web layer, such as JPA slice tests, in which case entries are ignored.
+ */
+public class LedgerEventListener {
+
+    private final ObjectProvider<IAccountEventService> accountEventService;
+
+    public LedgerEventListener(ObjectProvider<IAccountEventService> accountEventService) {
+        this.accountEventService = accountEventService;
+    }
+
+    @PostPersist
+    void ledgerEntryWritten(Transaction transaction) {
+        IAccountEventService events = accountEventService.getIfAvailable();
+        // Most accounts have no open stream; building their events would be wasted work.
+        if (events == null || transaction.getAccount() == null
+                || !events.hasSubscribers(transaction.getAccount().getCustomerId())) {
+            return;
+        }
+        AccountEventDTO event = AccountEventDTO.from(transaction);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.publish(event);
+            }
+        });
+    }
+}
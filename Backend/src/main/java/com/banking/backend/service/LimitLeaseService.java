@@ -0,0 +1,247 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.LimitExceededException;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.service.interfaces.ILimitLeaseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps daily transaction limits consistent across replicas by leasing allowance from the database.
+ * <p>
+ * {@code account.daily_transaction_amount} counts everything reserved against the customer's daily
+ * limit by any replica, spent or not. Allowance is taken with a single conditional update that only
+ * succeeds while the total stays within {@code daily_transaction_limit}, so the limit holds no matter
+ * how many replicas reserve concurrently. Each replica takes allowance in chunks and serves later
+ * transfers from what it holds without touching the database; when a lease has not been topped up
+ * for the configured TTL, or on shutdown, the unspent rest is given back.
+ * <p>
+ * Allowance held by a replica that dies without returning it stays reserved, so a crash can only make
+ * the limit stricter, never looser. Reservations run in their own database transactions and must be
+ * made before the transfer's transaction locks the account row.
+ * <p>
+ * The end-of-day rollover resets the total and bumps {@code account.limit_epoch}. A lease remembers the
+ * epoch it was taken under and is only topped up or given back under it, so allowance leased before a
+ * rollover is never subtracted from the next day's total: the replica drops what such a lease still holds
+ * the next time it goes to the database for that customer, and spends it until then as allowance of the
+ * day it was taken from. A reservation given back after its lease was retired, or with leasing disabled,
+ * has no lease to tell its epoch and is returned to the current day.
+ */
+@Service
+public class LimitLeaseService implements ILimitLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(LimitLeaseService.class);
+
+    // A null epoch matches whatever epoch the account is in.
+    private static final String ACQUIRE_SQL = "UPDATE account SET daily_transaction_amount = daily_transaction_amount + ? " +
+            "WHERE customer_id = ? AND limit_epoch = COALESCE(?, limit_epoch) AND daily_transaction_amount + ? <= daily_transaction_limit";
+    private static final String RETURN_SQL = "UPDATE account SET daily_transaction_amount = GREATEST(daily_transaction_amount - ?, 0) " +
+            "WHERE customer_id = ? AND limit_epoch = COALESCE(?, limit_epoch)";
+    private static final String EPOCH_SQL = "SELECT limit_epoch FROM account WHERE customer_id = ?";
+    private static final String REMAINING_SQL = "SELECT daily_transaction_limit - daily_transaction_amount FROM account WHERE customer_id = ?";
+
+    /**
+     * Allowance this replica holds for one customer, taken under {@code epoch}. Guarded by its own monitor;
+     * once retired it has been returned and removed from the map, and callers must look up a fresh one.
+     */
+    private static final class Lease {
+        private BigDecimal remaining = BigDecimal.ZERO;
+        private Long epoch;
+        private long expiresAtNanos;
+        private boolean retired;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LimitLeaseProperties properties;
+    private final TransactionTemplate ownTransaction;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final Counter localReservations;
+    private final Counter databaseReservations;
+    private final Counter deniedReservations;
+    private final Counter acquireWrites;
+    private final Counter returnWrites;
+
+    public LimitLeaseService(JdbcTemplate jdbcTemplate, LimitLeaseProperties properties,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.localReservations = Counter.builder("banking.limits.reservations")
+                .description("Daily-limit reservations")
+                .tag("source", "lease")
+                .register(meterRegistry);
+        this.databaseReservations = Counter.builder("banking.limits.reservations")
+                .description("Daily-limit reservations")
+                .tag("source", "database")
+                .register(meterRegistry);
+        this.deniedReservations = Counter.builder("banking.limits.reservations")
+                .description("Daily-limit reservations")
+                .tag("source", "denied")
+                .register(meterRegistry);
+        this.acquireWrites = Counter.builder("banking.limits.writes")
+                .description("Database updates of daily-limit counters")
+                .tag("operation", "acquire")
+                .register(meterRegistry);
+        this.returnWrites = Counter.builder("banking.limits.writes")
+                .description("Database updates of daily-limit counters")
+                .tag("operation", "return")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void reserve(String customerId, BigDecimal amount) {
+        if (!properties.isEnabled()) {
+            if (!acquire(customerId, amount, null)) {
+                throw limitExceeded(customerId, BigDecimal.ZERO);
+            }
+            databaseReservations.increment();
+            return;
+        }
+
+        while (true) {
+            Lease lease = leases.computeIfAbsent(customerId, id -> new Lease());
+            synchronized (lease) {
+                if (lease.retired) {
+                    continue;
+                }
+                if (lease.remaining.compareTo(amount) >= 0) {
+                    lease.remaining = lease.remaining.subtract(amount);
+                    localReservations.increment();
+                    return;
+                }
+
+                if (lease.epoch == null) {
+                    lease.epoch = currentEpoch(customerId);
+                    if (lease.epoch == null) {
+                        throw limitExceeded(customerId, lease.remaining);
+                    }
+                }
+
+                // Ask for a full chunk, or failing that just what this transfer is missing.
+                BigDecimal needed = amount.subtract(lease.remaining);
+                BigDecimal chunk = needed.max(BigDecimal.valueOf(properties.getChunkSize()));
+                BigDecimal acquired = acquire(customerId, chunk, lease.epoch) ? chunk
+                        : chunk.compareTo(needed) > 0 && acquire(customerId, needed, lease.epoch) ? needed : null;
+                if (acquired == null) {
+                    Long epoch = currentEpoch(customerId);
+                    if (epoch != null && !epoch.equals(lease.epoch)) {
+                        // The limits rolled over since this lease was taken; what it still holds was counted
+                        // against the day before, so it is dropped rather than given back into this one.
+                        lease.remaining = BigDecimal.ZERO;
+                        lease.epoch = epoch;
+                        continue;
+                    }
+                    throw limitExceeded(customerId, lease.remaining);
+                }
+                lease.remaining = lease.remaining.add(acquired).subtract(amount);
+                lease.expiresAtNanos = System.nanoTime() + properties.getTtl().toNanos();
+                databaseReservations.increment();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void release(String customerId, BigDecimal amount) {
+        if (properties.isEnabled()) {
+            Lease lease = leases.get(customerId);
+            if (lease != null) {
+                synchronized (lease) {
+                    if (!lease.retired) {
+                        lease.remaining = lease.remaining.add(amount);
+                        return;
+                    }
+                }
+            }
+        }
+        giveBack(customerId, amount, null);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banking.limits.lease.sweep-interval-ms:5000}")
+    public void returnExpiredLeases() {
+        long now = System.nanoTime();
+        leases.forEach((customerId, lease) -> {
+            synchronized (lease) {
+                if (!lease.retired && now - lease.expiresAtNanos >= 0) {
+                    retire(customerId, lease);
+                }
+            }
+        });
+    }
+
+    /**
+     * Gives back everything this replica holds, so a clean shutdown leaves no allowance stranded.
+     */
+    @PreDestroy
+    public void returnAllLeases() {
+        leases.forEach((customerId, lease) -> {
+            synchronized (lease) {
+                if (!lease.retired) {
+                    retire(customerId, lease);
+                }
+            }
+        });
+    }
+
+    private void retire(String customerId, Lease lease) {
+        lease.retired = true;
+        leases.remove(customerId, lease);
+        if (lease.remaining.signum() > 0) {
+            giveBack(customerId, lease.remaining, lease.epoch);
+        }
+    }
+
+    private boolean acquire(String customerId, BigDecimal amount, Long epoch) {
+        acquireWrites.increment();
+        Integer updated = ownTransaction.execute(status -> jdbcTemplate.update(ACQUIRE_SQL, amount, customerId, epoch, amount));
+        return updated != null && updated > 0;
+    }
+
+    /**
+     * Gives back allowance taken under {@code epoch}; nothing changes if the limits have rolled over since.
+     */
+    private void giveBack(String customerId, BigDecimal amount, Long epoch) {
+        returnWrites.increment();
+        try {
+            ownTransaction.executeWithoutResult(status -> jdbcTemplate.update(RETURN_SQL, amount, customerId, epoch));
+        } catch (DataAccessException e) {
+            // Leaving the allowance reserved only makes the limit stricter until the next daily reset.
+            log.error("Could not return {} of daily allowance for customer {}", amount, customerId, e);
+        }
+    }
+
+    private Long currentEpoch(String customerId) {
+        List<Long> epoch = jdbcTemplate.queryForList(EPOCH_SQL, Long.class, customerId);
+        return epoch.isEmpty() ? null : epoch.get(0);
+    }
+
+    /**
+     * Builds the rejection for a customer whose allowance ran out, or reports a missing account.
+     */
+    private RuntimeException limitExceeded(String customerId, BigDecimal heldLocally) {
+        List<BigDecimal> remaining = jdbcTemplate.queryForList(REMAINING_SQL, BigDecimal.class, customerId);
+        if (remaining.isEmpty()) {
+            return new IllegalArgumentException("Sender account not found for user ID: " + customerId);
+        }
+        deniedReservations.increment();
+        return new LimitExceededException(String.format("Daily limit exceeded. Remaining limit: %.2f",
+                remaining.get(0).add(heldLocally)));
+    }
+}
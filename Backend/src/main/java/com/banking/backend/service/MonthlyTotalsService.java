@@ -0,0 +1,288 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.dto.MonthlyTotalDTO;
+import com.banking.backend.dto.MonthlyTotalsRebuildDTO;
+import com.banking.backend.enums.TransactionType;
+import com.banking.backend.model.Transaction;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class responsible for the per-account monthly totals in {@code account_monthly_total}: the sum
+ * and count of each account's ledger entries by month and transaction type.
+ * <p>
+ * Every path that writes ledger entries adds them here in the same database transaction, so the totals
+ * commit or roll back with the entries. Deltas are merged per row and applied as one batched
+ * {@code UPDATE ... SET total_amount = total_amount + ?}; only the first entry of an account, month and
+ * type inserts its row, with {@code ON CONFLICT DO NOTHING} and the same update after it.
+ * <p>
+ * Every writer takes its locks in the same order: first the {@code account} rows of the entries, with
+ * {@code SELECT ... FOR UPDATE} in id order, then the totals rows of those accounts here, in key order,
+ * and only then writes the balances, which the synchronous path flushes at commit. A totals row is
+ * therefore only ever waited for by a writer that already holds its account's lock, so the transfer
+ * paths, disbursements and the end-of-day batch cannot deadlock on them. The rebuild takes no account
+ * locks; it waits for the totals rows it replaces and holds nothing a writer of those rows waits on.
+ * <p>
+ * Reading an account's months is one range read of the primary key. The rebuild recomputes the totals
+ * from the transaction history in account id ranges on a {@link ForkJoinPool}, while transfers keep
+ * running: a transfer that finds its row deleted by the rebuild inserts it again after the rebuild's
+ * range commits, and a range whose insert meets a row a transfer has just created is recomputed.
+ */
+@Service
+public class MonthlyTotalsService implements IMonthlyTotalsService {
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyTotalsService.class);
+
+    private static final int DEFAULT_MONTHS = 24;
+    // A missing row is only missing again if a rebuild deletes it in between; a range is recomputed when a
+    // transfer creates one of its rows in between.
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String ADD_SQL = "UPDATE account_monthly_total SET total_amount = total_amount + ?, " +
+            "transaction_count = transaction_count + ? WHERE account_id = ? AND month_start = ? AND transaction_type = ?";
+    private static final String INSERT_SQL = "INSERT INTO account_monthly_total (account_id, month_start, transaction_type, " +
+            "total_amount, transaction_count) VALUES (?, ?, ?, 0, 0) ON CONFLICT DO NOTHING";
+    // Joined from the account, so an account without totals is told apart from one that does not exist.
+    private static final String RANGE_SQL = "SELECT a.id, t.month_start, t.transaction_type, t.total_amount, t.transaction_count " +
+            "FROM account a LEFT JOIN account_monthly_total t ON t.account_id = a.id AND t.month_start BETWEEN ? AND ? " +
+            "WHERE a.customer_id = ? ORDER BY t.month_start, t.transaction_type";
+    private static final String DELETE_RANGE_SQL = "DELETE FROM account_monthly_total " +
+            "WHERE account_id BETWEEN ? AND ? AND month_start >= ?";
+    private static final String REBUILD_RANGE_SQL = "INSERT INTO account_monthly_total (account_id, month_start, transaction_type, " +
+            "total_amount, transaction_count) SELECT account_id, CAST(DATE_TRUNC('month', timestamp) AS DATE), transaction_type, " +
+            "SUM(amount), COUNT(*) FROM transaction WHERE account_id BETWEEN ? AND ? AND timestamp >= ? " +
+            "GROUP BY account_id, CAST(DATE_TRUNC('month', timestamp) AS DATE), transaction_type";
+
+    private static final Comparator<Delta> KEY_ORDER = Comparator.comparingLong(Delta::accountId)
+            .thenComparing(Delta::month)
+            .thenComparing(Delta::type);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MonthlyTotalsProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public MonthlyTotalsService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                MonthlyTotalsProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    /**
+     * Adds ledger entries to their accounts' totals, in the caller's transaction. The entries must be linked
+     * to their accounts; they need not be saved yet.
+     */
+    @Override
+    public void record(Collection<Transaction> entries) {
+        List<Delta> deltas = new ArrayList<>(entries.size());
+        for (Transaction entry : entries) {
+            deltas.add(new Delta(entry.getAccount().getId(), YearMonth.from(entry.getTimestamp()), entry.getTransactionType(),
+                    entry.getAmount(), 1));
+        }
+        add(deltas);
+    }
+
+    /**
+     * Adds deltas to the totals, in the caller's transaction, creating the rows that do not exist yet.
+     *
+     * @throws IllegalStateException If a row kept disappearing between its insert and its update.
+     */
+    @Override
+    public void add(Collection<Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<Delta, Delta> merged = new TreeMap<>(KEY_ORDER);
+        for (Delta delta : deltas) {
+            merged.merge(delta, delta, (a, b) -> new Delta(a.accountId(), a.month(), a.type(),
+                    a.amount().add(b.amount()), a.count() + b.count()));
+        }
+        List<Delta> pending = new ArrayList<>(merged.values());
+        pending = missing(pending, jdbcTemplate.batchUpdate(ADD_SQL, addRows(pending)));
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt == MAX_ATTEMPTS) {
+                throw new IllegalStateException("Could not create monthly totals for account " + pending.get(0).accountId());
+            }
+            List<Object[]> keys = new ArrayList<>(pending.size());
+            for (Delta delta : pending) {
+                keys.add(new Object[]{delta.accountId(), Date.valueOf(delta.month().atDay(1)), delta.type().name()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, keys);
+            pending = missing(pending, jdbcTemplate.batchUpdate(ADD_SQL, addRows(pending)));
+        }
+    }
+
+    private static List<Object[]> addRows(List<Delta> deltas) {
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (Delta delta : deltas) {
+            rows.add(new Object[]{delta.amount(), delta.count(), delta.accountId(), Date.valueOf(delta.month().atDay(1)),
+                    delta.type().name()});
+        }
+        return rows;
+    }
+
+    private static List<Delta> missing(List<Delta> deltas, int[] updated) {
+        List<Delta> missing = new ArrayList<>();
+        for (int i = 0; i < deltas.size(); i++) {
+            if (updated[i] == 0) {
+                missing.add(deltas.get(i));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Returns a customer's totals for the months up to and including {@code to}, oldest first, with one
+     * entry per month and transaction type that has any. Months without transactions are left out.
+     *
+     * @param to The last month; the current month if null.
+     * @param months The number of months; 24 if null.
+     * @throws IllegalArgumentException If the customer has no account or the number of months is out of range.
+     */
+    @Override
+    public List<MonthlyTotalDTO> getMonthlyTotals(String customerId, YearMonth to, Integer months) {
+        int count = months == null ? DEFAULT_MONTHS : months;
+        if (count < 1 || count > properties.getMaxMonths()) {
+            throw new IllegalArgumentException("Months must be between 1 and " + properties.getMaxMonths());
+        }
+        YearMonth last = to == null ? YearMonth.now() : to;
+        List<Object> accountIds = new ArrayList<>(1);
+        List<MonthlyTotalDTO> totals = new ArrayList<>();
+        jdbcTemplate.query(RANGE_SQL, resultSet -> {
+            accountIds.add(resultSet.getLong(1));
+            Date monthStart = resultSet.getDate(2);
+            if (monthStart == null) {
+                return;
+            }
+            MonthlyTotalDTO total = new MonthlyTotalDTO();
+            total.setMonth(YearMonth.from(monthStart.toLocalDate()));
+            total.setTransactionType(TransactionType.valueOf(resultSet.getString(3)));
+            total.setTotalAmount(resultSet.getBigDecimal(4));
+            total.setTransactionCount(resultSet.getLong(5));
+            totals.add(total);
+        }, Date.valueOf(last.minusMonths(count - 1L).atDay(1)), Date.valueOf(last.atDay(1)), customerId);
+        if (accountIds.isEmpty()) {
+            throw new IllegalArgumentException("Account not found for user ID: " + customerId);
+        }
+        return totals;
+    }
+
+    /**
+     * Recomputes the totals of every account from the month {@code since} on, or from the oldest
+     * transaction if null. Months before the oldest transaction still in the table are left as they are,
+     * so totals of archived months survive.
+     *
+     * @throws IllegalStateException If a rebuild is already in progress in this instance.
+     */
+    @Override
+    public MonthlyTotalsRebuildDTO rebuild(YearMonth since) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("A monthly totals rebuild is already in progress");
+        }
+        try {
+            return doRebuild(since);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private MonthlyTotalsRebuildDTO doRebuild(YearMonth since) {
+        long started = System.nanoTime();
+        MonthlyTotalsRebuildDTO result = new MonthlyTotalsRebuildDTO();
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM transaction", Timestamp.class);
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM account");
+        if (oldest == null || bounds.get("min_id") == null) {
+            result.setSince(since);
+            return result;
+        }
+        YearMonth from = YearMonth.from(oldest.toLocalDateTime());
+        if (since != null && since.isAfter(from)) {
+            from = since;
+        }
+        result.setSince(from);
+        log.info("Rebuilding monthly totals from {} with {} workers", from, Math.max(1, properties.getRebuildParallelism()));
+
+        LongAdder rows = new LongAdder();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getRebuildParallelism()));
+        try {
+            pool.invoke(new RangeTask(((Number) bounds.get("min_id")).longValue(), ((Number) bounds.get("max_id")).longValue(),
+                    from, rows));
+        } finally {
+            pool.shutdown();
+        }
+        result.setRowsWritten(rows.sum());
+        result.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Rebuilt monthly totals from {}: {} rows in {} ms", from, result.getRowsWritten(), result.getDurationMillis());
+        return result;
+    }
+
+    private int rebuildRange(long fromId, long toId, YearMonth from) {
+        Date monthStart = Date.valueOf(from.atDay(1));
+        Timestamp since = Timestamp.valueOf(from.atDay(1).atStartOfDay());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    jdbcTemplate.update(DELETE_RANGE_SQL, fromId, toId, monthStart);
+                    return jdbcTemplate.update(REBUILD_RANGE_SQL, fromId, toId, since);
+                });
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Monthly totals of accounts {} to {} changed during the rebuild; recomputing them", fromId, toId);
+            }
+        }
+    }
+
+    /**
+     * Splits an inclusive account id range in half until it is no wider than {@code rebuildRangeSize}.
+     */
+    private final class RangeTask extends RecursiveAction {
+        private final long fromId;
+        private final long toId;
+        private final YearMonth from;
+        private final LongAdder rows;
+
+        private RangeTask(long fromId, long toId, YearMonth from, LongAdder rows) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.from = from;
+            this.rows = rows;
+        }
+
+        @Override
+        protected void compute() {
+            if (toId - fromId < properties.getRebuildRangeSize()) {
+                rows.add(rebuildRange(fromId, toId, from));
+                return;
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            invokeAll(new RangeTask(fromId, middle, from, rows), new RangeTask(middle + 1, toId, from, rows));
+        }
+    }
+}
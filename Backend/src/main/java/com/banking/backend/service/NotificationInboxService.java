@@ -0,0 +1,334 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.notification.NotificationInboxProperties;
+import com.banking.backend.dto.InboxNotificationDTO;
+import com.banking.backend.dto.InboxPageDTO;
+import com.banking.backend.dto.TransactionNotification;
+import com.banking.backend.service.interfaces.ICustomerFilterService;
+import com.banking.backend.service.interfaces.INotificationInboxService;
+import com.banking.backend.util.PartitionedSequencer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps each customer's consumed notifications in an inbox they can page through, with an unread count
+ * for the badge.
+ * <p>
+ * Notifications are written by group commit: the consumer queues each one on a partition chosen by
+ * customer, and the partition's single writer inserts whatever has accumulated, up to
+ * {@code maxBatchSize}, as one JDBC batch in one transaction, completing each notification's future
+ * once it has committed. The consumer settles a message only after that, so a notification is never
+ * lost, and one redelivered after its batch committed is skipped by the inbox's unique key.
+ * <p>
+ * The unread count is a per-customer counter row adjusted by the transactions that insert notifications
+ * and mark them read, so it is never counted. Counters are cached for {@code unreadCacheTtl}; changes
+ * made on this node update the cache as they commit, and changes made on another node show up once the
+ * cached count expires. Batches touch counter rows in customer order, so writers on different nodes
+ * cannot deadlock on them.
+ */
+@Service
+public class NotificationInboxService implements INotificationInboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationInboxService.class);
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    private static final String INSERT_SQL = "INSERT INTO notification_inbox (user_id, transaction_id, transaction_type, message, " +
+            "amount, currency, recipient_name, sender_name, digest_count, created_at, received_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String INSERT_STATE_SQL = "INSERT INTO notification_inbox_state (user_id, unread_count) VALUES (?, 0) " +
+            "ON CONFLICT DO NOTHING";
+    private static final String ADD_UNREAD_SQL = "UPDATE notification_inbox_state SET unread_count = unread_count + ? WHERE user_id = ?";
+    private static final String UNREAD_SQL = "SELECT unread_count FROM notification_inbox_state WHERE user_id = ?";
+    private static final String PAGE_SQL = "SELECT id, transaction_id, transaction_type, message, amount, currency, recipient_name, " +
+            "sender_name, digest_count, created_at, read_at FROM notification_inbox WHERE user_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+    // Completed with one (?, ?, ?) per notification; each is a seek on the unique key.
+    private static final String STORED_SQL = "SELECT user_id, transaction_id, transaction_type FROM notification_inbox " +
+            "WHERE (user_id, transaction_id, transaction_type) IN (";
+    private static final String MARK_READ_SQL = "UPDATE notification_inbox SET read_at = ? WHERE user_id = ? AND id <= ? AND read_at IS NULL";
+
+    private static final RowMapper<InboxNotificationDTO> NOTIFICATION_MAPPER = (rs, rowNum) -> {
+        InboxNotificationDTO dto = new InboxNotificationDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setTransactionId(rs.getString("transaction_id"));
+        dto.setTransactionType(rs.getString("transaction_type"));
+        dto.setMessage(rs.getString("message"));
+        dto.setAmount(rs.getBigDecimal("amount"));
+        dto.setCurrency(rs.getString("currency"));
+        dto.setRecipientName(rs.getString("recipient_name"));
+        dto.setSenderName(rs.getString("sender_name"));
+        dto.setDigestCount(rs.getObject("digest_count", Integer.class));
+        dto.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        dto.setRead(rs.getTimestamp("read_at") != null);
+        return dto;
+    };
+
+    private record PendingNotification(TransactionNotification notification, LocalDateTime receivedAt,
+                                       CompletableFuture<Void> stored) {
+    }
+
+    private record CachedCount(long count, long loadedAtNanos) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ICustomerFilterService customerFilterService;
+    private final NotificationInboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionedSequencer<PendingNotification> sequencer;
+    private final Map<String, CachedCount> unreadCounts = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+    private final Counter stored;
+    private final Counter duplicates;
+
+    public NotificationInboxService(DataSource dataSource, ICustomerFilterService customerFilterService,
+                                    NotificationInboxProperties properties, PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.customerFilterService = customerFilterService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sequencer = new PartitionedSequencer<>("inbox-writer", properties.getWriters(),
+                properties.getQueueCapacity(), properties.getMaxBatchSize(), this::writeBatch);
+
+        Gauge.builder("banking.notifications.inbox.queued", sequencer, PartitionedSequencer::queued)
+                .description("Consumed notifications waiting to be written to an inbox")
+                .register(meterRegistry);
+        Gauge.builder("banking.notifications.inbox.cached.counts", unreadCounts, Map::size)
+                .description("Unread counts held in the cache")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("banking.notifications.inbox.batch.size")
+                .description("Notifications written per inbox batch")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("banking.notifications.inbox.commit")
+                .description("Time to write and commit one inbox batch")
+                .register(meterRegistry);
+        this.stored = Counter.builder("banking.notifications.inbox.stored")
+                .description("Notifications added to an inbox")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("banking.notifications.inbox.duplicates")
+                .description("Redelivered notifications skipped because the inbox already held them")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        sequencer.start();
+    }
+
+    /**
+     * Writes what is already queued before shutdown; notifications left after the timeout fail, so their
+     * messages are redelivered.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        List<PendingNotification> leftover = sequencer.stop(properties.getStoreTimeout());
+        if (!leftover.isEmpty()) {
+            log.warn("{} notifications were not written to their inbox before shutdown", leftover.size());
+            IllegalStateException shutdown = new IllegalStateException("Inbox writer shut down");
+            leftover.forEach(pending -> pending.stored().completeExceptionally(shutdown));
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> store(TransactionNotification notification) {
+        // Rejected up front: one such row would fail the whole batch it was written in, every time.
+        if (notification.getUserId() == null || notification.getTransactionId() == null
+                || notification.getTransactionType() == null) {
+            throw new IllegalArgumentException("Notification has no user ID, transaction ID or transaction type");
+        }
+        PendingNotification pending = new PendingNotification(notification, LocalDateTime.now(), new CompletableFuture<>());
+        if (!sequencer.offer(notification.getUserId(), pending)) {
+            pending.stored().completeExceptionally(new IllegalStateException("Inbox write queue is full"));
+        }
+        return pending.stored();
+    }
+
+    @Override
+    public List<TransactionNotification> withoutStored(List<TransactionNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        String sql = STORED_SQL + String.join(", ", Collections.nCopies(notifications.size(), "(?, ?, ?)")) + ")";
+        Object[] args = new Object[notifications.size() * 3];
+        for (int i = 0; i < notifications.size(); i++) {
+            TransactionNotification notification = notifications.get(i);
+            args[i * 3] = notification.getUserId();
+            args[i * 3 + 1] = notification.getTransactionId();
+            args[i * 3 + 2] = notification.getTransactionType();
+        }
+        Set<List<String>> stored = new HashSet<>(jdbcTemplate.query(sql, (rs, rowNum) ->
+                List.of(rs.getString(1), rs.getString(2), rs.getString(3)), args));
+        return notifications.stream()
+                .filter(n -> !stored.contains(Arrays.asList(n.getUserId(), n.getTransactionId(), n.getTransactionType())))
+                .toList();
+    }
+
+    @Override
+    public InboxPageDTO getInbox(String userId, Long before, Integer limit) {
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (!customerFilterService.mightExist(userId)) {
+            throw new IllegalArgumentException("Account not found for user ID: " + userId);
+        }
+        List<InboxNotificationDTO> notifications = jdbcTemplate.query(PAGE_SQL, NOTIFICATION_MAPPER,
+                userId, before != null ? before : Long.MAX_VALUE, pageSize);
+
+        InboxPageDTO page = new InboxPageDTO();
+        page.setNotifications(notifications);
+        page.setUnreadCount(getUnreadCount(userId));
+        page.setNextBefore(notifications.size() == pageSize ? notifications.get(pageSize - 1).getId() : null);
+        return page;
+    }
+
+    @Override
+    public long getUnreadCount(String userId) {
+        long now = System.nanoTime();
+        CachedCount cached = unreadCounts.get(userId);
+        if (cached != null && now - cached.loadedAtNanos() < properties.getUnreadCacheTtl().toNanos()) {
+            return cached.count();
+        }
+        long count = readUnreadCount(userId);
+        cache(userId, count, now);
+        return count;
+    }
+
+    @Override
+    public long markRead(String userId, Long upToId) {
+        long count = transactionTemplate.execute(status -> {
+            int marked = jdbcTemplate.update(MARK_READ_SQL, Timestamp.valueOf(LocalDateTime.now()), userId,
+                    upToId != null ? upToId : Long.MAX_VALUE);
+            if (marked > 0) {
+                jdbcTemplate.update(ADD_UNREAD_SQL, -marked, userId);
+            }
+            return readUnreadCount(userId);
+        });
+        cache(userId, count, System.nanoTime());
+        return count;
+    }
+
+    /**
+     * Writes one batch from a partition's queue and completes its futures. If the transaction fails,
+     * every notification in it fails and is redelivered.
+     */
+    private void writeBatch(List<PendingNotification> batch) {
+        Map<String, Integer> added;
+        long startedAt = System.nanoTime();
+        try {
+            added = transactionTemplate.execute(status -> insert(batch));
+        } catch (RuntimeException e) {
+            log.error("Failed to write a batch of {} notifications to the inbox; they will be redelivered", batch.size(), e);
+            batch.forEach(pending -> pending.stored().completeExceptionally(e));
+            return;
+        }
+        commitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+
+        int addedTotal = 0;
+        for (Map.Entry<String, Integer> entry : added.entrySet()) {
+            addedTotal += entry.getValue();
+            unreadCounts.computeIfPresent(entry.getKey(),
+                    (userId, cached) -> new CachedCount(cached.count() + entry.getValue(), cached.loadedAtNanos()));
+        }
+        stored.increment(addedTotal);
+        duplicates.increment(batch.size() - addedTotal);
+        batch.forEach(pending -> pending.stored().complete(null));
+    }
+
+    /**
+     * @return The number of notifications actually added per customer, in customer order.
+     */
+    private Map<String, Integer> insert(List<PendingNotification> batch) {
+        int[][] results = jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> {
+            TransactionNotification notification = pending.notification();
+            ps.setString(1, notification.getUserId());
+            ps.setString(2, notification.getTransactionId());
+            ps.setString(3, notification.getTransactionType());
+            ps.setString(4, truncate(notification.getMessage()));
+            ps.setBigDecimal(5, notification.getAmount());
+            ps.setString(6, notification.getCurrency());
+            ps.setString(7, notification.getRecipientName());
+            ps.setString(8, notification.getSenderName());
+            if (notification.getDigestCount() != null) {
+                ps.setInt(9, notification.getDigestCount());
+            } else {
+                ps.setNull(9, Types.INTEGER);
+            }
+            LocalDateTime createdAt = notification.getTimestamp() != null ? notification.getTimestamp() : pending.receivedAt();
+            ps.setTimestamp(10, Timestamp.valueOf(createdAt));
+            ps.setTimestamp(11, Timestamp.valueOf(pending.receivedAt()));
+        });
+
+        Map<String, Integer> added = new TreeMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            // A skipped duplicate reports 0 rows.
+            if (results[0][i] != 0) {
+                added.merge(batch.get(i).notification().getUserId(), 1, Integer::sum);
+            }
+        }
+        if (!added.isEmpty()) {
+            List<String> userIds = new ArrayList<>(added.keySet());
+            jdbcTemplate.batchUpdate(INSERT_STATE_SQL, userIds, userIds.size(), (ps, userId) -> ps.setString(1, userId));
+            jdbcTemplate.batchUpdate(ADD_UNREAD_SQL, userIds, userIds.size(), (ps, userId) -> {
+                ps.setInt(1, added.get(userId));
+                ps.setString(2, userId);
+            });
+        }
+        return added;
+    }
+
+    private long readUnreadCount(String userId) {
+        List<Long> counts = jdbcTemplate.queryForList(UNREAD_SQL, Long.class, userId);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    private void cache(String userId, long count, long loadedAtNanos) {
+        if (unreadCounts.size() >= properties.getMaxCachedUsers() && !unreadCounts.containsKey(userId)) {
+            long ttl = properties.getUnreadCacheTtl().toNanos();
+            unreadCounts.values().removeIf(cached -> loadedAtNanos - cached.loadedAtNanos() >= ttl);
+            if (unreadCounts.size() >= properties.getMaxCachedUsers()) {
+                return;
+            }
+        }
+        unreadCounts.put(userId, new CachedCount(count, loadedAtNanos));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "";
+        }
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+}
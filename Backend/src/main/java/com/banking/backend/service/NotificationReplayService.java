@@ -0,0 +1,439 @@
+package com.banking.backend.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import com.banking.backend.config.notification.NotificationReplayProperties;
+import com.banking.backend.dto.NotificationReplayDTO;
+import com.banking.backend.dto.TransactionNotification;
+import com.banking.backend.enums.NotificationReplaySource;
+import com.banking.backend.enums.NotificationReplayStatus;
+import com.banking.backend.service.interfaces.INotificationInboxService;
+import com.banking.backend.service.interfaces.INotificationReplayService;
+import com.banking.backend.util.NotificationTracing;
+import com.banking.backend.util.TokenBucket;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Service class responsible for replaying notifications that never reached a customer's inbox: those the
+ * sender moved to the failed-transactions queue, and those the consumer dead-lettered. A replay is started
+ * on demand, runs in the background, and reports its progress as it goes.
+ * <p>
+ * Each of the replay's workers receives a batch of messages in peek-lock mode. It skips the ones the inbox
+ * already holds, sends the rest to the notification queue as one Service Bus batch and only then completes
+ * them, so a notification is never lost and at worst sent twice, which the inbox ignores. All workers share
+ * one token bucket, which keeps the replay at the requested rate however many workers run.
+ * <p>
+ * Messages outside the requested time range or transaction, and messages that are not a notification the
+ * inbox could store, are left in the source: they stay locked until the replay ends and are then abandoned.
+ * A message coming round again means its lock expired and the whole source has been seen, so the replay stops.
+ */
+@Service
+public class NotificationReplayService implements INotificationReplayService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationReplayService.class);
+
+    private static final int MAX_PARALLELISM = 64;
+    // Set by Service Bus on dead-lettered messages; the replayed message is no longer dead-lettered.
+    private static final List<String> DEAD_LETTER_PROPERTIES = List.of("DeadLetterReason", "DeadLetterErrorDescription");
+
+    private final Map<NotificationReplaySource, ObjectFactory<ServiceBusReceiverClient>> receivers = new EnumMap<>(NotificationReplaySource.class);
+    private final ObjectFactory<ServiceBusSenderAsyncClient> serviceBusSenderAsyncClient;
+    private final INotificationInboxService notificationInboxService;
+    private final ObjectMapper objectMapper;
+    private final NotificationReplayProperties properties;
+    private final MeterRegistry meterRegistry;
+    private volatile Replay current;
+
+    public NotificationReplayService(@Qualifier("failedNotificationReceiverClient") ObjectFactory<ServiceBusReceiverClient> failedNotificationReceiverClient,
+                                     @Qualifier("deadLetterReceiverClient") ObjectFactory<ServiceBusReceiverClient> deadLetterReceiverClient,
+                                     @Qualifier("serviceBusSenderAsyncClient") ObjectFactory<ServiceBusSenderAsyncClient> serviceBusSenderAsyncClient,
+                                     INotificationInboxService notificationInboxService, ObjectMapper objectMapper,
+                                     NotificationReplayProperties properties, MeterRegistry meterRegistry) {
+        this.receivers.put(NotificationReplaySource.FAILED_QUEUE, failedNotificationReceiverClient);
+        this.receivers.put(NotificationReplaySource.DEAD_LETTER_QUEUE, deadLetterReceiverClient);
+        this.serviceBusSenderAsyncClient = serviceBusSenderAsyncClient;
+        this.notificationInboxService = notificationInboxService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public synchronized NotificationReplayDTO start(NotificationReplaySource source, LocalDateTime from, LocalDateTime to,
+                                                    String transactionId, Integer ratePerSecond, Integer parallelism) {
+        int rate = ratePerSecond != null ? ratePerSecond : properties.getRatePerSecond();
+        int workers = parallelism != null ? parallelism : properties.getParallelism();
+        if (source == null) {
+            throw new IllegalArgumentException("A replay needs a source");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("The start of the time range must be before its end");
+        }
+        if (rate < 1 || workers < 1 || workers > MAX_PARALLELISM) {
+            throw new IllegalArgumentException("Rate must be positive and parallelism between 1 and " + MAX_PARALLELISM);
+        }
+        if (current != null && current.status == NotificationReplayStatus.RUNNING) {
+            throw new IllegalStateException("Replay " + current.id + " is still running");
+        }
+        Replay replay = new Replay(source, from, to, transactionId, rate, workers);
+        current = replay;
+        log.info("Starting notification replay {} from {} (from: {}, to: {}, transaction ID: {}) at up to {}/s with {} workers",
+                replay.id, source, from, to, transactionId, rate, workers);
+        Thread.ofPlatform().name("notification-replay").daemon().start(replay::run);
+        return replay.progress();
+    }
+
+    @Override
+    public Optional<NotificationReplayDTO> getProgress() {
+        Replay replay = current;
+        return replay != null ? Optional.of(replay.progress()) : Optional.empty();
+    }
+
+    @Override
+    public Optional<NotificationReplayDTO> cancel() {
+        Replay replay = current;
+        if (replay == null) {
+            return Optional.empty();
+        }
+        replay.cancelled = true;
+        return Optional.of(replay.progress());
+    }
+
+    @PreDestroy
+    public void stop() {
+        cancel();
+    }
+
+    /**
+     * One run over a source. The coordinating thread starts the workers, waits for them, and abandons the
+     * messages that were left in the source.
+     */
+    private final class Replay {
+
+        private final String id = UUID.randomUUID().toString().substring(0, 8);
+        private final NotificationReplaySource source;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final String transactionId;
+        private final int ratePerSecond;
+        private final int parallelism;
+        // About a second of sending per worker, so received messages are settled well within their lock.
+        private final int receiveCount;
+        private final TokenBucket tokens;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final Counter replayedCounter;
+
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong replayed = new AtomicLong();
+        private final AtomicLong alreadyDelivered = new AtomicLong();
+        private final AtomicLong filteredOut = new AtomicLong();
+        private final AtomicLong unreadable = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final Queue<ServiceBusReceivedMessage> left = new ConcurrentLinkedQueue<>();
+        private final Set<Long> leftSequenceNumbers = ConcurrentHashMap.newKeySet();
+
+        private ServiceBusReceiverClient receiver;
+        private volatile NotificationReplayStatus status = NotificationReplayStatus.RUNNING;
+        private volatile boolean cancelled;
+        private volatile boolean sourceExhausted;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Replay(NotificationReplaySource source, LocalDateTime from, LocalDateTime to, String transactionId,
+                       int ratePerSecond, int parallelism) {
+            this.source = source;
+            this.from = from;
+            this.to = to;
+            this.transactionId = transactionId;
+            this.ratePerSecond = ratePerSecond;
+            this.parallelism = parallelism;
+            this.receiveCount = Math.max(1, Math.min(properties.getBatchSize(), ratePerSecond / parallelism));
+            this.tokens = new TokenBucket(ratePerSecond, receiveCount, System.nanoTime());
+            this.replayedCounter = Counter.builder("banking.notifications.replayed")
+                    .description("Failed or dead-lettered notifications replayed to the notification queue")
+                    .tag("source", source.name())
+                    .register(meterRegistry);
+        }
+
+        private void run() {
+            Throwable failure = null;
+            ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+                    Thread.ofPlatform().name("notification-replay-" + id + "-", 0).daemon().factory());
+            try {
+                receiver = receivers.get(source).getObject();
+                List<Future<?>> running = new ArrayList<>();
+                for (int i = 0; i < parallelism; i++) {
+                    running.add(workers.submit(this::work));
+                }
+                for (Future<?> worker : running) {
+                    try {
+                        worker.get();
+                    } catch (ExecutionException e) {
+                        // Stop the other workers too: the source or the notification queue is failing.
+                        cancelled = true;
+                        failure = failure != null ? failure : e.getCause();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                workers.shutdownNow();
+                abandonLeftMessages();
+            }
+
+            finishedAt = LocalDateTime.now();
+            if (failure != null) {
+                error = failure.getMessage();
+                status = NotificationReplayStatus.FAILED;
+                log.error("Notification replay {} from {} failed after replaying {} notifications", id, source, replayed.get(), failure);
+            } else {
+                status = cancelled && !sourceExhausted ? NotificationReplayStatus.CANCELLED : NotificationReplayStatus.COMPLETED;
+                log.info("Notification replay {} from {} {}: {} received, {} replayed, {} already delivered, {} filtered out, {} unreadable",
+                        id, source, status, received.get(), replayed.get(), alreadyDelivered.get(), filteredOut.get(), unreadable.get());
+            }
+        }
+
+        private void work() {
+            Duration receiveTimeout = properties.getReceiveTimeout();
+            while (!cancelled && !sourceExhausted) {
+                List<ServiceBusReceivedMessage> messages = receiver.receiveMessages(receiveCount, receiveTimeout).stream().toList();
+                if (messages.isEmpty()) {
+                    sourceExhausted = true;
+                    return;
+                }
+                replayBatch(messages);
+            }
+        }
+
+        private void replayBatch(List<ServiceBusReceivedMessage> messages) {
+            List<ServiceBusReceivedMessage> candidates = new ArrayList<>();
+            List<TransactionNotification> notifications = new ArrayList<>();
+            for (ServiceBusReceivedMessage message : messages) {
+                if (leftSequenceNumbers.contains(message.getSequenceNumber())) {
+                    // Its lock from the first time round expired: everything in the source has been seen.
+                    sourceExhausted = true;
+                    left.add(message);
+                    continue;
+                }
+                received.incrementAndGet();
+                TransactionNotification notification = read(message);
+                if (notification == null) {
+                    unreadable.incrementAndGet();
+                    leave(message);
+                } else if (!matches(notification)) {
+                    filteredOut.incrementAndGet();
+                    leave(message);
+                } else {
+                    candidates.add(message);
+                    notifications.add(notification);
+                }
+            }
+            if (candidates.isEmpty()) {
+                return;
+            }
+
+            Set<TransactionNotification> undelivered = Collections.newSetFromMap(new IdentityHashMap<>());
+            undelivered.addAll(notificationInboxService.withoutStored(notifications));
+            List<ServiceBusReceivedMessage> toSend = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                if (undelivered.contains(notifications.get(i))) {
+                    toSend.add(candidates.get(i));
+                } else {
+                    complete(candidates.get(i));
+                    alreadyDelivered.incrementAndGet();
+                }
+            }
+            send(toSend);
+        }
+
+        /**
+         * Sends the messages to the notification queue in as few batches as they fit, completing each batch's
+         * messages once it is sent. If a send fails, the unsent messages are left in the source.
+         */
+        private void send(List<ServiceBusReceivedMessage> messages) {
+            ServiceBusSenderAsyncClient sender = serviceBusSenderAsyncClient.getObject();
+            int next = 0;
+            while (next < messages.size()) {
+                ServiceBusMessageBatch batch = sender.createMessageBatch().block(properties.getSendTimeout());
+                List<ServiceBusReceivedMessage> batched = new ArrayList<>();
+                while (next < messages.size()) {
+                    ServiceBusReceivedMessage message = messages.get(next);
+                    if (!batch.tryAddMessage(copy(message))) {
+                        if (!batched.isEmpty()) {
+                            break;
+                        }
+                        log.error("Notification with sequence number {} does not fit a Service Bus message and is left in {}",
+                                message.getSequenceNumber(), source);
+                        failed.incrementAndGet();
+                        leave(message);
+                    } else {
+                        acquireToken();
+                        batched.add(message);
+                    }
+                    next++;
+                }
+                if (batched.isEmpty()) {
+                    continue;
+                }
+                try {
+                    sender.sendMessages(batch).block(properties.getSendTimeout());
+                } catch (RuntimeException e) {
+                    failed.addAndGet(messages.size() - next + batched.size());
+                    batched.forEach(this::leave);
+                    messages.subList(next, messages.size()).forEach(this::leave);
+                    throw e;
+                }
+                batched.forEach(this::complete);
+                replayed.addAndGet(batched.size());
+                replayedCounter.increment(batched.size());
+            }
+        }
+
+        private void acquireToken() {
+            long waitNanos;
+            while ((waitNanos = tokens.tryAcquire(System.nanoTime())) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+        }
+
+        private boolean matches(TransactionNotification notification) {
+            if (transactionId != null && !transactionId.equals(notification.getTransactionId())) {
+                return false;
+            }
+            if (from == null && to == null) {
+                return true;
+            }
+            LocalDateTime timestamp = notification.getTimestamp();
+            return timestamp != null && (from == null || !timestamp.isBefore(from)) && (to == null || timestamp.isBefore(to));
+        }
+
+        /**
+         * @return The notification, or null if the message is not one the inbox could store.
+         */
+        private TransactionNotification read(ServiceBusReceivedMessage message) {
+            try {
+                TransactionNotification notification = objectMapper.readValue(message.getBody().toString(), TransactionNotification.class);
+                if (notification.getUserId() == null || notification.getTransactionId() == null
+                        || notification.getTransactionType() == null) {
+                    return null;
+                }
+                return notification;
+            } catch (JsonProcessingException e) {
+                return null;
+            }
+        }
+
+        private void leave(ServiceBusReceivedMessage message) {
+            leftSequenceNumbers.add(message.getSequenceNumber());
+            left.add(message);
+        }
+
+        private void complete(ServiceBusReceivedMessage message) {
+            try {
+                receiver.complete(message);
+            } catch (RuntimeException e) {
+                // Its lock expired; it comes back and is then skipped as already delivered.
+                log.warn("Could not complete replayed message with sequence number {} in {}: {}",
+                        message.getSequenceNumber(), source, e.getMessage());
+            }
+        }
+
+        private void abandonLeftMessages() {
+            if (receiver == null) {
+                return;
+            }
+            ServiceBusReceivedMessage message;
+            while ((message = left.poll()) != null) {
+                try {
+                    receiver.abandon(message);
+                } catch (RuntimeException e) {
+                    // Its lock already expired, which returns it to the source just the same.
+                    log.debug("Could not abandon message with sequence number {} in {}: {}",
+                            message.getSequenceNumber(), source, e.getMessage());
+                }
+            }
+        }
+
+        private NotificationReplayDTO progress() {
+            NotificationReplayDTO dto = new NotificationReplayDTO();
+            dto.setId(id);
+            dto.setSource(source);
+            dto.setStatus(status);
+            dto.setFrom(from);
+            dto.setTo(to);
+            dto.setTransactionId(transactionId);
+            dto.setRatePerSecond(ratePerSecond);
+            dto.setParallelism(parallelism);
+            dto.setReceived(received.get());
+            dto.setReplayed(replayed.get());
+            dto.setAlreadyDelivered(alreadyDelivered.get());
+            dto.setFilteredOut(filteredOut.get());
+            dto.setUnreadable(unreadable.get());
+            dto.setFailed(failed.get());
+            double seconds = (System.nanoTime() - startedNanos) / 1e9;
+            dto.setReplayedPerSecond(seconds > 0 ? replayed.get() / seconds : 0);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            return dto;
+        }
+    }
+
+    /**
+     * The message to send in place of a received one: same body, identity and application properties, stamped
+     * as enqueued now so its time in the notification queue is measured from the replay.
+     */
+    private static ServiceBusMessage copy(ServiceBusReceivedMessage received) {
+        ServiceBusMessage message = new ServiceBusMessage(received.getBody());
+        if (received.getMessageId() != null) {
+            message.setMessageId(received.getMessageId());
+        }
+        if (received.getCorrelationId() != null) {
+            message.setCorrelationId(received.getCorrelationId());
+        }
+        if (received.getContentType() != null) {
+            message.setContentType(received.getContentType());
+        }
+        message.getApplicationProperties().putAll(received.getApplicationProperties());
+        DEAD_LETTER_PROPERTIES.forEach(message.getApplicationProperties()::remove);
+        message.getApplicationProperties().put(NotificationTracing.ENQUEUED_AT, System.currentTimeMillis());
+        return message;
+    }
+}
@@ -3,23 +3,40 @@ package com.banking.backend.service;
 import com.azure.messaging.servicebus.ServiceBusMessage;
 import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
 import com.banking.backend.GlobalExceptationHandlers.NotificationSerializationException;
+import com.banking.backend.config.notification.NotificationDigestProperties;
+import com.banking.backend.config.notification.NotificationSendProperties;
 import com.banking.backend.dto.TransactionNotification;
+import com.banking.backend.enums.NotificationOverflowPolicy;
 import com.banking.backend.enums.TransactionType;
 import com.banking.backend.model.Account;
 import com.banking.backend.service.interfaces.INotificationService;
+import com.banking.backend.service.interfaces.INotificationSpoolService;
+import com.banking.backend.util.BoundedInFlightWindow;
 import com.banking.backend.util.MessageFormatter;
+import com.banking.backend.util.NotificationDigestCoalescer;
+import com.banking.backend.util.NotificationTracing;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Mono;
 
+import jakarta.annotation.PreDestroy;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 /**
  * Service class responsible for handling and sending various banking-related notifications
@@ -31,56 +48,161 @@ import java.time.LocalDateTime;
 public class NotificationService implements INotificationService {
 
     private final MessageFormatter messageFormatter;
-    private final ServiceBusSenderAsyncClient serviceBusSenderAsyncClient;
-    private final ServiceBusSenderAsyncClient failedNotificationSenderAsyncClient;
+    private final ObjectFactory<ServiceBusSenderAsyncClient> serviceBusSenderAsyncClient;
+    private final ObjectFactory<ServiceBusSenderAsyncClient> failedNotificationSenderAsyncClient;
     private final ObjectMapper objectMapper;
+    private final NotificationSendProperties sendProperties;
+    private final BoundedInFlightWindow sendWindow;
+    private final BoundedInFlightWindow failedSendWindow;
+    private final Counter spilledNotifications;
+    private final Counter coalescedNotifications;
+    private final Counter digestNotifications;
+    private final NotificationDigestCoalescer digestCoalescer;
+    private final ObservationRegistry observationRegistry;
+    private final INotificationSpoolService spoolService;
     @Value("${azure.servicebus.transaction-queue-name}")
     private String queueName;
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
-    public NotificationService(MessageFormatter messageFormatter, ServiceBusSenderAsyncClient serviceBusSenderAsyncClient, ServiceBusSenderAsyncClient failedNotificationSenderAsyncClient, ObjectMapper objectMapper) {
+    /**
+     * The Service Bus senders are injected as factories so the clients are only built on the first send,
+     * keeping their construction off the application startup path.
+     */
+    public NotificationService(MessageFormatter messageFormatter,
+                               @Qualifier("serviceBusSenderAsyncClient") ObjectFactory<ServiceBusSenderAsyncClient> serviceBusSenderAsyncClient,
+                               @Qualifier("failedNotificationSenderAsyncClient") ObjectFactory<ServiceBusSenderAsyncClient> failedNotificationSenderAsyncClient,
+                               ObjectMapper objectMapper,
+                               NotificationSendProperties sendProperties, NotificationDigestProperties digestProperties,
+                               MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+                               INotificationSpoolService spoolService) {
         this.messageFormatter = messageFormatter;
+        this.observationRegistry = observationRegistry;
+        this.spoolService = spoolService;
         this.serviceBusSenderAsyncClient = serviceBusSenderAsyncClient;
         this.failedNotificationSenderAsyncClient = failedNotificationSenderAsyncClient;
         this.objectMapper = objectMapper;
+        this.sendProperties = sendProperties;
+        this.sendWindow = new BoundedInFlightWindow("notifications", sendProperties.getMaxInFlight(), meterRegistry);
+        this.failedSendWindow = new BoundedInFlightWindow("failed-notifications", sendProperties.getMaxFailedInFlight(), meterRegistry);
+        this.spilledNotifications = Counter.builder("banking.notifications.spilled")
+                .description("Notifications diverted to the failure path because the send window was full")
+                .register(meterRegistry);
+        this.coalescedNotifications = Counter.builder("banking.notifications.coalesced")
+                .description("Recipient notifications merged into a digest instead of being sent individually")
+                .register(meterRegistry);
+        this.digestNotifications = Counter.builder("banking.notifications.digests")
+                .description("Digest notifications sent")
+                .register(meterRegistry);
+        if (digestProperties.isEnabled()) {
+            this.digestCoalescer = new NotificationDigestCoalescer(digestProperties.getRatePerMinute() / 60.0,
+                    digestProperties.getBurst(), digestProperties.getWindow(), digestProperties.getMaxSize(),
+                    digestProperties.getMaxTrackedRecipients(), this::sendDigest);
+            Gauge.builder("banking.notifications.digests.pending", digestCoalescer, NotificationDigestCoalescer::pendingDigests)
+                    .description("Digests currently collecting notifications")
+                    .register(meterRegistry);
+        } else {
+            this.digestCoalescer = null;
+        }
     }
 
     /**
      * Sends transfer-related notifications to both the sender and the recipient of a transaction.
      * This method constructs two distinct {@link TransactionNotification} objects (one for 'transfer out'
      * and one for 'transfer in') and dispatches them individually to the Service Bus queue.
+     * A recipient credited faster than the configured digest rate has its 'transfer in' notification
+     * merged into a digest instead, which is sent when the digest window closes.
      */
     @Override
     @Async
-    public void sendTransferNotifications(String transactionId, Account sender, Account recipient, BigDecimal amount) {
+    public void sendTransferNotifications(String transactionId, Account sender, Account recipient, BigDecimal amount,
+                                          BigDecimal creditedAmount, LocalDateTime committedAt) {
         log.info("Asynchronously preparing and sending transfer notifications for transaction ID: {}", transactionId);
         String senderMessage = messageFormatter.formatSenderMessage(
-                transactionId, amount, recipient.getCustomerName(), sender.getBalance(), LocalDateTime.now()
+                transactionId, amount, sender.getCurrency(), recipient.getCustomerName(), sender.getBalance(), committedAt
         );
         TransactionNotification senderNotification = createNotification(
-                transactionId, sender.getCustomerId(), senderMessage, LocalDateTime.now(),
+                transactionId, sender.getCustomerId(), senderMessage, committedAt,
                 TransactionType.TRANSFER_OUT.name(),
-                amount, recipient.getCustomerName(), sender.getCustomerName()
+                amount, sender.getCurrency(), recipient.getCustomerName(), sender.getCustomerName()
         );
         sendNotificationToQueue(senderNotification);
 
+        if (digestCoalescer != null && digestCoalescer.tryCoalesce(recipient.getCustomerId(), recipient.getCustomerName(),
+                recipient.getCurrency(), sender.getCustomerName(), transactionId, creditedAmount, recipient.getBalance(),
+                committedAt, System.nanoTime())) {
+            coalescedNotifications.increment();
+            return;
+        }
         String recipientMessage = messageFormatter.formatRecipientMessage(
-                transactionId, amount, sender.getCustomerName(), recipient.getBalance(), LocalDateTime.now()
+                transactionId, creditedAmount, recipient.getCurrency(), sender.getCustomerName(), recipient.getBalance(), committedAt
         );
         TransactionNotification recipientNotification = createNotification(
-                transactionId, recipient.getCustomerId(), recipientMessage, LocalDateTime.now(),
+                transactionId, recipient.getCustomerId(), recipientMessage, committedAt,
                 TransactionType.TRANSFER_IN.name(),
-                amount, recipient.getCustomerName(), sender.getCustomerName()
+                creditedAmount, recipient.getCurrency(), recipient.getCustomerName(), sender.getCustomerName()
         );
         sendNotificationToQueue(recipientNotification);
     }
 
+    /**
+     * Sends the digests whose window has closed.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${banking.notifications.digest.flush-interval-ms:500}")
+    public void flushDueDigests() {
+        if (digestCoalescer != null) {
+            digestCoalescer.flushDue(System.nanoTime());
+        }
+    }
+
+    /**
+     * Sends every open digest before shutdown so no credit goes unannounced.
+     */
+    @PreDestroy
+    public void flushAllDigests() {
+        if (digestCoalescer != null) {
+            digestCoalescer.flushAll();
+        }
+    }
+
+    /**
+     * Turns a flushed digest into a 'transfer in' notification. A digest that only absorbed a single
+     * transfer is sent as the ordinary message for that transfer.
+     */
+    private void sendDigest(NotificationDigestCoalescer.Digest digest) {
+        String message = digest.count() == 1
+                ? messageFormatter.formatRecipientMessage(digest.lastTransactionId(), digest.total(), digest.currency(),
+                        digest.senderName(), digest.lastBalance(), digest.lastTimestamp())
+                : messageFormatter.formatRecipientDigestMessage(digest.count(), digest.total(), digest.currency(),
+                        digest.firstTimestamp(), digest.lastTimestamp(), digest.lastBalance());
+        TransactionNotification notification = createNotification(
+                digest.lastTransactionId(), digest.recipientId(), message, LocalDateTime.now(),
+                TransactionType.TRANSFER_IN.name(),
+                digest.total(), digest.currency(), digest.recipientName(), digest.senderName()
+        );
+        if (digest.count() > 1) {
+            notification.setDigestCount(digest.count());
+            digestNotifications.increment();
+        }
+        try {
+            sendNotificationToQueue(notification);
+        } catch (RuntimeException e) {
+            log.error("Failed to send digest notification for customer {} covering {} transfers", digest.recipientId(), digest.count(), e);
+        }
+    }
+
     /**
      * Asynchronously sends a {@link TransactionNotification} to the primary Azure Service Bus queue.
      * This method leverages the non-blocking {@link ServiceBusSenderAsyncClient} and
      * includes a robust error handling mechanism with a fallback to a dedicated dead-letter queue.
+     * The number of sends outstanding at once is capped by an in-flight window; when it is full the
+     * configured {@link NotificationOverflowPolicy} decides whether to wait for a slot or spill the
+     * notification to the failure path, so a slow Service Bus cannot pile pending messages up on the heap.
+     * The message carries the current trace context and the times the consumer measures latency from;
+     * see {@link NotificationTracing}.
      */
     private void sendNotificationToQueue(TransactionNotification notification) {
+        ServiceBusSenderAsyncClient serviceBusSenderAsyncClient = this.serviceBusSenderAsyncClient.getObject();
         if (serviceBusSenderAsyncClient == null) {
             log.error("CRITICAL ERROR: ServiceBusSenderClient is not initialized. Cannot send notification for transaction ID: {}", notification.getTransactionId());
             throw new IllegalStateException("ServiceBusSenderClient is not initialized. Application is misconfigured or in an invalid state.");
@@ -88,36 +210,48 @@ public class NotificationService implements INotificationService {
 
         try {
             String jsonNotification = objectMapper.writeValueAsString(notification);
+
+            Duration maxWait = sendProperties.getOverflowPolicy() == NotificationOverflowPolicy.BLOCK
+                    ? sendProperties.getMaxWait() : Duration.ZERO;
+            if (!sendWindow.tryAcquire(maxWait)) {
+                spilledNotifications.increment();
+                log.warn("Notification send window is full ({} in flight). Spilling notification for transaction ID: {} to the failure path",
+                        sendWindow.outstanding(), notification.getTransactionId());
+                sendToFailedQueue(notification, jsonNotification, "In-flight send window full");
+                return;
+            }
+
             ServiceBusMessage message = new ServiceBusMessage(jsonNotification);
             message.setCorrelationId(notification.getTransactionId());
+            message.getApplicationProperties().put(NotificationTracing.COMMITTED_AT,
+                    notification.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            message.getApplicationProperties().put(NotificationTracing.ENQUEUED_AT, System.currentTimeMillis());
+            // Starting the observation writes the trace context into the message; it lasts until the broker answers.
+            Observation send = Observation.createNotStarted(NotificationTracing.SEND_OBSERVATION,
+                    () -> NotificationTracing.senderContext(message, queueName), observationRegistry).start();
 
-            serviceBusSenderAsyncClient.sendMessage(message)
-                            .doOnSuccess(aVoid -> {
-                                log.info("Sent notification to Service Bus queue '{}' for transaction ID: {} message ID: {}", queueName, notification.getTransactionId(), message.getMessageId());
-                            })
-                             .onErrorResume(error -> {
-                                 log.error("CRITICAL ERROR: Failed to send message to Azure Service Bus queue '{}' for transaction ID: {} AFTER ALL RETRIES. Notification data: {}",
-                                         queueName, notification.getTransactionId(), notification, error);
-
-                                 return Mono.defer(() ->{
-                                     try{
-                                         ServiceBusMessage deadLetterMessage = new ServiceBusMessage(jsonNotification);
-                                         deadLetterMessage.setCorrelationId(notification.getTransactionId());
-                                         deadLetterMessage.getApplicationProperties().put("failureReason", error.getMessage());
-
-                                         return failedNotificationSenderAsyncClient.sendMessage(deadLetterMessage)
-                                                 .doOnSuccess(inform -> log.info("Moved failed notification for transaction ID: {} to failed-notifications-queue", notification.getTransactionId()))
-                                                 .doOnError(deadLetterQueueError -> log.error("CRITICAL ERROR:  Failed to send message to DEAD LETTER QUEUE for transaction ID: {}. Data lost: {}", notification.getTransactionId(), notification, deadLetterQueueError))
-                                                 .then();
-
-
-                                     } catch (IllegalStateException deadLetterQueueError){
-                                         log.error("CRITICAL ERROR: Could not send failed notification to DEAD LETTER QUEUE for transaction ID: {}. Data lost: {}", notification.getTransactionId(), notification, deadLetterQueueError);
-                                         return Mono.empty();
-                                     }
+            try {
+                serviceBusSenderAsyncClient.sendMessage(message)
+                                .doOnSuccess(aVoid -> {
+                                    log.info("Sent notification to Service Bus queue '{}' for transaction ID: {} message ID: {}", queueName, notification.getTransactionId(), message.getMessageId());
+                                })
+                                .doOnError(send::error)
+                                .doFinally(signal -> {
+                                    sendWindow.release();
+                                    send.stop();
+                                })
+                                 .subscribe(null, error -> {
+                                     log.error("CRITICAL ERROR: Failed to send message to Azure Service Bus queue '{}' for transaction ID: {} AFTER ALL RETRIES. Notification data: {}",
+                                             queueName, notification.getTransactionId(), notification, error);
+                                     sendToFailedQueue(notification, jsonNotification, error.getMessage());
                                  });
-                             })
-                             .subscribe();
+            } catch (IllegalStateException sendError) {
+                sendWindow.release();
+                send.error(sendError);
+                send.stop();
+                log.error("CRITICAL ERROR: Could not start send to Azure Service Bus queue '{}' for transaction ID: {}", queueName, notification.getTransactionId(), sendError);
+                sendToFailedQueue(notification, jsonNotification, sendError.getMessage());
+            }
         } catch (JsonProcessingException e) {
             log.error("ERROR: Failed to serialize TransactionNotification to JSON for transaction ID: {}. Notification data: {}",
                     notification.getTransactionId(), notification, e);
@@ -125,12 +259,50 @@ public class NotificationService implements INotificationService {
         }
     }
 
+    /**
+     * Moves a notification that could not be sent to the main queue onto the failed-notifications queue.
+     * Sends on this path have their own, smaller in-flight window which never blocks. When it is full, or
+     * the failed-notifications queue cannot be reached either, the notification is spooled to local disk
+     * and replayed to the main queue once Service Bus recovers.
+     */
+    private void sendToFailedQueue(TransactionNotification notification, String jsonNotification, String failureReason) {
+        if (!failedSendWindow.tryAcquire(Duration.ZERO)) {
+            log.error("CRITICAL ERROR: Failed-notification send window is full for transaction ID: {}", notification.getTransactionId());
+            spoolOrLose(notification, jsonNotification);
+            return;
+        }
+        try {
+            ServiceBusMessage deadLetterMessage = new ServiceBusMessage(jsonNotification);
+            deadLetterMessage.setCorrelationId(notification.getTransactionId());
+            deadLetterMessage.getApplicationProperties().put("failureReason", failureReason);
+
+            failedNotificationSenderAsyncClient.getObject().sendMessage(deadLetterMessage)
+                    .doOnSuccess(inform -> log.info("Moved failed notification for transaction ID: {} to failed-notifications-queue", notification.getTransactionId()))
+                    .doFinally(signal -> failedSendWindow.release())
+                    .subscribe(null, deadLetterQueueError -> {
+                        log.error("CRITICAL ERROR:  Failed to send message to DEAD LETTER QUEUE for transaction ID: {}", notification.getTransactionId(), deadLetterQueueError);
+                        spoolOrLose(notification, jsonNotification);
+                    });
+        } catch (IllegalStateException deadLetterQueueError){
+            failedSendWindow.release();
+            log.error("CRITICAL ERROR: Could not send failed notification to DEAD LETTER QUEUE for transaction ID: {}", notification.getTransactionId(), deadLetterQueueError);
+            spoolOrLose(notification, jsonNotification);
+        }
+    }
+
+    private void spoolOrLose(TransactionNotification notification, String jsonNotification) {
+        if (!spoolService.spool(notification.getTransactionId(), jsonNotification)) {
+            log.error("CRITICAL ERROR: Data lost for transaction ID: {}: {}", notification.getTransactionId(), notification);
+        }
+    }
+
     /**
      * Creates a {@link TransactionNotification} object with the provided details.
      * This is a helper method to centralize notification object creation.
      */
     private TransactionNotification createNotification(String transactionId, String customerId, String message, LocalDateTime timestamp,
-                                                       String transactionType, BigDecimal amount, String recipientName, String senderName) {
+                                                       String transactionType, BigDecimal amount, String currency,
+                                                       String recipientName, String senderName) {
         TransactionNotification notification = new TransactionNotification();
         notification.setTransactionId(transactionId);
         notification.setUserId(customerId);
@@ -138,6 +310,7 @@ public class NotificationService implements INotificationService {
         notification.setTimestamp(timestamp);
         notification.setTransactionType(transactionType);
         notification.setAmount(amount);
+        notification.setCurrency(currency);
         notification.setRecipientName(recipientName);
         notification.setSenderName(senderName);
         return notification;
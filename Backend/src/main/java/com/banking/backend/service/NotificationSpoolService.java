@@ -0,0 +1,222 @@
+package com.banking.backend.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import com.banking.backend.config.notification.NotificationSpoolProperties;
+import com.banking.backend.dto.TransactionNotification;
+import com.banking.backend.service.interfaces.INotificationSpoolService;
+import com.banking.backend.spool.DiskSpool;
+import com.banking.backend.spool.SpoolRecord;
+import com.banking.backend.util.NotificationTracing;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class responsible for the last line of defence of the notification pipeline. A notification
+ * that neither the notification queue nor the failed-notifications queue accepted is appended to a
+ * {@link DiskSpool} in the configured directory instead of being lost, and a drainer thread replays the
+ * spool to the notification queue, oldest first, once Service Bus accepts messages again.
+ * <p>
+ * A spooled notification survives the JVM crashing as soon as it is appended. It also survives the machine
+ * crashing once the spool has been forced, which happens every {@code force-interval-ms}, or on every append
+ * with {@code force-on-append}. Replay is at least once: a crash between sending a batch and recording it as
+ * delivered sends the batch again, and the consumer skips notifications already in the inbox.
+ */
+@Service
+public class NotificationSpoolService implements INotificationSpoolService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationSpoolService.class);
+
+    private final ObjectFactory<ServiceBusSenderAsyncClient> serviceBusSenderAsyncClient;
+    private final ObjectMapper objectMapper;
+    private final DiskSpool spool;
+    private final boolean forceOnAppend;
+    private final int drainBatchSize;
+    private final Duration sendTimeout;
+    private final ScheduledExecutorService drainer;
+    private final Counter spooled;
+    private final Counter rejected;
+    private final Counter replayed;
+
+    public NotificationSpoolService(NotificationSpoolProperties properties,
+                                    @Qualifier("serviceBusSenderAsyncClient") ObjectFactory<ServiceBusSenderAsyncClient> serviceBusSenderAsyncClient,
+                                    ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.serviceBusSenderAsyncClient = serviceBusSenderAsyncClient;
+        this.objectMapper = objectMapper;
+        this.forceOnAppend = properties.isForceOnAppend();
+        this.drainBatchSize = properties.getDrainBatchSize();
+        this.sendTimeout = properties.getSendTimeout();
+        this.spooled = Counter.builder("banking.notifications.spooled")
+                .description("Notifications written to the local disk spool because Service Bus did not accept them")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("banking.notifications.spool.rejected")
+                .description("Notifications lost because the local disk spool was full or failed")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("banking.notifications.spool.replayed")
+                .description("Spooled notifications sent to Service Bus")
+                .register(meterRegistry);
+
+        if (!properties.isEnabled()) {
+            this.spool = null;
+            this.drainer = null;
+            return;
+        }
+        try {
+            this.spool = DiskSpool.open(properties.getDirectory(), properties.getSegmentSize(), properties.getMaxSegments());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open the notification spool in " + properties.getDirectory().toAbsolutePath(), e);
+        }
+        if (spool.pending() > 0) {
+            log.warn("Notification spool holds {} notifications from a previous run; they will be replayed", spool.pending());
+        }
+        Gauge.builder("banking.notifications.spool.pending", spool, DiskSpool::pending)
+                .description("Spooled notifications not yet sent to Service Bus")
+                .register(meterRegistry);
+        this.drainer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("notification-spool-drainer").daemon().factory());
+        long intervalMillis = properties.getDrainInterval().toMillis();
+        drainer.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends a notification to the spool.
+     *
+     * @return false if the spool is disabled, full or failed, in which case the notification is lost.
+     */
+    @Override
+    public boolean spool(String transactionId, String jsonNotification) {
+        if (spool == null) {
+            return false;
+        }
+        try {
+            if (!spool.append(jsonNotification.getBytes(StandardCharsets.UTF_8))) {
+                rejected.increment();
+                log.error("Notification spool is full ({} pending). Cannot spool notification for transaction ID: {}", spool.pending(), transactionId);
+                return false;
+            }
+            if (forceOnAppend) {
+                spool.force();
+            }
+        } catch (IOException | RuntimeException e) {
+            rejected.increment();
+            log.error("Failed to spool notification for transaction ID: {}", transactionId, e);
+            return false;
+        }
+        spooled.increment();
+        log.warn("Spooled notification for transaction ID: {} to local disk ({} pending)", transactionId, spool.pending());
+        return true;
+    }
+
+    /**
+     * Replays spooled notifications to the notification queue in batches until the spool is empty or a send
+     * fails. Runs on the drainer thread, which is the spool's only reader.
+     */
+    @Override
+    public synchronized void drain() {
+        if (spool == null || spool.pending() == 0) {
+            return;
+        }
+        try {
+            ServiceBusSenderAsyncClient sender = serviceBusSenderAsyncClient.getObject();
+            List<SpoolRecord> records;
+            while (!(records = spool.read(drainBatchSize)).isEmpty()) {
+                ServiceBusMessageBatch batch = sender.createMessageBatch().block(sendTimeout);
+                long last = records.get(0).sequence() - 1;
+                for (SpoolRecord record : records) {
+                    ServiceBusMessage message = toMessage(record);
+                    if (message != null && !batch.tryAddMessage(message)) {
+                        if (batch.getCount() == 0) {
+                            log.error("Spooled notification {} does not fit a Service Bus message and is dropped", record.sequence());
+                            rejected.increment();
+                            last = record.sequence();
+                        }
+                        break;
+                    }
+                    last = record.sequence();
+                }
+                if (batch.getCount() > 0) {
+                    sender.sendMessages(batch).block(sendTimeout);
+                    replayed.increment(batch.getCount());
+                }
+                spool.acknowledge(last);
+                if (last < records.get(records.size() - 1).sequence()) {
+                    spool.rewind();
+                }
+                log.info("Replayed {} spooled notifications to Service Bus ({} pending)", batch.getCount(), spool.pending());
+            }
+        } catch (IOException | RuntimeException e) {
+            spool.rewind();
+            log.warn("Could not replay spooled notifications ({} pending); retrying later: {}", spool.pending(), e.getMessage());
+        }
+    }
+
+    /**
+     * Writes spooled notifications through to the disk.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${banking.notifications.spool.force-interval-ms:1000}")
+    public void force() {
+        if (spool == null) {
+            return;
+        }
+        try {
+            spool.force();
+        } catch (IOException e) {
+            log.error("Failed to force the notification spool to disk", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (spool == null) {
+            return;
+        }
+        drainer.shutdownNow();
+        drainer.awaitTermination(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        spool.close();
+    }
+
+    /**
+     * Rebuilds the message the notification would have been sent as, or returns null for a record that
+     * is not a notification.
+     */
+    private ServiceBusMessage toMessage(SpoolRecord record) {
+        String json = new String(record.payload(), StandardCharsets.UTF_8);
+        TransactionNotification notification;
+        try {
+            notification = objectMapper.readValue(json, TransactionNotification.class);
+        } catch (JsonProcessingException e) {
+            log.error("Spooled record {} is not a notification and is dropped: {}", record.sequence(), json, e);
+            rejected.increment();
+            return null;
+        }
+        ServiceBusMessage message = new ServiceBusMessage(json);
+        message.setCorrelationId(notification.getTransactionId());
+        if (notification.getTimestamp() != null) {
+            message.getApplicationProperties().put(NotificationTracing.COMMITTED_AT,
+                    notification.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        message.getApplicationProperties().put(NotificationTracing.ENQUEUED_AT, System.currentTimeMillis());
+        return message;
+    }
+}
@@ -0,0 +1,177 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.partition.PartitionMaintenanceProperties;
+import com.banking.backend.service.interfaces.IPartitionMaintenanceService;
+import com.banking.backend.service.interfaces.ITransactionArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service class responsible for keeping the monthly partitions of the {@code transaction} table
+ * in line with the retention policy. It runs once the application is ready and then on the
+ * configured schedule, and:
+ * <ul>
+ * <li>creates a partition for the current month and the configured number of months ahead, so
+ * inserts never hit a missing partition;</li>
+ * <li>detaches partitions older than the retention period with {@code DETACH PARTITION CONCURRENTLY},
+ * which does not block inserts into the remaining partitions, and optionally drops them. When the
+ * archive is enabled a partition is only detached once its month has been archived.</li>
+ * </ul>
+ * Partitions are named {@code transaction_YYYY_MM}, as created by the {@code V2} migration.
+ * Maintenance is skipped on databases other than PostgreSQL, such as the embedded H2 profile.
+ */
+@Service
+public class PartitionMaintenanceService implements IPartitionMaintenanceService {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+    private static final String PARENT_TABLE = "transaction";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT_TABLE + "_(\\d{4})_(\\d{2})");
+    private static final DateTimeFormatter NAME_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionMaintenanceProperties properties;
+    private final ITransactionArchiveService archiveService;
+    private final Counter partitionsCreated;
+    private final Counter partitionsDetached;
+    private volatile Boolean postgres;
+
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate, PartitionMaintenanceProperties properties,
+                                       ITransactionArchiveService archiveService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.archiveService = archiveService;
+        this.partitionsCreated = Counter.builder("banking.partitions.created")
+                .description("Transaction partitions created ahead of time")
+                .register(meterRegistry);
+        this.partitionsDetached = Counter.builder("banking.partitions.detached")
+                .description("Transaction partitions detached under the retention policy")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        try {
+            maintainPartitions();
+        } catch (RuntimeException e) {
+            log.error("Transaction partition maintenance failed on startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${banking.partitions.maintenance-cron:0 30 0 * * *}")
+    public void scheduledMaintenance() {
+        try {
+            maintainPartitions();
+        } catch (RuntimeException e) {
+            log.error("Scheduled transaction partition maintenance failed", e);
+        }
+    }
+
+    /**
+     * Creates missing future partitions and detaches expired ones.
+     */
+    @Override
+    public synchronized void maintainPartitions() {
+        if (!properties.isEnabled() || !isPostgres()) {
+            return;
+        }
+        Plan plan = plan(attachedPartitions(), YearMonth.now(), properties.getMonthsAhead(), properties.getRetentionMonths());
+
+        for (YearMonth month : plan.toCreate()) {
+            jdbcTemplate.execute(String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(month), PARENT_TABLE, month.atDay(1), month.plusMonths(1).atDay(1)));
+            partitionsCreated.increment();
+            log.info("Created transaction partition {}", partitionName(month));
+        }
+        for (YearMonth month : plan.toDetach()) {
+            String partition = partitionName(month);
+            if (archiveService.isEnabled() && !archiveService.isArchived(month)) {
+                // Throws if archiving fails, which leaves this and all newer partitions attached.
+                archiveService.archiveMonth(month);
+            }
+            jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s CONCURRENTLY", PARENT_TABLE, partition));
+            partitionsDetached.increment();
+            log.info("Detached transaction partition {} (retention {} months)", partition, properties.getRetentionMonths());
+            if (properties.isDropDetached()) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped detached transaction partition {}", partition);
+            }
+        }
+    }
+
+    /**
+     * Partitions to create and detach for a given month.
+     *
+     * @param toCreate Months from the current one up to {@code monthsAhead} ahead that have no partition yet.
+     * @param toDetach Attached months older than the retention period, oldest first.
+     */
+    record Plan(List<YearMonth> toCreate, List<YearMonth> toDetach) {
+    }
+
+    static Plan plan(Set<YearMonth> attached, YearMonth current, int monthsAhead, int retentionMonths) {
+        List<YearMonth> toCreate = new ArrayList<>();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!attached.contains(month)) {
+                toCreate.add(month);
+            }
+        }
+        YearMonth oldestRetained = current.minusMonths(Math.max(retentionMonths, 1) - 1L);
+        List<YearMonth> toDetach = attached.stream()
+                .filter(month -> month.isBefore(oldestRetained))
+                .sorted()
+                .toList();
+        return new Plan(toCreate, toDetach);
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_" + month.format(NAME_SUFFIX);
+    }
+
+    private Set<YearMonth> attachedPartitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT child.relname FROM pg_inherits " +
+                        "JOIN pg_class parent ON parent.oid = pg_inherits.inhparent " +
+                        "JOIN pg_class child ON child.oid = pg_inherits.inhrelid " +
+                        "WHERE parent.relname = ? AND pg_table_is_visible(parent.oid)",
+                String.class, PARENT_TABLE);
+        Set<YearMonth> months = new TreeSet<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            } else {
+                log.warn("Ignoring transaction partition {} that does not follow the {}_YYYY_MM naming", name, PARENT_TABLE);
+            }
+        }
+        return months;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+            if (!postgres) {
+                log.info("Transaction partition maintenance disabled on {}", product);
+            }
+        }
+        return postgres;
+    }
+}
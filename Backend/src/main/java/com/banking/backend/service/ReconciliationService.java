@@ -0,0 +1,423 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.reconciliation.ReconciliationProperties;
+import com.banking.backend.enums.ReconciliationMismatchType;
+import com.banking.backend.enums.ReconciliationMode;
+import com.banking.backend.enums.ReconciliationRunStatus;
+import com.banking.backend.model.ReconciliationRun;
+import com.banking.backend.service.interfaces.IReconciliationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class responsible for reconciling the ledger: every account's balance must equal its
+ * opening balance plus the sum of its transaction amounts, and each transaction's
+ * {@code balanceAfter} must equal the previous one plus its amount. Accounts are seeded with an
+ * opening balance that has no transaction row, so the opening balance is derived from the first
+ * transaction ({@code balanceAfter - amount}). Accounts without transactions are not checked.
+ * <p>
+ * Accounts are split into id ranges that are reconciled in parallel on a {@link ForkJoinPool}.
+ * Each range reads its accounts and then streams their transactions in
+ * {@code (account_id, timestamp, id)} order with plain JDBC, so no entities are loaded and
+ * memory use is bounded by the range size. Both reads happen in one read-only
+ * {@code REPEATABLE READ} transaction, so balances and transactions come from the same snapshot
+ * while transfers keep running. Throughput scales with {@code parallelism} up to the database's
+ * I/O capacity, which is what sizes a full run against the overnight window.
+ * <p>
+ * Mismatches are written to {@code reconciliation_mismatch} and counted in the
+ * {@code banking.reconciliation.mismatches} metric. Incremental runs re-check the full ledger of
+ * every account that has transactions since the last completed run started. Scheduled runs are handed
+ * to a thread of their own, so a run that takes hours does not hold up the application's other
+ * scheduled jobs.
+ */
+@Service
+public class ReconciliationService implements IReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+    // Keeps IN lists of incremental runs well below the bind-parameter limits of the JDBC drivers.
+    private static final int MAX_IDS_PER_TASK = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final ReconciliationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<ReconciliationMismatchType, Counter> mismatchCounters = new EnumMap<>(ReconciliationMismatchType.class);
+    private final Counter accountsCounter;
+    private final Counter transactionsCounter;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService scheduledRuns = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("reconciliation-scheduled").daemon().factory());
+
+    public ReconciliationService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                 ReconciliationProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        for (ReconciliationMismatchType type : ReconciliationMismatchType.values()) {
+            mismatchCounters.put(type, Counter.builder("banking.reconciliation.mismatches")
+                    .description("Ledger inconsistencies found by reconciliation")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.accountsCounter = Counter.builder("banking.reconciliation.accounts")
+                .description("Accounts checked by reconciliation")
+                .register(meterRegistry);
+        this.transactionsCounter = Counter.builder("banking.reconciliation.transactions")
+                .description("Transactions checked by reconciliation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${banking.reconciliation.full-cron:-}")
+    public void scheduledFullRun() {
+        scheduledRuns.execute(() -> runScheduled(ReconciliationMode.FULL));
+    }
+
+    @Scheduled(cron = "${banking.reconciliation.incremental-cron:-}")
+    public void scheduledIncrementalRun() {
+        scheduledRuns.execute(() -> runScheduled(ReconciliationMode.INCREMENTAL));
+    }
+
+    private void runScheduled(ReconciliationMode mode) {
+        try {
+            reconcile(mode);
+        } catch (IllegalStateException e) {
+            log.warn("Skipping scheduled {} reconciliation: {}", mode, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Scheduled {} reconciliation failed", mode, e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        scheduledRuns.shutdown();
+        // A run cut short is never recorded as completed, so the next incremental run still covers its accounts.
+        if (!scheduledRuns.awaitTermination(10, TimeUnit.SECONDS)) {
+            scheduledRuns.shutdownNow();
+        }
+    }
+
+    /**
+     * Reconciles the ledger and records the run and its mismatches.
+     *
+     * @param mode {@link ReconciliationMode#FULL} to check every account, or
+     * {@link ReconciliationMode#INCREMENTAL} to check accounts touched since the last completed
+     * run. An incremental run without a previous completed run falls back to a full run.
+     * @return The finished run with its totals.
+     * @throws IllegalStateException If a reconciliation is already running in this instance.
+     */
+    @Override
+    public ReconciliationRun reconcile(ReconciliationMode mode) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reconciliation run is already in progress");
+        }
+        try {
+            return doReconcile(mode);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private ReconciliationRun doReconcile(ReconciliationMode mode) {
+        ReconciliationRun run = new ReconciliationRun();
+        run.setMode(mode);
+        run.setStatus(ReconciliationRunStatus.RUNNING);
+        run.setStartedAt(LocalDateTime.now());
+        if (mode == ReconciliationMode.INCREMENTAL) {
+            LocalDateTime lastCompleted = lastCompletedRunStart();
+            if (lastCompleted == null) {
+                log.info("No completed reconciliation run found, running a full reconciliation instead");
+                run.setMode(ReconciliationMode.FULL);
+            } else {
+                run.setCheckedSince(lastCompleted.minus(properties.getIncrementalOverlap()));
+            }
+        }
+        run.setId(insertRun(run));
+        log.info("Starting {} reconciliation run {}{}", run.getMode(), run.getId(),
+                run.getCheckedSince() == null ? "" : " for transactions since " + run.getCheckedSince());
+
+        RunTotals totals = new RunTotals(run.getId());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, properties.getParallelism()));
+        try {
+            pool.invoke(rootTask(run, totals));
+            run.setStatus(ReconciliationRunStatus.COMPLETED);
+        } catch (RuntimeException e) {
+            run.setStatus(ReconciliationRunStatus.FAILED);
+            throw e;
+        } finally {
+            pool.shutdown();
+            sample.stop(Timer.builder("banking.reconciliation.duration")
+                    .description("Duration of reconciliation runs")
+                    .tag("mode", run.getMode().name())
+                    .tag("status", run.getStatus().name())
+                    .register(meterRegistry));
+            run.setFinishedAt(LocalDateTime.now());
+            run.setAccountsChecked(totals.accounts.sum());
+            run.setTransactionsChecked(totals.transactions.sum());
+            run.setMismatches(totals.mismatches.sum());
+            updateRun(run);
+            log.info("Reconciliation run {} {}: {} accounts, {} transactions, {} mismatches", run.getId(),
+                    run.getStatus(), run.getAccountsChecked(), run.getTransactionsChecked(), run.getMismatches());
+        }
+        return run;
+    }
+
+    private RecursiveAction rootTask(ReconciliationRun run, RunTotals totals) {
+        if (run.getMode() == ReconciliationMode.FULL) {
+            Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM account");
+            if (bounds.get("min_id") == null) {
+                return new IdListTask(new long[0], 0, 0, totals);
+            }
+            return new RangeTask(((Number) bounds.get("min_id")).longValue(), ((Number) bounds.get("max_id")).longValue(), totals);
+        }
+        long[] touched = jdbcTemplate.queryForList(
+                        "SELECT DISTINCT account_id FROM transaction WHERE timestamp >= ? ORDER BY account_id",
+                        Long.class, Timestamp.valueOf(run.getCheckedSince()))
+                .stream().mapToLong(Long::longValue).toArray();
+        return new IdListTask(touched, 0, touched.length, totals);
+    }
+
+    /**
+     * Splits an inclusive account id range in half until it is no wider than {@code rangeSize}.
+     */
+    private final class RangeTask extends RecursiveAction {
+        private final long fromId;
+        private final long toId;
+        private final RunTotals totals;
+
+        private RangeTask(long fromId, long toId, RunTotals totals) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.totals = totals;
+        }
+
+        @Override
+        protected void compute() {
+            if (toId - fromId < properties.getRangeSize()) {
+                reconcileSlice(column -> column + " BETWEEN ? AND ?", new Object[]{fromId, toId}, totals);
+                return;
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            invokeAll(new RangeTask(fromId, middle, totals), new RangeTask(middle + 1, toId, totals));
+        }
+    }
+
+    /**
+     * Splits a sorted list of account ids in half until each part fits in one IN list.
+     */
+    private final class IdListTask extends RecursiveAction {
+        private final long[] ids;
+        private final int from;
+        private final int to;
+        private final RunTotals totals;
+
+        private IdListTask(long[] ids, int from, int to, RunTotals totals) {
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.totals = totals;
+        }
+
+        @Override
+        protected void compute() {
+            int count = to - from;
+            if (count == 0) {
+                return;
+            }
+            if (count <= Math.min(properties.getRangeSize(), MAX_IDS_PER_TASK)) {
+                String placeholders = String.join(",", Collections.nCopies(count, "?"));
+                Object[] params = Arrays.stream(ids, from, to).boxed().toArray();
+                reconcileSlice(column -> column + " IN (" + placeholders + ")", params, totals);
+                return;
+            }
+            int middle = from + count / 2;
+            invokeAll(new IdListTask(ids, from, middle, totals), new IdListTask(ids, middle, to, totals));
+        }
+    }
+
+    private interface SliceCondition {
+        String on(String column);
+    }
+
+    /**
+     * Reconciles one slice of accounts from a single snapshot and records what it found.
+     */
+    private void reconcileSlice(SliceCondition condition, Object[] params, RunTotals totals) {
+        SliceChecker checker = snapshotTemplate.execute(status -> {
+            Map<Long, AccountRow> accounts = new HashMap<>();
+            jdbcTemplate.query("SELECT id, customer_id, balance FROM account WHERE " + condition.on("id"),
+                    rs -> {
+                        accounts.put(rs.getLong(1), new AccountRow(rs.getString(2), rs.getBigDecimal(3)));
+                    }, params);
+
+            SliceChecker sliceChecker = new SliceChecker(accounts);
+            jdbcTemplate.query("SELECT account_id, id, amount, balance_after FROM transaction WHERE "
+                            + condition.on("account_id") + " ORDER BY account_id, timestamp, id",
+                    rs -> {
+                        sliceChecker.accept(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4));
+                    }, params);
+            sliceChecker.finish();
+            return sliceChecker;
+        });
+
+        totals.accounts.add(checker.accountsChecked);
+        totals.transactions.add(checker.transactionsChecked);
+        accountsCounter.increment(checker.accountsChecked);
+        transactionsCounter.increment(checker.transactionsChecked);
+        if (!checker.mismatches.isEmpty()) {
+            insertMismatches(totals.runId, checker.mismatches);
+            totals.mismatches.add(checker.mismatches.size());
+            checker.mismatches.forEach(mismatch -> mismatchCounters.get(mismatch.type()).increment());
+        }
+    }
+
+    private record AccountRow(String customerId, BigDecimal balance) {
+    }
+
+    private record Mismatch(long accountId, String customerId, ReconciliationMismatchType type,
+                            long transactionRowId, BigDecimal expected, BigDecimal actual) {
+    }
+
+    /**
+     * Walks one slice's transactions, which arrive grouped by account in ledger order.
+     */
+    private static final class SliceChecker {
+        private final Map<Long, AccountRow> accounts;
+        private final List<Mismatch> mismatches = new ArrayList<>();
+        private long accountsChecked;
+        private long transactionsChecked;
+
+        private long currentAccount = -1;
+        private long lastRowId;
+        private BigDecimal previousBalanceAfter;
+        private BigDecimal expectedBalance;
+
+        private SliceChecker(Map<Long, AccountRow> accounts) {
+            this.accounts = accounts;
+        }
+
+        void accept(long accountId, long rowId, BigDecimal amount, BigDecimal balanceAfter) {
+            transactionsChecked++;
+            if (accountId != currentAccount) {
+                finish();
+                currentAccount = accountId;
+                BigDecimal opening = balanceAfter.subtract(amount);
+                previousBalanceAfter = opening;
+                expectedBalance = opening;
+            }
+            BigDecimal chained = previousBalanceAfter.add(amount);
+            if (chained.compareTo(balanceAfter) != 0) {
+                mismatches.add(new Mismatch(accountId, customerId(accountId), ReconciliationMismatchType.CHAIN_BREAK,
+                        rowId, chained, balanceAfter));
+            }
+            // Continue the chain from the recorded value so one bad row is reported once.
+            previousBalanceAfter = balanceAfter;
+            expectedBalance = expectedBalance.add(amount);
+            lastRowId = rowId;
+        }
+
+        void finish() {
+            if (currentAccount < 0) {
+                return;
+            }
+            accountsChecked++;
+            AccountRow account = accounts.get(currentAccount);
+            if (account != null && account.balance().compareTo(expectedBalance) != 0) {
+                mismatches.add(new Mismatch(currentAccount, account.customerId(), ReconciliationMismatchType.BALANCE_MISMATCH,
+                        lastRowId, expectedBalance, account.balance()));
+            }
+            currentAccount = -1;
+        }
+
+        private String customerId(long accountId) {
+            AccountRow account = accounts.get(accountId);
+            return account == null ? null : account.customerId();
+        }
+    }
+
+    private static final class RunTotals {
+        private final long runId;
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder transactions = new LongAdder();
+        private final LongAdder mismatches = new LongAdder();
+
+        private RunTotals(long runId) {
+            this.runId = runId;
+        }
+    }
+
+    private LocalDateTime lastCompletedRunStart() {
+        List<Timestamp> starts = jdbcTemplate.queryForList(
+                "SELECT started_at FROM reconciliation_run WHERE status = ? ORDER BY started_at DESC LIMIT 1",
+                Timestamp.class, ReconciliationRunStatus.COMPLETED.name());
+        return starts.isEmpty() ? null : starts.get(0).toLocalDateTime();
+    }
+
+    private long insertRun(ReconciliationRun run) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO reconciliation_run (mode, status, started_at, checked_since, accounts_checked, transactions_checked, mismatches) " +
+                            "VALUES (?, ?, ?, ?, 0, 0, 0)", new String[]{"id"});
+            statement.setString(1, run.getMode().name());
+            statement.setString(2, run.getStatus().name());
+            statement.setTimestamp(3, Timestamp.valueOf(run.getStartedAt()));
+            statement.setTimestamp(4, run.getCheckedSince() == null ? null : Timestamp.valueOf(run.getCheckedSince()));
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKeyAs(Long.class);
+    }
+
+    private void updateRun(ReconciliationRun run) {
+        jdbcTemplate.update("UPDATE reconciliation_run SET status = ?, finished_at = ?, accounts_checked = ?, " +
+                        "transactions_checked = ?, mismatches = ? WHERE id = ?",
+                run.getStatus().name(), Timestamp.valueOf(run.getFinishedAt()), run.getAccountsChecked(),
+                run.getTransactionsChecked(), run.getMismatches(), run.getId());
+    }
+
+    private void insertMismatches(long runId, List<Mismatch> mismatches) {
+        Timestamp detectedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO reconciliation_mismatch (run_id, account_id, customer_id, mismatch_type, " +
+                        "transaction_row_id, expected_amount, actual_amount, detected_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                mismatches.stream().map(mismatch -> new Object[]{runId, mismatch.accountId(), mismatch.customerId(),
+                        mismatch.type().name(), mismatch.transactionRowId(), mismatch.expected(), mismatch.actual(),
+                        detectedAt}).toList());
+    }
+}
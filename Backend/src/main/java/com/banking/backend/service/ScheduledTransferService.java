@@ -0,0 +1,512 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.InsufficientBalanceException;
+import com.banking.backend.GlobalExceptationHandlers.LimitExceededException;
+import com.banking.backend.config.schedule.ScheduledTransferProperties;
+import com.banking.backend.dto.ScheduledTransferDTO;
+import com.banking.backend.dto.ScheduledTransferRequestDTO;
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.enums.ScheduledTransferRecurrence;
+import com.banking.backend.enums.ScheduledTransferStatus;
+import com.banking.backend.service.interfaces.IScheduledTransferService;
+import com.banking.backend.util.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class responsible for future-dated and recurring transfers.
+ * <p>
+ * Schedules live in {@code scheduled_transfer}. Rather than polling the table for due rows, the
+ * schedules due within {@code banking.scheduled-transfers.horizon} are loaded once into a
+ * {@link HierarchicalTimingWheel} that holds only their ids and due times; each load reads just the
+ * slice the horizon has moved over since the previous one. Every tick, the schedules that came due are
+ * split into batches and executed on a pool of {@code parallelism} threads through
+ * {@link TransactionService}.
+ * <p>
+ * An occurrence is claimed with a conditional update that moves {@code next_run_at} forward only if it
+ * still holds the due time that was loaded, and the claim commits in the same database transaction as
+ * the transfer. A schedule loaded twice, by a restarted instance or by several replicas, therefore runs
+ * each occurrence once: the second claim finds {@code next_run_at} already moved and skips it. A batch
+ * runs in one transaction; if any transfer in it fails, the batch is rolled back and retried one
+ * schedule at a time, so a failing schedule does not hold back the others. The batch's amounts are
+ * reserved against the senders' daily limits before its transaction opens, and only given back once
+ * it has completed, for the transfers it did not commit; notifications go out after the commit.
+ * Occurrences missed while no instance was running are run once, not once per missed period.
+ */
+@Service
+public class ScheduledTransferService implements IScheduledTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTransferService.class);
+
+    private static final String COLUMNS = "id, from_user_id, to_user_id, amount, description, recurrence, start_at, end_at, " +
+            "next_run_at, status, run_count, last_run_at, last_error";
+    private static final String INSERT_SQL = "INSERT INTO scheduled_transfer (from_user_id, to_user_id, amount, description, " +
+            "recurrence, start_at, end_at, next_run_at, status, run_count, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE', 0, ?)";
+    // next_run_at is only set while a schedule is active, so it alone guards the claim; leaving status out of
+    // the condition also keeps planners on the primary key rather than the (status, next_run_at) index.
+    private static final String CLAIM_SQL = "UPDATE scheduled_transfer SET next_run_at = ?, status = ?, run_count = ?, " +
+            "last_run_at = ?, last_error = ? WHERE id = ? AND next_run_at = ?";
+    private static final String CANCEL_SQL = "UPDATE scheduled_transfer SET status = 'CANCELLED', next_run_at = NULL " +
+            "WHERE id = ? AND status = 'ACTIVE'";
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionService transactionService;
+    private final ScheduledTransferProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final ExecutorService executor;
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter executed;
+    private final Counter failed;
+    private final Counter skipped;
+    private final Timer lag;
+    // End of the range already loaded into the wheel; null until the first load.
+    private volatile LocalDateTime loadedUntil;
+
+    public ScheduledTransferService(DataSource dataSource, TransactionService transactionService,
+                                    ScheduledTransferProperties properties, PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.transactionService = transactionService;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HierarchicalTimingWheel<>(properties.getTickIntervalMs(), properties.getWheelSize(),
+                properties.getLevels(), System.currentTimeMillis());
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getParallelism()),
+                Thread.ofPlatform().name("scheduled-transfer-", 0).factory());
+
+        this.executed = executions(meterRegistry, "executed");
+        this.failed = executions(meterRegistry, "failed");
+        this.skipped = executions(meterRegistry, "skipped");
+        this.lag = Timer.builder("banking.scheduled.transfers.lag")
+                .description("Time between a scheduled transfer falling due and it being executed")
+                .register(meterRegistry);
+        Gauge.builder("banking.scheduled.transfers.loaded", this, service -> service.loadedCount())
+                .description("Scheduled transfers held in the timing wheel")
+                .register(meterRegistry);
+        Gauge.builder("banking.scheduled.transfers.pending", pending, AtomicLong::get)
+                .description("Scheduled transfers that have come due and are waiting for or being executed")
+                .register(meterRegistry);
+    }
+
+    private static Counter executions(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("banking.scheduled.transfers.executions")
+                .description("Scheduled transfer occurrences by outcome; skipped occurrences were already claimed or cancelled")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a new schedule. Its first occurrence is {@code startAt}, which may already have passed,
+     * in which case it runs on the next tick.
+     *
+     * @throws IllegalArgumentException If the sender and recipient are the same, or {@code endAt} is
+     * before {@code startAt}.
+     */
+    @Override
+    public ScheduledTransferDTO create(ScheduledTransferRequestDTO request) {
+        if (request.getFromUserId().equals(request.getToUserId())) {
+            throw new IllegalArgumentException("Cannot transfer funds to the same account.");
+        }
+        LocalDateTime startAt = request.getStartAt().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime endAt = request.getEndAt() == null ? null : request.getEndAt().truncatedTo(ChronoUnit.SECONDS);
+        if (endAt != null && endAt.isBefore(startAt)) {
+            throw new IllegalArgumentException("End time must not be before the start time");
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+            statement.setString(1, request.getFromUserId());
+            statement.setString(2, request.getToUserId());
+            statement.setBigDecimal(3, request.getAmount());
+            statement.setString(4, request.getDescription());
+            statement.setString(5, request.getRecurrence().name());
+            statement.setTimestamp(6, Timestamp.valueOf(startAt));
+            statement.setTimestamp(7, endAt == null ? null : Timestamp.valueOf(endAt));
+            statement.setTimestamp(8, Timestamp.valueOf(startAt));
+            statement.setTimestamp(9, Timestamp.valueOf(LocalDateTime.now()));
+            return statement;
+        }, keyHolder);
+        long id = ((Number) keyHolder.getKeys().get("id")).longValue();
+        addIfLoaded(id, startAt);
+        log.info("Scheduled {} transfer {} from user {} to user {} starting {}", request.getRecurrence(), id,
+                request.getFromUserId(), request.getToUserId(), startAt);
+        return get(id).orElseThrow();
+    }
+
+    @Override
+    public Optional<ScheduledTransferDTO> get(long id) {
+        List<ScheduledTransferDTO> rows = jdbcTemplate.query("SELECT " + COLUMNS + " FROM scheduled_transfer WHERE id = ?",
+                ROW_MAPPER, id);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public Optional<ScheduledTransferDTO> cancel(long id) {
+        if (jdbcTemplate.update(CANCEL_SQL, id) > 0) {
+            log.info("Cancelled scheduled transfer {}", id);
+        }
+        // The cancelled id may still be in the wheel; its claim will find the schedule inactive.
+        return get(id);
+    }
+
+    /**
+     * Loads active schedules due before {@code now + horizon} that are not loaded yet. The first load
+     * after startup also picks up every overdue schedule, which is how occurrences missed during a
+     * restart are recovered.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${banking.scheduled-transfers.load-interval-ms:60000}")
+    public void loadHorizon() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime from = loadedUntil;
+        LocalDateTime until = LocalDateTime.now().plus(properties.getHorizon()).truncatedTo(ChronoUnit.SECONDS);
+        // Raised before reading, so a schedule written during the read is either read here or, seeing
+        // the new bound, added to the wheel by its writer. Being added twice is harmless.
+        loadedUntil = until;
+        AtomicLong loaded = new AtomicLong();
+        try {
+            String sql = "SELECT id, next_run_at FROM scheduled_transfer WHERE status = 'ACTIVE' AND next_run_at < ?"
+                    + (from == null ? "" : " AND next_run_at >= ?");
+            Object[] args = from == null
+                    ? new Object[]{Timestamp.valueOf(until)}
+                    : new Object[]{Timestamp.valueOf(until), Timestamp.valueOf(from)};
+            // Inside a transaction so that PostgreSQL streams the rows with the fetch size instead of
+            // reading the whole horizon into memory first.
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql, resultSet -> {
+                add(resultSet.getLong(1), resultSet.getTimestamp(2).toLocalDateTime());
+                loaded.incrementAndGet();
+            }, args));
+        } catch (RuntimeException e) {
+            // Read the same range again next time rather than leave a gap.
+            loadedUntil = from;
+            throw e;
+        }
+        if (loaded.get() > 0) {
+            log.info("Loaded {} scheduled transfers due before {}", loaded.get(), until);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${banking.scheduled-transfers.tick-interval-ms:1000}")
+    public void fireDue() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<Long> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int start = 0; start < due.size(); start += batchSize) {
+            List<Long> batch = due.subList(start, Math.min(due.size(), start + batchSize));
+            pending.addAndGet(batch.size());
+            executor.execute(() -> {
+                try {
+                    executeBatch(batch);
+                } catch (RuntimeException e) {
+                    log.error("Could not execute {} scheduled transfers, retrying in {}", batch.size(), properties.getRetryDelay(), e);
+                    LocalDateTime retryAt = LocalDateTime.now().plus(properties.getRetryDelay());
+                    batch.forEach(id -> add(id, retryAt));
+                } finally {
+                    pending.addAndGet(-batch.size());
+                }
+            });
+        }
+    }
+
+    private void executeBatch(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledTransferDTO> schedules = new ArrayList<>(ids.size());
+        for (ScheduledTransferDTO schedule : load(ids)) {
+            // A schedule whose next occurrence is still ahead was loaded again for that occurrence.
+            if (schedule.getStatus() == ScheduledTransferStatus.ACTIVE && schedule.getNextRunAt() != null
+                    && !schedule.getNextRunAt().isAfter(now)) {
+                schedules.add(schedule);
+            }
+        }
+        skipped.increment(ids.size() - schedules.size());
+        if (schedules.isEmpty()) {
+            return;
+        }
+
+        List<Claim> claimed;
+        try {
+            claimed = reserveClaimAndTransfer(schedules, now);
+        } catch (RuntimeException batchError) {
+            log.debug("Batch of {} scheduled transfers failed, executing them one at a time", schedules.size(), batchError);
+            schedules.forEach(schedule -> executeAlone(schedule, now));
+            return;
+        }
+        recordExecuted(claimed, schedules.size(), now);
+    }
+
+    private void executeAlone(ScheduledTransferDTO schedule, LocalDateTime now) {
+        try {
+            recordExecuted(reserveClaimAndTransfer(List.of(schedule), now), 1, now);
+        } catch (InsufficientBalanceException | LimitExceededException | IllegalArgumentException e) {
+            // The occurrence is used up: one-off schedules fail, recurring ones move on to their next run.
+            Claim claim = nextClaim(schedule, now, e.getMessage());
+            Integer updated = transactionTemplate.execute(status -> jdbcTemplate.update(CLAIM_SQL, claim.arguments()));
+            if (updated != null && updated == 1) {
+                failed.increment();
+                log.warn("Scheduled transfer {} failed: {}", schedule.getId(), e.getMessage());
+                reschedule(claim);
+            } else {
+                skipped.increment();
+            }
+        } catch (RuntimeException e) {
+            // Nothing was claimed; try the same occurrence again shortly.
+            log.error("Could not execute scheduled transfer {}, retrying in {}", schedule.getId(), properties.getRetryDelay(), e);
+            add(schedule.getId(), LocalDateTime.now().plus(properties.getRetryDelay()));
+        }
+    }
+
+    private void recordExecuted(List<Claim> claimed, int attempted, LocalDateTime now) {
+        executed.increment(claimed.size());
+        skipped.increment(attempted - claimed.size());
+        for (Claim claim : claimed) {
+            lag.record(Duration.between(claim.schedule().getNextRunAt(), now));
+            reschedule(claim);
+        }
+    }
+
+    private void reschedule(Claim claim) {
+        if (claim.next() != null) {
+            addIfLoaded(claim.schedule().getId(), claim.next());
+        }
+    }
+
+    /**
+     * Reserves the schedules' amounts, then claims their occurrences and executes the claimed transfers in
+     * one transaction. The reservations are taken first because a reservation may take a lease in a
+     * transaction of its own, on the sender's account row, which the batch's transaction could already
+     * hold; for the same reason they are given back only after that transaction has completed.
+     */
+    private List<Claim> reserveClaimAndTransfer(List<ScheduledTransferDTO> schedules, LocalDateTime now) {
+        List<TransactionRequestDTO> requests = new ArrayList<>(schedules.size());
+        try {
+            for (ScheduledTransferDTO schedule : schedules) {
+                TransactionRequestDTO request = request(schedule);
+                transactionService.reserve(request);
+                requests.add(request);
+            }
+        } catch (RuntimeException e) {
+            requests.forEach(transactionService::release);
+            throw e;
+        }
+
+        boolean[] transferred = new boolean[schedules.size()];
+        AtomicBoolean releasedOnCompletion = new AtomicBoolean();
+        try {
+            return transactionTemplate.execute(status -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        for (int i = 0; i < requests.size(); i++) {
+                            if (completionStatus != STATUS_COMMITTED || !transferred[i]) {
+                                transactionService.release(requests.get(i));
+                            }
+                        }
+                    }
+                });
+                releasedOnCompletion.set(true);
+                return claimAndTransfer(schedules, requests, transferred, now);
+            });
+        } catch (RuntimeException e) {
+            if (!releasedOnCompletion.get()) {
+                requests.forEach(transactionService::release);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Claims each schedule's occurrence and executes the claimed transfers, all in the caller's transaction,
+     * marking in {@code transferred} which of the requests were applied.
+     */
+    private List<Claim> claimAndTransfer(List<ScheduledTransferDTO> schedules, List<TransactionRequestDTO> requests,
+                                         boolean[] transferred, LocalDateTime now) {
+        List<Claim> claims = new ArrayList<>(schedules.size());
+        List<Object[]> arguments = new ArrayList<>(schedules.size());
+        for (ScheduledTransferDTO schedule : schedules) {
+            Claim claim = nextClaim(schedule, now, null);
+            claims.add(claim);
+            arguments.add(claim.arguments());
+        }
+        int[] updated = jdbcTemplate.batchUpdate(CLAIM_SQL, arguments);
+
+        List<Claim> claimed = new ArrayList<>(claims.size());
+        for (int i = 0; i < claims.size(); i++) {
+            Claim claim = claims.get(i);
+            // Only a reported count of one is a claim; a driver that cannot report per-row counts would
+            // leave every schedule unexecuted rather than risk running one twice.
+            if (updated[i] != 1) {
+                continue;
+            }
+            transactionService.transferInCurrentTransaction(requests.get(i));
+            transferred[i] = true;
+            claimed.add(claim);
+        }
+        return claimed;
+    }
+
+    private static TransactionRequestDTO request(ScheduledTransferDTO schedule) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setFromUserId(schedule.getFromUserId());
+        request.setToUserId(schedule.getToUserId());
+        request.setAmount(schedule.getAmount());
+        request.setDescription(schedule.getDescription() == null
+                ? "Scheduled transfer " + schedule.getId() : schedule.getDescription());
+        return request;
+    }
+
+    /**
+     * Works out where a schedule goes after its current occurrence, skipping occurrences already in the past.
+     */
+    private static Claim nextClaim(ScheduledTransferDTO schedule, LocalDateTime now, String error) {
+        ScheduledTransferRecurrence recurrence = schedule.getRecurrence();
+        long index = schedule.getRunCount() + 1;
+        LocalDateTime next = recurrence.occurrence(schedule.getStartAt(), index);
+        while (next != null && !next.isAfter(now)) {
+            next = recurrence.occurrence(schedule.getStartAt(), ++index);
+        }
+        if (next != null && schedule.getEndAt() != null && next.isAfter(schedule.getEndAt())) {
+            next = null;
+        }
+        ScheduledTransferStatus status = next != null ? ScheduledTransferStatus.ACTIVE
+                : error != null && recurrence == ScheduledTransferRecurrence.ONCE ? ScheduledTransferStatus.FAILED
+                : ScheduledTransferStatus.COMPLETED;
+        String lastError = error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+        return new Claim(schedule, next, status, index, now, lastError);
+    }
+
+    private record Claim(ScheduledTransferDTO schedule, LocalDateTime next, ScheduledTransferStatus status,
+                         long runCount, LocalDateTime runAt, String lastError) {
+
+        Object[] arguments() {
+            return new Object[]{next == null ? null : Timestamp.valueOf(next), status.name(), runCount,
+                    Timestamp.valueOf(runAt), lastError, schedule.getId(), Timestamp.valueOf(schedule.getNextRunAt())};
+        }
+    }
+
+    private List<ScheduledTransferDTO> load(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        // Claims follow this order, so instances claiming overlapping batches lock rows in the same order.
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM scheduled_transfer WHERE id IN (" + placeholders + ") ORDER BY id",
+                ROW_MAPPER, ids.toArray());
+    }
+
+    /**
+     * Adds a schedule to the wheel if its due time falls in the range already loaded; later ones are
+     * picked up by {@link #loadHorizon()}.
+     */
+    private void addIfLoaded(long id, LocalDateTime dueAt) {
+        LocalDateTime until = loadedUntil;
+        if (until != null && dueAt.isBefore(until)) {
+            add(id, dueAt);
+        }
+    }
+
+    private void add(long id, LocalDateTime dueAt) {
+        long dueMillis = dueAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (wheel) {
+            wheel.add(id, dueMillis);
+        }
+    }
+
+    private int loadedCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Waits until every schedule handed to the executor has been executed.
+     *
+     * @return False if some were still pending after {@code timeout}.
+     */
+    boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        // Batches cut short roll back, and their schedules run again after the restart.
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final RowMapper<ScheduledTransferDTO> ROW_MAPPER = (resultSet, rowNum) -> {
+        ScheduledTransferDTO schedule = new ScheduledTransferDTO();
+        schedule.setId(resultSet.getLong("id"));
+        schedule.setFromUserId(resultSet.getString("from_user_id"));
+        schedule.setToUserId(resultSet.getString("to_user_id"));
+        schedule.setAmount(resultSet.getBigDecimal("amount"));
+        schedule.setDescription(resultSet.getString("description"));
+        schedule.setRecurrence(ScheduledTransferRecurrence.valueOf(resultSet.getString("recurrence")));
+        schedule.setStartAt(toLocalDateTime(resultSet.getTimestamp("start_at")));
+        schedule.setEndAt(toLocalDateTime(resultSet.getTimestamp("end_at")));
+        schedule.setNextRunAt(toLocalDateTime(resultSet.getTimestamp("next_run_at")));
+        schedule.setStatus(ScheduledTransferStatus.valueOf(resultSet.getString("status")));
+        schedule.setRunCount(resultSet.getLong("run_count"));
+        schedule.setLastRunAt(toLocalDateTime(resultSet.getTimestamp("last_run_at")));
+        schedule.setLastError(resultSet.getString("last_error"));
+        return schedule;
+    };
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,208 @@
+package com.banking.backend.service;
+
+import com.banking.backend.archive.ArchiveSegment;
+import com.banking.backend.archive.ArchiveSegmentWriter;
+import com.banking.backend.archive.ArchivedTransaction;
+import com.banking.backend.config.archive.ArchiveProperties;
+import com.banking.backend.enums.TransactionType;
+import com.banking.backend.service.interfaces.ITransactionArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service class responsible for the cold transaction archive. Once a month has closed, its
+ * {@code transaction} rows are streamed in {@code (account_id, timestamp, id)} order into one
+ * immutable, compressed segment file ({@link ArchiveSegmentWriter}). History for months that have
+ * left the online retention window is then served from the memory-mapped segments
+ * ({@link ArchiveSegment}) without querying the database.
+ * <p>
+ * Segments are written before {@link PartitionMaintenanceService} detaches a partition, and on
+ * the archive schedule for every closed month that has no segment yet.
+ */
+@Service
+public class TransactionArchiveService implements ITransactionArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiveService.class);
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ArchiveProperties properties;
+    private final ConcurrentHashMap<YearMonth, ArchiveSegment> segments = new ConcurrentHashMap<>();
+    private final Counter archivedRecords;
+    private final Timer lookupTimer;
+
+    public TransactionArchiveService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                     ArchiveProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.properties = properties;
+        this.archivedRecords = Counter.builder("banking.archive.records")
+                .description("Transactions written to archive segments")
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("banking.archive.lookup")
+                .description("Time to read one account's history from an archive segment")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public boolean isArchived(YearMonth month) {
+        return Files.exists(segmentPath(month));
+    }
+
+    @Scheduled(cron = "${banking.archive.archive-cron:-}")
+    public void scheduledArchive() {
+        try {
+            archiveClosedMonths();
+        } catch (RuntimeException e) {
+            log.error("Scheduled transaction archiving failed", e);
+        }
+    }
+
+    /**
+     * Archives every month before the current one that has transactions but no segment yet.
+     */
+    @Override
+    public void archiveClosedMonths() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM transaction", Timestamp.class);
+        if (oldest == null) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); month.isBefore(current); month = month.plusMonths(1)) {
+            if (!isArchived(month)) {
+                archiveMonth(month);
+            }
+        }
+    }
+
+    /**
+     * Writes the segment for a closed month. A month that already has a segment is left untouched,
+     * since segments are immutable.
+     *
+     * @param month A month before the current one.
+     * @return The number of records in the month's segment.
+     * @throws IllegalArgumentException If the month has not closed yet.
+     */
+    @Override
+    public synchronized long archiveMonth(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new IllegalArgumentException("Only closed months can be archived: " + month);
+        }
+        Path target = segmentPath(month);
+        if (Files.exists(target)) {
+            return segment(month).recordCount();
+        }
+        long started = System.nanoTime();
+        try {
+            Files.createDirectories(properties.getDirectory());
+            try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(target, month, properties.getBlockSize())) {
+                readOnlyTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                        "SELECT id, account_id, transaction_id, transaction_type, amount, description, timestamp, balance_after " +
+                                "FROM transaction WHERE timestamp >= ? AND timestamp < ? ORDER BY account_id, timestamp, id",
+                        rs -> {
+                            try {
+                                writer.append(new ArchivedTransaction(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                                        TransactionType.valueOf(rs.getString(4)), rs.getBigDecimal(5), rs.getString(6),
+                                        rs.getTimestamp(7).toLocalDateTime(), rs.getBigDecimal(8)));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        },
+                        Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                        Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay())));
+                writer.finish();
+                archivedRecords.increment(writer.recordCount());
+                log.info("Archived {} transactions of {} to {} in {} ms", writer.recordCount(), month, target,
+                        (System.nanoTime() - started) / 1_000_000);
+                return writer.recordCount();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to archive transactions of " + month, e);
+        }
+    }
+
+    /**
+     * Returns an account's archived transactions of one month with {@code from <= timestamp < to},
+     * oldest first.
+     *
+     * @throws IllegalStateException If the month has not been archived.
+     */
+    @Override
+    public List<ArchivedTransaction> findHistory(long accountId, YearMonth month, LocalDateTime from, LocalDateTime to) {
+        if (!isArchived(month)) {
+            throw new IllegalStateException("Month " + month + " has not been archived");
+        }
+        return lookupTimer.record(() -> segment(month).findByAccount(accountId, from, to));
+    }
+
+    /**
+     * Returns an account's last archived transaction of one month with {@code timestamp <= asOf}.
+     *
+     * @throws IllegalStateException If the month has not been archived.
+     */
+    @Override
+    public Optional<ArchivedTransaction> findLast(long accountId, YearMonth month, LocalDateTime asOf) {
+        if (!isArchived(month)) {
+            throw new IllegalStateException("Month " + month + " has not been archived");
+        }
+        return lookupTimer.record(() -> segment(month).findLast(accountId, asOf));
+    }
+
+    /**
+     * Returns an account's first archived transaction of one month with {@code timestamp > after}.
+     *
+     * @throws IllegalStateException If the month has not been archived.
+     */
+    @Override
+    public Optional<ArchivedTransaction> findFirstAfter(long accountId, YearMonth month, LocalDateTime after) {
+        if (!isArchived(month)) {
+            throw new IllegalStateException("Month " + month + " has not been archived");
+        }
+        return lookupTimer.record(() -> segment(month).findFirstAfter(accountId, after));
+    }
+
+    private ArchiveSegment segment(YearMonth month) {
+        return segments.computeIfAbsent(month, key -> {
+            try {
+                return ArchiveSegment.open(segmentPath(key));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open archive segment for " + key, e);
+            }
+        });
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return properties.getDirectory().resolve(String.format("transactions-%d-%02d.seg", month.getYear(), month.getMonthValue()));
+    }
+}
@@ -0,0 +1,291 @@
+package com.banking.backend.service;
+
+import com.banking.backend.archive.ArchivedTransaction;
+import com.banking.backend.config.partition.PartitionMaintenanceProperties;
+import com.banking.backend.dto.BalanceAsOfDTO;
+import com.banking.backend.dto.TransactionHistoryDTO;
+import com.banking.backend.model.Account;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.repository.TransactionRepository;
+import com.banking.backend.service.interfaces.ITransactionArchiveService;
+import com.banking.backend.service.interfaces.ITransactionHistoryService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Service class responsible for reading an account's transaction history. Every query is bounded
+ * on {@code timestamp}, the partition key of the {@code transaction} table, and the window is
+ * capped so a single request never scans more than about a year of monthly partitions.
+ * <p>
+ * When the archive is enabled, months before the online retention window are read from their
+ * archive segments instead of the database; a month that has not been archived yet is still
+ * read from the database.
+ * <p>
+ * Balances at a point in time are read from the {@code balanceAfter} of the account's last
+ * transaction at or before that instant, so they cost one index seek rather than a replay of
+ * the history.
+ */
+@Service
+public class TransactionHistoryService implements ITransactionHistoryService {
+
+    static final Duration DEFAULT_WINDOW = Duration.ofDays(30);
+    static final Duration MAX_WINDOW = Duration.ofDays(366);
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1_000;
+    static final int MAX_BALANCE_ACCOUNTS = 10_000;
+    // Keeps IN lists well below the bind-parameter limits of the JDBC drivers.
+    private static final int MAX_IDS_PER_QUERY = 1_000;
+    // Before and after any transaction: the bounds of seeks that are not limited to a range of months.
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LEDGER_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ITransactionArchiveService archiveService;
+    private final PartitionMaintenanceProperties partitionProperties;
+
+    public TransactionHistoryService(AccountRepository accountRepository, TransactionRepository transactionRepository,
+                                     ITransactionArchiveService archiveService, PartitionMaintenanceProperties partitionProperties) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.archiveService = archiveService;
+        this.partitionProperties = partitionProperties;
+    }
+
+    /**
+     * Returns the newest transactions of an account within {@code [from, to)}.
+     * To page further back, repeat the request with {@code to} set to the oldest returned timestamp.
+     *
+     * @param customerId The customer whose account history is read.
+     * @param from Inclusive lower bound; defaults to 30 days before {@code to}.
+     * @param to Exclusive upper bound; defaults to now.
+     * @param limit Maximum number of entries, at most 1000; defaults to 100.
+     * @return Transactions ordered newest first.
+     * @throws IllegalArgumentException If the account does not exist or the range or limit is invalid.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionHistoryDTO> getHistory(String customerId, LocalDateTime from, LocalDateTime to, Integer limit) {
+        LocalDateTime upper = to != null ? to : LocalDateTime.now();
+        LocalDateTime lower = from != null ? from : upper.minus(DEFAULT_WINDOW);
+        if (!lower.isBefore(upper)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(lower, upper).compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("History range must not exceed " + MAX_WINDOW.toDays() + " days");
+        }
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        Account account = accountRepository.findByCustomerId(customerId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found for user ID: " + customerId));
+        if (!archiveService.isEnabled()) {
+            return online(account.getId(), lower, upper, pageSize);
+        }
+
+        LocalDateTime onlineFrom = onlineFrom();
+        List<TransactionHistoryDTO> history = new ArrayList<>();
+        if (upper.isAfter(onlineFrom)) {
+            history.addAll(online(account.getId(), max(lower, onlineFrom), upper, pageSize));
+        }
+
+        // Older months, newest first, until the page is full.
+        LocalDateTime archiveUpper = min(upper, onlineFrom);
+        if (lower.isBefore(archiveUpper)) {
+            for (YearMonth month = YearMonth.from(archiveUpper.minusNanos(1));
+                 history.size() < pageSize && month.plusMonths(1).atDay(1).atStartOfDay().isAfter(lower);
+                 month = month.minusMonths(1)) {
+                LocalDateTime monthFrom = max(lower, month.atDay(1).atStartOfDay());
+                LocalDateTime monthTo = min(archiveUpper, month.plusMonths(1).atDay(1).atStartOfDay());
+                if (archiveService.isArchived(month)) {
+                    List<ArchivedTransaction> archived = archiveService.findHistory(account.getId(), month, monthFrom, monthTo);
+                    for (int i = archived.size() - 1; i >= 0 && history.size() < pageSize; i--) {
+                        history.add(TransactionHistoryDTO.from(archived.get(i)));
+                    }
+                } else {
+                    history.addAll(online(account.getId(), monthFrom, monthTo, pageSize - history.size()));
+                }
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Returns an account's balance at {@code asOf}.
+     *
+     * @param customerId The customer whose balance is read.
+     * @param asOf The instant; defaults to now.
+     * @throws IllegalArgumentException If the account does not exist.
+     * @see #getBalancesAsOf(List, LocalDateTime)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BalanceAsOfDTO getBalanceAsOf(String customerId, LocalDateTime asOf) {
+        return getBalancesAsOf(List.of(customerId), asOf).get(0);
+    }
+
+    /**
+     * Returns the balances of many accounts at the same instant, such as the end of a month.
+     * <p>
+     * A balance is the {@code balanceAfter} of the account's last transaction at or before
+     * {@code asOf}. The online window is searched with one index seek per account, batched into
+     * one query per 1000 accounts. Older months come from their archive segments, newest first,
+     * down to the first month that has not been archived; anything older is still in the database
+     * and is searched with one more seek. An account without a transaction by then had its opening
+     * balance: the balance before its first later transaction, or its current balance if it has none.
+     *
+     * @param customerIds At most 10,000 customers.
+     * @param asOf The instant; defaults to now.
+     * @return One balance per customer, in the order requested.
+     * @throws IllegalArgumentException If an account does not exist or too many are requested.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BalanceAsOfDTO> getBalancesAsOf(List<String> customerIds, LocalDateTime asOf) {
+        if (customerIds.size() > MAX_BALANCE_ACCOUNTS) {
+            throw new IllegalArgumentException("At most " + MAX_BALANCE_ACCOUNTS + " accounts can be read at once");
+        }
+        LocalDateTime instant = asOf != null ? asOf : LocalDateTime.now();
+        Map<String, Account> accounts = new HashMap<>();
+        List<String> distinct = customerIds.stream().distinct().toList();
+        for (int i = 0; i < distinct.size(); i += MAX_IDS_PER_QUERY) {
+            accountRepository.findAllByCustomerIdIn(distinct.subList(i, Math.min(i + MAX_IDS_PER_QUERY, distinct.size())))
+                    .forEach(account -> accounts.put(account.getCustomerId(), account));
+        }
+        for (String customerId : distinct) {
+            if (!accounts.containsKey(customerId)) {
+                throw new IllegalArgumentException("Account not found for user ID: " + customerId);
+            }
+        }
+
+        Map<Long, BigDecimal> balances = balancesAsOf(accounts.values().stream().map(Account::getId).sorted().toList(), instant);
+        List<BalanceAsOfDTO> result = new ArrayList<>(customerIds.size());
+        for (String customerId : customerIds) {
+            Account account = accounts.get(customerId);
+            BalanceAsOfDTO dto = new BalanceAsOfDTO();
+            dto.setCustomerId(customerId);
+            dto.setAsOf(instant);
+            dto.setBalance(balances.getOrDefault(account.getId(), account.getBalance()));
+            dto.setCurrency(account.getCurrency());
+            result.add(dto);
+        }
+        return result;
+    }
+
+    /**
+     * Balances at {@code asOf} of the accounts that had a transaction by then or have one after it.
+     */
+    private Map<Long, BigDecimal> balancesAsOf(List<Long> accountIds, LocalDateTime asOf) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        List<Long> pending = accountIds;
+        if (archiveService.isEnabled()) {
+            LocalDateTime onlineFrom = onlineFrom();
+            YearMonth month = YearMonth.from(asOf);
+            if (!asOf.isBefore(onlineFrom)) {
+                pending = seek(pending, ids -> transactionRepository.findLastBalances(ids, onlineFrom, asOf), balances);
+                month = YearMonth.from(onlineFrom).minusMonths(1);
+            }
+            for (; !pending.isEmpty() && archiveService.isArchived(month); month = month.minusMonths(1)) {
+                YearMonth archived = month;
+                pending = seekArchive(pending,
+                        id -> archiveService.findLast(id, archived, asOf).map(ArchivedTransaction::balanceAfter), balances);
+            }
+        }
+        // Everything not found above is still in the database.
+        pending = seek(pending, ids -> transactionRepository.findLastBalances(ids, LEDGER_START, asOf), balances);
+
+        // No transaction by then: the opening balance, which is the balance before the first transaction after it.
+        // Older months are read oldest first, each run of months that have not been archived with one query.
+        if (archiveService.isEnabled()) {
+            YearMonth onlineMonth = YearMonth.from(onlineFrom());
+            YearMonth month = YearMonth.from(asOf);
+            while (!pending.isEmpty() && month.isBefore(onlineMonth)) {
+                if (archiveService.isArchived(month)) {
+                    YearMonth archived = month;
+                    pending = seekArchive(pending, id -> archiveService.findFirstAfter(id, archived, asOf)
+                            .map(transaction -> transaction.balanceAfter().subtract(transaction.amount())), balances);
+                    month = month.plusMonths(1);
+                } else {
+                    YearMonth next = month.plusMonths(1);
+                    while (next.isBefore(onlineMonth) && !archiveService.isArchived(next)) {
+                        next = next.plusMonths(1);
+                    }
+                    LocalDateTime before = next.atDay(1).atStartOfDay();
+                    pending = seek(pending, ids -> transactionRepository.findBalancesBefore(ids, asOf, before), balances);
+                    month = next;
+                }
+            }
+        }
+        seek(pending, ids -> transactionRepository.findBalancesBefore(ids, asOf, LEDGER_END), balances);
+        return balances;
+    }
+
+    /**
+     * Runs a balance query for the accounts in batches and records the balances found.
+     *
+     * @return The accounts it found no balance for.
+     */
+    private static List<Long> seek(List<Long> accountIds, Function<List<Long>, List<Object[]>> query, Map<Long, BigDecimal> balances) {
+        List<Long> notFound = new ArrayList<>();
+        for (int i = 0; i < accountIds.size(); i += MAX_IDS_PER_QUERY) {
+            for (Object[] row : query.apply(accountIds.subList(i, Math.min(i + MAX_IDS_PER_QUERY, accountIds.size())))) {
+                long accountId = ((Number) row[0]).longValue();
+                if (row[1] != null) {
+                    balances.put(accountId, (BigDecimal) row[1]);
+                } else {
+                    notFound.add(accountId);
+                }
+            }
+        }
+        return notFound;
+    }
+
+    private static List<Long> seekArchive(List<Long> accountIds, Function<Long, Optional<BigDecimal>> lookup,
+                                          Map<Long, BigDecimal> balances) {
+        List<Long> notFound = new ArrayList<>();
+        for (Long accountId : accountIds) {
+            Optional<BigDecimal> balance = lookup.apply(accountId);
+            if (balance.isPresent()) {
+                balances.put(accountId, balance.get());
+            } else {
+                notFound.add(accountId);
+            }
+        }
+        return notFound;
+    }
+
+    /**
+     * Start of the oldest month still kept online.
+     */
+    private LocalDateTime onlineFrom() {
+        return YearMonth.now().minusMonths(Math.max(partitionProperties.getRetentionMonths(), 1) - 1L).atDay(1).atStartOfDay();
+    }
+
+    private List<TransactionHistoryDTO> online(Long accountId, LocalDateTime from, LocalDateTime to, int limit) {
+        return transactionRepository.findHistory(accountId, from, to, PageRequest.of(0, limit)).stream()
+                .map(TransactionHistoryDTO::from)
+                .toList();
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -7,16 +7,27 @@ import com.banking.backend.enums.TransactionType;
 import com.banking.backend.model.Account;
 import com.banking.backend.model.Transaction;
 import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.service.interfaces.ICustomerFilterService;
+import com.banking.backend.service.interfaces.IFxRateService;
+import com.banking.backend.service.interfaces.IHotAccountService;
+import com.banking.backend.service.interfaces.ILimitLeaseService;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
 import com.banking.backend.service.interfaces.INotificationService;
 import com.banking.backend.service.interfaces.ITransactionService;
+import com.banking.backend.util.FxRateSnapshot;
 import com.banking.backend.util.TransactionIdGenerator;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Service class responsible for handling financial transaction business logic
@@ -32,25 +43,46 @@ public class TransactionService implements ITransactionService {
 
     private final AccountRepository accountRepository;
     private final INotificationService notificationService;
+    private final ILimitLeaseService limitLeaseService;
+    private final IHotAccountService hotAccountService;
+    private final IFxRateService fxRateService;
+    private final ICustomerFilterService customerFilterService;
+    private final IMonthlyTotalsService monthlyTotalsService;
+    private final TransactionTemplate transactionTemplate;
     private static final Logger log = LoggerFactory.getLogger(TransactionService.class);
 
-    public TransactionService(AccountRepository accountRepository, INotificationService notificationService) {
+    public TransactionService(AccountRepository accountRepository, INotificationService notificationService,
+                              ILimitLeaseService limitLeaseService, IHotAccountService hotAccountService,
+                              IFxRateService fxRateService, ICustomerFilterService customerFilterService,
+                              IMonthlyTotalsService monthlyTotalsService, PlatformTransactionManager transactionManager) {
         this.accountRepository = accountRepository;
         this.notificationService = notificationService;
+        this.limitLeaseService = limitLeaseService;
+        this.hotAccountService = hotAccountService;
+        this.fxRateService = fxRateService;
+        this.customerFilterService = customerFilterService;
+        this.monthlyTotalsService = monthlyTotalsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Initiates and processes a fund transfer between two customer accounts.
      * This method handles the entire fund transfer lifecycle including:
      * <ul>
-     * <li>Retrieving sender and recipient accounts.</li>
+     * <li>Rejecting customer IDs that the in-memory customer filter knows do not exist.</li>
+     * <li>Reserving the amount against the sender's daily limit.</li>
+     * <li>Retrieving and row-locking the sender and recipient accounts.</li>
      * <li>Performing essential transaction validations (e.g., sufficient balance, daily limit).</li>
      * <li>Debiting the sender's account and crediting the recipient's account.</li>
      * <li>Recording corresponding debit and credit transactions.</li>
      * <li>Persisting updated account and transaction data.</li>
-     * <li>Asynchronously sending transfer notifications.</li>
+     * <li>Adding both entries to the accounts' monthly totals.</li>
+     * <li>Asynchronously sending transfer notifications once the transfer has committed.</li>
+     * <li>Counting the transfer towards hot-account detection.</li>
      * </ul>
-     * The operation is atomic, ensuring both debit and credit succeed or both fail.
+     * The operation is atomic, ensuring both debit and credit succeed or both fail. The daily-limit
+     * reservation is taken before the database transaction starts and given back if the transfer fails.
+     * The transfer is traced as one span, which its notifications carry on to their consumer.
      *
      * @param request The {@link TransactionRequestDTO} containing the details for the fund transfer,
      * including sender and recipient customer IDs and the transfer amount.
@@ -59,59 +91,135 @@ public class TransactionService implements ITransactionService {
      * @throws InsufficientBalanceException If the sender's account has insufficient funds.
      * @throws LimitExceededException If the sender's daily transaction limit would be exceeded.
      */
-    @Transactional
+    @Observed(name = "banking.transfer", contextualName = "transfer")
     public void transferFunds(TransactionRequestDTO request) {
         log.info("Attempting fund transfer from user {} to user {} for amount {}",
                 request.getFromUserId(), request.getToUserId(), request.getAmount());
 
-        Account fromAccount = accountRepository.findByCustomerId(request.getFromUserId())
-                .orElseThrow(() -> new IllegalArgumentException("Sender account not found for user ID: " + request.getFromUserId()));
-        Account toAccount = accountRepository.findByCustomerId(request.getToUserId())
-                .orElseThrow(() -> new IllegalArgumentException("Recipient account not found for user ID: " + request.getToUserId()));
+        reserve(request);
+        TransferLegs legs;
+        try {
+            legs = transactionTemplate.execute(status -> debitAndCredit(request));
+        } catch (RuntimeException e) {
+            release(request);
+            throw e;
+        }
+        notifyTransfer(legs, request.getAmount());
+    }
 
+    /**
+     * Checks a transfer that can be checked without its accounts and reserves its amount against the
+     * sender's daily limit. Must be called outside any database transaction: the reservation may take
+     * a new lease in its own transaction, on the sender's account row.
+     *
+     * @throws IllegalArgumentException If the transfer is to the same account, or the customer filter
+     * knows the sender or recipient does not exist.
+     * @throws LimitExceededException If the sender's daily transaction limit would be exceeded.
+     */
+    void reserve(TransactionRequestDTO request) {
         // Self-transfer check
-        if (fromAccount.getCustomerId().equals(toAccount.getCustomerId())) {
+        if (request.getFromUserId().equals(request.getToUserId())) {
             throw new IllegalArgumentException("Cannot transfer funds to the same account.");
         }
+        requireKnownCustomers(request);
+        limitLeaseService.reserve(request.getFromUserId(), request.getAmount());
+    }
 
-        try {
-            validateTransaction(fromAccount, request.getAmount());
-        } catch (InsufficientBalanceException | LimitExceededException e) {
-            log.warn("Transaction validation failed for user {}: {}", fromAccount.getCustomerId(), e.getMessage());
-            throw e;
+    /**
+     * Gives back the reservation of a transfer that did not commit.
+     */
+    void release(TransactionRequestDTO request) {
+        limitLeaseService.release(request.getFromUserId(), request.getAmount());
+    }
+
+    /**
+     * Applies a reserved transfer in the caller's transaction, for callers that commit it together with
+     * their own writes. Its notifications are sent once that transaction commits; giving back the
+     * reservation if it does not is left to the caller, which knows which of its transfers were applied.
+     *
+     * @throws IllegalArgumentException If the sender or recipient account is not found.
+     * @throws InsufficientBalanceException If the sender's account has insufficient funds.
+     */
+    TransferLegs transferInCurrentTransaction(TransactionRequestDTO request) {
+        TransferLegs legs = debitAndCredit(request);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notifyTransfer(legs, request.getAmount());
+            }
+        });
+        return legs;
+    }
+
+    /**
+     * Rejects a transfer naming a customer ID that no account has, without touching the database.
+     * The messages match those of a lookup that finds no account.
+     *
+     * @throws IllegalArgumentException If the filter knows the sender or recipient does not exist.
+     */
+    public void requireKnownCustomers(TransactionRequestDTO request) {
+        if (!customerFilterService.mightExist(request.getFromUserId())) {
+            throw new IllegalArgumentException("Sender account not found for user ID: " + request.getFromUserId());
+        }
+        if (!customerFilterService.mightExist(request.getToUserId())) {
+            throw new IllegalArgumentException("Recipient account not found for user ID: " + request.getToUserId());
+        }
+    }
+
+    /**
+     * Locks both accounts and applies the transfer to them in the caller's transaction. The rows are locked
+     * in id order, as the asynchronous path, disbursements and the end-of-day batch lock them, so the balances
+     * read here cannot be overwritten by a writer that committed in between, and the entries are timestamped
+     * after every earlier writer of the two accounts has committed. The time spent waiting for the locks
+     * counts the transfer towards hot-account detection once the transaction completes.
+     */
+    private TransferLegs debitAndCredit(TransactionRequestDTO request) {
+        Account fromAccount = null;
+        Account toAccount = null;
+        long lockStarted = System.nanoTime();
+        for (Account account : accountRepository.findAllByCustomerIdForUpdate(List.of(request.getFromUserId(), request.getToUserId()))) {
+            if (account.getCustomerId().equals(request.getFromUserId())) {
+                fromAccount = account;
+            } else {
+                toAccount = account;
+            }
+        }
+        long lockWaitNanos = System.nanoTime() - lockStarted;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                hotAccountService.recordTransfer(request.getFromUserId(), request.getToUserId(), lockWaitNanos);
+            }
+        });
+        if (fromAccount == null) {
+            throw new IllegalArgumentException("Sender account not found for user ID: " + request.getFromUserId());
+        }
+        if (toAccount == null) {
+            throw new IllegalArgumentException("Recipient account not found for user ID: " + request.getToUserId());
         }
 
         String transactionId = TransactionIdGenerator.generate();
         log.debug("Generated transaction ID: {}", transactionId);
 
-        // Debit sender account
-        fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-        fromAccount.setDailyTransactionAmount(
-                fromAccount.getDailyTransactionAmount().add(request.getAmount())
-        );
-        fromAccount.setDailyTransactionLimit(fromAccount.getDailyTransactionLimit().subtract(request.getAmount()));
-
-        Transaction debitTransaction = createTransaction(transactionId,
-                TransactionType.TRANSFER_OUT, request.getAmount().negate(),
-                String.format("Transfer to %s (%s)", toAccount.getCustomerName(), toAccount.getCustomerId()),
-                LocalDateTime.now(), fromAccount.getBalance());
-
-        fromAccount.addTransaction(debitTransaction);
+        TransferLegs legs = applyTransfer(fromAccount, toAccount, request.getAmount(), transactionId, LocalDateTime.now());
+        fromAccount.addTransaction(legs.debit());
         accountRepository.save(fromAccount);
-
-        toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
-        Transaction creditTransaction = createTransaction(
-                transactionId, TransactionType.TRANSFER_IN, request.getAmount(),
-                String.format("Transfer from %s (%s)", fromAccount.getCustomerName(), fromAccount.getCustomerId()),
-                LocalDateTime.now(),
-                toAccount.getBalance()
-        );
-        toAccount.addTransaction(creditTransaction);
+        toAccount.addTransaction(legs.credit());
         accountRepository.save(toAccount);
+        monthlyTotalsService.record(List.of(legs.debit(), legs.credit()));
 
         log.info("Funds transferred successfully for transaction ID: {}", transactionId);
+        return legs;
+    }
+
+    /**
+     * Sends the notifications of a committed transfer, so none goes out for a transfer that rolled back.
+     */
+    private void notifyTransfer(TransferLegs legs, BigDecimal amount) {
+        String transactionId = legs.debit().getTransactionId();
         try {
-            notificationService.sendTransferNotifications(transactionId, fromAccount, toAccount, request.getAmount());
+            notificationService.sendTransferNotifications(transactionId, legs.debit().getAccount(), legs.credit().getAccount(),
+                    amount, legs.credit().getAmount(), LocalDateTime.now());
             log.debug("Notification enqueued for transaction ID: {}", transactionId);
         } catch (Exception e) {
             log.error("Failed to enqueue notification for transaction ID: {}. This will NOT rollback the financial transaction.", transactionId, e);
@@ -119,6 +227,68 @@ public class TransactionService implements ITransactionService {
         }
     }
 
+    /**
+     * The debit and credit ledger entries of one transfer.
+     */
+    public record TransferLegs(Transaction debit, Transaction credit) {
+    }
+
+    /**
+     * Validates a transfer against the sender's balance, then debits the sender, credits the recipient
+     * and builds the two ledger entries. Nothing is persisted: the accounts are modified in place and
+     * the entries are returned for the caller to attach and save, which lets both the synchronous path
+     * and the batched asynchronous path share the same rules. The daily limit is not checked here; the
+     * caller reserves the amount through {@link ILimitLeaseService} first.
+     * <p>
+     * The amount is in the sender's currency. If the recipient's account is in another currency, the
+     * credit is converted with the in-memory FX rates, and both entries record the rate and its version.
+     *
+     * @param fromAccount The sender, loaded in the caller's persistence context.
+     * @param toAccount The recipient, loaded in the caller's persistence context.
+     * @param amount The amount to move, in the sender's currency.
+     * @param transactionId The id shared by both ledger entries.
+     * @param timestamp The time recorded on both ledger entries.
+     * @return The debit and credit entries, not yet linked to their accounts.
+     * @throws InsufficientBalanceException If the sender's account has insufficient funds.
+     * @throws IllegalArgumentException If there is no FX rate between the two accounts' currencies.
+     * @throws com.banking.backend.GlobalExceptationHandlers.FxRateUnavailableException If the FX rates are out of date.
+     */
+    public TransferLegs applyTransfer(Account fromAccount, Account toAccount, BigDecimal amount,
+                                      String transactionId, LocalDateTime timestamp) {
+        try {
+            validateTransaction(fromAccount, amount);
+        } catch (InsufficientBalanceException e) {
+            log.warn("Transaction validation failed for user {}: {}", fromAccount.getCustomerId(), e.getMessage());
+            throw e;
+        }
+
+        // Convert before touching either balance, so a missing rate leaves both accounts as they were.
+        FxRateSnapshot.Conversion conversion = fxRateService.convert(amount, fromAccount.getCurrency(), toAccount.getCurrency());
+
+        // Debit sender account; the daily amount was already reserved through the limit lease.
+        fromAccount.setBalance(fromAccount.getBalance().subtract(amount));
+
+        Transaction debitTransaction = createTransaction(transactionId,
+                TransactionType.TRANSFER_OUT, amount.negate(),
+                String.format("Transfer to %s (%s)", toAccount.getCustomerName(), toAccount.getCustomerId()),
+                timestamp, fromAccount.getBalance());
+
+        toAccount.setBalance(toAccount.getBalance().add(conversion.amount()));
+        Transaction creditTransaction = createTransaction(
+                transactionId, TransactionType.TRANSFER_IN, conversion.amount(),
+                String.format("Transfer from %s (%s)", fromAccount.getCustomerName(), fromAccount.getCustomerId()),
+                timestamp,
+                toAccount.getBalance()
+        );
+        if (conversion.isCrossCurrency()) {
+            debitTransaction.setFxRate(conversion.rate());
+            debitTransaction.setFxRateVersion(conversion.rateVersion());
+            creditTransaction.setFxRate(conversion.rate());
+            creditTransaction.setFxRateVersion(conversion.rateVersion());
+        }
+        return new TransferLegs(debitTransaction, creditTransaction);
+    }
+
     /**
      * Helper method to create a new Transaction entity.
      *
@@ -143,22 +313,15 @@ public class TransactionService implements ITransactionService {
     }
 
     /**
-     * Validates if an account has sufficient balance and has not exceeded its daily transaction limit
-     * for a given amount.
+     * Validates if an account has sufficient balance for a given amount.
      *
      * @param account The {@link Account} object to validate.
      * @param amount The {@link BigDecimal} amount for the transaction.
      * @throws InsufficientBalanceException If the account's balance is less than the transaction amount.
-     * @throws LimitExceededException If the transaction amount would cause the account's daily limit to be exceeded.
      */
     private void validateTransaction(Account account, BigDecimal amount){
         if (account.getBalance().compareTo(amount) < 0) {
             throw new InsufficientBalanceException("Insufficient Balance");
         }
-        BigDecimal newDailyAmount = account.getDailyTransactionAmount().add(amount);
-        if(newDailyAmount.compareTo(account.getDailyTransactionLimit()) > 0){
-            throw new LimitExceededException(String.format("Daily limit exceeded. Remaining limit: %.2f",
-                    account.getDailyTransactionLimit().subtract(account.getDailyTransactionAmount())));
-        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.AccountEventDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface IAccountEventService {
+
+    /**
+     * Opens an event stream of the customer's committed ledger entries.
+     *
+     * @throws IllegalArgumentException If the customer has no account.
+     * @throws com.banking.backend.GlobalExceptationHandlers.SubscriberLimitExceededException If this node holds
+     * its maximum of streams.
+     */
+    SseEmitter subscribe(String customerId);
+
+    /**
+     * @return Whether anyone on this node is streaming the customer's events, so that callers can skip building them.
+     */
+    boolean hasSubscribers(String customerId);
+
+    /**
+     * Pushes a committed ledger entry to the streams of its account.
+     */
+    void publish(AccountEventDTO event);
+
+    /**
+     * Sends a keep-alive comment down every idle stream, so proxies keep it open and dead clients are found.
+     */
+    void sendHeartbeats();
+}
@@ -0,0 +1,7 @@
+package com.banking.backend.service.interfaces;
+
+public interface IAdmissionControlService {
+
+    void admitTransfer(String customerId);
+
+}
@@ -0,0 +1,15 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.dto.TransferStatusDTO;
+
+import java.util.Optional;
+
+public interface IAsyncTransferService {
+
+    boolean isEnabled();
+
+    TransferStatusDTO submit(TransactionRequestDTO request);
+
+    Optional<TransferStatusDTO> getStatus(String transferId);
+}
@@ -0,0 +1,20 @@
+package com.banking.backend.service.interfaces;
+
+public interface ICustomerFilterService {
+
+    /**
+     * @return False only if no account has this customer id. True may, rarely, be wrong; the caller
+     * still finds out from the database.
+     */
+    boolean mightExist(String customerId);
+
+    /**
+     * Adds the customer id of an account created by this instance.
+     */
+    void register(String customerId);
+
+    /**
+     * Reads the customer ids of accounts created since the last read, including those created by other replicas.
+     */
+    void catchUp();
+}
@@ -0,0 +1,26 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.DisbursementJobDTO;
+import com.banking.backend.dto.DisbursementLineDTO;
+import com.banking.backend.dto.DisbursementRequestDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface IDisbursementService {
+
+    DisbursementJobDTO create(DisbursementRequestDTO request);
+
+    Optional<DisbursementJobDTO> get(long jobId);
+
+    /**
+     * @return Up to {@code limit} failed lines of the job, in line order, starting after {@code afterLine}.
+     */
+    List<DisbursementLineDTO> getFailures(long jobId, int afterLine, int limit);
+
+    /**
+     * Starts workers for running jobs that this instance is not working on, such as jobs interrupted
+     * by a restart.
+     */
+    void resumeInterruptedJobs();
+}
@@ -0,0 +1,16 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.model.EndOfDayRun;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface IEndOfDayService {
+
+    EndOfDayRun run(LocalDate businessDate);
+
+    Optional<EndOfDayRun> get(LocalDate businessDate);
+
+    void resumeInterruptedRuns();
+
+}
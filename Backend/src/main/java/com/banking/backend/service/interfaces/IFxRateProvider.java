@@ -0,0 +1,19 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.util.FxRateSnapshot;
+
+/**
+ * Source of FX rates. Only the rate cache calls it, on its refresh schedule and never on a transfer,
+ * so implementations are free to do blocking I/O. Declaring another bean of this type replaces the
+ * file-based default.
+ */
+public interface IFxRateProvider {
+
+    /**
+     * Loads the latest published rates. Versions must increase with every publication, so replicas
+     * reading the same source record the same version for the same rates.
+     *
+     * @throws RuntimeException If the rates cannot be loaded; the cache keeps serving the previous snapshot.
+     */
+    FxRateSnapshot loadRates();
+}
@@ -0,0 +1,21 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.util.FxRateSnapshot;
+
+import java.math.BigDecimal;
+
+public interface IFxRateService {
+
+    /**
+     * Converts an amount with the current snapshot. Same-currency conversions never need rates.
+     *
+     * @throws IllegalArgumentException If a currency has no rate.
+     * @throws com.banking.backend.GlobalExceptationHandlers.FxRateUnavailableException If no rates are loaded, or the loaded ones are too old.
+     */
+    FxRateSnapshot.Conversion convert(BigDecimal amount, String fromCurrency, String toCurrency);
+
+    /**
+     * Loads the latest rates from the provider and swaps them in.
+     */
+    void refreshRates();
+}
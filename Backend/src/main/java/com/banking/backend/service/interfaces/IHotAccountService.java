@@ -0,0 +1,24 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.HotAccountDTO;
+
+import java.util.List;
+
+public interface IHotAccountService {
+
+    /**
+     * Counts one transfer against its sender and recipient.
+     *
+     * @param waitNanos Time the transfer spent waiting for the locks on its account rows.
+     */
+    void recordTransfer(String fromUserId, String toUserId, long waitNanos);
+
+    List<HotAccountDTO> getHotSenders();
+
+    List<HotAccountDTO> getHotRecipients();
+
+    /**
+     * Republishes the current top accounts as gauges.
+     */
+    void refreshGauges();
+}
@@ -0,0 +1,24 @@
+package com.banking.backend.service.interfaces;
+
+import java.math.BigDecimal;
+
+public interface ILimitLeaseService {
+
+    /**
+     * Reserves part of a customer's daily allowance for one transfer.
+     *
+     * @throws IllegalArgumentException If the customer has no account.
+     * @throws com.banking.backend.GlobalExceptationHandlers.LimitExceededException If the allowance left is too small.
+     */
+    void reserve(String customerId, BigDecimal amount);
+
+    /**
+     * Gives back a reservation whose transfer did not go through.
+     */
+    void release(String customerId, BigDecimal amount);
+
+    /**
+     * Returns leased allowance that has not been spent or topped up within the lease TTL.
+     */
+    void returnExpiredLeases();
+}
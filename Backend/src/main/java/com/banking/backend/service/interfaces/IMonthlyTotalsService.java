@@ -0,0 +1,37 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.MonthlyTotalDTO;
+import com.banking.backend.dto.MonthlyTotalsRebuildDTO;
+import com.banking.backend.enums.TransactionType;
+import com.banking.backend.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+public interface IMonthlyTotalsService {
+
+    /**
+     * What one or more ledger entries add to an account's total for a month and type.
+     */
+    record Delta(long accountId, YearMonth month, TransactionType type, BigDecimal amount, long count) {
+    }
+
+    /**
+     * Adds ledger entries to their accounts' totals. Must run in the transaction that holds the locks on
+     * the entries' account rows.
+     */
+    void record(Collection<Transaction> entries);
+
+    /**
+     * Adds deltas to their accounts' totals. Must run in the transaction that holds the locks on the
+     * deltas' account rows.
+     */
+    void add(Collection<Delta> deltas);
+
+    List<MonthlyTotalDTO> getMonthlyTotals(String customerId, YearMonth to, Integer months);
+
+    MonthlyTotalsRebuildDTO rebuild(YearMonth since);
+
+}
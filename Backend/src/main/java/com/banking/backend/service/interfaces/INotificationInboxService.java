@@ -0,0 +1,45 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.InboxPageDTO;
+import com.banking.backend.dto.TransactionNotification;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface INotificationInboxService {
+
+    /**
+     * Queues a consumed notification for its customer's inbox. A notification already in the inbox is skipped.
+     *
+     * @return A future completed once the notification is committed, or completed exceptionally if it could
+     * not be queued or written, in which case the message should be redelivered.
+     * @throws IllegalArgumentException If the notification has no user ID, transaction ID or transaction type.
+     */
+    CompletableFuture<Void> store(TransactionNotification notification);
+
+    /**
+     * @return The given notifications that are not in their customer's inbox yet, in order, with one query.
+     */
+    List<TransactionNotification> withoutStored(List<TransactionNotification> notifications);
+
+    /**
+     * Returns the customer's notifications older than {@code before}, newest first, with the unread count.
+     *
+     * @param before The {@code nextBefore} of the previous page; null for the newest page.
+     * @param limit Maximum number of notifications, at most 100; defaults to 20.
+     * @throws IllegalArgumentException If the customer has no account or the limit is invalid.
+     */
+    InboxPageDTO getInbox(String userId, Long before, Integer limit);
+
+    /**
+     * @return The number of the customer's notifications not yet marked read, without counting them.
+     */
+    long getUnreadCount(String userId);
+
+    /**
+     * Marks the customer's notifications up to and including {@code upToId} read; all of them if null.
+     *
+     * @return The unread count afterwards.
+     */
+    long markRead(String userId, Long upToId);
+}
@@ -0,0 +1,36 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.NotificationReplayDTO;
+import com.banking.backend.enums.NotificationReplaySource;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface INotificationReplayService {
+
+    /**
+     * Starts replaying the notifications in the source to the notification queue, in the background.
+     *
+     * @param from Only notifications of transfers at or after this time; null for no lower bound.
+     * @param to Only notifications of transfers before this time; null for no upper bound.
+     * @param transactionId Only this transaction's notifications; null for all.
+     * @param ratePerSecond Most notifications to send per second; null for the configured rate.
+     * @param parallelism Number of workers; null for the configured number.
+     * @throws IllegalArgumentException If the time range, rate or parallelism is invalid.
+     * @throws IllegalStateException If a replay is already running.
+     */
+    NotificationReplayDTO start(NotificationReplaySource source, LocalDateTime from, LocalDateTime to,
+                                String transactionId, Integer ratePerSecond, Integer parallelism);
+
+    /**
+     * @return The progress of the running replay, or of the last one to finish.
+     */
+    Optional<NotificationReplayDTO> getProgress();
+
+    /**
+     * Stops the running replay once its workers finish their current batch.
+     *
+     * @return The progress of the replay, or empty if none has run.
+     */
+    Optional<NotificationReplayDTO> cancel();
+}
@@ -3,9 +3,24 @@ package com.banking.backend.service.interfaces;
 import com.banking.backend.model.Account;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public interface INotificationService {
 
-    void sendTransferNotifications(String transactionId, Account sender, Account recipient, BigDecimal amount);
+    /**
+     * @param amount The amount debited, in the sender's currency.
+     * @param creditedAmount The amount credited, in the recipient's currency; equal to {@code amount}
+     *                       unless the accounts are held in different currencies.
+     * @param committedAt When the transfer committed; notifications are timestamped with it, and their delivery
+     *                    latency is measured from it.
+     */
+    void sendTransferNotifications(String transactionId, Account sender, Account recipient, BigDecimal amount,
+                                   BigDecimal creditedAmount, LocalDateTime committedAt);
+
+    /**
+     * Sends the recipient digests whose window has closed. Declared here so the scheduler can
+     * call it through the asynchronous proxy.
+     */
+    void flushDueDigests();
 
 }
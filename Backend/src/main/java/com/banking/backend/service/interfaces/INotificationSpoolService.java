@@ -0,0 +1,11 @@
+package com.banking.backend.service.interfaces;
+
+public interface INotificationSpoolService {
+
+    boolean spool(String transactionId, String jsonNotification);
+
+    void drain();
+
+    void force();
+
+}
@@ -0,0 +1,10 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.enums.ReconciliationMode;
+import com.banking.backend.model.ReconciliationRun;
+
+public interface IReconciliationService {
+
+    ReconciliationRun reconcile(ReconciliationMode mode);
+
+}
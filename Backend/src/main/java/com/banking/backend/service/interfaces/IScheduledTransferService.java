@@ -0,0 +1,30 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.ScheduledTransferDTO;
+import com.banking.backend.dto.ScheduledTransferRequestDTO;
+
+import java.util.Optional;
+
+public interface IScheduledTransferService {
+
+    ScheduledTransferDTO create(ScheduledTransferRequestDTO request);
+
+    Optional<ScheduledTransferDTO> get(long id);
+
+    /**
+     * Stops a schedule from running again. An occurrence already executing still completes.
+     *
+     * @return The schedule as it stands after cancelling, or empty if there is no such schedule.
+     */
+    Optional<ScheduledTransferDTO> cancel(long id);
+
+    /**
+     * Loads the schedules that have come within the horizon into the timing wheel.
+     */
+    void loadHorizon();
+
+    /**
+     * Advances the timing wheel and hands the schedules that have come due to the executor.
+     */
+    void fireDue();
+}
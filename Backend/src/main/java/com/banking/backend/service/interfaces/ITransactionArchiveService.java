@@ -0,0 +1,26 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.archive.ArchivedTransaction;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+public interface ITransactionArchiveService {
+
+    boolean isEnabled();
+
+    boolean isArchived(YearMonth month);
+
+    long archiveMonth(YearMonth month);
+
+    void archiveClosedMonths();
+
+    List<ArchivedTransaction> findHistory(long accountId, YearMonth month, LocalDateTime from, LocalDateTime to);
+
+    Optional<ArchivedTransaction> findLast(long accountId, YearMonth month, LocalDateTime asOf);
+
+    Optional<ArchivedTransaction> findFirstAfter(long accountId, YearMonth month, LocalDateTime after);
+
+}
@@ -0,0 +1,17 @@
+package com.banking.backend.service.interfaces;
+
+import com.banking.backend.dto.BalanceAsOfDTO;
+import com.banking.backend.dto.TransactionHistoryDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ITransactionHistoryService {
+
+    List<TransactionHistoryDTO> getHistory(String customerId, LocalDateTime from, LocalDateTime to, Integer limit);
+
+    BalanceAsOfDTO getBalanceAsOf(String customerId, LocalDateTime asOf);
+
+    List<BalanceAsOfDTO> getBalancesAsOf(List<String> customerIds, LocalDateTime asOf);
+
+}
@@ -0,0 +1,391 @@
+package com.banking.backend.spool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only queue of opaque records on local disk, kept in memory-mapped segment files.
+ * <p>
+ * Layout of a segment file, {@code spool-<firstSequence>.seg}:
+ * <pre>
+ *   header   magic:int version:int firstSequence:long
+ *   records  length:int crc32c:int sequence:long payload:byte[length] padding, back to back
+ * </pre>
+ * Each record is padded to a multiple of 8 bytes, so that its length can be stored and loaded atomically.
+ * The rest of a segment is zero, so a zero length marks where its records end. Sequences run on
+ * without gaps from one segment to the next, and a segment is rotated when the next record does not
+ * fit. The checksum covers the sequence and the payload. A record is written payload first and its
+ * length last, with a release store. Once {@link #append} returns, the record is in the page cache and
+ * survives the JVM crashing. It only survives the machine crashing after {@link #force()}.
+ * <p>
+ * The sequence of the oldest record not yet delivered is kept in {@code spool.cursor} beside the segments,
+ * and a segment is deleted once all of its records are delivered. On opening, every segment is checked
+ * from its header: a record with a bad checksum, an unexpected sequence or a length running past the segment
+ * ends it, and the space after the last good record of the newest segment is cleared for new records.
+ * <p>
+ * Any number of threads may append. Records are read and acknowledged by a single thread.
+ */
+public final class DiskSpool implements Closeable {
+
+    static final int MAGIC = 0x424B5350; // "BKSP"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 16;
+    private static final String CURSOR_FILE = "spool.cursor";
+    private static final VarHandle LENGTH = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel cursorChannel;
+
+    // Appending, guarded by this.
+    private Segment head;
+    private int writeOffset;
+    private boolean closed;
+    private volatile long nextSequence;
+
+    // Reading, confined to the reading thread.
+    private volatile long deliveredSequence;
+    private Segment readSegment;
+    private int readOffset;
+    private long readSequence;
+
+    private DiskSpool(Path directory, int segmentBytes, int maxSegments, FileChannel cursorChannel) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.cursorChannel = cursorChannel;
+    }
+
+    /**
+     * Opens the spool in the given directory, creating it if needed and recovering every record
+     * appended before the last shutdown or crash.
+     *
+     * @param segmentBytes The size of each new segment file.
+     * @param maxSegments How many segment files may exist at once; appends are refused beyond that.
+     */
+    public static DiskSpool open(Path directory, int segmentBytes, int maxSegments) throws IOException {
+        if (segmentBytes < HEADER_BYTES + recordBytes(1) || maxSegments < 2) {
+            throw new IllegalArgumentException("A spool needs segments that hold a record and room for at least two of them");
+        }
+        Files.createDirectories(directory);
+        FileChannel cursorChannel = FileChannel.open(directory.resolve(CURSOR_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        DiskSpool spool = new DiskSpool(directory, segmentBytes, maxSegments, cursorChannel);
+        try {
+            spool.recover();
+        } catch (IOException | RuntimeException e) {
+            cursorChannel.close();
+            throw e;
+        }
+        return spool;
+    }
+
+    /**
+     * Appends a record after all others.
+     *
+     * @return false if the record would need a segment beyond {@code maxSegments}, in which case it is not stored.
+     * @throws IllegalArgumentException If the payload is empty or larger than a segment can hold.
+     */
+    public synchronized boolean append(byte[] payload) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The spool is closed");
+        }
+        int recordBytes = recordBytes(payload.length);
+        if (payload.length == 0 || recordBytes > segmentBytes - HEADER_BYTES) {
+            throw new IllegalArgumentException("Spool records must hold 1 to " + (((segmentBytes - HEADER_BYTES) & ~7) - RECORD_HEADER_BYTES) + " bytes");
+        }
+        if (writeOffset + recordBytes > head.buffer.capacity()) {
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            head.buffer.force();
+            head = createSegment(nextSequence);
+            writeOffset = HEADER_BYTES;
+        }
+        long sequence = nextSequence;
+        MappedByteBuffer buffer = head.buffer;
+        buffer.putLong(writeOffset + 8, sequence);
+        buffer.put(writeOffset + RECORD_HEADER_BYTES, payload);
+        buffer.putInt(writeOffset + 4, checksum(buffer, writeOffset, payload.length));
+        LENGTH.setRelease(buffer, writeOffset, payload.length);
+        writeOffset += recordBytes;
+        nextSequence = sequence + 1;
+        return true;
+    }
+
+    /**
+     * Reads up to {@code max} records, oldest first, starting after the last record read. Records stay in
+     * the spool until they are acknowledged; {@link #rewind()} reads them again.
+     */
+    public List<SpoolRecord> read(int max) {
+        List<SpoolRecord> records = new ArrayList<>();
+        long end = nextSequence;
+        while (records.size() < max && readSequence < end) {
+            int length = recordLength(readSegment, readOffset, readSequence);
+            if (length < 0) {
+                // This segment holds no more records: it filled up, or a crash cut it short. Carry on from the next one.
+                Map.Entry<Long, Segment> next = segments.higherEntry(readSegment.firstSequence);
+                if (next == null) {
+                    break;
+                }
+                readSegment = next.getValue();
+                readOffset = HEADER_BYTES;
+                readSequence = Math.max(readSequence, readSegment.firstSequence);
+                continue;
+            }
+            byte[] payload = new byte[length];
+            readSegment.buffer.get(readOffset + RECORD_HEADER_BYTES, payload);
+            records.add(new SpoolRecord(readSequence, payload));
+            readOffset += recordBytes(length);
+            readSequence++;
+        }
+        return records;
+    }
+
+    /**
+     * Makes the next {@link #read} start again from the oldest record not yet acknowledged.
+     */
+    public void rewind() {
+        positionReader(deliveredSequence);
+    }
+
+    /**
+     * Marks every record up to and including the given sequence as delivered, and deletes the segments
+     * that no longer hold an undelivered record.
+     */
+    public void acknowledge(long sequence) throws IOException {
+        if (sequence < deliveredSequence) {
+            return;
+        }
+        deliveredSequence = sequence + 1;
+        ByteBuffer cursor = ByteBuffer.allocate(16).putLong(deliveredSequence).putInt(MAGIC);
+        CRC32C crc = new CRC32C();
+        crc.update(cursor.array(), 0, 12);
+        cursor.putInt((int) crc.getValue()).flip();
+        while (cursor.hasRemaining()) {
+            cursorChannel.write(cursor, cursor.position());
+        }
+        while (true) {
+            Map.Entry<Long, Segment> oldest = segments.firstEntry();
+            Map.Entry<Long, Segment> next = segments.higherEntry(oldest.getKey());
+            if (next == null || next.getKey() > deliveredSequence) {
+                return;
+            }
+            segments.remove(oldest.getKey());
+            Files.deleteIfExists(oldest.getValue().path);
+        }
+    }
+
+    /**
+     * Number of records appended but not yet acknowledged.
+     */
+    public long pending() {
+        return Math.max(0, nextSequence - deliveredSequence);
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Writes appended records and the delivery cursor through to the disk, so they also survive the machine crashing.
+     */
+    public void force() throws IOException {
+        Segment current;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            current = head;
+        }
+        current.buffer.force();
+        cursorChannel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        head.buffer.force();
+        cursorChannel.force(false);
+        cursorChannel.close();
+        closed = true;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().matches("spool-\\d{20}\\.seg")).sorted().toList();
+        }
+        for (Path file : files) {
+            Segment segment = mapSegment(file, -1);
+            if (segment != null) {
+                segments.put(segment.firstSequence, segment);
+            }
+        }
+
+        long cursor = readCursor();
+        if (segments.isEmpty()) {
+            head = createSegment(Math.max(cursor, 0));
+            writeOffset = HEADER_BYTES;
+            nextSequence = head.firstSequence;
+        } else {
+            // Scan the newest segment to find where appending resumes, and clear whatever a crash left after it.
+            head = segments.lastEntry().getValue();
+            long sequence = head.firstSequence;
+            int offset = HEADER_BYTES;
+            int length;
+            while ((length = recordLength(head, offset, sequence)) >= 0) {
+                offset += recordBytes(length);
+                sequence++;
+            }
+            byte[] zeros = new byte[8192];
+            for (int i = offset; i < head.buffer.capacity(); i += zeros.length) {
+                head.buffer.put(i, zeros, 0, Math.min(zeros.length, head.buffer.capacity() - i));
+            }
+            writeOffset = offset;
+            nextSequence = sequence;
+        }
+        long oldest = segments.firstKey();
+        deliveredSequence = cursor < oldest ? oldest : cursor;
+        if (deliveredSequence > nextSequence) {
+            // The cursor reached the disk but the records it covers did not; number new records after it.
+            head = createSegment(deliveredSequence);
+            writeOffset = HEADER_BYTES;
+            nextSequence = deliveredSequence;
+        }
+        positionReader(deliveredSequence);
+    }
+
+    /**
+     * Moves the reader to the given sequence, or to the first record after it that survived.
+     */
+    private void positionReader(long sequence) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(sequence);
+        readSegment = entry != null ? entry.getValue() : segments.firstEntry().getValue();
+        readOffset = HEADER_BYTES;
+        readSequence = readSegment.firstSequence;
+        while (readSequence < sequence) {
+            int length = recordLength(readSegment, readOffset, readSequence);
+            if (length < 0) {
+                Map.Entry<Long, Segment> next = segments.higherEntry(readSegment.firstSequence);
+                if (next == null) {
+                    return;
+                }
+                readSegment = next.getValue();
+                readOffset = HEADER_BYTES;
+                readSequence = readSegment.firstSequence;
+                continue;
+            }
+            readOffset += recordBytes(length);
+            readSequence++;
+        }
+    }
+
+    /**
+     * Space a record with the given payload length takes up in a segment, padding included.
+     */
+    static int recordBytes(int length) {
+        return (RECORD_HEADER_BYTES + length + 7) & ~7;
+    }
+
+    /**
+     * Returns the payload length of the record at the given offset, or -1 if there is no intact record
+     * with the expected sequence there.
+     */
+    private static int recordLength(Segment segment, int offset, long expectedSequence) {
+        MappedByteBuffer buffer = segment.buffer;
+        if (offset + RECORD_HEADER_BYTES > buffer.capacity()) {
+            return -1;
+        }
+        int length = (int) LENGTH.getAcquire(buffer, offset);
+        if (length <= 0 || length > buffer.capacity() - offset - RECORD_HEADER_BYTES
+                || buffer.getLong(offset + 8) != expectedSequence
+                || buffer.getInt(offset + 4) != checksum(buffer, offset, length)) {
+            return -1;
+        }
+        return length;
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + 8, 8 + length));
+        return (int) crc.getValue();
+    }
+
+    private long readCursor() throws IOException {
+        ByteBuffer cursor = ByteBuffer.allocate(16);
+        while (cursor.hasRemaining() && cursorChannel.read(cursor, cursor.position()) > 0) {
+            // Keep reading until the cursor is complete or the file ends.
+        }
+        if (cursor.hasRemaining() || cursor.getInt(8) != MAGIC) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(cursor.array(), 0, 12);
+        return cursor.getInt(12) == (int) crc.getValue() ? cursor.getLong(0) : -1;
+    }
+
+    private Segment createSegment(long firstSequence) throws IOException {
+        Segment segment = mapSegment(directory.resolve(String.format("spool-%020d.seg", firstSequence)), firstSequence);
+        segments.put(firstSequence, segment);
+        return segment;
+    }
+
+    /**
+     * Maps an existing segment file, or creates it when {@code newFirstSequence} is given. An existing file
+     * without a valid header holds no readable record, most likely because a crash came before its header
+     * was written, so it is deleted.
+     */
+    private Segment mapSegment(Path file, long newFirstSequence) throws IOException {
+        boolean create = newFirstSequence >= 0;
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = create ? segmentBytes : channel.size();
+            if (!create && (size < HEADER_BYTES || size > Integer.MAX_VALUE)) {
+                channel.close();
+                Files.delete(file);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (create) {
+                buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, newFirstSequence);
+                return new Segment(file, newFirstSequence, buffer);
+            }
+            String name = file.getFileName().toString();
+            long firstSequence = Long.parseLong(name.substring("spool-".length(), name.length() - ".seg".length()));
+            if (buffer.getInt(0) != MAGIC || buffer.getLong(8) != firstSequence) {
+                channel.close();
+                Files.delete(file);
+                return null;
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported spool segment version " + buffer.getInt(4) + " in " + file);
+            }
+            return new Segment(file, firstSequence, buffer);
+        }
+    }
+
+    private record Segment(Path path, long firstSequence, MappedByteBuffer buffer) {
+    }
+}
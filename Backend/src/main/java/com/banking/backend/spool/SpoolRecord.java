@@ -0,0 +1,7 @@
+package com.banking.backend.spool;
+
+/**
+ * A record read back from a {@link DiskSpool}, with the sequence it was appended under.
+ */
+public record SpoolRecord(long sequence, byte[] payload) {
+}
@@ -0,0 +1,175 @@
+package com.banking.backend.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to observed latency with a gradient algorithm, in the style of
+ * TCP Vegas. Latency is averaged over short sample windows and compared with the no-load latency,
+ * the lowest window average seen:
+ * <pre>
+ *   gradient = clamp(tolerance * noLoadLatency / latency, 0.5, 1.0)
+ *   newLimit = limit * gradient + sqrt(limit)
+ * </pre>
+ * While latency stays within {@code tolerance} of the no-load latency the limit keeps growing by
+ * its square root, which probes for spare capacity. Once requests queue up downstream, latency rises
+ * and the limit shrinks in proportion, down to half per window. Shrinking takes effect at once, so
+ * an overloaded downstream is relieved within a few windows; growth is smoothed towards the new value,
+ * and the result is clamped to {@code [minLimit, maxLimit]}. Requests that fail by timing out
+ * downstream are a stronger signal than latency and cut the limit by {@code backoffRatio} straight away.
+ * <p>
+ * The no-load latency only ever falls, so queueing cannot drag it up. When the downstream becomes slower
+ * for good, the limit shrinks to its minimum, and with {@code minLimit} below what the downstream serves
+ * in parallel there is then no queue left: the latency at the minimum is taken as the new no-load latency,
+ * and the limit grows back from there. The limit only grows in windows where at least half of it was in
+ * use, so an idle period cannot inflate it.
+ * <p>
+ * Acquiring a slot is a compare-and-set on the in-flight count. Samples are added to lock-free
+ * accumulators; the thread that closes a window computes the next limit.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final long windowNanos;
+    private final int minWindowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder windowLatencyNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicLong windowStart;
+    private volatile double limit;
+    private volatile double noLoadLatencyNanos;
+    private volatile double latencyNanos;
+
+    /**
+     * @param initialLimit The limit before any latency has been observed.
+     * @param minLimit The lowest the limit may shrink to.
+     * @param maxLimit The highest the limit may grow to.
+     * @param tolerance How much slower than the no-load latency a window may be before the limit shrinks.
+     * @param smoothing The share of each computed increase applied per window, in {@code (0, 1]}.
+     * @param backoffRatio The factor the limit is multiplied by when a request times out downstream.
+     * @param windowNanos The minimum length of a sample window.
+     * @param minWindowSamples The minimum number of samples in a window; shorter windows are extended.
+     * @param nowNanos The current {@link System#nanoTime()} reading.
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing,
+                                    double backoffRatio, long windowNanos, int minWindowSamples, long nowNanos) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1 || smoothing <= 0 || smoothing > 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Tolerance must be at least 1, smoothing in (0, 1] and backoff ratio in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = windowNanos;
+        this.minWindowSamples = Math.max(1, minWindowSamples);
+        this.limit = initialLimit;
+        this.windowStart = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a slot if fewer requests than the limit are in flight. A caller that gets one must
+     * hand it back exactly once, through {@link #onSuccess} or {@link #onDropped}.
+     *
+     * @return true if the request may proceed, false if it should be shed.
+     */
+    public boolean tryAcquire() {
+        int allowed = (int) limit;
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns a slot for a request that completed, and records how long it took.
+     *
+     * @param latencyNanos The time the request held its slot.
+     * @param nowNanos The current {@link System#nanoTime()} reading.
+     */
+    public void onSuccess(long latencyNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        windowLatencyNanos.add(latencyNanos);
+        windowSamples.increment();
+        long start = windowStart.get();
+        if (nowNanos - start >= windowNanos && windowSamples.sum() >= minWindowSamples
+                && windowStart.compareAndSet(start, nowNanos)) {
+            closeWindow();
+        }
+    }
+
+    /**
+     * Returns a slot for a request that timed out downstream, and backs the limit off.
+     */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Average latency of the last closed window, in nanoseconds; zero before the first.
+     */
+    public double getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * The latency the current limit is judged against, in nanoseconds; zero before the first window.
+     */
+    public double getNoLoadLatencyNanos() {
+        return noLoadLatencyNanos;
+    }
+
+    private void closeWindow() {
+        long samples = windowSamples.sumThenReset();
+        long totalNanos = windowLatencyNanos.sumThenReset();
+        int peak = maxInFlight.getAndSet(inFlight.get());
+        if (samples == 0) {
+            return;
+        }
+        double latency = (double) totalNanos / samples;
+        double current = limit;
+        latencyNanos = latency;
+        if (noLoadLatencyNanos == 0 || latency < noLoadLatencyNanos || (int) current <= minLimit) {
+            // At the minimum the queue has drained, so whatever latency is left is the downstream's own.
+            noLoadLatencyNanos = latency;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * noLoadLatencyNanos / latency));
+        double next = current * gradient + Math.sqrt(current);
+        if (next > current) {
+            if (peak < current / 2) {
+                // Too little of the limit was used to tell whether more would be served as quickly.
+                return;
+            }
+            next = current * (1 - smoothing) + next * smoothing;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,89 @@
+package com.banking.backend.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of asynchronous operations that may be outstanding at the same time.
+ * Callers take a permit before starting an operation and must release it exactly once when
+ * the operation terminates. When the window is full, {@link #tryAcquire(Duration)} waits up to
+ * the given time for a permit, which lets callers choose between backpressure and shedding.
+ * <p>
+ * The window publishes the number of outstanding operations, the number of callers currently
+ * waiting for a permit and the time spent waiting, all tagged with the window name.
+ */
+public class BoundedInFlightWindow {
+
+    private final int capacity;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+
+    public BoundedInFlightWindow(String name, int capacity, MeterRegistry meterRegistry) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("In-flight window capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.permits = new Semaphore(capacity);
+        this.waitTimer = Timer.builder("banking.inflight.wait")
+                .description("Time spent waiting for a free slot in the in-flight window")
+                .tag("window", name)
+                .register(meterRegistry);
+        Gauge.builder("banking.inflight.outstanding", this, BoundedInFlightWindow::outstanding)
+                .description("Operations currently holding a slot in the in-flight window")
+                .tag("window", name)
+                .register(meterRegistry);
+        Gauge.builder("banking.inflight.waiting", waiting, AtomicInteger::get)
+                .description("Callers blocked waiting for a slot in the in-flight window")
+                .tag("window", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a permit, waiting at most {@code maxWait} for one to become available.
+     *
+     * @param maxWait The longest time to wait; {@link Duration#ZERO} never blocks.
+     * @return true if a permit was acquired and must later be released.
+     */
+    public boolean tryAcquire(Duration maxWait) {
+        if (permits.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return true;
+        }
+        if (maxWait.isZero() || maxWait.isNegative()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            return permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns a permit previously obtained from {@link #tryAcquire(Duration)}.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    public int outstanding() {
+        return capacity - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+}
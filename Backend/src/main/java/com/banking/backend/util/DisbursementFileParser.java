@@ -0,0 +1,62 @@
+package com.banking.backend.util;
+
+import com.banking.backend.dto.DisbursementLineRequestDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a disbursement file: one {@code toUserId,amount} line per recipient. Blank lines and lines
+ * starting with {@code #} are skipped, as is a first line of {@code toUserId,amount} column names.
+ */
+public final class DisbursementFileParser {
+
+    private DisbursementFileParser() {
+    }
+
+    /**
+     * @throws IllegalArgumentException If a line is malformed, naming its line number.
+     */
+    public static List<DisbursementLineRequestDTO> parse(InputStream input) {
+        List<DisbursementLineRequestDTO> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lineNumber++;
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")
+                        || (lineNumber == 1 && trimmed.equalsIgnoreCase("toUserId,amount"))) {
+                    continue;
+                }
+                lines.add(parseLine(trimmed, lineNumber));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read disbursement file", e);
+        }
+        return lines;
+    }
+
+    private static DisbursementLineRequestDTO parseLine(String line, int lineNumber) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 2 || fields[0].isBlank()) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected toUserId,amount");
+        }
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(fields[1].strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": invalid amount " + fields[1].strip());
+        }
+        DisbursementLineRequestDTO request = new DisbursementLineRequestDTO();
+        request.setToUserId(fields[0].strip());
+        request.setAmount(amount);
+        return request;
+    }
+}
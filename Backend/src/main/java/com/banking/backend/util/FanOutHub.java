@@ -0,0 +1,242 @@
+package com.banking.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers events published under a key to every subscriber of that key, such as every open event
+ * stream of one customer.
+ * <p>
+ * A subscriber costs one small object while idle: no thread, and no buffer until an event arrives.
+ * Publishing appends to the subscriber's buffer and, if it is not being drained already, hands it to
+ * {@code deliveryExecutor}, whose task sends until the buffer is empty and then lets the buffer go. A
+ * publisher therefore never waits for a subscriber. A subscriber that falls {@code bufferSize} events
+ * behind, or whose sink fails, is closed and dropped rather than let its buffer grow; clients are
+ * expected to reconnect and catch up from their source of truth.
+ * <p>
+ * Events for one subscriber are sent in the order they were published, one at a time.
+ */
+public class FanOutHub<E> {
+
+    /**
+     * Where a subscriber's events go, such as an open HTTP response.
+     */
+    public interface Sink<E> {
+
+        void send(E event) throws Exception;
+
+        /**
+         * Ends the subscription from the server side. Called at most once, on any thread.
+         */
+        void close();
+    }
+
+    /**
+     * One subscriber of one key.
+     */
+    public static final class Subscription<E> {
+        private final String key;
+        private final Sink<E> sink;
+        private ArrayDeque<E> buffer;
+        private boolean draining;
+        private boolean closed;
+
+        private Subscription(String key, Sink<E> sink) {
+            this.key = key;
+            this.sink = sink;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Executor deliveryExecutor;
+    private final ConcurrentHashMap<String, Subscription<E>[]> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder evictions = new LongAdder();
+
+    public FanOutHub(int bufferSize, int maxSubscribers, Executor deliveryExecutor) {
+        if (bufferSize < 1 || maxSubscribers < 1) {
+            throw new IllegalArgumentException("Buffer size and subscriber limit must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.deliveryExecutor = deliveryExecutor;
+    }
+
+    /**
+     * Subscribes {@code sink} to the events of {@code key}.
+     *
+     * @return The subscription, or null if the hub already holds {@code maxSubscribers}.
+     */
+    @SuppressWarnings("unchecked")
+    public Subscription<E> subscribe(String key, Sink<E> sink) {
+        if (size.incrementAndGet() > maxSubscribers) {
+            size.decrementAndGet();
+            return null;
+        }
+        Subscription<E> subscription = new Subscription<>(key, sink);
+        subscriptions.compute(key, (k, current) -> {
+            if (current == null) {
+                return new Subscription[]{subscription};
+            }
+            Subscription<E>[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = subscription;
+            return grown;
+        });
+        return subscription;
+    }
+
+    /**
+     * Drops a subscription whose client went away. Does not close its sink.
+     *
+     * @return False if it had been dropped already.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean unsubscribe(Subscription<E> subscription) {
+        synchronized (subscription) {
+            if (subscription.closed) {
+                return false;
+            }
+            subscription.closed = true;
+            subscription.buffer = null;
+        }
+        subscriptions.computeIfPresent(subscription.key, (k, current) -> {
+            int index = indexOf(current, subscription);
+            if (index < 0) {
+                return current;
+            }
+            if (current.length == 1) {
+                return null;
+            }
+            Subscription<E>[] shrunk = (Subscription<E>[]) new Subscription[current.length - 1];
+            System.arraycopy(current, 0, shrunk, 0, index);
+            System.arraycopy(current, index + 1, shrunk, index, current.length - index - 1);
+            return shrunk;
+        });
+        size.decrementAndGet();
+        return true;
+    }
+
+    public boolean hasSubscribers(String key) {
+        return subscriptions.containsKey(key);
+    }
+
+    /**
+     * Queues {@code event} for every subscriber of {@code key}.
+     *
+     * @return The number of subscribers it was queued for.
+     */
+    public int publish(String key, E event) {
+        Subscription<E>[] current = subscriptions.get(key);
+        if (current == null) {
+            return 0;
+        }
+        int queued = 0;
+        for (Subscription<E> subscription : current) {
+            if (offer(subscription, event)) {
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Queues {@code event} for every subscriber that has nothing waiting to be sent, such as a keep-alive.
+     */
+    public void broadcastToIdle(E event) {
+        subscriptions.values().forEach(current -> {
+            for (Subscription<E> subscription : current) {
+                synchronized (subscription) {
+                    if (subscription.draining) {
+                        continue;
+                    }
+                }
+                offer(subscription, event);
+            }
+        });
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return The number of subscribers closed for falling {@code bufferSize} events behind.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private boolean offer(Subscription<E> subscription, E event) {
+        boolean startDrain = false;
+        boolean overflow = false;
+        synchronized (subscription) {
+            if (subscription.closed) {
+                return false;
+            }
+            if (subscription.buffer == null) {
+                subscription.buffer = new ArrayDeque<>(4);
+            }
+            if (subscription.buffer.size() < bufferSize) {
+                subscription.buffer.add(event);
+                startDrain = !subscription.draining;
+                subscription.draining = true;
+            } else {
+                overflow = true;
+            }
+        }
+        if (overflow) {
+            evictions.increment();
+            evict(subscription);
+            return false;
+        }
+        if (startDrain) {
+            deliveryExecutor.execute(() -> drain(subscription));
+        }
+        return true;
+    }
+
+    private void drain(Subscription<E> subscription) {
+        while (true) {
+            E event;
+            synchronized (subscription) {
+                event = subscription.buffer == null ? null : subscription.buffer.poll();
+                if (event == null) {
+                    // An idle subscriber keeps no buffer.
+                    subscription.buffer = null;
+                    subscription.draining = false;
+                    return;
+                }
+            }
+            try {
+                subscription.sink.send(event);
+            } catch (Exception e) {
+                evict(subscription);
+                return;
+            }
+        }
+    }
+
+    private void evict(Subscription<E> subscription) {
+        if (unsubscribe(subscription)) {
+            subscription.sink.close();
+        }
+    }
+
+    private static int indexOf(Subscription<?>[] subscriptions, Subscription<?> subscription) {
+        for (int i = 0; i < subscriptions.length; i++) {
+            if (subscriptions[i] == subscription) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
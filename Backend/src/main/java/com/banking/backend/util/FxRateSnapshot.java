@@ -0,0 +1,99 @@
+package com.banking.backend.util;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable set of FX rates, as published by a rate provider under one version.
+ * <p>
+ * Rates are quoted against a base currency: {@code rates.get("USD")} is the number of US dollars one
+ * unit of the base buys. Every cross rate is worked out once when the snapshot is built, so a conversion
+ * is two map lookups and a multiplication. Converted amounts are rounded half-even to two decimals.
+ */
+public final class FxRateSnapshot {
+
+    /**
+     * The outcome of converting an amount. {@code rate} and {@code rateVersion} are null when no
+     * conversion was needed because both sides use the same currency.
+     */
+    public record Conversion(BigDecimal amount, BigDecimal rate, Long rateVersion) {
+
+        public static Conversion identity(BigDecimal amount) {
+            return new Conversion(amount, null, null);
+        }
+
+        public boolean isCrossCurrency() {
+            return rateVersion != null;
+        }
+    }
+
+    private static final int AMOUNT_SCALE = 2;
+    private static final int RATE_SCALE = 10;
+
+    private final long version;
+    private final String baseCurrency;
+    private final Instant publishedAt;
+    private final Map<String, Map<String, BigDecimal>> crossRates;
+
+    public FxRateSnapshot(long version, String baseCurrency, Map<String, BigDecimal> rates, Instant publishedAt) {
+        this.version = version;
+        this.baseCurrency = baseCurrency;
+        this.publishedAt = publishedAt;
+
+        Map<String, BigDecimal> quotes = new HashMap<>(rates);
+        quotes.put(baseCurrency, BigDecimal.ONE);
+        Map<String, Map<String, BigDecimal>> cross = new HashMap<>();
+        quotes.forEach((from, fromQuote) -> {
+            if (fromQuote.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate for " + from + " must be positive");
+            }
+            Map<String, BigDecimal> fromRates = new HashMap<>();
+            quotes.forEach((to, toQuote) -> fromRates.put(to,
+                    toQuote.divide(fromQuote, MathContext.DECIMAL64).setScale(RATE_SCALE, RoundingMode.HALF_EVEN)));
+            cross.put(from, Map.copyOf(fromRates));
+        });
+        this.crossRates = Map.copyOf(cross);
+    }
+
+    /**
+     * Converts {@code amount} from one currency to another at this snapshot's rate.
+     *
+     * @throws IllegalArgumentException If the snapshot has no rate for either currency.
+     */
+    public Conversion convert(BigDecimal amount, String fromCurrency, String toCurrency) {
+        if (fromCurrency.equals(toCurrency)) {
+            return Conversion.identity(amount);
+        }
+        BigDecimal rate = rate(fromCurrency, toCurrency);
+        return new Conversion(amount.multiply(rate).setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN), rate, version);
+    }
+
+    public BigDecimal rate(String fromCurrency, String toCurrency) {
+        Map<String, BigDecimal> fromRates = crossRates.get(fromCurrency);
+        BigDecimal rate = fromRates == null ? null : fromRates.get(toCurrency);
+        if (rate == null) {
+            throw new IllegalArgumentException("No FX rate from " + fromCurrency + " to " + toCurrency);
+        }
+        return rate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+
+    public boolean supports(String currency) {
+        return crossRates.containsKey(currency);
+    }
+}
@@ -0,0 +1,186 @@
+package com.banking.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Finds the most frequent keys of a stream in fixed memory, over a sliding time window.
+ * <p>
+ * Each key's occurrences, and a weight such as time spent waiting, are counted in a Count-Min sketch:
+ * {@code depth} rows of {@code width} counters, where a key adds to one counter per row and its estimate
+ * is the smallest of them. Estimates never undercount and overcount by at most about
+ * {@code e * total / width} with probability {@code 1 - e^-depth}. Alongside the counters a bounded set of
+ * candidate keys is kept whose estimate reached the current top-K, since the sketch itself cannot list keys.
+ * <p>
+ * The window is split into {@code windows} slots of {@code windowNanos} each. Recording only touches the
+ * current slot; when time moves into a new slot, the oldest one is cleared and reused, so a key drops out
+ * of the result once it has been quiet for the whole window. Recording is lock-free apart from the rare
+ * candidate pruning, and memory stays the same however many distinct keys are seen.
+ */
+public class HeavyHitterSketch {
+
+    /**
+     * A key's estimated number of occurrences and total weight over the window.
+     */
+    public record HeavyHitter(String key, long count, long weight) {
+    }
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646C, 0xFD7046C5, 0xB55A4F09};
+
+    private final int depth;
+    private final int mask;
+    private final int topK;
+    private final long windowNanos;
+    private final Slot[] slots;
+
+    public HeavyHitterSketch(int depth, int width, int topK, int windows, long windowNanos, long nowNanos) {
+        if (depth < 1 || depth > SEEDS.length) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + SEEDS.length);
+        }
+        if (width < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two");
+        }
+        if (topK < 1 || windows < 1 || windowNanos < 1) {
+            throw new IllegalArgumentException("Top-K, window count and window length must be positive");
+        }
+        this.depth = depth;
+        this.mask = width - 1;
+        this.topK = topK;
+        this.windowNanos = windowNanos;
+        this.slots = new Slot[windows];
+        long epoch = Math.floorDiv(nowNanos, windowNanos);
+        for (int i = 0; i < windows; i++) {
+            slots[i] = new Slot(depth * width);
+        }
+        slots[Math.floorMod(epoch, windows)].epoch = epoch;
+    }
+
+    /**
+     * Counts one occurrence of {@code key} carrying {@code weight}.
+     */
+    public void record(String key, long weight, long nowNanos) {
+        Slot slot = slotFor(nowNanos);
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = index(hash, row);
+            estimate = Math.min(estimate, slot.counts.incrementAndGet(index));
+            slot.weights.addAndGet(index, weight);
+        }
+        if (estimate >= slot.threshold) {
+            // Hot keys would otherwise write the same map entry on every event; their ranking only
+            // needs refreshing once the estimate has grown by an eighth.
+            Long known = slot.candidates.get(key);
+            if (known == null || estimate - known > known >>> 3) {
+                slot.candidates.put(key, estimate);
+                if (known == null && slot.candidates.size() > topK * 2) {
+                    prune(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Up to {@code topK} keys with the highest estimated count in the window, highest first.
+     */
+    public List<HeavyHitter> top(long nowNanos) {
+        long currentEpoch = Math.floorDiv(nowNanos, windowNanos);
+        List<Slot> live = new ArrayList<>(slots.length);
+        Set<String> keys = new HashSet<>();
+        for (Slot slot : slots) {
+            if (slot.epoch != Long.MIN_VALUE && currentEpoch - slot.epoch < slots.length) {
+                live.add(slot);
+                keys.addAll(slot.candidates.keySet());
+            }
+        }
+
+        List<HeavyHitter> hitters = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            int hash = key.hashCode();
+            long count = 0;
+            long weight = 0;
+            for (Slot slot : live) {
+                long slotCount = Long.MAX_VALUE;
+                long slotWeight = Long.MAX_VALUE;
+                for (int row = 0; row < depth; row++) {
+                    int index = index(hash, row);
+                    slotCount = Math.min(slotCount, slot.counts.get(index));
+                    slotWeight = Math.min(slotWeight, slot.weights.get(index));
+                }
+                count += slotCount;
+                weight += slotWeight;
+            }
+            hitters.add(new HeavyHitter(key, count, weight));
+        }
+        hitters.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+        return hitters.size() > topK ? new ArrayList<>(hitters.subList(0, topK)) : hitters;
+    }
+
+    private Slot slotFor(long nowNanos) {
+        long epoch = Math.floorDiv(nowNanos, windowNanos);
+        Slot slot = slots[Math.floorMod(epoch, slots.length)];
+        if (slot.epoch != epoch) {
+            synchronized (slot) {
+                if (slot.epoch != epoch) {
+                    // Clear before publishing the new epoch, so readers of the new slot start from zero.
+                    slot.reset();
+                    slot.epoch = epoch;
+                }
+            }
+        }
+        return slot;
+    }
+
+    private int index(int hash, int row) {
+        int h = hash * SEEDS[row];
+        h ^= h >>> 15;
+        h *= 0x2C1B3C6D;
+        h ^= h >>> 12;
+        return row * (mask + 1) + (h & mask);
+    }
+
+    /**
+     * Keeps the {@code topK} strongest candidates and raises the bar for new ones to the weakest kept.
+     */
+    private void prune(Slot slot) {
+        synchronized (slot.candidates) {
+            if (slot.candidates.size() <= topK * 2) {
+                return;
+            }
+            List<Map.Entry<String, Long>> entries = new ArrayList<>(slot.candidates.entrySet());
+            entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+            for (Map.Entry<String, Long> evicted : entries.subList(topK, entries.size())) {
+                slot.candidates.remove(evicted.getKey(), evicted.getValue());
+            }
+            slot.threshold = entries.get(topK - 1).getValue();
+        }
+    }
+
+    private static final class Slot {
+        private final AtomicLongArray counts;
+        private final AtomicLongArray weights;
+        private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+        private volatile long epoch = Long.MIN_VALUE;
+        private volatile long threshold;
+
+        private Slot(int size) {
+            this.counts = new AtomicLongArray(size);
+            this.weights = new AtomicLongArray(size);
+        }
+
+        private void reset() {
+            for (int i = 0; i < counts.length(); i++) {
+                counts.set(i, 0);
+                weights.set(i, 0);
+            }
+            candidates.clear();
+            threshold = 0;
+        }
+    }
+}
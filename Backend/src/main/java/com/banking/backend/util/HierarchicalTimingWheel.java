@@ -0,0 +1,139 @@
+package com.banking.backend.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Holds items until their due time, with constant-time insertion and expiry however many are held.
+ * <p>
+ * Time is counted in ticks of {@code tickMillis}. Level 0 has {@code wheelSize} slots of one tick each;
+ * every level above has slots as wide as the whole level below, so {@code levels} levels of 64 slots at
+ * one-second ticks cover 64 seconds, about 68 minutes and about 73 hours. An item goes into the lowest
+ * level whose range reaches its due time. When time enters a slot of a higher level, that slot's items
+ * are moved down a level, so each item is moved at most {@code levels - 1} times before it expires from
+ * level 0. Items due beyond the top level wait in an overflow list that is re-sorted once per turn of
+ * the top level.
+ * <p>
+ * Items are never returned before their tick and are returned in tick order, but not in order within a
+ * tick. The wheel is not thread-safe; callers synchronize around it.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private record Entry<T>(T item, long dueTick) {
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] slotTicks;
+    private final List<ArrayDeque<Entry<T>>[]> levels;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private final List<Entry<T>> due = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long nowMillis) {
+        if (tickMillis < 1 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Tick must be positive, with at least two slots and one level");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.slotTicks = new long[levels + 1];
+        this.levels = new ArrayList<>(levels);
+        long width = 1;
+        for (int level = 0; level <= levels; level++) {
+            slotTicks[level] = width;
+            width = Math.multiplyExact(width, wheelSize);
+        }
+        for (int level = 0; level < levels; level++) {
+            ArrayDeque<Entry<T>>[] slots = new ArrayDeque[wheelSize];
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[slot] = new ArrayDeque<>();
+            }
+            this.levels.add(slots);
+        }
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Adds {@code item}, to be returned by the first {@link #advance} that reaches {@code dueMillis}.
+     * An item already due is returned by the next call.
+     */
+    public void add(T item, long dueMillis) {
+        place(new Entry<>(item, Math.floorDiv(dueMillis, tickMillis)));
+        size++;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis}, handing every item that has come due to {@code expired}.
+     *
+     * @return The number of items handed over.
+     */
+    public int advance(long nowMillis, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        int fired = drainDue(expired);
+        if (size == 0 && targetTick > currentTick) {
+            currentTick = targetTick;
+            return fired;
+        }
+        while (currentTick < targetTick) {
+            currentTick++;
+            if (currentTick % slotTicks[levels.size()] == 0) {
+                List<Entry<T>> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                waiting.forEach(this::place);
+            }
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % slotTicks[level] == 0) {
+                    ArrayDeque<Entry<T>> slot = levels.get(level)[slotIndex(currentTick, level)];
+                    for (Entry<T> entry = slot.poll(); entry != null; entry = slot.poll()) {
+                        place(entry);
+                    }
+                }
+            }
+            due.addAll(levels.get(0)[slotIndex(currentTick, 0)]);
+            levels.get(0)[slotIndex(currentTick, 0)].clear();
+            fired += drainDue(expired);
+        }
+        return fired;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.dueTick() <= currentTick) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < levels.size(); level++) {
+            long distance = entry.dueTick() / slotTicks[level] - currentTick / slotTicks[level];
+            if (distance < wheelSize) {
+                levels.get(level)[slotIndex(entry.dueTick(), level)].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private int slotIndex(long tick, int level) {
+        return (int) Math.floorMod(tick / slotTicks[level], (long) wheelSize);
+    }
+
+    private int drainDue(Consumer<T> expired) {
+        int fired = due.size();
+        for (Entry<T> entry : due) {
+            expired.accept(entry.item());
+        }
+        due.clear();
+        size -= fired;
+        return fired;
+    }
+}
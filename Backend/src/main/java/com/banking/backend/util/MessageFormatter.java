@@ -12,14 +12,23 @@ public class MessageFormatter {
     // Use Locale.US or Locale.getDefault() based on your target audience
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("d/M/yy 'at' h:mm a", Locale.US);
 
-    public String formatRecipientMessage(String transactionId, BigDecimal amount, String senderName, BigDecimal newBalance, LocalDateTime timestamp) {
+    public String formatRecipientMessage(String transactionId, BigDecimal amount, String currency, String senderName, BigDecimal newBalance, LocalDateTime timestamp) {
+        String symbol = symbol(currency);
         return String.format(
-                "%s Confirmed. You have received Ksh%.2f from %s on %s. New balance is Ksh%.2f.",
-                transactionId, amount, senderName, timestamp.format(TIME_FORMATTER), newBalance
+                "%s Confirmed. You have received %s%.2f from %s on %s. New balance is %s%.2f.",
+                transactionId, symbol, amount, senderName, timestamp.format(TIME_FORMATTER), symbol, newBalance
         );
     }
 
-    public String formatSenderMessage(String transactionId, BigDecimal amount, String recipientName, BigDecimal newBalance, LocalDateTime timestamp) {
+    public String formatRecipientDigestMessage(int count, BigDecimal total, String currency, LocalDateTime from, LocalDateTime to, BigDecimal newBalance) {
+        String symbol = symbol(currency);
+        return String.format(
+                "You have received %d payments totalling %s%.2f between %s and %s. New balance is %s%.2f.",
+                count, symbol, total, from.format(TIME_FORMATTER), to.format(TIME_FORMATTER), symbol, newBalance
+        );
+    }
+
+    public String formatSenderMessage(String transactionId, BigDecimal amount, String currency, String recipientName, BigDecimal newBalance, LocalDateTime timestamp) {
         // The last BigDecimal value '499840.00' seems like a magic number.
         // It's better to calculate the remaining daily limit from the actual Account object
         // if this message is being constructed after the transaction is processed and saved.
@@ -37,11 +46,20 @@ public class MessageFormatter {
         // For the current structure, if you want this specific value to be dynamic:
         // You would need to pass remainingDailyAmount from NotificationService
         // or calculate it in NotificationProcessor after deserializing the message.
+        String symbol = symbol(currency);
         return String.format(
-                "%s Confirmed. Ksh%.2f paid to %s on %s. New balance is Ksh%.2f. Transaction cost, Ksh. 0.00. " +
-                        "Amount you can transact within the day is Ksh%.2f. Save frequent tills for quick payment.",
-                transactionId, amount, recipientName,
-                timestamp.format(TIME_FORMATTER), newBalance, new BigDecimal("499840.00").subtract(amount) // Still using magic number
+                "%s Confirmed. %s%.2f paid to %s on %s. New balance is %s%.2f. Transaction cost, %s 0.00. " +
+                        "Amount you can transact within the day is %s%.2f. Save frequent tills for quick payment.",
+                transactionId, symbol, amount, recipientName,
+                timestamp.format(TIME_FORMATTER), symbol, newBalance, symbol.trim(), symbol,
+                new BigDecimal("499840.00").subtract(amount) // Still using magic number
         );
     }
+
+    /**
+     * Kenyan shillings keep the familiar "Ksh" prefix; other currencies are shown by ISO code, e.g. "USD 10.00".
+     */
+    private static String symbol(String currency) {
+        return currency == null || "KES".equals(currency) ? "Ksh" : currency + " ";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.banking.backend.util;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Merges a busy recipient's credit notifications into periodic digests.
+ * <p>
+ * Every recipient gets a {@link TokenBucket}. While the bucket has tokens, notifications are
+ * passed through ({@link #tryCoalesce} returns false) and the caller sends them immediately, so
+ * low-volume recipients see no change. Once a recipient exceeds the rate, its notifications are
+ * absorbed into a digest that stays open for the configured window; until the digest is flushed
+ * every further notification joins it, which keeps the recipient's messages in order. A digest is
+ * handed to the sink when its window closes ({@link #flushDue}) or when it reaches the size cap.
+ * <p>
+ * Time is passed in by the caller as {@link System#nanoTime()} values, so the coalescer can be
+ * driven by simulated clocks in tests.
+ */
+public class NotificationDigestCoalescer {
+
+    /**
+     * A flushed digest.
+     *
+     * @param currency The recipient account's currency, which the total and balance are in.
+     * @param senderName The sender when every summarised transfer came from the same one, otherwise null.
+     */
+    public record Digest(String recipientId, String recipientName, String currency, int count, BigDecimal total, BigDecimal lastBalance,
+                         LocalDateTime firstTimestamp, LocalDateTime lastTimestamp, String lastTransactionId,
+                         String senderName) {
+    }
+
+    private static final class Recipient {
+        private final TokenBucket bucket;
+        private PendingDigest pending;
+
+        private Recipient(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    private static final class PendingDigest {
+        private final String recipientId;
+        private final String recipientName;
+        private final String currency;
+        private final long closesAtNanos;
+        private final LocalDateTime firstTimestamp;
+        private int count;
+        private BigDecimal total = BigDecimal.ZERO;
+        private BigDecimal lastBalance;
+        private LocalDateTime lastTimestamp;
+        private String lastTransactionId;
+        private String senderName;
+        private boolean multipleSenders;
+
+        private PendingDigest(String recipientId, String recipientName, String currency, long closesAtNanos,
+                              LocalDateTime firstTimestamp) {
+            this.recipientId = recipientId;
+            this.recipientName = recipientName;
+            this.currency = currency;
+            this.closesAtNanos = closesAtNanos;
+            this.firstTimestamp = firstTimestamp;
+        }
+
+        private void add(String sender, String transactionId, BigDecimal amount, BigDecimal balanceAfter, LocalDateTime timestamp) {
+            if (count == 0) {
+                senderName = sender;
+            } else if (!Objects.equals(senderName, sender)) {
+                multipleSenders = true;
+            }
+            count++;
+            total = total.add(amount);
+            lastBalance = balanceAfter;
+            lastTimestamp = timestamp;
+            lastTransactionId = transactionId;
+        }
+
+        private Digest toDigest() {
+            return new Digest(recipientId, recipientName, currency, count, total, lastBalance, firstTimestamp,
+                    lastTimestamp, lastTransactionId, multipleSenders ? null : senderName);
+        }
+    }
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long windowNanos;
+    private final long idleNanos;
+    private final int maxSize;
+    private final int maxTrackedRecipients;
+    private final Consumer<Digest> sink;
+    private final ConcurrentHashMap<String, Recipient> recipients = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingDigests = new AtomicInteger();
+
+    public NotificationDigestCoalescer(double permitsPerSecond, int burst, Duration window, int maxSize,
+                                       int maxTrackedRecipients, Consumer<Digest> sink) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.windowNanos = window.toNanos();
+        // A recipient whose bucket has been full for several windows carries no state worth keeping.
+        this.idleNanos = window.toNanos() * 10;
+        this.maxSize = maxSize;
+        this.maxTrackedRecipients = maxTrackedRecipients;
+        this.sink = sink;
+    }
+
+    /**
+     * Offers a credit notification for coalescing.
+     *
+     * @return false if the recipient is below the rate and the notification should be sent now;
+     * true if it was absorbed into a digest.
+     */
+    public boolean tryCoalesce(String recipientId, String recipientName, String currency, String senderName,
+                               String transactionId, BigDecimal amount, BigDecimal balanceAfter, LocalDateTime timestamp, long nowNanos) {
+        Recipient recipient = recipients.get(recipientId);
+        if (recipient == null) {
+            if (recipients.size() >= maxTrackedRecipients) {
+                return false;
+            }
+            recipient = recipients.computeIfAbsent(recipientId,
+                    id -> new Recipient(new TokenBucket(permitsPerSecond, burst, nowNanos)));
+        }
+
+        Digest full = null;
+        synchronized (recipient) {
+            if (recipient.pending == null) {
+                if (recipient.bucket.tryAcquire(nowNanos) == 0) {
+                    return false;
+                }
+                recipient.pending = new PendingDigest(recipientId, recipientName, currency, nowNanos + windowNanos, timestamp);
+                pendingDigests.incrementAndGet();
+            }
+            recipient.pending.add(senderName, transactionId, amount, balanceAfter, timestamp);
+            if (recipient.pending.count >= maxSize) {
+                full = take(recipient);
+            }
+        }
+        if (full != null) {
+            sink.accept(full);
+        }
+        return true;
+    }
+
+    /**
+     * Flushes every digest whose window has closed and forgets idle recipients.
+     *
+     * @return The number of digests flushed.
+     */
+    public int flushDue(long nowNanos) {
+        List<Digest> due = new ArrayList<>();
+        for (Map.Entry<String, Recipient> entry : recipients.entrySet()) {
+            Recipient recipient = entry.getValue();
+            synchronized (recipient) {
+                if (recipient.pending != null && nowNanos - recipient.pending.closesAtNanos >= 0) {
+                    due.add(take(recipient));
+                } else if (recipient.pending == null && recipient.bucket.isIdle(nowNanos, idleNanos)) {
+                    recipients.remove(entry.getKey(), recipient);
+                }
+            }
+        }
+        due.forEach(sink);
+        return due.size();
+    }
+
+    /**
+     * Flushes every open digest regardless of its window, e.g. on shutdown.
+     */
+    public int flushAll() {
+        List<Digest> open = new ArrayList<>();
+        for (Recipient recipient : recipients.values()) {
+            synchronized (recipient) {
+                if (recipient.pending != null) {
+                    open.add(take(recipient));
+                }
+            }
+        }
+        open.forEach(sink);
+        return open.size();
+    }
+
+    public int pendingDigests() {
+        return pendingDigests.get();
+    }
+
+    public int trackedRecipients() {
+        return recipients.size();
+    }
+
+    private Digest take(Recipient recipient) {
+        Digest digest = recipient.pending.toDigest();
+        recipient.pending = null;
+        pendingDigests.decrementAndGet();
+        return digest;
+    }
+}
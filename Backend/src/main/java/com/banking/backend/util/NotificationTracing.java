@@ -0,0 +1,69 @@
+package com.banking.backend.util;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.observation.transport.SenderContext;
+
+import java.time.Instant;
+
+/**
+ * How a notification's trace context and timings travel on its Service Bus message.
+ * <p>
+ * The trace context is written into the message's application properties by the sender's observation
+ * (as W3C {@code traceparent}), and read back by the consumer's, so the consumer's span joins the trace
+ * of the transfer that raised the notification. Alongside it go {@link #COMMITTED_AT} and
+ * {@link #ENQUEUED_AT}, in epoch milliseconds, from which the consumer measures total delivery latency
+ * and queue dwell time. Both are wall-clock times of the sending node, so skew between nodes shows up
+ * in the measurements.
+ */
+public final class NotificationTracing {
+
+    public static final String SEND_OBSERVATION = "banking.notifications.send";
+    public static final String PROCESS_OBSERVATION = "banking.notifications.process";
+    /** When the transfer the notification is about committed, or when a digest was closed. */
+    public static final String COMMITTED_AT = "committedAt";
+    /** When the message was handed to the Service Bus sender. */
+    public static final String ENQUEUED_AT = "enqueuedAt";
+
+    private NotificationTracing() {
+    }
+
+    public static SenderContext<ServiceBusMessage> senderContext(ServiceBusMessage message, String queueName) {
+        SenderContext<ServiceBusMessage> context = new SenderContext<>(
+                (carrier, key, value) -> carrier.getApplicationProperties().put(key, value));
+        context.setCarrier(message);
+        context.setContextualName(queueName + " send");
+        context.setRemoteServiceName("servicebus");
+        return context;
+    }
+
+    public static ReceiverContext<ServiceBusReceivedMessage> receiverContext(ServiceBusReceivedMessage message) {
+        ReceiverContext<ServiceBusReceivedMessage> context = new ReceiverContext<>((carrier, key) -> {
+            Object value = carrier.getApplicationProperties().get(key);
+            return value != null ? value.toString() : null;
+        });
+        context.setCarrier(message);
+        context.setContextualName("notification process");
+        context.setRemoteServiceName("servicebus");
+        return context;
+    }
+
+    /**
+     * @return The time stored under {@code property}, or null if the message does not carry it.
+     */
+    public static Instant instant(ServiceBusReceivedMessage message, String property) {
+        Object value = message.getApplicationProperties().get(property);
+        if (value instanceof Number number) {
+            return Instant.ofEpochMilli(number.longValue());
+        }
+        if (value != null) {
+            try {
+                return Instant.ofEpochMilli(Long.parseLong(value.toString()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
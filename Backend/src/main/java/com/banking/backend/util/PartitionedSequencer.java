@@ -0,0 +1,142 @@
+package com.banking.backend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Routes items by key into a fixed number of bounded queues, each drained by exactly one worker thread.
+ * <p>
+ * Items with the same key always land in the same partition, so they are handled one after another
+ * in submission order and never concurrently. A worker takes whatever has accumulated in its queue,
+ * up to {@code maxBatchSize} items, and hands it to the batch handler in one call; under load batches
+ * grow on their own, and when idle every item is handled as soon as it arrives. The list passed to the
+ * handler is reused for the next batch and must not be kept.
+ * <p>
+ * Queues are bounded: {@link #offer} fails fast instead of blocking when a partition is full, leaving
+ * the caller to push back on its own client.
+ */
+public class PartitionedSequencer<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedSequencer.class);
+    private static final long POLL_MILLIS = 100;
+
+    private final String name;
+    private final int maxBatchSize;
+    private final Consumer<List<T>> batchHandler;
+    private final List<BlockingQueue<T>> queues;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean accepting;
+
+    public PartitionedSequencer(String name, int partitions, int queueCapacity, int maxBatchSize, Consumer<List<T>> batchHandler) {
+        if (partitions < 1 || queueCapacity < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Partitions, queue capacity and batch size must be positive");
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.batchHandler = batchHandler;
+        this.queues = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+    }
+
+    public synchronized void start() {
+        if (!workers.isEmpty()) {
+            return;
+        }
+        accepting = true;
+        for (int p = 0; p < queues.size(); p++) {
+            BlockingQueue<T> queue = queues.get(p);
+            Thread worker = Thread.ofPlatform().name(name + "-" + p).daemon().unstarted(() -> drain(queue));
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Enqueues an item on its key's partition.
+     *
+     * @return false if the sequencer is not running or the partition's queue is full.
+     */
+    public boolean offer(Object key, T item) {
+        return accepting && queues.get(partitionOf(key)).offer(item);
+    }
+
+    public int partitionOf(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), queues.size());
+    }
+
+    public int partitions() {
+        return queues.size();
+    }
+
+    /**
+     * @return The number of items waiting across all partitions.
+     */
+    public int queued() {
+        int queued = 0;
+        for (BlockingQueue<T> queue : queues) {
+            queued += queue.size();
+        }
+        return queued;
+    }
+
+    /**
+     * Stops accepting items and waits for the workers to finish what is already queued.
+     *
+     * @return Items still queued when the timeout expired, or that raced with the shutdown.
+     */
+    public synchronized List<T> stop(Duration timeout) throws InterruptedException {
+        accepting = false;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                worker.join(Duration.ofNanos(remaining));
+            }
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        workers.clear();
+        List<T> leftover = new ArrayList<>();
+        queues.forEach(queue -> queue.drainTo(leftover));
+        return leftover;
+    }
+
+    private void drain(BlockingQueue<T> queue) {
+        List<T> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            T first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                if (!accepting) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            try {
+                batchHandler.accept(batch);
+            } catch (RuntimeException e) {
+                log.error("Sequencer {} failed to handle a batch of {} items", name, batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.banking.backend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A set of strings that answers "definitely absent" or "maybe present" in a few bits per element,
+ * and grows without being told its final size.
+ * <p>
+ * Elements go into a chain of fixed-size Bloom filters. Once the newest is full, a new one twice as
+ * large is added with half the false-positive rate of the one before, so however many filters are
+ * chained the overall rate stays below {@code falsePositiveRate}. A lookup checks every filter; adding
+ * only writes the newest, and skips elements that may already be present so that they do not use up
+ * its capacity. Nothing can be removed.
+ * <p>
+ * Lookups are lock-free and may run while elements are added; an element is visible to lookups once
+ * {@link #put} has returned. Adding is synchronized, since it is rare next to lookups.
+ */
+public class ScalableBloomFilter {
+
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+    private static final double LN2_SQUARED = Math.log(2) * Math.log(2);
+
+    private static final class Slice {
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+        private final long capacity;
+        private long elements;
+        private long setBits;
+
+        private Slice(long capacity, double falsePositiveRate) {
+            long wanted = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / LN2_SQUARED);
+            int wordCount = Math.toIntExact(Math.max(1, (wanted + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = wordCount * 64L;
+            this.hashes = Math.max(1, (int) Math.round(-Math.log(falsePositiveRate) / Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        private boolean mightContain(long hash1, long hash2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash1, long hash2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash1 + i * hash2, bits);
+                int word = (int) (bit >>> 6);
+                long current = words.get(word);
+                if ((current & (1L << bit)) == 0) {
+                    words.set(word, current | (1L << bit));
+                    setBits++;
+                }
+            }
+            elements++;
+        }
+
+        private double falsePositiveRate() {
+            return Math.pow((double) setBits / bits, hashes);
+        }
+    }
+
+    private final double falsePositiveRate;
+    private volatile Slice[] slices;
+    private volatile long size;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.slices = new Slice[]{new Slice(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * @return False if {@code key} was never added; true if it was, or, rarely, if it was not.
+     */
+    public boolean mightContain(String key) {
+        long hash1 = hash(key);
+        long hash2 = secondHash(hash1);
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds {@code key}.
+     *
+     * @return False if it may have been present already, in which case nothing was written.
+     */
+    public synchronized boolean put(String key) {
+        long hash1 = hash(key);
+        long hash2 = secondHash(hash1);
+        Slice[] current = slices;
+        for (Slice slice : current) {
+            if (slice.mightContain(hash1, hash2)) {
+                return false;
+            }
+        }
+        Slice newest = current[current.length - 1];
+        if (newest.elements >= newest.capacity) {
+            double sliceRate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, current.length);
+            Slice[] grown = new Slice[current.length + 1];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            newest = new Slice(newest.capacity * GROWTH_FACTOR, sliceRate);
+            grown[current.length] = newest;
+            slices = grown;
+        }
+        newest.put(hash1, hash2);
+        size++;
+        return true;
+    }
+
+    /**
+     * @return The number of elements added, not counting those skipped as possibly present.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return The memory taken by the bit arrays.
+     */
+    public synchronized long sizeInBytes() {
+        long bits = 0;
+        for (Slice slice : slices) {
+            bits += slice.bits;
+        }
+        return bits / 8;
+    }
+
+    /**
+     * @return The chance that a lookup of an element never added returns true, from how full each filter is.
+     */
+    public synchronized double expectedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Slice slice : slices) {
+            allNegative *= 1 - slice.falsePositiveRate();
+        }
+        return 1 - allNegative;
+    }
+
+    private static long hash(String key) {
+        // FNV-1a over the UTF-16 chars, then a finalizer so that similar keys spread over all 64 bits.
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long secondHash(long hash1) {
+        // Odd, so that stepping by it visits distinct bits.
+        return mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,79 @@
+package com.banking.backend.util;
+
+import java.time.Duration;
+
+/**
+ * Counts the SQL statements a thread executes, and the time spent in JDBC, while the scope is open.
+ * <p>
+ * Scopes nest per thread: a statement counts towards every scope open on the executing thread, so a
+ * service method's statements also show up in the HTTP request that called it. Work handed to other
+ * threads is not counted. A JDBC batch counts as one statement, since it is one round trip.
+ * Scopes must be closed in the reverse order they were opened, which try-with-resources guarantees:
+ * <pre>{@code
+ * try (SqlScope scope = SqlScope.open("transfer")) {
+ *     transactionService.transferFunds(request);
+ *     assertThat(scope.statements()).isEqualTo(7);
+ * }
+ * }</pre>
+ */
+public final class SqlScope implements AutoCloseable {
+
+    private static final ThreadLocal<SqlScope> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final SqlScope parent;
+    private int statements;
+    private long jdbcNanos;
+
+    private SqlScope(String name, SqlScope parent) {
+        this.name = name;
+        this.parent = parent;
+    }
+
+    public static SqlScope open(String name) {
+        SqlScope scope = new SqlScope(name, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Adds one executed statement to every scope open on the calling thread.
+     */
+    public static void recordStatement(long elapsedNanos) {
+        for (SqlScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.jdbcNanos += elapsedNanos;
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public Duration jdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    /**
+     * @return True if no other scope was open on this thread when this one was opened.
+     */
+    public boolean isOutermost() {
+        return parent == null;
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("SQL scope " + name + " closed out of order");
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.banking.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket implemented as a generic cell rate algorithm (GCRA).
+ * Instead of storing a token count and a refill timestamp, the bucket keeps a single
+ * "theoretical arrival time" (TAT) which is advanced by one emission interval for each
+ * admitted request. A request is admitted while the TAT stays within the burst tolerance
+ * of the current time, so acquiring a token is a single compare-and-set with no locking.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * @param permitsPerSecond The sustained refill rate of the bucket.
+     * @param burst The maximum number of requests that can be admitted back-to-back from a full bucket.
+     * @param nowNanos The current {@link System#nanoTime()} reading; the bucket starts full.
+     */
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket rate and burst must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Attempts to take one token from the bucket.
+     *
+     * @param nowNanos The current {@link System#nanoTime()} reading.
+     * @return {@code 0} if the request was admitted, otherwise the number of nanoseconds
+     * until a token becomes available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long newArrivalTime = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long overshoot = newArrivalTime - nowNanos - burstToleranceNanos;
+            if (overshoot > 0) {
+                return overshoot;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, newArrivalTime)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * A bucket that has been idle long enough to refill completely carries no state worth keeping,
+     * so callers may discard it and lazily recreate a full bucket on the next request.
+     *
+     * @param nowNanos The current {@link System#nanoTime()} reading.
+     * @param idleNanos How long the bucket must have been full before it is considered idle.
+     * @return true if the bucket is full and has been so for at least {@code idleNanos}.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrivalTime.get() >= idleNanos;
+    }
+}
@@ -0,0 +1,80 @@
+-- Baseline schema as previously created by Hibernate's ddl-auto from the entity mappings.
+-- Written with IF NOT EXISTS so it also applies cleanly to databases that ddl-auto already created
+-- (spring.flyway.baseline-version is 0, so V1 runs against those too), and brings their transaction table
+-- up to the shape below.
+
+CREATE TABLE IF NOT EXISTS account (
+    id                       BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_number           VARCHAR(255)   NOT NULL UNIQUE,
+    customer_name            VARCHAR(255),
+    customer_id              VARCHAR(255)   NOT NULL UNIQUE,
+    balance                  NUMERIC(38, 2) NOT NULL,
+    daily_transaction_limit  NUMERIC(38, 2) NOT NULL,
+    daily_transaction_amount NUMERIC(38, 2) NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS transaction_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transaction (
+    id               BIGINT         NOT NULL PRIMARY KEY,
+    transaction_id   VARCHAR(36)    NOT NULL,
+    transaction_type VARCHAR(255)   NOT NULL,
+    amount           NUMERIC(38, 2) NOT NULL,
+    description      VARCHAR(255),
+    timestamp        TIMESTAMP(6)   NOT NULL,
+    balance_after    NUMERIC(38, 2) NOT NULL,
+    account_id       BIGINT         NOT NULL REFERENCES account (id)
+);
+
+-- ddl-auto databases from before the sequence-generated id keep transaction_id as their primary key and have no
+-- id column. Give them one, numbered from transaction_seq in timestamp order as Hibernate would have, and move the
+-- primary key onto it so V2 can copy the rows across.
+DO $$
+DECLARE
+    primary_key TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = 'transaction' AND column_name = 'id') THEN
+        ALTER TABLE transaction ADD COLUMN id BIGINT;
+        UPDATE transaction t SET id = numbered.id
+        FROM (SELECT ordered.transaction_id, nextval('transaction_seq') AS id
+              FROM (SELECT transaction_id FROM transaction ORDER BY timestamp, transaction_id) ordered) numbered
+        WHERE t.transaction_id = numbered.transaction_id;
+        ALTER TABLE transaction ALTER COLUMN id SET NOT NULL;
+        SELECT conname INTO primary_key FROM pg_constraint WHERE conrelid = 'transaction'::regclass AND contype = 'p';
+        IF primary_key IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE transaction DROP CONSTRAINT %I', primary_key);
+        END IF;
+        ALTER TABLE transaction ADD PRIMARY KEY (id);
+    END IF;
+END $$;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_transaction_id ON transaction (transaction_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_account_timestamp ON transaction (account_id, timestamp, id);
+CREATE INDEX IF NOT EXISTS idx_transaction_timestamp ON transaction (timestamp);
+
+CREATE TABLE IF NOT EXISTS reconciliation_run (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    mode                 VARCHAR(16)  NOT NULL,
+    status               VARCHAR(16)  NOT NULL,
+    started_at           TIMESTAMP(6) NOT NULL,
+    finished_at          TIMESTAMP(6),
+    checked_since        TIMESTAMP(6),
+    accounts_checked     BIGINT       NOT NULL,
+    transactions_checked BIGINT       NOT NULL,
+    mismatches           BIGINT       NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS reconciliation_mismatch (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id             BIGINT         NOT NULL,
+    account_id         BIGINT         NOT NULL,
+    customer_id        VARCHAR(255),
+    mismatch_type      VARCHAR(32)    NOT NULL,
+    transaction_row_id BIGINT,
+    expected_amount    NUMERIC(38, 2),
+    actual_amount      NUMERIC(38, 2),
+    detected_at        TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_reconciliation_mismatch_run_id ON reconciliation_mismatch (run_id);
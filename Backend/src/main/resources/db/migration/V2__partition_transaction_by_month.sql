@@ -0,0 +1,47 @@
+-- Moves transaction onto monthly range partitions on timestamp.
+-- The primary key must include the partition key, so it becomes (id, timestamp); ids still come from
+-- transaction_seq and stay unique. Partitions covering the existing rows and the next three months are
+-- created here; PartitionMaintenanceService keeps creating future partitions and detaching expired ones.
+-- There is deliberately no DEFAULT partition: inserting outside the created range fails loudly instead
+-- of silently filling a catch-all partition that would block creating the real one later.
+
+ALTER TABLE transaction RENAME TO transaction_unpartitioned;
+ALTER INDEX IF EXISTS idx_transaction_transaction_id RENAME TO idx_transaction_unpartitioned_transaction_id;
+ALTER INDEX IF EXISTS idx_transaction_account_timestamp RENAME TO idx_transaction_unpartitioned_account_timestamp;
+ALTER INDEX IF EXISTS idx_transaction_timestamp RENAME TO idx_transaction_unpartitioned_timestamp;
+
+CREATE TABLE transaction (
+    id               BIGINT         NOT NULL,
+    transaction_id   VARCHAR(36)    NOT NULL,
+    transaction_type VARCHAR(255)   NOT NULL,
+    amount           NUMERIC(38, 2) NOT NULL,
+    description      VARCHAR(255),
+    timestamp        TIMESTAMP(6)   NOT NULL,
+    balance_after    NUMERIC(38, 2) NOT NULL,
+    account_id       BIGINT         NOT NULL REFERENCES account (id),
+    PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX idx_transaction_transaction_id ON transaction (transaction_id);
+CREATE INDEX idx_transaction_account_timestamp ON transaction (account_id, timestamp, id);
+CREATE INDEX idx_transaction_timestamp ON transaction (timestamp);
+
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(timestamp) FROM transaction_unpartitioned), now()))::date;
+    last_month  DATE := date_trunc('month', GREATEST((SELECT MAX(timestamp) FROM transaction_unpartitioned),
+                                                 now() + INTERVAL '3 months'))::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transaction FOR VALUES FROM (%L) TO (%L)',
+                       'transaction_' || to_char(month_start, 'YYYY_MM'),
+                       month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO transaction (id, transaction_id, transaction_type, amount, description, timestamp, balance_after, account_id)
+SELECT id, transaction_id, transaction_type, amount, description, timestamp, balance_after, account_id
+FROM transaction_unpartitioned;
+
+DROP TABLE transaction_unpartitioned;
@@ -0,0 +1,8 @@
+-- Accounts get a currency; existing accounts were all held in Kenyan shillings.
+-- Cross-currency transfers record the FX rate, and the version of the rate snapshot it came from,
+-- on both ledger legs. Adding columns to the partitioned parent adds them to every partition.
+
+ALTER TABLE account ADD COLUMN IF NOT EXISTS currency VARCHAR(3) NOT NULL DEFAULT 'KES';
+
+ALTER TABLE transaction ADD COLUMN IF NOT EXISTS fx_rate NUMERIC(19, 10);
+ALTER TABLE transaction ADD COLUMN IF NOT EXISTS fx_rate_version BIGINT;
@@ -0,0 +1,22 @@
+-- Future-dated and recurring transfers. next_run_at is the occurrence still to run and is moved
+-- forward in the same transaction as the transfer it executes.
+
+CREATE TABLE IF NOT EXISTS scheduled_transfer (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_user_id VARCHAR(255)   NOT NULL,
+    to_user_id   VARCHAR(255)   NOT NULL,
+    amount       NUMERIC(38, 2) NOT NULL,
+    description  VARCHAR(255),
+    recurrence   VARCHAR(16)    NOT NULL,
+    start_at     TIMESTAMP(6)   NOT NULL,
+    end_at       TIMESTAMP(6),
+    next_run_at  TIMESTAMP(6),
+    status       VARCHAR(16)    NOT NULL,
+    run_count    BIGINT         NOT NULL,
+    last_run_at  TIMESTAMP(6),
+    last_error   VARCHAR(255),
+    created_at   TIMESTAMP(6)   NOT NULL
+);
+
+-- Loading the next hour of due schedules only reads active rows.
+CREATE INDEX IF NOT EXISTS idx_scheduled_transfer_due ON scheduled_transfer (status, next_run_at);
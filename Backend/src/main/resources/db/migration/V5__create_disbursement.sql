@@ -0,0 +1,38 @@
+-- Bulk disbursements (payroll): one debit of the sender for the whole job, then one credit per line.
+-- Lines are claimed from PENDING in the same transaction as their credit, so a job resumed after a
+-- crash continues from the last committed chunk.
+
+CREATE TABLE IF NOT EXISTS disbursement_job (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_user_id     VARCHAR(255)   NOT NULL,
+    description      VARCHAR(255),
+    transaction_id   VARCHAR(36)    NOT NULL,
+    status           VARCHAR(16)    NOT NULL,
+    line_count       INTEGER        NOT NULL,
+    total_amount     NUMERIC(38, 2) NOT NULL,
+    workers          INTEGER        NOT NULL,
+    lines_completed  INTEGER        NOT NULL,
+    lines_failed     INTEGER        NOT NULL,
+    amount_completed NUMERIC(38, 2) NOT NULL,
+    amount_refunded  NUMERIC(38, 2) NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    -- Touched by every committed chunk; a running job untouched for a while has lost its workers.
+    updated_at       TIMESTAMP(6)   NOT NULL,
+    finished_at      TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS disbursement_line (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_id          BIGINT         NOT NULL REFERENCES disbursement_job (id),
+    line_number     INTEGER        NOT NULL,
+    to_user_id      VARCHAR(255)   NOT NULL,
+    amount          NUMERIC(38, 2) NOT NULL,
+    partition_no    INTEGER        NOT NULL,
+    status          VARCHAR(16)    NOT NULL,
+    credited_amount NUMERIC(38, 2),
+    failure_reason  VARCHAR(255),
+    processed_at    TIMESTAMP(6)
+);
+
+-- Serves both a worker's next chunk (job, PENDING, partition) and the failed lines of a job.
+CREATE INDEX IF NOT EXISTS idx_disbursement_line_job_status ON disbursement_line (job_id, status, partition_no, id);
@@ -0,0 +1,31 @@
+-- Per-customer notification inbox, filled in batches by the notification consumer.
+-- A redelivered message hits the unique key and is skipped, so each notification is stored once.
+
+CREATE TABLE IF NOT EXISTS notification_inbox (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id          VARCHAR(255)   NOT NULL,
+    transaction_id   VARCHAR(36)    NOT NULL,
+    transaction_type VARCHAR(32)    NOT NULL,
+    message          VARCHAR(1024)  NOT NULL,
+    amount           NUMERIC(38, 2),
+    currency         VARCHAR(3),
+    recipient_name   VARCHAR(255),
+    sender_name      VARCHAR(255),
+    digest_count     INTEGER,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    received_at      TIMESTAMP(6)   NOT NULL,
+    read_at          TIMESTAMP(6),
+    CONSTRAINT uk_notification_inbox_user_transaction UNIQUE (user_id, transaction_id, transaction_type)
+);
+
+-- Serves keyset pages, newest first: WHERE user_id = ? AND id < ? ORDER BY id DESC.
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_user_id ON notification_inbox (user_id, id);
+
+-- Lets marking read skip notifications already read; rows leave it once read, so it stays small.
+CREATE INDEX IF NOT EXISTS idx_notification_inbox_unread ON notification_inbox (user_id, id) WHERE read_at IS NULL;
+
+-- The badge count, kept up to date by the same transactions that insert and mark notifications read.
+CREATE TABLE IF NOT EXISTS notification_inbox_state (
+    user_id      VARCHAR(255) PRIMARY KEY,
+    unread_count BIGINT       NOT NULL
+);
@@ -0,0 +1,29 @@
+-- End-of-day batch: interest accrual, monthly fees and the rollover of daily limits, once per business date.
+-- Accounts are split into id ranges; each range records how far it has got in the same transaction as the
+-- postings of each chunk, so an interrupted run resumes after its last committed chunk.
+
+CREATE TABLE IF NOT EXISTS end_of_day_run (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    business_date        DATE         NOT NULL UNIQUE,
+    status               VARCHAR(16)  NOT NULL,
+    workers              INTEGER      NOT NULL,
+    started_at           TIMESTAMP(6) NOT NULL,
+    finished_at          TIMESTAMP(6),
+    accounts_processed   BIGINT       NOT NULL,
+    transactions_written BIGINT       NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS end_of_day_partition (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    run_id               BIGINT       NOT NULL REFERENCES end_of_day_run (id),
+    partition_no         INTEGER      NOT NULL,
+    first_account_id     BIGINT       NOT NULL,
+    last_account_id      BIGINT       NOT NULL,
+    -- Checkpoint: the first account id not yet processed.
+    next_account_id      BIGINT       NOT NULL,
+    accounts_processed   BIGINT       NOT NULL,
+    transactions_written BIGINT       NOT NULL,
+    updated_at           TIMESTAMP(6) NOT NULL,
+    completed_at         TIMESTAMP(6),
+    CONSTRAINT uk_end_of_day_partition_run_partition UNIQUE (run_id, partition_no)
+);
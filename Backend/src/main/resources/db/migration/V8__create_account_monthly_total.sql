@@ -0,0 +1,14 @@
+-- Per-account totals by month and transaction type, kept up to date by the transactions that write the ledger,
+-- so spending analytics read a handful of rows instead of scanning months of transactions.
+-- Existing history is not copied here: run the monthly totals rebuild once after this migration.
+
+CREATE TABLE IF NOT EXISTS account_monthly_total (
+    account_id        BIGINT         NOT NULL REFERENCES account (id),
+    -- First day of the month of the transactions' timestamps.
+    month_start       DATE           NOT NULL,
+    transaction_type  VARCHAR(32)    NOT NULL,
+    total_amount      NUMERIC(38, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    -- Serves an account's range of months as one index range read, in month order.
+    PRIMARY KEY (account_id, month_start, transaction_type)
+);
@@ -0,0 +1,4 @@
+-- Counts the end-of-day rollovers of an account's daily limit. Allowance is leased and given back under the
+-- epoch it was taken in, so allowance taken before a rollover is never subtracted from the next day's total.
+
+ALTER TABLE account ADD COLUMN IF NOT EXISTS limit_epoch BIGINT NOT NULL DEFAULT 0;
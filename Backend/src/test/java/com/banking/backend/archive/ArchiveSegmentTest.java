@@ -0,0 +1,126 @@
+package com.banking.backend.archive;
+
+import com.banking.backend.enums.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveSegmentTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2019, 3);
+    private static final int ACCOUNTS = 300;
+    private static final int ROWS_PER_ACCOUNT = 40;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEveryRecordAcrossManyBlocks() throws IOException {
+        List<ArchivedTransaction> written = generate();
+        Path file = write(written, 512);
+
+        try (ArchiveSegment segment = ArchiveSegment.open(file)) {
+            assertThat(segment.month()).isEqualTo(MONTH);
+            assertThat(segment.recordCount()).isEqualTo(written.size());
+            assertThat(segment.blockCount()).isGreaterThan(100);
+            List<ArchivedTransaction> read = new ArrayList<>();
+            assertThat(segment.scan(read::add)).isEqualTo(written.size());
+            assertThat(read).isEqualTo(written);
+        }
+    }
+
+    @Test
+    void findsOneAccountsRowsWithinTheRange() throws IOException {
+        List<ArchivedTransaction> written = generate();
+        Path file = write(written, 512);
+        LocalDateTime from = MONTH.atDay(5).atStartOfDay();
+        LocalDateTime to = MONTH.atDay(20).atStartOfDay();
+
+        try (ArchiveSegment segment = ArchiveSegment.open(file)) {
+            for (long accountId : new long[]{1, 2, 150, ACCOUNTS}) {
+                List<ArchivedTransaction> expected = written.stream()
+                        .filter(t -> t.accountId() == accountId && !t.timestamp().isBefore(from) && t.timestamp().isBefore(to))
+                        .toList();
+                assertThat(expected).isNotEmpty();
+                assertThat(segment.findByAccount(accountId, from, to)).isEqualTo(expected);
+            }
+            assertThat(segment.findByAccount(ACCOUNTS + 1, from, to)).isEmpty();
+        }
+    }
+
+    @Test
+    void findsTheLastRecordAtOrBeforeAndTheFirstAfterAnInstant() throws IOException {
+        List<ArchivedTransaction> written = generate();
+        Path file = write(written, 512);
+
+        try (ArchiveSegment segment = ArchiveSegment.open(file)) {
+            for (long accountId : new long[]{1, 2, 150, ACCOUNTS, ACCOUNTS + 1}) {
+                List<ArchivedTransaction> rows = written.stream().filter(t -> t.accountId() == accountId).toList();
+                // Before the first row, on rows that share a timestamp, between rows and after the last row.
+                for (LocalDateTime asOf : List.of(MONTH.atDay(1).atStartOfDay().minusNanos(1000),
+                        MONTH.atDay(1).atStartOfDay().plusHours(54).plusNanos(123_000L),
+                        MONTH.atDay(12).atTime(13, 0), MONTH.atEndOfMonth().atTime(23, 59))) {
+                    assertThat(segment.findLast(accountId, asOf)).isEqualTo(
+                            rows.stream().filter(t -> !t.timestamp().isAfter(asOf)).reduce((first, second) -> second));
+                    assertThat(segment.findFirstAfter(accountId, asOf)).isEqualTo(
+                            rows.stream().filter(t -> t.timestamp().isAfter(asOf)).findFirst());
+                }
+            }
+        }
+    }
+
+    @Test
+    void rejectsOutOfOrderRecords() throws IOException {
+        Path file = directory.resolve("unordered.seg");
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(file, MONTH, 512)) {
+            writer.append(record(1, 2, MONTH.atDay(2).atStartOfDay()));
+            assertThatThrownBy(() -> writer.append(record(2, 1, MONTH.atDay(3).atStartOfDay())))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+        // An unfinished writer leaves nothing behind.
+        assertThat(Files.list(directory)).isEmpty();
+    }
+
+    private Path write(List<ArchivedTransaction> records, int blockSize) throws IOException {
+        Path file = directory.resolve("transactions-2019-03.seg");
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(file, MONTH, blockSize)) {
+            for (ArchivedTransaction record : records) {
+                writer.append(record);
+            }
+            writer.finish();
+        }
+        return file;
+    }
+
+    private static List<ArchivedTransaction> generate() {
+        List<ArchivedTransaction> records = new ArrayList<>();
+        long id = 0;
+        for (long account = 1; account <= ACCOUNTS; account++) {
+            for (int row = 0; row < ROWS_PER_ACCOUNT; row++) {
+                // Spread over the month with sub-second precision; some rows share a timestamp.
+                LocalDateTime timestamp = MONTH.atDay(1).atStartOfDay().plusHours(row * 18L).plusNanos((row / 2) * 123_000L);
+                records.add(record(++id, account, timestamp));
+            }
+        }
+        return records;
+    }
+
+    private static ArchivedTransaction record(long id, long accountId, LocalDateTime timestamp) {
+        boolean debit = id % 3 == 0;
+        return new ArchivedTransaction(id, accountId, "TX" + id,
+                debit ? TransactionType.TRANSFER_OUT : TransactionType.TRANSFER_IN,
+                debit ? BigDecimal.valueOf(-1250, 2) : BigDecimal.valueOf(4000, 2),
+                id % 5 == 0 ? null : "Transfer " + id, timestamp, BigDecimal.valueOf(100_000 + id, 2));
+    }
+}
@@ -0,0 +1,163 @@
+package com.banking.backend.azure.messagelistener;
+
+import com.azure.core.util.BinaryData;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessageContext;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import com.banking.backend.config.notification.NotificationDigestProperties;
+import com.banking.backend.config.notification.NotificationInboxProperties;
+import com.banking.backend.config.notification.NotificationSendProperties;
+import com.banking.backend.model.Account;
+import com.banking.backend.service.NotificationService;
+import com.banking.backend.service.interfaces.INotificationInboxService;
+import com.banking.backend.service.interfaces.INotificationSpoolService;
+import com.banking.backend.util.MessageFormatter;
+import com.banking.backend.util.NotificationTracing;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingReceiverTracingObservationHandler;
+import io.micrometer.tracing.handler.PropagatingSenderTracingObservationHandler;
+import io.micrometer.tracing.otel.bridge.OtelBaggageManager;
+import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
+import io.micrometer.tracing.otel.bridge.OtelPropagator;
+import io.micrometer.tracing.otel.bridge.OtelTracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationProcessorTest {
+
+    @Test
+    void consumerSpanJoinsTheTransferTraceAndLatenciesAreRecorded() {
+        InMemorySpanExporter exporter = InMemorySpanExporter.create();
+        ObservationRegistry observationRegistry = tracedRegistry(exporter);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+        List<ServiceBusMessage> sent = new ArrayList<>();
+        ServiceBusSenderAsyncClient sender = mock(ServiceBusSenderAsyncClient.class);
+        when(sender.sendMessage(any(ServiceBusMessage.class))).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return Mono.empty();
+        });
+        NotificationDigestProperties digestProperties = new NotificationDigestProperties();
+        digestProperties.setEnabled(false);
+        NotificationService notificationService = new NotificationService(new MessageFormatter(), () -> sender, () -> sender,
+                objectMapper, new NotificationSendProperties(), digestProperties, new SimpleMeterRegistry(), observationRegistry,
+                mock(INotificationSpoolService.class));
+        ReflectionTestUtils.setField(notificationService, "queueName", "transaction-notifications-queue");
+
+        // Committed 40 ms ago, as if sending had been held up.
+        LocalDateTime committedAt = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(40));
+        Observation.createNotStarted("banking.transfer", observationRegistry).observe(() ->
+                notificationService.sendTransferNotifications("TX1", account("alice", "Alice"), account("bob", "Bob"),
+                        BigDecimal.TEN, BigDecimal.TEN, committedAt));
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(0).getApplicationProperties()).containsKeys("traceparent",
+                NotificationTracing.ENQUEUED_AT, NotificationTracing.COMMITTED_AT);
+
+        INotificationInboxService inbox = mock(INotificationInboxService.class);
+        when(inbox.store(any())).thenReturn(CompletableFuture.completedFuture(null));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NotificationProcessor processor = new NotificationProcessor(() -> null, objectMapper, inbox,
+                new NotificationInboxProperties(), meterRegistry, observationRegistry, true);
+        List<ServiceBusReceivedMessageContext> contexts = new ArrayList<>();
+        for (ServiceBusMessage message : sent) {
+            ServiceBusReceivedMessageContext context = received(message);
+            processor.handleMessage(context);
+            contexts.add(context);
+        }
+        contexts.forEach(context -> verify(context).complete());
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+        SpanData transfer = span(spans, "banking.transfer");
+        List<SpanData> sends = spans.stream().filter(span -> span.getName().endsWith("send")).toList();
+        List<SpanData> processes = spans.stream().filter(span -> span.getName().equals("notification process")).toList();
+        assertThat(sends).hasSize(2);
+        assertThat(processes).hasSize(2);
+        assertThat(sends).allSatisfy(send -> {
+            assertThat(send.getTraceId()).isEqualTo(transfer.getTraceId());
+            assertThat(send.getParentSpanId()).isEqualTo(transfer.getSpanId());
+        });
+        assertThat(processes).allSatisfy(process -> {
+            assertThat(process.getTraceId()).isEqualTo(transfer.getTraceId());
+            assertThat(sends).anySatisfy(send -> assertThat(process.getParentSpanId()).isEqualTo(send.getSpanId()));
+        });
+
+        assertThat(meterRegistry.get("banking.notifications.dwell").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("banking.notifications.delivery").tag("kind", "transfer").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(80);
+        assertThat(meterRegistry.get("banking.notifications.delivery").tag("kind", "digest").timer().count()).isZero();
+    }
+
+    /**
+     * An observation registry that traces with OpenTelemetry, as Spring Boot sets it up, and exports to {@code exporter}.
+     */
+    private static ObservationRegistry tracedRegistry(InMemorySpanExporter exporter) {
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        io.opentelemetry.api.trace.Tracer otelTracer = tracerProvider.get("test");
+        OtelCurrentTraceContext currentTraceContext = new OtelCurrentTraceContext();
+        OtelTracer tracer = new OtelTracer(otelTracer, currentTraceContext, event -> { },
+                new OtelBaggageManager(currentTraceContext, List.of(), List.of()));
+        OtelPropagator propagator = new OtelPropagator(ContextPropagators.create(W3CTraceContextPropagator.getInstance()), otelTracer);
+
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler.FirstMatchingCompositeObservationHandler(
+                new PropagatingSenderTracingObservationHandler<>(tracer, propagator),
+                new PropagatingReceiverTracingObservationHandler<>(tracer, propagator),
+                new DefaultTracingObservationHandler(tracer)));
+        return registry;
+    }
+
+    /**
+     * The message as the processor would receive it: same body and application properties.
+     */
+    private static ServiceBusReceivedMessageContext received(ServiceBusMessage message) {
+        ServiceBusReceivedMessage receivedMessage = mock(ServiceBusReceivedMessage.class);
+        when(receivedMessage.getBody()).thenReturn(BinaryData.fromString(message.getBody().toString()));
+        when(receivedMessage.getApplicationProperties()).thenReturn(message.getApplicationProperties());
+        ServiceBusReceivedMessageContext context = mock(ServiceBusReceivedMessageContext.class);
+        when(context.getMessage()).thenReturn(receivedMessage);
+        return context;
+    }
+
+    private static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream().filter(span -> span.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    private static Account account(String customerId, String name) {
+        Account account = new Account();
+        account.setCustomerId(customerId);
+        account.setCustomerName(name);
+        account.setBalance(BigDecimal.valueOf(1000));
+        return account;
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.config.admission.AdmissionControlProperties;
+import com.banking.backend.service.AdmissionControlService;
+import com.banking.backend.util.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request overhead admission control adds to an admitted transfer.
+ * The tier is configured with a rate far above what the benchmark can reach so every call
+ * takes the admitted path, which is the cost paid by well-behaved customers.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.AdmissionControlBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdmissionControlBenchmark {
+
+    @Param({"1000", "100000"})
+    public int customers;
+
+    private AdmissionControlService admissionControlService;
+    private TokenBucket singleBucket;
+    private String[] customerIds;
+
+    @Setup
+    public void setUp() {
+        AdmissionControlProperties.Tier unlimited = new AdmissionControlProperties.Tier();
+        unlimited.setRequestsPerSecond(1_000_000_000d);
+        unlimited.setBurst(1_000_000);
+
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setMaxTrackedCustomers(customers * 2);
+        properties.getTiers().put("standard", unlimited);
+        admissionControlService = new AdmissionControlService(properties, new SimpleMeterRegistry());
+
+        customerIds = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = "user" + i;
+            admissionControlService.admitTransfer(customerIds[i]);
+        }
+        singleBucket = new TokenBucket(1_000_000_000d, 1_000_000, System.nanoTime());
+    }
+
+    @Benchmark
+    public long tokenBucketAcquire() {
+        return singleBucket.tryAcquire(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void admitTransfer() {
+        admissionControlService.admitTransfer(customerIds[ThreadLocalRandom.current().nextInt(customers)]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AdmissionControlBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,105 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.archive.ArchiveSegment;
+import com.banking.backend.archive.ArchiveSegmentWriter;
+import com.banking.backend.archive.ArchivedTransaction;
+import com.banking.backend.enums.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold archive on a one-month segment of two million transactions over 100,000
+ * accounts: full-segment scan throughput (records decoded per second) and the latency of a
+ * random account's history lookup, which is one binary search over the sparse index plus one
+ * or two block decompressions.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.ArchiveSegmentBenchmark}
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveSegmentBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2019, 3);
+    private static final int ACCOUNTS = 100_000;
+    private static final int ROWS_PER_ACCOUNT = 20;
+
+    @Param({"16384", "65536"})
+    public int blockSize;
+
+    private Path directory;
+    private ArchiveSegment segment;
+    private final LocalDateTime from = MONTH.atDay(1).atStartOfDay();
+    private final LocalDateTime to = MONTH.plusMonths(1).atDay(1).atStartOfDay();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("archive-benchmark");
+        Path file = directory.resolve("transactions-2019-03.seg");
+        long id = 0;
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(file, MONTH, blockSize)) {
+            for (long account = 1; account <= ACCOUNTS; account++) {
+                BigDecimal balance = BigDecimal.valueOf(100_000, 2);
+                for (int row = 0; row < ROWS_PER_ACCOUNT; row++) {
+                    BigDecimal amount = row % 2 == 0 ? BigDecimal.valueOf(2500, 2) : BigDecimal.valueOf(-1000, 2);
+                    balance = balance.add(amount);
+                    writer.append(new ArchivedTransaction(++id, account, Long.toHexString(id * 0x9E3779B97F4A7C15L),
+                            amount.signum() > 0 ? TransactionType.TRANSFER_IN : TransactionType.TRANSFER_OUT, amount,
+                            "Transfer " + (account * 31 % ACCOUNTS), from.plusMinutes(row * 2_000L + account % 1_000), balance));
+                }
+            }
+            writer.finish();
+        }
+        segment = ArchiveSegment.open(file);
+        System.out.printf("%nSegment with block size %d: %d records, %d blocks, %d bytes%n",
+                blockSize, segment.recordCount(), segment.blockCount(), Files.size(file));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        segment.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /** Reported as records decoded per second, since one invocation scans every record. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ACCOUNTS * ROWS_PER_ACCOUNT)
+    public long scan(Blackhole blackhole) {
+        return segment.scan(blackhole::consume);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object randomAccountLookup() {
+        long account = 1 + ThreadLocalRandom.current().nextInt(ACCOUNTS);
+        return segment.findByAccount(account, from, to);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ArchiveSegmentBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
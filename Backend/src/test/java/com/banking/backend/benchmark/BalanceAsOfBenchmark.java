@@ -0,0 +1,170 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.archive.ArchiveSegment;
+import com.banking.backend.archive.ArchiveSegmentWriter;
+import com.banking.backend.archive.ArchivedTransaction;
+import com.banking.backend.enums.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a point-in-time balance read from {@code balance_after} with replaying the history, on
+ * an account with two million transactions among 1,000 ordinary accounts:
+ * <ul>
+ *     <li>{@code seek} and {@code replay}: the database query of {@code TransactionRepository.findLastBalances}
+ *     against summing every amount up to the instant, on an embedded H2;</li>
+ *     <li>{@code batchSeek}: the same query for all 1,000 ordinary accounts at once, as a month-end report does;</li>
+ *     <li>{@code archiveSeek} and {@code archiveReplay}: the same account as one month's archive segment.</li>
+ * </ul>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.BalanceAsOfBenchmark}
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BalanceAsOfBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2019, 3);
+    private static final long HOT_ACCOUNT = 1;
+    private static final int HOT_TRANSACTIONS = 2_000_000;
+    private static final int ACCOUNTS = 1_000;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 100;
+    private static final BigDecimal OPENING = BigDecimal.valueOf(100_000, 2);
+    private static final String SEEK = "SELECT balance_after FROM transaction WHERE account_id = ? " +
+            "AND timestamp >= ? AND timestamp <= ? ORDER BY account_id DESC, timestamp DESC, id DESC LIMIT 1";
+    private static final String BATCH_SEEK = "SELECT a.id, (SELECT t.balance_after FROM transaction t WHERE t.account_id = a.id " +
+            "AND t.timestamp >= ? AND t.timestamp <= ? ORDER BY t.account_id DESC, t.timestamp DESC, t.id DESC LIMIT 1) " +
+            "FROM account a WHERE a.id IN (" + String.join(", ", Collections.nCopies(ACCOUNTS, "?")) + ")";
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private Path directory;
+    private ArchiveSegment segment;
+    private final LocalDateTime from = MONTH.atDay(1).atStartOfDay();
+    private final long monthSeconds = MONTH.lengthOfMonth() * 86_400L;
+
+    @Setup
+    public void setUp() throws IOException {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE account (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE transaction (id BIGINT PRIMARY KEY, account_id BIGINT, amount NUMERIC(38, 2), " +
+                "balance_after NUMERIC(38, 2), timestamp TIMESTAMP)");
+        // PostgreSQL answers the seek with a backward scan of idx_transaction_account_timestamp. H2 cannot scan an
+        // index backwards, so the same access path is declared as a descending index here.
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_account_timestamp ON transaction (account_id DESC, timestamp DESC, id DESC)");
+
+        directory = Files.createTempDirectory("balance-benchmark");
+        Path file = directory.resolve("transactions-2019-03.seg");
+        long id = 0;
+        try (ArchiveSegmentWriter writer = new ArchiveSegmentWriter(file, MONTH, 64 * 1024)) {
+            for (long account = HOT_ACCOUNT; account <= HOT_ACCOUNT + ACCOUNTS; account++) {
+                jdbcTemplate.update("INSERT INTO account (id) VALUES (?)", account);
+                int transactions = account == HOT_ACCOUNT ? HOT_TRANSACTIONS : TRANSACTIONS_PER_ACCOUNT;
+                BigDecimal balance = OPENING;
+                List<Object[]> rows = new ArrayList<>();
+                for (int t = 0; t < transactions; t++) {
+                    BigDecimal amount = t % 2 == 0 ? BigDecimal.valueOf(2500, 2) : BigDecimal.valueOf(-1000, 2);
+                    balance = balance.add(amount);
+                    LocalDateTime timestamp = from.plusNanos(monthSeconds * 1_000_000_000L / transactions * t / 1_000 * 1_000);
+                    rows.add(new Object[]{++id, account, amount, balance, Timestamp.valueOf(timestamp)});
+                    writer.append(new ArchivedTransaction(id, account, "TX" + id,
+                            amount.signum() > 0 ? TransactionType.TRANSFER_IN : TransactionType.TRANSFER_OUT, amount,
+                            null, timestamp, balance));
+                    if (rows.size() == 10_000 || t == transactions - 1) {
+                        jdbcTemplate.batchUpdate("INSERT INTO transaction (id, account_id, amount, balance_after, timestamp) " +
+                                "VALUES (?, ?, ?, ?, ?)", rows);
+                        rows.clear();
+                    }
+                }
+            }
+            writer.finish();
+        }
+        segment = ArchiveSegment.open(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        database.shutdown();
+        segment.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public BigDecimal seek() {
+        return jdbcTemplate.queryForObject(SEEK, BigDecimal.class, HOT_ACCOUNT, Timestamp.valueOf(from),
+                Timestamp.valueOf(randomInstant()));
+    }
+
+    @Benchmark
+    public BigDecimal replay() {
+        BigDecimal sum = jdbcTemplate.queryForObject("SELECT SUM(amount) FROM transaction WHERE account_id = ? AND timestamp <= ?",
+                BigDecimal.class, HOT_ACCOUNT, Timestamp.valueOf(randomInstant()));
+        return OPENING.add(sum != null ? sum : BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public List<BigDecimal> batchSeek() {
+        Object[] parameters = new Object[ACCOUNTS + 2];
+        parameters[0] = Timestamp.valueOf(from);
+        parameters[1] = Timestamp.valueOf(randomInstant());
+        for (int a = 0; a < ACCOUNTS; a++) {
+            parameters[a + 2] = HOT_ACCOUNT + 1 + a;
+        }
+        return jdbcTemplate.query(BATCH_SEEK, (rs, row) -> rs.getBigDecimal(2), parameters);
+    }
+
+    @Benchmark
+    public Object archiveSeek() {
+        return segment.findLast(HOT_ACCOUNT, randomInstant());
+    }
+
+    @Benchmark
+    public BigDecimal archiveReplay() {
+        BigDecimal balance = OPENING;
+        for (ArchivedTransaction transaction : segment.findByAccount(HOT_ACCOUNT, from, randomInstant().plusNanos(1_000))) {
+            balance = balance.add(transaction.amount());
+        }
+        return balance;
+    }
+
+    private LocalDateTime randomInstant() {
+        return from.plusSeconds(ThreadLocalRandom.current().nextLong(monthSeconds));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BalanceAsOfBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.spool.DiskSpool;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast notifications can be appended to the disk spool when Service Bus is down: appends that
+ * only reach the page cache, which survive the JVM crashing, against appends forced to the disk one by one,
+ * which also survive the machine crashing. Every iteration starts from an empty spool with 64 MiB segments,
+ * so the cost of rotating segments is included.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.DiskSpoolBenchmark}
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DiskSpoolBenchmark {
+
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    /** About the size of a serialized transaction notification, and a large one. */
+    @Param({"400", "4096"})
+    public int payloadSize;
+
+    private Path directory;
+    private DiskSpool spool;
+    private byte[] payload;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws IOException {
+        payload = new byte[payloadSize];
+        Arrays.fill(payload, (byte) 'x');
+        directory = Files.createTempDirectory("spool-benchmark");
+        spool = DiskSpool.open(directory, SEGMENT_BYTES, 1024);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        spool.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean append() throws IOException {
+        return spool.append(payload);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean appendAndForce() throws IOException {
+        boolean appended = spool.append(payload);
+        spool.force();
+        return appended;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DiskSpoolBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
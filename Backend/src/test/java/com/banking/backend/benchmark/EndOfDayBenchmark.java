@@ -0,0 +1,134 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.config.endofday.EndOfDayProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.enums.EndOfDayRunStatus;
+import com.banking.backend.model.EndOfDayRun;
+import com.banking.backend.service.EndOfDayService;
+import com.banking.backend.service.MonthlyTotalsService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-of-day throughput in accounts per second for different numbers of workers, over 200,000
+ * accounts on an embedded H2 in PostgreSQL mode. Every operation is a whole run for a new business date,
+ * on a fee day: each account with a balance gets an interest entry and most get a fee entry, and a third
+ * of the accounts have a daily total to roll over. The ledger and the monthly totals are emptied between
+ * runs, outside the measurement, so every run inserts into tables of the same size.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.EndOfDayBenchmark}
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EndOfDayBenchmark {
+
+    private static final int ACCOUNTS = 200_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EndOfDayService service;
+    private LocalDate businessDate = LocalDate.of(2025, 1, 1);
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:eod" + workers + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        config.setMaximumPoolSize(workers + 2);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE account (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "balance NUMERIC(38, 2) NOT NULL, currency VARCHAR(3) NOT NULL, daily_transaction_amount NUMERIC(38, 2) NOT NULL, " +
+                "limit_epoch BIGINT NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE SEQUENCE transaction_seq START WITH 1 INCREMENT BY 50");
+        jdbcTemplate.execute("CREATE TABLE transaction (id BIGINT PRIMARY KEY, transaction_id VARCHAR(36) NOT NULL, " +
+                "transaction_type VARCHAR(255) NOT NULL, amount NUMERIC(38, 2) NOT NULL, description VARCHAR(255), " +
+                "timestamp TIMESTAMP(6) NOT NULL, balance_after NUMERIC(38, 2) NOT NULL, account_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_transaction_id ON transaction (transaction_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_account_timestamp ON transaction (account_id, timestamp, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_timestamp ON transaction (timestamp)");
+        jdbcTemplate.execute("CREATE TABLE account_monthly_total (account_id BIGINT NOT NULL, month_start DATE NOT NULL, " +
+                "transaction_type VARCHAR(32) NOT NULL, total_amount NUMERIC(38, 2) NOT NULL, transaction_count BIGINT NOT NULL, " +
+                "PRIMARY KEY (account_id, month_start, transaction_type))");
+        jdbcTemplate.execute("CREATE TABLE end_of_day_run (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "business_date DATE NOT NULL UNIQUE, status VARCHAR(16) NOT NULL, workers INTEGER NOT NULL, " +
+                "started_at TIMESTAMP(6) NOT NULL, finished_at TIMESTAMP(6), accounts_processed BIGINT NOT NULL, " +
+                "transactions_written BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE end_of_day_partition (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "run_id BIGINT NOT NULL, partition_no INTEGER NOT NULL, first_account_id BIGINT NOT NULL, " +
+                "last_account_id BIGINT NOT NULL, next_account_id BIGINT NOT NULL, accounts_processed BIGINT NOT NULL, " +
+                "transactions_written BIGINT NOT NULL, updated_at TIMESTAMP(6) NOT NULL, completed_at TIMESTAMP(6), " +
+                "UNIQUE (run_id, partition_no))");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            rows.add(new Object[]{BigDecimal.valueOf(100_000 + i * 137L, 2), i % 4 == 0 ? "USD" : "KES"});
+            if (rows.size() == 10_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO account (balance, currency, daily_transaction_amount) VALUES (?, ?, 0)", rows);
+                rows.clear();
+            }
+        }
+
+        EndOfDayProperties properties = new EndOfDayProperties();
+        properties.setParallelism(workers);
+        properties.setMonthlyFees(Map.of("KES", new BigDecimal("50.00")));
+        // Every run is a fee day, so every run writes the same kinds of entries.
+        properties.setFeeDayOfMonth(31);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        service = new EndOfDayService(dataSource, transactionManager, properties,
+                new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties()), new SimpleMeterRegistry());
+    }
+
+    @Setup(Level.Invocation)
+    public void resetDay() {
+        jdbcTemplate.execute("TRUNCATE TABLE transaction");
+        jdbcTemplate.execute("TRUNCATE TABLE account_monthly_total");
+        jdbcTemplate.update("UPDATE account SET daily_transaction_amount = 250 WHERE MOD(id, 3) = 0");
+        businessDate = businessDate.plusMonths(1).withDayOfMonth(businessDate.plusMonths(1).lengthOfMonth());
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCOUNTS)
+    public EndOfDayRun run() {
+        EndOfDayRun run = service.run(businessDate);
+        if (run.getStatus() != EndOfDayRunStatus.COMPLETED || run.getAccountsProcessed() != ACCOUNTS) {
+            throw new IllegalStateException("End-of-day run did not process every account: " + run.getAccountsProcessed());
+        }
+        return run;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EndOfDayBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
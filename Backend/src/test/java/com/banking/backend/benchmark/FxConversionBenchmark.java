@@ -0,0 +1,64 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.service.FileFxRateProvider;
+import com.banking.backend.service.FxRateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what pricing a transfer adds to the transfer hot path: a same-currency transfer, which skips
+ * the rates, a cross-currency one priced from the cached snapshot, and for comparison the same
+ * conversion with the rates loaded from the provider on every transfer.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.FxConversionBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FxConversionBenchmark {
+
+    private final BigDecimal amount = new BigDecimal("1234.50");
+
+    private FileFxRateProvider rateProvider;
+    private FxRateService fxRateService;
+
+    @Setup
+    public void setUp() {
+        rateProvider = new FileFxRateProvider(new ClassPathResource("fx-rates.properties"));
+        fxRateService = new FxRateService(rateProvider, new FxProperties(), new SimpleMeterRegistry());
+        fxRateService.refreshRates();
+    }
+
+    @Benchmark
+    public Object sameCurrency() {
+        return fxRateService.convert(amount, "KES", "KES");
+    }
+
+    @Benchmark
+    public Object crossCurrency() {
+        return fxRateService.convert(amount, "USD", "UGX");
+    }
+
+    @Benchmark
+    public Object crossCurrencyLoadingRatesPerTransfer() {
+        return rateProvider.loadRates().convert(amount, "USD", "UGX");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FxConversionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.service.HotAccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what hot-account tracking adds to every transfer, and what reading the top-K costs.
+ * Senders and recipients follow a Zipf(1.1) distribution, so a few accounts take most of the
+ * updates and the counters of the hottest ones are contended across threads, as in production.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.HotAccountBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HotAccountBenchmark {
+
+    private static final int SAMPLES = 1 << 16;
+
+    @Param({"10000", "1000000"})
+    public int accounts;
+
+    private HotAccountService hotAccountService;
+    private String[] senders;
+    private String[] recipients;
+
+    @Setup
+    public void setUp() {
+        hotAccountService = new HotAccountService(new HotAccountProperties(), new SimpleMeterRegistry());
+
+        double[] cumulative = new double[accounts];
+        double sum = 0;
+        for (int i = 0; i < accounts; i++) {
+            sum += 1 / Math.pow(i + 1, 1.1);
+            cumulative[i] = sum;
+        }
+        senders = new String[SAMPLES];
+        recipients = new String[SAMPLES];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SAMPLES; i++) {
+            senders[i] = "user" + rank(cumulative, random.nextDouble() * sum);
+            recipients[i] = "user" + rank(cumulative, random.nextDouble() * sum);
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            hotAccountService.recordTransfer(senders[i], recipients[i], 1_000);
+        }
+    }
+
+    private static int rank(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordTransfer() {
+        int i = ThreadLocalRandom.current().nextInt(SAMPLES);
+        hotAccountService.recordTransfer(senders[i], recipients[i], 1_000);
+    }
+
+    @Benchmark
+    public Object hotSenders() {
+        return hotAccountService.getHotSenders();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HotAccountBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,190 @@
+package com.banking.backend.benchmark;
+
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.dto.MonthlyTotalDTO;
+import com.banking.backend.enums.TransactionType;
+import com.banking.backend.service.MonthlyTotalsService;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighs what the monthly totals cost each transfer against what they save a reader, on an embedded H2 in
+ * PostgreSQL mode with 1,000 accounts of 100 entries each and one busy account with 10,000 entries in
+ * each of the last 24 months:
+ * <ul>
+ *     <li>{@code transfer} and {@code transferWithTotals}: the writes of one transfer in one transaction, two
+ *     balance updates and two ledger inserts, without and with adding both entries to the monthly totals;</li>
+ *     <li>{@code monthlyTotals} and {@code groupByScan}: the busy account's 24 months of totals, read from
+ *     {@code account_monthly_total} against grouped from its 240,000 ledger entries.</li>
+ * </ul>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.banking.backend.benchmark.MonthlyTotalsBenchmark}
+ */
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MonthlyTotalsBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 100;
+    private static final int BUSY_TRANSACTIONS_PER_MONTH = 10_000;
+    private static final YearMonth LAST_MONTH = YearMonth.of(2025, 6);
+    private static final String BALANCE_SQL = "UPDATE account SET balance = balance + ? WHERE id = ?";
+    private static final String INSERT_SQL = "INSERT INTO transaction (id, transaction_id, transaction_type, amount, description, " +
+            "timestamp, balance_after, account_id) VALUES (nextval('transaction_seq'), ?, ?, ?, 'benchmark', ?, 0, ?)";
+    private static final String GROUP_BY_SQL = "SELECT CAST(DATE_TRUNC('month', timestamp) AS DATE), transaction_type, SUM(amount), " +
+            "COUNT(*) FROM transaction WHERE account_id = ? AND timestamp >= ? AND timestamp < ? " +
+            "GROUP BY CAST(DATE_TRUNC('month', timestamp) AS DATE), transaction_type ORDER BY 1, 2";
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private MonthlyTotalsService service;
+    private long busyAccountId;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(ch.qos.logback.classic.Level.WARN);
+        HikariConfig config = new HikariConfig();
+        // H2 would otherwise hand back the previous result of a read repeated over unchanged tables.
+        config.setJdbcUrl("jdbc:h2:mem:monthlytotals;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;OPTIMIZE_REUSE_RESULTS=FALSE");
+        config.setMaximumPoolSize(4);
+        dataSource = new HikariDataSource(config);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE account (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "customer_id VARCHAR(255) NOT NULL UNIQUE, balance NUMERIC(38, 2) NOT NULL)");
+        jdbcTemplate.execute("CREATE SEQUENCE transaction_seq START WITH 1 INCREMENT BY 50");
+        jdbcTemplate.execute("CREATE TABLE transaction (id BIGINT PRIMARY KEY, transaction_id VARCHAR(36) NOT NULL, " +
+                "transaction_type VARCHAR(255) NOT NULL, amount NUMERIC(38, 2) NOT NULL, description VARCHAR(255), " +
+                "timestamp TIMESTAMP(6) NOT NULL, balance_after NUMERIC(38, 2) NOT NULL, account_id BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_transaction_id ON transaction (transaction_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_account_timestamp ON transaction (account_id, timestamp, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_timestamp ON transaction (timestamp)");
+        jdbcTemplate.execute("CREATE TABLE account_monthly_total (account_id BIGINT NOT NULL, month_start DATE NOT NULL, " +
+                "transaction_type VARCHAR(32) NOT NULL, total_amount NUMERIC(38, 2) NOT NULL, transaction_count BIGINT NOT NULL, " +
+                "PRIMARY KEY (account_id, month_start, transaction_type))");
+
+        for (int i = 0; i <= ACCOUNTS; i++) {
+            jdbcTemplate.update("INSERT INTO account (customer_id, balance) VALUES (?, 1000000)", i == 0 ? "busy" : "customer" + i);
+        }
+        busyAccountId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE customer_id = 'busy'", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int month = 0; month < 24; month++) {
+            LocalDateTime start = LAST_MONTH.minusMonths(month).atDay(1).atStartOfDay();
+            for (int t = 0; t < BUSY_TRANSACTIONS_PER_MONTH; t++) {
+                rows.add(entry(busyAccountId, start.plusMinutes(t * 4L), t));
+                if (rows.size() == 10_000) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                    rows.clear();
+                }
+            }
+        }
+        for (long accountId = busyAccountId + 1; accountId <= busyAccountId + ACCOUNTS; accountId++) {
+            for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+                rows.add(entry(accountId, LAST_MONTH.minusMonths(t % 24).atDay(1).atTime(12, 0).plusMinutes(accountId), t));
+            }
+            if (rows.size() >= 10_000) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        service = new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties());
+        service.rebuild(null);
+        // The month the transfers below write to already has its rows, as it has after an account's first transfers.
+        List<IMonthlyTotalsService.Delta> rowsOfThisMonth = new ArrayList<>();
+        for (long accountId = busyAccountId + 1; accountId <= busyAccountId + ACCOUNTS; accountId++) {
+            for (TransactionType type : List.of(TransactionType.TRANSFER_IN, TransactionType.TRANSFER_OUT)) {
+                rowsOfThisMonth.add(new IMonthlyTotalsService.Delta(accountId, YearMonth.now(), type, BigDecimal.ZERO, 0));
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> service.add(rowsOfThisMonth));
+    }
+
+    private static Object[] entry(long accountId, LocalDateTime timestamp, int t) {
+        boolean credit = t % 2 == 0;
+        return new Object[]{"TX" + accountId + "-" + t, credit ? "TRANSFER_IN" : "TRANSFER_OUT",
+                credit ? BigDecimal.valueOf(2500, 2) : BigDecimal.valueOf(-1000, 2), Timestamp.valueOf(timestamp), accountId};
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Object transfer() {
+        return transfer(false);
+    }
+
+    @Benchmark
+    public Object transferWithTotals() {
+        return transfer(true);
+    }
+
+    @Benchmark
+    public List<MonthlyTotalDTO> monthlyTotals() {
+        return service.getMonthlyTotals("busy", LAST_MONTH, 24);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> groupByScan() {
+        return jdbcTemplate.queryForList(GROUP_BY_SQL, busyAccountId,
+                Timestamp.valueOf(LAST_MONTH.minusMonths(23).atDay(1).atStartOfDay()),
+                Timestamp.valueOf(LAST_MONTH.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    /**
+     * Moves 10.00 between two random ordinary accounts, as {@code TransactionService} does in one transaction.
+     */
+    private Object transfer(boolean totals) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = busyAccountId + 1 + random.nextInt(ACCOUNTS);
+        long to = busyAccountId + 1 + (from - busyAccountId + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        BigDecimal amount = BigDecimal.valueOf(1000, 2);
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            if (totals) {
+                YearMonth month = YearMonth.from(now);
+                service.add(List.of(new IMonthlyTotalsService.Delta(from, month, TransactionType.TRANSFER_OUT, amount.negate(), 1),
+                        new IMonthlyTotalsService.Delta(to, month, TransactionType.TRANSFER_IN, amount, 1)));
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, List.of(
+                    new Object[]{"B" + from, "TRANSFER_OUT", amount.negate(), Timestamp.valueOf(now), from},
+                    new Object[]{"B" + from, "TRANSFER_IN", amount, Timestamp.valueOf(now), to}));
+            return jdbcTemplate.batchUpdate(BALANCE_SQL, List.of(new Object[]{amount.negate(), from}, new Object[]{amount, to}));
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MonthlyTotalsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
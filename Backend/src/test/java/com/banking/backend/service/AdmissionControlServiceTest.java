@@ -0,0 +1,118 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.GlobalExceptionHandler;
+import com.banking.backend.GlobalExceptationHandlers.RateLimitExceededException;
+import com.banking.backend.config.admission.AdmissionControlProperties;
+import com.banking.backend.controller.TransactionController;
+import com.banking.backend.service.interfaces.IAsyncTransferService;
+import com.banking.backend.service.interfaces.IConcurrencyLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AdmissionControlServiceTest {
+
+    // Slow enough that no bucket refills while a test runs.
+    private static final double RATE = 0.01;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void limitsEachCustomerByTheirTier() {
+        AdmissionControlProperties properties = properties(100);
+        properties.setCustomerTiers(Map.of("acme", "business", "stray", "missing"));
+        AdmissionControlService service = new AdmissionControlService(properties, meterRegistry);
+
+        admit(service, "alice", 2);
+        assertThatThrownBy(() -> service.admitTransfer("alice"))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isGreaterThanOrEqualTo(1));
+        admit(service, "acme", 5);
+        assertThatThrownBy(() -> service.admitTransfer("acme")).isInstanceOf(RateLimitExceededException.class);
+        // A customer assigned to a tier that is not configured gets the default tier.
+        admit(service, "stray", 2);
+        assertThatThrownBy(() -> service.admitTransfer("stray")).isInstanceOf(RateLimitExceededException.class);
+
+        assertThat(rejected("standard")).isEqualTo(2);
+        assertThat(rejected("business")).isEqualTo(1);
+    }
+
+    @Test
+    void sendersBeyondTheTrackedLimitShareTheOverflowBucketUntilIdleBucketsAreEvicted() {
+        AdmissionControlService service = new AdmissionControlService(properties(2), meterRegistry);
+        admit(service, "alice", 1);
+        admit(service, "bob", 1);
+
+        // A client rotating sender ids gets no fresh bucket per id.
+        for (int i = 0; i < 3; i++) {
+            admit(service, "rotating" + i, 1);
+        }
+        assertThatThrownBy(() -> service.admitTransfer("rotating3")).isInstanceOf(RateLimitExceededException.class);
+        assertThat(trackedCustomers()).isEqualTo(2);
+        assertThat(meterRegistry.get("banking.admission.overflow").counter().count()).isEqualTo(4);
+        assertThat(rejected("overflow")).isEqualTo(1);
+
+        // Long after their last request, alice's and bob's buckets have refilled and are evicted.
+        service.evictIdleBuckets(System.nanoTime() + Duration.ofDays(1).toNanos());
+        assertThat(trackedCustomers()).isZero();
+        admit(service, "carol", 2);
+        assertThat(trackedCustomers()).isEqualTo(1);
+        assertThat(meterRegistry.get("banking.admission.overflow").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectedTransfersGetTooManyRequestsWithRetryAfter() throws Exception {
+        AdmissionControlProperties properties = properties(100);
+        properties.getTiers().get("standard").setBurst(1);
+        AdmissionControlService service = new AdmissionControlService(properties, meterRegistry);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TransactionController(mock(TransactionService.class), service,
+                        mock(IAsyncTransferService.class), mock(IConcurrencyLimitService.class)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        String transfer = "{\"fromUserId\": \"alice\", \"toUserId\": \"bob\", \"amount\": 10}";
+
+        mockMvc.perform(post("/api/transactions/transfer").contentType(MediaType.APPLICATION_JSON).content(transfer))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/transactions/transfer").contentType(MediaType.APPLICATION_JSON).content(transfer))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().longValue(HttpHeaders.RETRY_AFTER, 100));
+    }
+
+    private static AdmissionControlProperties properties(int maxTrackedCustomers) {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setMaxTrackedCustomers(maxTrackedCustomers);
+        properties.setIdleEviction(Duration.ofMinutes(10));
+        properties.setTiers(Map.of("standard", new AdmissionControlProperties.Tier(RATE, 2),
+                "business", new AdmissionControlProperties.Tier(RATE, 5)));
+        properties.setOverflow(new AdmissionControlProperties.Tier(RATE, 3));
+        return properties;
+    }
+
+    private static void admit(AdmissionControlService service, String customerId, int times) {
+        for (int i = 0; i < times; i++) {
+            assertThatNoException().isThrownBy(() -> service.admitTransfer(customerId));
+        }
+    }
+
+    private double rejected(String tier) {
+        return meterRegistry.get("banking.admission.rejected").tag("tier", tier).counter().count();
+    }
+
+    private double trackedCustomers() {
+        return meterRegistry.get("banking.admission.tracked.customers").gauge().value();
+    }
+}
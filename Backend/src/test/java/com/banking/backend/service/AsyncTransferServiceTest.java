@@ -0,0 +1,246 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.customer.CustomerFilterProperties;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.config.transfer.AsyncTransferProperties;
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.dto.TransferStatusDTO;
+import com.banking.backend.enums.AsyncTransferStatus;
+import com.banking.backend.model.Account;
+import com.banking.backend.model.Transaction;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.repository.TransactionRepository;
+import com.banking.backend.service.interfaces.INotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Batches commit on the sequencer's worker thread, and reservations in transactions of their own.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AsyncTransferServiceTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private INotificationService notificationService;
+    private AsyncTransferService service;
+    // The first transfer's notification holds the single worker until the rest of the test's transfers are queued.
+    private final CountDownLatch workerHeld = new CountDownLatch(1);
+    private final CountDownLatch releaseWorker = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        createAccount("alice", 1_000);
+        createAccount("bob", 0);
+        createAccount("carol", 1_000);
+        createAccount("dave", 0);
+        createAccount("erin", 0);
+
+        notificationService = mock(INotificationService.class);
+        doAnswer(invocation -> {
+            workerHeld.countDown();
+            releaseWorker.await();
+            return null;
+        }).when(notificationService).sendTransferNotifications(any(), any(), any(), any(), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        releaseWorker.countDown();
+        if (service != null) {
+            service.stop();
+        }
+        jdbcTemplate.execute("DELETE FROM account_monthly_total");
+        jdbcTemplate.execute("DELETE FROM transaction");
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void commitsABatchTogetherAndFailsOnlyItsInvalidTransfers() throws InterruptedException {
+        start(false);
+        List<TransferStatusDTO> batch = holdWorkerAndSubmit(
+                transfer("alice", "bob"),
+                transfer("erin", "bob"),
+                transfer("alice", "nobody"),
+                transfer("carol", "bob"));
+
+        assertThat(await(batch.get(0))).satisfies(completed());
+        assertThat(await(batch.get(1))).satisfies(failed("Insufficient Balance"));
+        assertThat(await(batch.get(2))).satisfies(failed("Recipient account not found for user ID: nobody"));
+        assertThat(await(batch.get(3))).satisfies(completed());
+
+        assertThat(ledgerEntries()).isEqualTo(2 * 3);
+        assertThat(balance("bob")).isEqualByComparingTo("30");
+        // The reservations of the failed transfers were given back.
+        assertThat(dailyAmount("alice")).isEqualByComparingTo("20");
+        assertThat(dailyAmount("erin")).isEqualByComparingTo("0");
+        verify(notificationService, times(3)).sendTransferNotifications(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void failedGroupCommitIsRetriedOneTransferAtATime() throws InterruptedException {
+        start(true);
+        List<TransferStatusDTO> batch = holdWorkerAndSubmit(
+                transfer("alice", "bob"),
+                transfer("alice", "dave"),
+                transfer("carol", "bob"),
+                transfer("erin", "bob"));
+
+        assertThat(await(batch.get(0))).satisfies(completed());
+        // Credits to dave cannot be written, which rolled back the whole group commit.
+        assertThat(await(batch.get(1))).satisfies(failed("Transfer could not be processed"));
+        assertThat(await(batch.get(2))).satisfies(completed());
+        assertThat(await(batch.get(3))).satisfies(failed("Insufficient Balance"));
+
+        assertThat(ledgerEntries()).isEqualTo(2 * 3);
+        assertThat(balance("alice")).isEqualByComparingTo("980");
+        assertThat(balance("bob")).isEqualByComparingTo("30");
+        assertThat(balance("dave")).isEqualByComparingTo("0");
+        assertThat(dailyAmount("alice")).isEqualByComparingTo("20");
+        assertThat(dailyAmount("carol")).isEqualByComparingTo("10");
+        assertThat(dailyAmount("erin")).isEqualByComparingTo("0");
+        verify(notificationService, never()).sendTransferNotifications(eq(batch.get(1).getTransferId()),
+                any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Submits a first transfer, waits until the worker applying it is held in its notification, and queues
+     * the given transfers behind it, so that they are drained as one batch once the worker is let go.
+     */
+    private List<TransferStatusDTO> holdWorkerAndSubmit(TransactionRequestDTO... requests) throws InterruptedException {
+        TransferStatusDTO first = service.submit(transfer("alice", "bob"));
+        assertThat(workerHeld.await(30, TimeUnit.SECONDS)).isTrue();
+        List<TransferStatusDTO> batch = Arrays.stream(requests).map(service::submit).toList();
+        assertThat(batch).allSatisfy(status -> assertThat(status.getStatus()).isEqualTo(AsyncTransferStatus.ACCEPTED));
+        releaseWorker.countDown();
+        assertThat(await(first)).satisfies(completed());
+        return batch;
+    }
+
+    private void start(boolean creditsToDaveFail) {
+        // Without leases every reservation and release is written to the account, where the test can see it.
+        LimitLeaseProperties noLeases = new LimitLeaseProperties();
+        noLeases.setEnabled(false);
+        LimitLeaseService limitLeaseService = new LimitLeaseService(jdbcTemplate, noLeases, transactionManager, new SimpleMeterRegistry());
+        HotAccountService hotAccountService = new HotAccountService(new HotAccountProperties(), new SimpleMeterRegistry());
+        MonthlyTotalsService monthlyTotalsService = new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties()) {
+            @Override
+            public void record(Collection<Transaction> entries) {
+                if (creditsToDaveFail && entries.stream().anyMatch(entry -> entry.getAccount().getCustomerId().equals("dave"))) {
+                    throw new IllegalStateException("Monthly totals of dave cannot be written");
+                }
+                super.record(entries);
+            }
+        };
+        TransactionService transactionService = new TransactionService(accountRepository, notificationService, limitLeaseService,
+                hotAccountService, new FxRateService(new FileFxRateProvider(new ClassPathResource("fx-rates.properties")),
+                new FxProperties(), new SimpleMeterRegistry()),
+                new CustomerFilterService(dataSource, new CustomerFilterProperties(), transactionManager, new SimpleMeterRegistry()),
+                monthlyTotalsService, transactionManager);
+
+        AsyncTransferProperties properties = new AsyncTransferProperties();
+        // One worker, so that everything queued behind the held transfer is drained together.
+        properties.setPartitions(1);
+        service = new AsyncTransferService(accountRepository, transactionRepository, transactionService, notificationService,
+                limitLeaseService, hotAccountService, monthlyTotalsService, properties, transactionManager, new SimpleMeterRegistry());
+        service.start();
+    }
+
+    private TransferStatusDTO await(TransferStatusDTO accepted) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        TransferStatusDTO status;
+        while ((status = service.getStatus(accepted.getTransferId()).orElseThrow()).getStatus() == AsyncTransferStatus.ACCEPTED) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+        return status;
+    }
+
+    private static Consumer<TransferStatusDTO> completed() {
+        return status -> {
+            assertThat(status.getStatus()).isEqualTo(AsyncTransferStatus.COMPLETED);
+            assertThat(status.getFailureReason()).isNull();
+            assertThat(status.getCompletedAt()).isNotNull();
+        };
+    }
+
+    private static Consumer<TransferStatusDTO> failed(String reason) {
+        return status -> {
+            assertThat(status.getStatus()).isEqualTo(AsyncTransferStatus.FAILED);
+            assertThat(status.getFailureReason()).isEqualTo(reason);
+            assertThat(status.getCompletedAt()).isNotNull();
+        };
+    }
+
+    private static TransactionRequestDTO transfer(String from, String to) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setFromUserId(from);
+        request.setToUserId(to);
+        request.setAmount(BigDecimal.TEN);
+        return request;
+    }
+
+    private void createAccount(String customerId, long balance) {
+        Account account = new Account();
+        account.setAccountNumber("ACC-" + customerId);
+        account.setCustomerId(customerId);
+        account.setCustomerName(customerId);
+        account.setBalance(BigDecimal.valueOf(balance));
+        accountRepository.save(account);
+    }
+
+    private BigDecimal balance(String customerId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM account WHERE customer_id = ?", BigDecimal.class, customerId);
+    }
+
+    private BigDecimal dailyAmount(String customerId) {
+        return jdbcTemplate.queryForObject("SELECT daily_transaction_amount FROM account WHERE customer_id = ?",
+                BigDecimal.class, customerId);
+    }
+
+    private long ledgerEntries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Long.class);
+    }
+}
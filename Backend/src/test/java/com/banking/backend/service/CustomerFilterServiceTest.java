@@ -0,0 +1,214 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.customer.CustomerFilterProperties;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.config.sql.SqlMonitoringConfig;
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.service.interfaces.INotificationService;
+import com.banking.backend.support.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SqlMonitoringConfig.class)
+// The filter reads committed accounts, and transfers commit their own transactions.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerFilterServiceTest {
+
+    private static final int CUSTOMERS = 10_000;
+    private static final int JUNK_TRANSFERS = 2_000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            rows.add(new Object[]{"ACC-" + i, "customer" + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account (account_number, customer_name, customer_id, balance, " +
+                "daily_transaction_limit, daily_transaction_amount, currency) VALUES (?, 'Customer', ?, 1000, 500000, 0, 'KES')", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM account_monthly_total");
+        jdbcTemplate.execute("DELETE FROM transaction");
+        jdbcTemplate.execute("DELETE FROM account");
+    }
+
+    @Test
+    @Tag("perf")
+    void rejectsJunkRecipientsWithoutQueryingTheDatabase(TestReporter reporter) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CustomerFilterService filter = filter(true, meterRegistry);
+        filter.load();
+        TransactionService guarded = transactionService(filter);
+        TransactionService unguarded = transactionService(filter(false, new SimpleMeterRegistry()));
+
+        // The sender's daily allowance is leased by a first, genuine transfer, as it would be in steady traffic.
+        guarded.transferFunds(transfer("customer1"));
+
+        int withoutFilter = junkTraffic(unguarded);
+        int withFilter = junkTraffic(guarded);
+        double rejections = meterRegistry.get("banking.customers.filter.rejections").counter().count();
+        reporter.publishEntry("junk transfers", String.format("%d transfers to unknown recipients: %d SQL statements " +
+                        "without the customer filter, %d with it (%.0f rejected by the filter, %.2f%% expected false positives)",
+                JUNK_TRANSFERS, withoutFilter, withFilter, rejections,
+                100 * meterRegistry.get("banking.customers.filter.false.positive.rate").gauge().value()));
+
+        // Without the filter each one costs at least the query that locks the two accounts.
+        assertThat(withoutFilter).isGreaterThanOrEqualTo(JUNK_TRANSFERS);
+        // Only the rare false positives still reach the database.
+        assertThat(rejections).isGreaterThan(JUNK_TRANSFERS * 0.98);
+        assertThat(withFilter).isLessThan(withoutFilter / 20);
+
+        // Real customers still get through.
+        guarded.transferFunds(transfer("customer2"));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void picksUpAccountsCreatedHereAndOnOtherReplicas() {
+        CustomerFilterService filter = filter(true, new SimpleMeterRegistry());
+        assertThat(filter.mightExist("anyone")).as("lets everything through until loaded").isTrue();
+        filter.load();
+        assertThat(filter.mightExist("customer" + (CUSTOMERS - 1))).isTrue();
+        assertThat(filter.mightExist("newcomer")).isFalse();
+
+        // Created by another replica: unknown here until the next catch-up.
+        jdbcTemplate.update("INSERT INTO account (account_number, customer_name, customer_id, balance, " +
+                "daily_transaction_limit, daily_transaction_amount, currency) VALUES ('ACC-new', 'New', 'newcomer', 0, 500000, 0, 'KES')");
+        filter.catchUp();
+        assertThat(filter.mightExist("newcomer")).isTrue();
+
+        filter.register("local");
+        assertThat(filter.mightExist("local")).isTrue();
+
+        TransactionService transactionService = transactionService(filter);
+        assertThatThrownBy(() -> transactionService.transferFunds(transfer("nobody")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Recipient account not found for user ID: nobody");
+    }
+
+    @Test
+    void picksUpAccountsWhoseInsertsCommitOutOfIdOrder() {
+        CustomerFilterService filter = filter(true, new SimpleMeterRegistry());
+        filter.load();
+        long lastId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM account", Long.class);
+
+        // A slow insert holds the next id while 300 later ones commit and are read.
+        for (long id = lastId + 2; id <= lastId + 301; id++) {
+            insertAccount(id, "later" + id);
+        }
+        filter.catchUp();
+        assertThat(filter.mightExist("later" + (lastId + 301))).isTrue();
+        assertThat(filter.mightExist("slow")).isFalse();
+
+        insertAccount(lastId + 1, "slow");
+        filter.catchUp();
+        assertThat(filter.mightExist("slow")).isTrue();
+    }
+
+    @Test
+    void rebuildPicksUpInsertsSlowerThanTheMissingIdWindow() {
+        CustomerFilterProperties properties = properties(true);
+        properties.setMissingIdWindow(Duration.ZERO);
+        CustomerFilterService filter = new CustomerFilterService(dataSource, properties, transactionManager, new SimpleMeterRegistry());
+        filter.load();
+        long lastId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM account", Long.class);
+
+        insertAccount(lastId + 2, "later");
+        filter.catchUp();
+        insertAccount(lastId + 1, "slow");
+        filter.catchUp();
+        assertThat(filter.mightExist("slow")).as("no longer re-read").isFalse();
+
+        filter.rebuild();
+        assertThat(filter.mightExist("slow")).isTrue();
+        assertThat(filter.mightExist("later")).isTrue();
+    }
+
+    private void insertAccount(long id, String customerId) {
+        jdbcTemplate.update("INSERT INTO account (id, account_number, customer_name, customer_id, balance, " +
+                "daily_transaction_limit, daily_transaction_amount, currency) VALUES (?, ?, 'Customer', ?, 0, 500000, 0, 'KES')",
+                id, "ACC-" + customerId, customerId);
+    }
+
+    private int junkTraffic(TransactionService transactionService) {
+        return SqlStatementCounter.count(() -> {
+            for (int i = 0; i < JUNK_TRANSFERS; i++) {
+                TransactionRequestDTO junk = transfer("junk-" + i);
+                assertThatThrownBy(() -> transactionService.transferFunds(junk))
+                        .hasMessage("Recipient account not found for user ID: junk-" + i);
+            }
+        });
+    }
+
+    private CustomerFilterService filter(boolean enabled, SimpleMeterRegistry meterRegistry) {
+        return new CustomerFilterService(dataSource, properties(enabled), transactionManager, meterRegistry);
+    }
+
+    private static CustomerFilterProperties properties(boolean enabled) {
+        CustomerFilterProperties properties = new CustomerFilterProperties();
+        properties.setEnabled(enabled);
+        properties.setExpectedCustomers(CUSTOMERS);
+        return properties;
+    }
+
+    private TransactionService transactionService(CustomerFilterService filter) {
+        FxRateService fxRateService = new FxRateService(new FileFxRateProvider(new ClassPathResource("fx-rates.properties")),
+                new FxProperties(), new SimpleMeterRegistry());
+        fxRateService.loadInitialRates();
+        return new TransactionService(accountRepository, mock(INotificationService.class),
+                new LimitLeaseService(jdbcTemplate, new LimitLeaseProperties(), transactionManager, new SimpleMeterRegistry()),
+                new HotAccountService(new HotAccountProperties(), new SimpleMeterRegistry()),
+                fxRateService, filter, new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties()), transactionManager);
+    }
+
+    private static TransactionRequestDTO transfer(String toUserId) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setFromUserId("customer0");
+        request.setToUserId(toUserId);
+        request.setAmount(BigDecimal.ONE);
+        return request;
+    }
+}
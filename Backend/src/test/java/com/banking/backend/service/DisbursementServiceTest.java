@@ -0,0 +1,214 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.disbursement.DisbursementProperties;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.config.sql.SqlMonitoringConfig;
+import com.banking.backend.dto.DisbursementJobDTO;
+import com.banking.backend.dto.DisbursementLineDTO;
+import com.banking.backend.dto.DisbursementLineRequestDTO;
+import com.banking.backend.dto.DisbursementRequestDTO;
+import com.banking.backend.enums.DisbursementJobStatus;
+import com.banking.backend.model.Account;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.repository.TransactionRepository;
+import com.banking.backend.support.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SqlMonitoringConfig.class)
+// Chunks commit their own transactions, and the limit lease uses a second connection.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DisbursementServiceTest {
+
+    private static final int RECIPIENTS = 3_000;
+    private static final BigDecimal AMOUNT = BigDecimal.valueOf(10);
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private final List<DisbursementService> instances = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Account> accounts = new ArrayList<>();
+        accounts.add(account("employer", BigDecimal.valueOf(1_000_000)));
+        for (int i = 0; i < RECIPIENTS; i++) {
+            accounts.add(account("employee" + i, BigDecimal.ZERO));
+        }
+        accountRepository.saveAll(accounts);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (DisbursementService instance : instances) {
+            instance.shutdown();
+        }
+        jdbcTemplate.execute("DELETE FROM disbursement_line");
+        jdbcTemplate.execute("DELETE FROM disbursement_job");
+        jdbcTemplate.execute("DELETE FROM account_monthly_total");
+        jdbcTemplate.execute("DELETE FROM transaction");
+        jdbcTemplate.execute("DELETE FROM account");
+    }
+
+    @Test
+    void paysEveryRecipientInChunksAndRefundsTheFailedLines() throws InterruptedException {
+        DisbursementService service = start(Duration.ofMinutes(2));
+        DisbursementRequestDTO request = payroll(RECIPIENTS, "ghost1", "ghost2", "ghost3");
+
+        // Storing the job and every chunk run on this thread, so their statements can be counted.
+        long[] jobId = new long[1];
+        int statements = SqlStatementCounter.count(() -> {
+            jobId[0] = service.store(request);
+            for (int partition = 0; partition < new DisbursementProperties().getWorkersPerJob(); partition++) {
+                while (service.processNextChunk(jobId[0], partition) > 0) {
+                    // Next chunk.
+                }
+            }
+        });
+        // The store, every chunk of every partition and the completion, with the chunks' reads and writes batched; one
+        // transfer per line through TransactionService would take four statements a line, 12,012 in all. Whether an id
+        // block has to be fetched on the way depends on what earlier tests used of the shared sequences.
+        assertThat(statements).isLessThanOrEqualTo(282);
+
+        // Nothing is pending any more, so a takeover of the job only completes it.
+        DisbursementService takeover = start(Duration.ZERO);
+        Thread.sleep(5);
+        takeover.resumeInterruptedJobs();
+        assertThat(takeover.awaitCompletion(jobId[0], 30_000)).isTrue();
+
+        DisbursementJobDTO job = service.get(jobId[0]).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(DisbursementJobStatus.COMPLETED);
+        assertThat(job.getLinesCompleted()).isEqualTo(RECIPIENTS);
+        assertThat(job.getLinesFailed()).isEqualTo(3);
+        assertThat(job.getAmountCompleted()).isEqualByComparingTo(AMOUNT.multiply(BigDecimal.valueOf(RECIPIENTS)));
+        assertThat(job.getAmountRefunded()).isEqualByComparingTo(AMOUNT.multiply(BigDecimal.valueOf(3)));
+
+        // The sender is debited the whole total once, then refunded the failed lines once.
+        assertThat(balance("employer")).isEqualByComparingTo(BigDecimal.valueOf(1_000_000 - 10 * RECIPIENTS));
+        assertThat(transactionRepository.count()).isEqualTo(RECIPIENTS + 2);
+        assertEveryRecipientPaidOnce();
+
+        List<DisbursementLineDTO> failures = service.getFailures(jobId[0], 0, 2);
+        assertThat(failures).extracting(DisbursementLineDTO::getToUserId).containsExactly("ghost1", "ghost2");
+        assertThat(failures.get(0).getFailureReason()).isEqualTo("Recipient account not found for user ID: ghost1");
+        assertThat(service.getFailures(jobId[0], failures.get(1).getLineNumber(), 2))
+                .extracting(DisbursementLineDTO::getToUserId).containsExactly("ghost3");
+    }
+
+    @Test
+    void resumesAnInterruptedJobWithoutPayingAnyLineTwice() throws InterruptedException {
+        // The first instance debits the sender and commits a few chunks, then stops as if it crashed.
+        DisbursementService crashed = start(Duration.ofMinutes(2));
+        long jobId = crashed.store(payroll(RECIPIENTS));
+        crashed.processNextChunk(jobId, 0);
+        crashed.processNextChunk(jobId, 0);
+        crashed.processNextChunk(jobId, 3);
+        DisbursementJobDTO interrupted = crashed.get(jobId).orElseThrow();
+        assertThat(interrupted.getStatus()).isEqualTo(DisbursementJobStatus.RUNNING);
+        assertThat(interrupted.getLinesCompleted()).isBetween(1, RECIPIENTS - 1);
+
+        // Two instances find the job stale at the same time and both take it over.
+        DisbursementService first = start(Duration.ZERO);
+        DisbursementService second = start(Duration.ZERO);
+        Thread.sleep(5);
+        first.resumeInterruptedJobs();
+        second.resumeInterruptedJobs();
+        assertThat(first.awaitCompletion(jobId, 60_000)).isTrue();
+
+        DisbursementJobDTO job = first.get(jobId).orElseThrow();
+        assertThat(job.getLinesCompleted()).isEqualTo(RECIPIENTS);
+        assertThat(job.getLinesFailed()).isZero();
+        assertThat(job.getAmountRefunded()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(balance("employer")).isEqualByComparingTo(BigDecimal.valueOf(1_000_000 - 10 * RECIPIENTS));
+        assertThat(transactionRepository.count()).isEqualTo(RECIPIENTS + 1);
+        assertEveryRecipientPaidOnce();
+    }
+
+    private DisbursementService start(Duration staleAfter) {
+        DisbursementProperties properties = new DisbursementProperties();
+        properties.setStaleAfter(staleAfter);
+        FxRateService fxRateService = new FxRateService(new FileFxRateProvider(new ClassPathResource("fx-rates.properties")),
+                new FxProperties(), new SimpleMeterRegistry());
+        fxRateService.loadInitialRates();
+        DisbursementService service = new DisbursementService(dataSource, accountRepository, transactionRepository,
+                new LimitLeaseService(jdbcTemplate, new LimitLeaseProperties(), transactionManager, new SimpleMeterRegistry()),
+                fxRateService, new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties()), properties, transactionManager,
+                new SimpleMeterRegistry());
+        instances.add(service);
+        return service;
+    }
+
+    private void assertEveryRecipientPaidOnce() {
+        Integer wronglyPaid = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account WHERE customer_id LIKE 'employee%' AND balance <> ?", Integer.class, AMOUNT);
+        assertThat(wronglyPaid).isZero();
+    }
+
+    private BigDecimal balance(String customerId) {
+        return accountRepository.findByCustomerId(customerId).orElseThrow().getBalance();
+    }
+
+    private static DisbursementRequestDTO payroll(int recipients, String... missingRecipients) {
+        List<DisbursementLineRequestDTO> lines = new ArrayList<>();
+        for (int i = 0; i < recipients; i++) {
+            lines.add(line("employee" + i));
+            if (i % 1_000 == 0 && i / 1_000 < missingRecipients.length) {
+                lines.add(line(missingRecipients[i / 1_000]));
+            }
+        }
+        DisbursementRequestDTO request = new DisbursementRequestDTO();
+        request.setFromUserId("employer");
+        request.setDescription("Payroll");
+        request.setLines(lines);
+        return request;
+    }
+
+    private static DisbursementLineRequestDTO line(String toUserId) {
+        DisbursementLineRequestDTO line = new DisbursementLineRequestDTO();
+        line.setToUserId(toUserId);
+        line.setAmount(AMOUNT);
+        return line;
+    }
+
+    private static Account account(String customerId, BigDecimal balance) {
+        Account account = new Account();
+        account.setAccountNumber("ACC-" + customerId);
+        account.setCustomerId(customerId);
+        account.setCustomerName(customerId);
+        account.setBalance(balance);
+        return account;
+    }
+}
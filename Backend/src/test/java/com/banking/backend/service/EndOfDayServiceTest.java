@@ -0,0 +1,225 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.LimitExceededException;
+import com.banking.backend.config.endofday.EndOfDayProperties;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.enums.EndOfDayRunStatus;
+import com.banking.backend.model.EndOfDayRun;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Partitions commit their own transactions on their own threads.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EndOfDayServiceTest {
+
+    private static final int ACCOUNTS = 400;
+    private static final LocalDate FEE_DAY = LocalDate.of(2025, 8, 1);
+    private static final BigDecimal KES_FEE = new BigDecimal("50.00");
+    private static final BigDecimal DAILY_RATE = new BigDecimal("0.02").divide(BigDecimal.valueOf(365), 12, RoundingMode.HALF_UP);
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private EndOfDayService service;
+    private final Map<Long, BigDecimal> balances = new LinkedHashMap<>();
+    private final Map<Long, String> currencies = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            BigDecimal balance = switch (i % 10) {
+                case 0 -> BigDecimal.ZERO.setScale(2);
+                // Too little to earn a cent of interest.
+                case 1 -> new BigDecimal("0.10");
+                // Earns no interest and cannot pay the fee.
+                case 2 -> new BigDecimal("30.00");
+                default -> BigDecimal.valueOf(100_000 + i * 1_337L, 2);
+            };
+            rows.add(new Object[]{"ACC" + i, "Customer " + i, "eod" + i, balance, new BigDecimal("10000.00"),
+                    i % 4 == 0 ? "USD" : "KES", i % 3 == 0 ? new BigDecimal("250.00") : BigDecimal.ZERO});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account (account_number, customer_name, customer_id, balance, daily_transaction_limit, " +
+                "currency, daily_transaction_amount) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.query("SELECT id, balance, currency FROM account ORDER BY id", resultSet -> {
+            balances.put(resultSet.getLong(1), resultSet.getBigDecimal(2));
+            currencies.put(resultSet.getLong(1), resultSet.getString(3));
+        });
+
+        EndOfDayProperties properties = new EndOfDayProperties();
+        properties.setParallelism(4);
+        properties.setPartitions(7);
+        properties.setChunkSize(16);
+        properties.setMonthlyFees(Map.of("KES", KES_FEE));
+        properties.setFeeDayOfMonth(1);
+        service = new EndOfDayService(dataSource, transactionManager, properties,
+                new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties()), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM end_of_day_partition");
+        jdbcTemplate.execute("DELETE FROM end_of_day_run");
+        jdbcTemplate.execute("DELETE FROM account_monthly_total");
+        jdbcTemplate.execute("DELETE FROM transaction");
+        jdbcTemplate.execute("DELETE FROM account");
+    }
+
+    @Test
+    void resumedRunPostsEveryAccountExactlyOnce() {
+        // A run that stopped after a few chunks of two partitions.
+        service.prepare(FEE_DAY);
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.processNextChunk(FEE_DAY, 0)).isTrue();
+        }
+        assertThat(service.processNextChunk(FEE_DAY, 5)).isTrue();
+
+        EndOfDayRun run = service.run(FEE_DAY);
+
+        int expectedEntries = postExpected(true);
+        assertThat(run.getStatus()).isEqualTo(EndOfDayRunStatus.COMPLETED);
+        assertThat(run.getAccountsProcessed()).isEqualTo(ACCOUNTS);
+        assertThat(run.getTransactionsWritten()).isEqualTo(expectedEntries);
+        assertLedgerMatches(expectedEntries);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account WHERE daily_transaction_amount <> 0", Integer.class)).isZero();
+        // Too poor for the fee, and not charged in dollars.
+        assertThat(entries("FEE", "eod2")).isZero();
+        assertThat(entries("FEE", "eod4")).isZero();
+        assertThat(entries("FEE", "eod3")).isEqualTo(1);
+
+        // A completed business date is not run again.
+        EndOfDayRun again = service.run(FEE_DAY);
+        assertThat(again.getId()).isEqualTo(run.getId());
+        assertLedgerMatches(expectedEntries);
+    }
+
+    @Test
+    void chargesTheFeeOnlyOnTheFeeDay() {
+        assertThat(service.run(FEE_DAY).getStatus()).isEqualTo(EndOfDayRunStatus.COMPLETED);
+        int feeDayEntries = postExpected(true);
+
+        EndOfDayRun nextDay = service.run(FEE_DAY.plusDays(1));
+
+        int nextDayEntries = postExpected(false);
+        assertThat(nextDay.getTransactionsWritten()).isEqualTo(nextDayEntries);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction WHERE transaction_type = 'FEE'", Integer.class))
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction WHERE transaction_type = 'FEE' " +
+                        "AND description = 'Monthly account fee for 2025-08'", Integer.class));
+        assertLedgerMatches(feeDayEntries + nextDayEntries);
+    }
+
+    @Test
+    void leasesFromBeforeTheRolloverDoNotCountAgainstTheNewDay() {
+        LimitLeaseService first = limitLeaseService();
+        LimitLeaseService second = limitLeaseService();
+        // eod1 starts the day with nothing reserved and a limit of 10000.00; each replica leases 1000.00 of it.
+        first.reserve("eod1", new BigDecimal("150.00"));
+        second.reserve("eod1", new BigDecimal("100.00"));
+        assertThat(dailyAmount("eod1")).isEqualByComparingTo("2000.00");
+
+        assertThat(service.run(FEE_DAY).getStatus()).isEqualTo(EndOfDayRunStatus.COMPLETED);
+        assertThat(dailyAmount("eod1")).isEqualByComparingTo("0.00");
+
+        // The 900.00 left in the second replica's lease was counted yesterday, so the new day's limit is taken in full.
+        second.reserve("eod1", new BigDecimal("10000.00"));
+        assertThat(dailyAmount("eod1")).isEqualByComparingTo("10000.00");
+
+        // Yesterday's transfer fails after the rollover, and the lease holding it is given back without effect.
+        first.release("eod1", new BigDecimal("150.00"));
+        first.returnAllLeases();
+        assertThat(dailyAmount("eod1")).isEqualByComparingTo("10000.00");
+        assertThatThrownBy(() -> second.reserve("eod1", BigDecimal.ONE)).isInstanceOf(LimitExceededException.class);
+        second.returnAllLeases();
+        assertThat(dailyAmount("eod1")).isEqualByComparingTo("10000.00");
+    }
+
+    private LimitLeaseService limitLeaseService() {
+        LimitLeaseProperties properties = new LimitLeaseProperties();
+        properties.setChunkSize(1_000);
+        properties.setTtl(Duration.ofHours(1));
+        return new LimitLeaseService(jdbcTemplate, properties, transactionManager, new SimpleMeterRegistry());
+    }
+
+    private BigDecimal dailyAmount(String customerId) {
+        return jdbcTemplate.queryForObject("SELECT daily_transaction_amount FROM account WHERE customer_id = ?", BigDecimal.class, customerId);
+    }
+
+    /**
+     * Applies a business date to {@link #balances} the way the batch should.
+     *
+     * @return The number of ledger entries the day should write.
+     */
+    private int postExpected(boolean feeDay) {
+        int entries = 0;
+        for (Map.Entry<Long, BigDecimal> account : balances.entrySet()) {
+            BigDecimal balance = account.getValue();
+            BigDecimal interest = balance.multiply(DAILY_RATE).setScale(2, RoundingMode.HALF_UP);
+            if (interest.signum() > 0) {
+                balance = balance.add(interest);
+                entries++;
+            }
+            if (feeDay && currencies.get(account.getKey()).equals("KES") && balance.compareTo(KES_FEE) >= 0) {
+                balance = balance.subtract(KES_FEE);
+                entries++;
+            }
+            account.setValue(balance);
+        }
+        return entries;
+    }
+
+    /**
+     * Balances match {@link #balances}, and each account's newest entry ends on its balance.
+     */
+    private void assertLedgerMatches(int expectedEntries) {
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Integer.class)).isEqualTo(expectedEntries);
+        Map<Long, BigDecimal> actual = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, balance FROM account ORDER BY id", resultSet -> {
+            actual.put(resultSet.getLong(1), resultSet.getBigDecimal(2));
+        });
+        assertThat(actual).isEqualTo(balances);
+        // Every entry is in the monthly totals once.
+        assertThat(jdbcTemplate.queryForMap("SELECT COALESCE(SUM(total_amount), 0) AS amount, " +
+                "CAST(COALESCE(SUM(transaction_count), 0) AS BIGINT) AS entries FROM account_monthly_total"))
+                .isEqualTo(jdbcTemplate.queryForMap("SELECT COALESCE(SUM(amount), 0) AS amount, COUNT(*) AS entries FROM transaction"));
+        jdbcTemplate.query("SELECT t.account_id, t.balance_after FROM transaction t WHERE t.id = " +
+                "(SELECT MAX(l.id) FROM transaction l WHERE l.account_id = t.account_id)", resultSet -> {
+            assertThat(resultSet.getBigDecimal(2)).isEqualTo(balances.get(resultSet.getLong(1)));
+        });
+    }
+
+    private int entries(String type, String customerId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction t JOIN account a ON a.id = t.account_id " +
+                "WHERE t.transaction_type = ? AND a.customer_id = ?", Integer.class, type, customerId);
+    }
+}
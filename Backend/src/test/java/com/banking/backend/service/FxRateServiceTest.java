@@ -0,0 +1,82 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.FxRateUnavailableException;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.util.FxRateSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxRateServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void convertsWithTheLatestVersionAndIgnoresOlderOnes() throws IOException {
+        Path rates = writeRates("version=1\nUSD=0.0077\nEUR=0.0071\n");
+        FxRateService service = service(rates, Duration.ofMinutes(15));
+
+        FxRateSnapshot.Conversion conversion = service.convert(BigDecimal.valueOf(1_000), "KES", "USD");
+        assertThat(conversion.amount()).isEqualByComparingTo("7.70");
+        assertThat(conversion.rateVersion()).isEqualTo(1);
+        // Cross rates go through the base currency: 0.0071 / 0.0077.
+        assertThat(service.convert(BigDecimal.valueOf(100), "USD", "EUR").amount()).isEqualByComparingTo("92.21");
+
+        writeRates("version=2\nUSD=0.0080\nEUR=0.0071\n");
+        service.refreshRates();
+        assertThat(service.convert(BigDecimal.valueOf(1_000), "KES", "USD"))
+                .satisfies(next -> {
+                    assertThat(next.amount()).isEqualByComparingTo("8.00");
+                    assertThat(next.rateVersion()).isEqualTo(2);
+                });
+
+        writeRates("version=1\nUSD=0.0077\nEUR=0.0071\n");
+        service.refreshRates();
+        assertThat(service.convert(BigDecimal.valueOf(1_000), "KES", "USD").rateVersion()).isEqualTo(2);
+
+        // A broken file leaves the loaded rates in place.
+        Files.writeString(rates, "version=3\nUSD=not-a-number\n");
+        service.refreshRates();
+        assertThat(service.convert(BigDecimal.valueOf(1_000), "KES", "USD").rateVersion()).isEqualTo(2);
+
+        assertThatThrownBy(() -> service.convert(BigDecimal.TEN, "KES", "JPY"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesCrossCurrencyOnlyWhenRatesAreMissingOrStale() throws IOException {
+        FxRateService missing = service(directory.resolve("missing.properties"), Duration.ofMinutes(15));
+        assertThat(missing.convert(BigDecimal.TEN, "KES", "KES")).isEqualTo(FxRateSnapshot.Conversion.identity(BigDecimal.TEN));
+        assertThatThrownBy(() -> missing.convert(BigDecimal.TEN, "KES", "USD"))
+                .isInstanceOf(FxRateUnavailableException.class);
+
+        FxRateService stale = service(writeRates("version=1\nUSD=0.0077\n"), Duration.ZERO);
+        assertThatThrownBy(() -> stale.convert(BigDecimal.TEN, "KES", "USD"))
+                .isInstanceOf(FxRateUnavailableException.class)
+                .hasMessageContaining("out of date");
+    }
+
+    private Path writeRates(String entries) throws IOException {
+        return Files.writeString(directory.resolve("fx-rates.properties"), "base=KES\n" + entries);
+    }
+
+    private static FxRateService service(Path rates, Duration maxAge) {
+        FxProperties properties = new FxProperties();
+        properties.setMaxAge(maxAge);
+        FxRateService service = new FxRateService(new FileFxRateProvider(new FileSystemResource(rates)), properties,
+                new SimpleMeterRegistry());
+        service.loadInitialRates();
+        return service;
+    }
+}
@@ -0,0 +1,197 @@
+package com.banking.backend.service;
+
+import com.banking.backend.GlobalExceptationHandlers.LimitExceededException;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs several application contexts, one per simulated replica, against one shared database.
+ */
+class LimitLeaseServiceTest {
+
+    private static final int REPLICAS = 4;
+    private static final int THREADS_PER_REPLICA = 4;
+    private static final int CUSTOMERS = 20;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final List<AnnotationConfigApplicationContext> replicas = new ArrayList<>();
+    private final List<MeterRegistry> registries = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE account (id BIGINT AUTO_INCREMENT PRIMARY KEY, customer_id VARCHAR(255) UNIQUE, " +
+                "daily_transaction_limit NUMERIC(38, 2) NOT NULL, daily_transaction_amount NUMERIC(38, 2) NOT NULL, " +
+                "limit_epoch BIGINT NOT NULL DEFAULT 0)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicas.forEach(AnnotationConfigApplicationContext::close);
+        database.shutdown();
+    }
+
+    @Test
+    void neverExceedsLimitAcrossReplicas() throws InterruptedException {
+        long limit = 10_000;
+        createCustomers(limit);
+        List<LimitLeaseService> services = startReplicas(true, 1_000, Duration.ofHours(1));
+
+        // Demand is far above the limit; a few reservations are given back as failed transfers would be.
+        Map<String, AtomicLong> spent = new ConcurrentHashMap<>();
+        runWorkload(services, 2_000, spent);
+        replicas.forEach(AnnotationConfigApplicationContext::close);
+        replicas.clear();
+
+        for (int c = 0; c < CUSTOMERS; c++) {
+            String customerId = "user" + c;
+            long customerSpent = spent.getOrDefault(customerId, new AtomicLong()).get();
+            assertThat(customerSpent).isPositive().isLessThanOrEqualTo(limit);
+            // With every lease returned, the shared counter holds exactly what was spent.
+            assertThat(reservedInDatabase(customerId)).isEqualByComparingTo(BigDecimal.valueOf(customerSpent));
+        }
+    }
+
+    @Test
+    @Tag("perf")
+    void leasesSaveDatabaseWrites(TestReporter reporter) throws InterruptedException {
+        createCustomers(1_000_000_000L);
+
+        runWorkload(startReplicas(false, 0, Duration.ofHours(1)), 1_000, new ConcurrentHashMap<>());
+        double perTransferWrites = stopReplicasAndCountWrites();
+
+        runWorkload(startReplicas(true, 50_000, Duration.ofHours(1)), 1_000, new ConcurrentHashMap<>());
+        double leasedWrites = stopReplicasAndCountWrites();
+
+        reporter.publishEntry("daily-limit counter writes", String.format("%d reservations: %.0f per transfer, " +
+                        "%.0f with leases (%.1f%% fewer)", REPLICAS * THREADS_PER_REPLICA * 1_000, perTransferWrites,
+                leasedWrites, 100 * (1 - leasedWrites / perTransferWrites)));
+        assertThat(leasedWrites).isLessThan(perTransferWrites / 10);
+    }
+
+    @Test
+    void returnsUnspentAllowanceWhenLeaseExpires() {
+        createCustomers(10_000);
+        LimitLeaseService service = startReplicas(true, 1_000, Duration.ZERO).get(0);
+
+        service.reserve("user0", BigDecimal.valueOf(150));
+        assertThat(reservedInDatabase("user0")).isEqualByComparingTo("1000");
+
+        service.returnExpiredLeases();
+        assertThat(reservedInDatabase("user0")).isEqualByComparingTo("150");
+
+        assertThatThrownBy(() -> service.reserve("user0", BigDecimal.valueOf(9_900)))
+                .isInstanceOf(LimitExceededException.class)
+                .hasMessageContaining("9850.00");
+        assertThatThrownBy(() -> service.reserve("nobody", BigDecimal.TEN))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void createCustomers(long limit) {
+        for (int c = 0; c < CUSTOMERS; c++) {
+            jdbcTemplate.update("INSERT INTO account (customer_id, daily_transaction_limit, daily_transaction_amount) VALUES (?, ?, 0)",
+                    "user" + c, BigDecimal.valueOf(limit));
+        }
+    }
+
+    private List<LimitLeaseService> startReplicas(boolean leasing, long chunkSize, Duration ttl) {
+        List<LimitLeaseService> services = new ArrayList<>();
+        for (int r = 0; r < REPLICAS; r++) {
+            LimitLeaseProperties properties = new LimitLeaseProperties();
+            properties.setEnabled(leasing);
+            properties.setChunkSize(chunkSize);
+            properties.setTtl(ttl);
+
+            AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+            context.registerBean(JdbcTemplate.class, () -> new JdbcTemplate(database));
+            context.registerBean(PlatformTransactionManager.class, () -> new DataSourceTransactionManager(database));
+            context.registerBean(LimitLeaseProperties.class, () -> properties);
+            context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+            context.registerBean(LimitLeaseService.class);
+            context.refresh();
+            replicas.add(context);
+            registries.add(context.getBean(MeterRegistry.class));
+            services.add(context.getBean(LimitLeaseService.class));
+        }
+        return services;
+    }
+
+    private void runWorkload(List<LimitLeaseService> services, int reservationsPerThread, Map<String, AtomicLong> spent)
+            throws InterruptedException {
+        try (ExecutorService threads = Executors.newFixedThreadPool(services.size() * THREADS_PER_REPLICA)) {
+            for (LimitLeaseService service : services) {
+                for (int t = 0; t < THREADS_PER_REPLICA; t++) {
+                    threads.submit(() -> {
+                        ThreadLocalRandom random = ThreadLocalRandom.current();
+                        for (int i = 0; i < reservationsPerThread; i++) {
+                            String customerId = "user" + random.nextInt(CUSTOMERS);
+                            long amount = 1 + random.nextInt(100);
+                            try {
+                                service.reserve(customerId, BigDecimal.valueOf(amount));
+                            } catch (LimitExceededException e) {
+                                continue;
+                            }
+                            if (random.nextInt(20) == 0) {
+                                service.release(customerId, BigDecimal.valueOf(amount));
+                            } else {
+                                spent.computeIfAbsent(customerId, id -> new AtomicLong()).addAndGet(amount);
+                            }
+                        }
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the replicas, which returns their leases, and counts every counter update they made.
+     */
+    private double stopReplicasAndCountWrites() {
+        replicas.forEach(AnnotationConfigApplicationContext::close);
+        replicas.clear();
+        double writes = registries.stream()
+                .flatMap(registry -> registry.find("banking.limits.writes").counters().stream())
+                .mapToDouble(Counter::count)
+                .sum();
+        registries.clear();
+        return writes;
+    }
+
+    private BigDecimal reservedInDatabase(String customerId) {
+        return jdbcTemplate.queryForObject("SELECT daily_transaction_amount FROM account WHERE customer_id = ?",
+                BigDecimal.class, customerId);
+    }
+}
@@ -0,0 +1,227 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.customer.CustomerFilterProperties;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.dto.MonthlyTotalDTO;
+import com.banking.backend.dto.MonthlyTotalsRebuildDTO;
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.enums.TransactionType;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.service.interfaces.IMonthlyTotalsService;
+import com.banking.backend.service.interfaces.INotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Transfers and rebuilt ranges commit their own transactions.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MonthlyTotalsServiceTest {
+
+    private static final int ACCOUNTS = 20;
+    private static final YearMonth LAST_MONTH = YearMonth.of(2025, 6);
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private MonthlyTotalsService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        MonthlyTotalsProperties properties = new MonthlyTotalsProperties();
+        properties.setRebuildParallelism(4);
+        properties.setRebuildRangeSize(3);
+        service = new MonthlyTotalsService(dataSource, transactionManager, properties);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            rows.add(new Object[]{"ACC" + i, "Customer " + i, "totals" + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account (account_number, customer_name, customer_id, balance, daily_transaction_limit, " +
+                "currency, daily_transaction_amount) VALUES (?, ?, ?, 1000000, 500000, 'KES', 0)", rows);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM account_monthly_total");
+        jdbcTemplate.execute("DELETE FROM transaction");
+        jdbcTemplate.execute("DELETE FROM account");
+    }
+
+    @Test
+    void transfersAddTheirEntriesToBothAccountsTotals() {
+        TransactionService transactionService = transactionService();
+        for (int i = 0; i < 6; i++) {
+            transactionService.transferFunds(transfer("totals0", "totals1", BigDecimal.TEN));
+        }
+        transactionService.transferFunds(transfer("totals1", "totals0", BigDecimal.ONE));
+
+        assertThat(totals()).isEqualTo(ledger());
+        List<MonthlyTotalDTO> sender = service.getMonthlyTotals("totals0", null, null);
+        assertThat(sender).hasSize(2);
+        assertThat(sender).allSatisfy(total -> assertThat(total.getMonth()).isEqualTo(YearMonth.now()));
+        assertThat(sender).extracting(MonthlyTotalDTO::getTransactionType)
+                .containsExactly(TransactionType.TRANSFER_IN, TransactionType.TRANSFER_OUT);
+        assertThat(sender.get(0).getTotalAmount()).isEqualByComparingTo("1");
+        assertThat(sender.get(0).getTransactionCount()).isEqualTo(1);
+        assertThat(sender.get(1).getTotalAmount()).isEqualByComparingTo("-60");
+        assertThat(sender.get(1).getTransactionCount()).isEqualTo(6);
+    }
+
+    @Test
+    void addCreatesMissingRowsAndMergesDeltasOfTheSameRow() {
+        long accountId = accountId("totals3");
+        service.add(List.of(delta(accountId, "5.00"), delta(accountId, "2.50")));
+        // As a rebuild of the range would leave it before inserting the recomputed rows.
+        jdbcTemplate.update("DELETE FROM account_monthly_total WHERE account_id = ?", accountId);
+        service.add(List.of(delta(accountId, "1.25")));
+        service.add(List.of(delta(accountId, "1.25")));
+
+        List<MonthlyTotalDTO> totals = service.getMonthlyTotals("totals3", LAST_MONTH, 1);
+        assertThat(totals).hasSize(1);
+        assertThat(totals.get(0).getTotalAmount()).isEqualByComparingTo("2.50");
+        assertThat(totals.get(0).getTransactionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildRecomputesEveryAccountInParallelAndKeepsArchivedMonths() {
+        List<Object[]> entries = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            long accountId = accountId("totals" + i);
+            for (int month = 0; month < 30; month++) {
+                // Accounts have fewer months the higher their number, and some months have no entries.
+                if ((month + i) % 7 == 0 || month < i / 2) {
+                    continue;
+                }
+                Timestamp timestamp = Timestamp.valueOf(LAST_MONTH.minusMonths(29 - month).atDay(1 + month % 28).atTime(12, i));
+                entries.add(new Object[]{"tx-" + i + "-" + month, "TRANSFER_IN", BigDecimal.valueOf(month * 100L + i, 2), timestamp,
+                        accountId});
+                entries.add(new Object[]{"tx-" + i + "-" + month, "TRANSFER_OUT", BigDecimal.valueOf(-month - 1), timestamp, accountId});
+                if (month % 3 == 0) {
+                    entries.add(new Object[]{"int-" + i + "-" + month, "INTEREST", new BigDecimal("0.07"), timestamp, accountId});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transaction (id, transaction_id, transaction_type, amount, description, timestamp, " +
+                "balance_after, account_id) VALUES (nextval('transaction_seq'), ?, ?, ?, 'history', ?, 0, ?)", entries);
+        long accountId = accountId("totals0");
+        // Totals that drifted, and the total of a month whose entries have been archived.
+        jdbcTemplate.update("INSERT INTO account_monthly_total (account_id, month_start, transaction_type, total_amount, transaction_count) " +
+                "VALUES (?, ?, 'TRANSFER_IN', 999, 9)", accountId, Date.valueOf(LAST_MONTH.atDay(1)));
+        jdbcTemplate.update("INSERT INTO account_monthly_total (account_id, month_start, transaction_type, total_amount, transaction_count) " +
+                "VALUES (?, ?, 'TRANSFER_IN', 42, 3)", accountId, Date.valueOf(LAST_MONTH.minusYears(5).atDay(1)));
+
+        MonthlyTotalsRebuildDTO rebuilt = service.rebuild(null);
+
+        Set<String> ledger = ledger();
+        assertThat(rebuilt.getSince()).isEqualTo(LAST_MONTH.minusMonths(29));
+        assertThat(rebuilt.getRowsWritten()).isEqualTo(ledger.size());
+        Set<String> expected = new HashSet<>(ledger);
+        expected.add(accountId + " " + LAST_MONTH.minusYears(5).atDay(1) + " TRANSFER_IN 42.00 3");
+        assertThat(totals()).isEqualTo(expected);
+
+        // Rebuilding the last months only leaves the others as they are.
+        jdbcTemplate.update("UPDATE account_monthly_total SET total_amount = 0, transaction_count = 0");
+        service.rebuild(LAST_MONTH.minusMonths(2));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_monthly_total WHERE transaction_count > 0",
+                Integer.class)).isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_monthly_total " +
+                "WHERE month_start >= ?", Integer.class, Date.valueOf(LAST_MONTH.minusMonths(2).atDay(1))));
+
+        // The 24 months up to June 2025 of an account, oldest first.
+        List<MonthlyTotalDTO> months = service.getMonthlyTotals("totals0", LAST_MONTH, 24);
+        assertThat(months).extracting(MonthlyTotalDTO::getMonth).isSorted()
+                .allSatisfy(month -> assertThat(month).isBetween(LAST_MONTH.minusMonths(23), LAST_MONTH));
+        assertThat(months.get(months.size() - 1).getTransactionType()).isEqualTo(TransactionType.TRANSFER_OUT);
+        assertThat(months.get(months.size() - 1).getTotalAmount()).isEqualByComparingTo("-30");
+    }
+
+    @Test
+    void rejectsUnknownAccountsAndRangesOutOfBounds() {
+        assertThat(service.getMonthlyTotals("totals5", LAST_MONTH, 24)).isEmpty();
+        assertThatThrownBy(() -> service.getMonthlyTotals("nobody", LAST_MONTH, 24))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Account not found for user ID: nobody");
+        assertThatThrownBy(() -> service.getMonthlyTotals("totals5", LAST_MONTH, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getMonthlyTotals("totals5", LAST_MONTH, 121))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Set<String> totals() {
+        return new HashSet<>(jdbcTemplate.query("SELECT account_id, month_start, transaction_type, total_amount, transaction_count " +
+                "FROM account_monthly_total", (resultSet, rowNum) -> resultSet.getLong(1) + " " + resultSet.getDate(2) + " " +
+                resultSet.getString(3) + " " + resultSet.getBigDecimal(4).setScale(2) + " " + resultSet.getLong(5)));
+    }
+
+    /**
+     * The totals worked out from the ledger, in the form of {@link #totals()}.
+     */
+    private Set<String> ledger() {
+        return new HashSet<>(jdbcTemplate.query("SELECT account_id, CAST(DATE_TRUNC('month', timestamp) AS DATE), transaction_type, " +
+                        "SUM(amount), COUNT(*) FROM transaction GROUP BY account_id, CAST(DATE_TRUNC('month', timestamp) AS DATE), " +
+                        "transaction_type", (resultSet, rowNum) -> resultSet.getLong(1) + " " + resultSet.getDate(2) + " " +
+                resultSet.getString(3) + " " + resultSet.getBigDecimal(4).setScale(2) + " " + resultSet.getLong(5)));
+    }
+
+    private long accountId(String customerId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM account WHERE customer_id = ?", Long.class, customerId);
+    }
+
+    private static IMonthlyTotalsService.Delta delta(long accountId, String amount) {
+        return new IMonthlyTotalsService.Delta(accountId, LAST_MONTH, TransactionType.FEE, new BigDecimal(amount), 1);
+    }
+
+    private TransactionService transactionService() {
+        FxRateService fxRateService = new FxRateService(new FileFxRateProvider(new ClassPathResource("fx-rates.properties")),
+                new FxProperties(), new SimpleMeterRegistry());
+        fxRateService.loadInitialRates();
+        return new TransactionService(accountRepository, mock(INotificationService.class),
+                new LimitLeaseService(jdbcTemplate, new LimitLeaseProperties(), transactionManager, new SimpleMeterRegistry()),
+                new HotAccountService(new HotAccountProperties(), new SimpleMeterRegistry()), fxRateService,
+                new CustomerFilterService(dataSource, new CustomerFilterProperties(), transactionManager, new SimpleMeterRegistry()),
+                service, transactionManager);
+    }
+
+    private static TransactionRequestDTO transfer(String fromUserId, String toUserId, BigDecimal amount) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setFromUserId(fromUserId);
+        request.setToUserId(toUserId);
+        request.setAmount(amount);
+        request.setDescription("rent");
+        return request;
+    }
+}
@@ -0,0 +1,209 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.customer.CustomerFilterProperties;
+import com.banking.backend.config.notification.NotificationInboxProperties;
+import com.banking.backend.config.sql.SqlMonitoringConfig;
+import com.banking.backend.dto.InboxNotificationDTO;
+import com.banking.backend.dto.InboxPageDTO;
+import com.banking.backend.dto.TransactionNotification;
+import com.banking.backend.support.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SqlMonitoringConfig.class)
+// The inbox writer commits its own transactions on its own threads.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationInboxServiceTest {
+
+    // Like the Service Bus processor's max-concurrent-calls: each consumer waits for its notification to commit.
+    private static final int CONSUMERS = 64;
+    private static final int NOTIFICATIONS = 20_000;
+    private static final int USERS = 2_000;
+    // The rate the consumer is taken to receive notifications at; the inbox has to store them at least as fast.
+    private static final double DRAIN_RATE_PER_SECOND = 2_000;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DELETE FROM notification_inbox");
+        jdbcTemplate.execute("DELETE FROM notification_inbox_state");
+    }
+
+    @Test
+    void pagesNewestFirstAndKeepsTheUnreadCountWithoutCounting() throws Exception {
+        NotificationInboxService inbox = inbox(new NotificationInboxProperties());
+        try {
+            List<CompletableFuture<Void>> stored = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                stored.add(inbox.store(notification("alice", "tx-" + i)));
+            }
+            stored.add(inbox.store(notification("bob", "tx-0")));
+            // Redelivered after it was stored.
+            stored.add(inbox.store(notification("alice", "tx-0")));
+            CompletableFuture.allOf(stored.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+            List<String> seen = new ArrayList<>();
+            Long before = null;
+            do {
+                InboxPageDTO page = inbox.getInbox("alice", before, 10);
+                assertThat(page.getUnreadCount()).isEqualTo(25);
+                page.getNotifications().forEach(notification -> seen.add(notification.getTransactionId()));
+                before = page.getNextBefore();
+            } while (before != null);
+            assertThat(seen).hasSize(25).doesNotHaveDuplicates();
+            assertThat(seen.get(0)).isEqualTo("tx-24");
+            assertThat(seen.get(24)).isEqualTo("tx-0");
+
+            List<InboxNotificationDTO> newest = inbox.getInbox("alice", null, 20).getNotifications();
+            assertThat(inbox.markRead("alice", newest.get(5).getId())).as("all but the five newest read").isEqualTo(5);
+            List<InboxNotificationDTO> afterRead = inbox.getInbox("alice", null, 20).getNotifications();
+            assertThat(afterRead.get(4).isRead()).isFalse();
+            assertThat(afterRead.get(5).isRead()).isTrue();
+
+            // The badge is served from the cache, and notifications stored on this node keep it current.
+            assertThat(SqlStatementCounter.count(() -> assertThat(inbox.getUnreadCount("alice")).isEqualTo(5))).isZero();
+            inbox.store(notification("alice", "tx-25")).get(10, TimeUnit.SECONDS);
+            assertThat(SqlStatementCounter.count(() -> assertThat(inbox.getUnreadCount("alice")).isEqualTo(6))).isZero();
+            assertThat(unreadRows("alice")).isEqualTo(6);
+
+            assertThat(inbox.markRead("alice", null)).isZero();
+            assertThat(inbox.getUnreadCount("bob")).isEqualTo(1);
+            assertThat(inbox.getUnreadCount("nobody")).isZero();
+        } finally {
+            inbox.stop();
+        }
+    }
+
+    @Test
+    void findsWhichNotificationsAreNotStoredYet() throws Exception {
+        NotificationInboxService inbox = inbox(new NotificationInboxProperties());
+        try {
+            inbox.store(notification("alice", "tx-1")).get(10, TimeUnit.SECONDS);
+            inbox.store(notification("bob", "tx-2")).get(10, TimeUnit.SECONDS);
+
+            TransactionNotification sent = notification("alice", "tx-1");
+            sent.setTransactionType("TRANSFER_OUT");
+            List<TransactionNotification> candidates = List.of(notification("alice", "tx-1"), notification("alice", "tx-2"),
+                    notification("bob", "tx-2"), sent, notification("carol", "tx-3"));
+            assertThat(SqlStatementCounter.count(() -> assertThat(inbox.withoutStored(candidates))
+                    .containsExactly(candidates.get(1), candidates.get(3), candidates.get(4)))).isEqualTo(1);
+            assertThat(inbox.withoutStored(List.of())).isEmpty();
+        } finally {
+            inbox.stop();
+        }
+    }
+
+    @Test
+    @Tag("perf")
+    void groupCommitStoresFasterThanTheConsumerDrains(TestReporter reporter) throws Exception {
+        NotificationInboxProperties oneAtATime = new NotificationInboxProperties();
+        oneAtATime.setMaxBatchSize(1);
+        double perMessage = storeAll(oneAtATime, "single");
+        tearDown();
+        double batched = storeAll(new NotificationInboxProperties(), "batched");
+
+        reporter.publishEntry("inbox writes", String.format("%d concurrent consumers: %.0f notifications/s committing " +
+                "one at a time, %.0f notifications/s in batches (%.1fx)", CONSUMERS, perMessage, batched, batched / perMessage));
+        assertThat(batched).isGreaterThan(DRAIN_RATE_PER_SECOND);
+        assertThat(batched).isGreaterThan(perMessage * 2);
+    }
+
+    /**
+     * Stores {@link #NOTIFICATIONS} from {@link #CONSUMERS} threads, each waiting for its notification to
+     * commit as the consumer does, and checks that every one landed once with the right unread counts.
+     *
+     * @return Notifications stored per second.
+     */
+    private double storeAll(NotificationInboxProperties properties, String prefix) throws Exception {
+        NotificationInboxService inbox = inbox(properties);
+        AtomicInteger next = new AtomicInteger();
+        long startedAt = System.nanoTime();
+        try (ExecutorService consumers = Executors.newFixedThreadPool(CONSUMERS)) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < CONSUMERS; c++) {
+                running.add(consumers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < NOTIFICATIONS; i = next.getAndIncrement()) {
+                        inbox.store(notification("user" + i % USERS, prefix + "-" + i)).get(30, TimeUnit.SECONDS);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> consumer : running) {
+                consumer.get();
+            }
+        } finally {
+            inbox.stop();
+        }
+        double perSecond = NOTIFICATIONS / ((System.nanoTime() - startedAt) / 1e9);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification_inbox", Long.class)).isEqualTo(NOTIFICATIONS);
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(unread_count) FROM notification_inbox_state", Long.class))
+                .isEqualTo(NOTIFICATIONS);
+        assertThat(unreadRows("user7")).isEqualTo(NOTIFICATIONS / USERS);
+        return perSecond;
+    }
+
+    private long unreadRows(String userId) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT COUNT(*) FROM notification_inbox WHERE user_id = ? AND read_at IS NULL", Long.class, userId);
+    }
+
+    private NotificationInboxService inbox(NotificationInboxProperties properties) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Not loaded, so it lets every customer through.
+        CustomerFilterService customerFilter = new CustomerFilterService(dataSource, new CustomerFilterProperties(),
+                transactionManager, meterRegistry);
+        NotificationInboxService inbox = new NotificationInboxService(dataSource, customerFilter, properties,
+                transactionManager, meterRegistry);
+        inbox.start();
+        return inbox;
+    }
+
+    private static TransactionNotification notification(String userId, String transactionId) {
+        TransactionNotification notification = new TransactionNotification();
+        notification.setUserId(userId);
+        notification.setTransactionId(transactionId);
+        notification.setTransactionType("TRANSFER_IN");
+        notification.setMessage("You have received KES 100.00 from Bob.");
+        notification.setTimestamp(LocalDateTime.now());
+        notification.setAmount(new BigDecimal("100.00"));
+        notification.setCurrency("KES");
+        notification.setSenderName("Bob");
+        return notification;
+    }
+}
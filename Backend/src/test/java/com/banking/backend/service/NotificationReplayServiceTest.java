@@ -0,0 +1,236 @@
+package com.banking.backend.service;
+
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.IterableStream;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusReceivedMessage;
+import com.azure.messaging.servicebus.ServiceBusReceiverClient;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import com.banking.backend.config.notification.NotificationReplayProperties;
+import com.banking.backend.dto.NotificationReplayDTO;
+import com.banking.backend.dto.TransactionNotification;
+import com.banking.backend.enums.NotificationReplaySource;
+import com.banking.backend.enums.NotificationReplayStatus;
+import com.banking.backend.service.interfaces.INotificationInboxService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationReplayServiceTest {
+
+    private static final LocalDateTime OUTAGE_START = LocalDateTime.of(2025, 7, 10, 14, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+    private final ServiceBusReceiverClient receiver = mock(ServiceBusReceiverClient.class);
+    private final ServiceBusSenderAsyncClient sender = mock(ServiceBusSenderAsyncClient.class);
+    private final INotificationInboxService inbox = mock(INotificationInboxService.class);
+    private final List<ServiceBusMessage> sent = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void replaysUndeliveredNotificationsInTheRangeAndLeavesTheRest() throws Exception {
+        List<ServiceBusReceivedMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            messages.add(message(i, notification("tx-" + i, OUTAGE_START.plusMinutes(i))));
+        }
+        // Before the outage, and not a notification at all.
+        ServiceBusReceivedMessage earlier = message(10, notification("tx-10", OUTAGE_START.minusMinutes(1)));
+        ServiceBusReceivedMessage garbage = message(11, "not json");
+        messages.add(earlier);
+        messages.add(garbage);
+        Deque<List<ServiceBusReceivedMessage>> batches = new ArrayDeque<>(List.of(messages.subList(0, 5), messages.subList(5, 12),
+                // The first message left behind comes round again once its lock expires.
+                List.of(earlier)));
+        receive(batches);
+        sendSucceeds();
+        // tx-3 and tx-7 reached the inbox before the outage ended.
+        when(inbox.withoutStored(any())).thenAnswer(invocation -> ((List<TransactionNotification>) invocation.getArgument(0)).stream()
+                .filter(n -> !n.getTransactionId().equals("tx-3") && !n.getTransactionId().equals("tx-7"))
+                .toList());
+
+        NotificationReplayService service = service(new NotificationReplayProperties());
+        service.start(NotificationReplaySource.DEAD_LETTER_QUEUE, OUTAGE_START, OUTAGE_START.plusHours(2), null, null, 1);
+        NotificationReplayDTO progress = awaitFinished(service);
+
+        assertThat(progress.getStatus()).isEqualTo(NotificationReplayStatus.COMPLETED);
+        assertThat(progress.getReceived()).isEqualTo(12);
+        assertThat(progress.getReplayed()).isEqualTo(8);
+        assertThat(progress.getAlreadyDelivered()).isEqualTo(2);
+        assertThat(progress.getFilteredOut()).isEqualTo(1);
+        assertThat(progress.getUnreadable()).isEqualTo(1);
+        assertThat(progress.getFailed()).isZero();
+
+        assertThat(sent).extracting(message -> objectMapper.readValue(message.getBody().toString(), TransactionNotification.class).getTransactionId())
+                .containsExactly("tx-0", "tx-1", "tx-2", "tx-4", "tx-5", "tx-6", "tx-8", "tx-9");
+        assertThat(sent).allSatisfy(message -> assertThat(message.getApplicationProperties())
+                .containsKey("traceparent").doesNotContainKey("DeadLetterReason"));
+        for (int i = 0; i < 10; i++) {
+            verify(receiver).complete(messages.get(i));
+        }
+        verify(receiver, never()).complete(earlier);
+        verify(receiver, never()).complete(garbage);
+        verify(receiver, times(2)).abandon(earlier);
+        verify(receiver).abandon(garbage);
+    }
+
+    @Test
+    void keepsToTheRequestedRateAcrossWorkers() {
+        List<ServiceBusReceivedMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            messages.add(message(i, notification("tx-" + i, OUTAGE_START)));
+        }
+        Deque<List<ServiceBusReceivedMessage>> batches = new ArrayDeque<>();
+        for (int i = 0; i < messages.size(); i += 50) {
+            batches.add(messages.subList(i, i + 50));
+        }
+        receive(batches);
+        sendSucceeds();
+        when(inbox.withoutStored(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NotificationReplayService service = service(new NotificationReplayProperties());
+        long start = System.nanoTime();
+        service.start(NotificationReplaySource.FAILED_QUEUE, null, null, null, 100, 2);
+        NotificationReplayDTO progress = awaitFinished(service);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(progress.getReplayed()).isEqualTo(300);
+        // 50 may go at once, the other 250 at 100 per second.
+        assertThat(elapsed).isGreaterThanOrEqualTo(Duration.ofMillis(2400));
+        assertThat(progress.getReplayedPerSecond()).isLessThan(130);
+    }
+
+    @Test
+    void stopsAndLeavesTheBatchWhenTheNotificationQueueFails() {
+        List<ServiceBusReceivedMessage> messages = List.of(message(0, notification("tx-0", OUTAGE_START)),
+                message(1, notification("tx-1", OUTAGE_START)));
+        receive(new ArrayDeque<>(List.of(messages)));
+        ServiceBusMessageBatch batch = batch();
+        when(sender.createMessageBatch()).thenReturn(Mono.just(batch));
+        when(sender.sendMessages(any(ServiceBusMessageBatch.class))).thenReturn(Mono.error(new IllegalStateException("Service Bus is down")));
+        when(inbox.withoutStored(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NotificationReplayService service = service(new NotificationReplayProperties());
+        service.start(NotificationReplaySource.FAILED_QUEUE, null, null, null, null, null);
+        NotificationReplayDTO progress = awaitFinished(service);
+
+        assertThat(progress.getStatus()).isEqualTo(NotificationReplayStatus.FAILED);
+        assertThat(progress.getError()).isEqualTo("Service Bus is down");
+        assertThat(progress.getFailed()).isEqualTo(2);
+        verify(receiver, never()).complete(any());
+        messages.forEach(message -> verify(receiver).abandon(message));
+    }
+
+    @Test
+    void rejectsInvalidRequestsAndASecondReplay() {
+        when(receiver.receiveMessages(anyInt(), any(Duration.class))).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return new IterableStream<>(List.of());
+        });
+        NotificationReplayProperties properties = new NotificationReplayProperties();
+        properties.setReceiveTimeout(Duration.ofSeconds(10));
+        NotificationReplayService service = service(properties);
+
+        assertThatThrownBy(() -> service.start(NotificationReplaySource.FAILED_QUEUE, OUTAGE_START, OUTAGE_START, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start(NotificationReplaySource.FAILED_QUEUE, null, null, null, 0, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.getProgress()).isEmpty();
+
+        service.start(NotificationReplaySource.FAILED_QUEUE, null, null, null, null, null);
+        assertThatThrownBy(() -> service.start(NotificationReplaySource.DEAD_LETTER_QUEUE, null, null, null, null, null))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(awaitFinished(service).getStatus()).isEqualTo(NotificationReplayStatus.COMPLETED);
+    }
+
+    private NotificationReplayService service(NotificationReplayProperties properties) {
+        return new NotificationReplayService(() -> receiver, () -> receiver, () -> sender, inbox, objectMapper,
+                properties, new SimpleMeterRegistry());
+    }
+
+    private NotificationReplayDTO awaitFinished(NotificationReplayService service) {
+        await().atMost(Duration.ofSeconds(20)).until(() -> service.getProgress().orElseThrow().getStatus() != NotificationReplayStatus.RUNNING);
+        return service.getProgress().orElseThrow();
+    }
+
+    /**
+     * Hands out the batches in order, and then nothing, as a drained queue would.
+     */
+    private void receive(Deque<List<ServiceBusReceivedMessage>> batches) {
+        when(receiver.receiveMessages(anyInt(), any(Duration.class))).thenAnswer(invocation -> {
+            List<ServiceBusReceivedMessage> batch;
+            synchronized (batches) {
+                batch = batches.poll();
+            }
+            return new IterableStream<>(batch != null ? batch : List.of());
+        });
+    }
+
+    private void sendSucceeds() {
+        when(sender.createMessageBatch()).thenAnswer(invocation -> Mono.just(batch()));
+        when(sender.sendMessages(any(ServiceBusMessageBatch.class))).thenReturn(Mono.empty());
+    }
+
+    /**
+     * A batch that holds any number of messages and adds them to {@link #sent}; the test only sends a batch once.
+     */
+    private ServiceBusMessageBatch batch() {
+        List<ServiceBusMessage> added = new ArrayList<>();
+        ServiceBusMessageBatch batch = mock(ServiceBusMessageBatch.class);
+        when(batch.tryAddMessage(any())).thenAnswer(invocation -> {
+            added.add(invocation.getArgument(0));
+            sent.add(invocation.getArgument(0));
+            return true;
+        });
+        when(batch.getCount()).thenAnswer(invocation -> added.size());
+        return batch;
+    }
+
+    private ServiceBusReceivedMessage message(long sequenceNumber, Object body) {
+        String json;
+        try {
+            json = body instanceof String text ? text : objectMapper.writeValueAsString(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        ServiceBusReceivedMessage message = mock(ServiceBusReceivedMessage.class);
+        when(message.getBody()).thenReturn(BinaryData.fromString(json));
+        when(message.getSequenceNumber()).thenReturn(sequenceNumber);
+        when(message.getApplicationProperties()).thenReturn(Map.of("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01",
+                "DeadLetterReason", "MaxDeliveryCountExceeded"));
+        return message;
+    }
+
+    private static TransactionNotification notification(String transactionId, LocalDateTime timestamp) {
+        TransactionNotification notification = new TransactionNotification();
+        notification.setUserId("alice");
+        notification.setTransactionId(transactionId);
+        notification.setTransactionType("TRANSFER_OUT");
+        notification.setMessage("You have sent KES 100.00 to Bob.");
+        notification.setTimestamp(timestamp);
+        return notification;
+    }
+}
@@ -0,0 +1,135 @@
+package com.banking.backend.service;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import com.banking.backend.config.notification.NotificationDigestProperties;
+import com.banking.backend.config.notification.NotificationSendProperties;
+import com.banking.backend.enums.NotificationOverflowPolicy;
+import com.banking.backend.model.Account;
+import com.banking.backend.service.interfaces.INotificationSpoolService;
+import com.banking.backend.util.MessageFormatter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTest {
+
+    private static final int MAX_IN_FLIGHT = 16;
+    private static final int PRODUCERS = 8;
+    private static final int TRANSFERS_PER_PRODUCER = 50;
+
+    /**
+     * Stand-in for a Service Bus sender that takes a fixed time per message and records
+     * how many sends (and therefore retained messages) were outstanding at the same time.
+     */
+    private static final class SlowSender {
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger peakOutstanding = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+        private final ServiceBusSenderAsyncClient client = mock(ServiceBusSenderAsyncClient.class);
+
+        private SlowSender(Duration latency) {
+            when(client.sendMessage(any(ServiceBusMessage.class))).thenAnswer(invocation -> Mono.delay(latency)
+                    .doOnSubscribe(subscription -> peakOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max))
+                    .doOnTerminate(() -> {
+                        outstanding.decrementAndGet();
+                        completed.incrementAndGet();
+                    })
+                    .then());
+        }
+    }
+
+    @Test
+    void blockPolicyNeverExceedsWindowAndDeliversEverything() throws Exception {
+        SlowSender mainQueue = new SlowSender(Duration.ofMillis(20));
+        SlowSender failedQueue = new SlowSender(Duration.ofMillis(1));
+        NotificationService service = newService(mainQueue, failedQueue, NotificationOverflowPolicy.BLOCK, Duration.ofSeconds(30));
+
+        runProducers(service);
+
+        int expected = PRODUCERS * TRANSFERS_PER_PRODUCER * 2;
+        await().atMost(30, TimeUnit.SECONDS).until(() -> mainQueue.completed.get() == expected);
+        assertThat(mainQueue.peakOutstanding.get()).isLessThanOrEqualTo(MAX_IN_FLIGHT);
+        assertThat(failedQueue.completed.get()).isZero();
+    }
+
+    @Test
+    void spillPolicyDivertsOverflowToFailurePath() throws Exception {
+        SlowSender mainQueue = new SlowSender(Duration.ofMillis(50));
+        SlowSender failedQueue = new SlowSender(Duration.ofMillis(1));
+        NotificationService service = newService(mainQueue, failedQueue, NotificationOverflowPolicy.SPILL, Duration.ZERO);
+
+        runProducers(service);
+
+        await().atMost(30, TimeUnit.SECONDS).until(() -> mainQueue.outstanding.get() == 0 && failedQueue.outstanding.get() == 0);
+        assertThat(mainQueue.peakOutstanding.get()).isLessThanOrEqualTo(MAX_IN_FLIGHT);
+        assertThat(failedQueue.completed.get()).isPositive();
+        assertThat(mainQueue.completed.get() + failedQueue.completed.get())
+                .isLessThanOrEqualTo(PRODUCERS * TRANSFERS_PER_PRODUCER * 2);
+    }
+
+    private NotificationService newService(SlowSender mainQueue, SlowSender failedQueue,
+                                           NotificationOverflowPolicy policy, Duration maxWait) {
+        NotificationSendProperties properties = new NotificationSendProperties();
+        properties.setMaxInFlight(MAX_IN_FLIGHT);
+        properties.setMaxFailedInFlight(MAX_IN_FLIGHT);
+        properties.setOverflowPolicy(policy);
+        properties.setMaxWait(maxWait);
+
+        // Every transfer here goes to the same recipient; keep each one a separate send.
+        NotificationDigestProperties digestProperties = new NotificationDigestProperties();
+        digestProperties.setEnabled(false);
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+
+        NotificationService service = new NotificationService(new MessageFormatter(), () -> mainQueue.client, () -> failedQueue.client,
+                objectMapper, properties, digestProperties, new SimpleMeterRegistry(), ObservationRegistry.NOOP,
+                mock(INotificationSpoolService.class));
+        ReflectionTestUtils.setField(service, "queueName", "transaction-notifications-queue");
+        return service;
+    }
+
+    private void runProducers(NotificationService service) throws InterruptedException {
+        Account sender = account("user123", "Alice");
+        Account recipient = account("user456", "Bob");
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        for (int p = 0; p < PRODUCERS; p++) {
+            producers.submit(() -> {
+                for (int i = 0; i < TRANSFERS_PER_PRODUCER; i++) {
+                    service.sendTransferNotifications("TX" + i, sender, recipient, BigDecimal.TEN, BigDecimal.TEN,
+                            LocalDateTime.now());
+                }
+            });
+        }
+        producers.shutdown();
+        assertThat(producers.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static Account account(String customerId, String name) {
+        Account account = new Account();
+        account.setCustomerId(customerId);
+        account.setCustomerName(name);
+        account.setBalance(BigDecimal.valueOf(1000));
+        return account;
+    }
+}
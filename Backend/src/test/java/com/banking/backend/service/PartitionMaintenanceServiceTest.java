@@ -0,0 +1,39 @@
+package com.banking.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionMaintenanceServiceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2026, 10);
+
+    @Test
+    void createsCurrentAndFutureMonthsThatAreMissing() {
+        PartitionMaintenanceService.Plan plan = PartitionMaintenanceService.plan(
+                Set.of(YearMonth.of(2026, 9), CURRENT, YearMonth.of(2026, 11)), CURRENT, 3, 84);
+
+        assertThat(plan.toCreate()).containsExactly(YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+        assertThat(plan.toDetach()).isEmpty();
+    }
+
+    @Test
+    void detachesMonthsOlderThanRetentionOldestFirst() {
+        PartitionMaintenanceService.Plan plan = PartitionMaintenanceService.plan(
+                Set.of(YearMonth.of(2026, 3), YearMonth.of(2026, 1), YearMonth.of(2026, 4), YearMonth.of(2026, 2),
+                        CURRENT, YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1)),
+                CURRENT, 3, 7);
+
+        // Seven retained months: April through October.
+        assertThat(plan.toDetach()).containsExactly(YearMonth.of(2026, 1), YearMonth.of(2026, 2), YearMonth.of(2026, 3));
+        assertThat(plan.toCreate()).isEmpty();
+    }
+
+    @Test
+    void partitionNamesMatchTheMigration() {
+        assertThat(PartitionMaintenanceService.partitionName(YearMonth.of(2026, 3))).isEqualTo("transaction_2026_03");
+    }
+}
@@ -0,0 +1,137 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.reconciliation.ReconciliationProperties;
+import com.banking.backend.enums.ReconciliationMode;
+import com.banking.backend.enums.ReconciliationRunStatus;
+import com.banking.backend.model.ReconciliationRun;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReconciliationServiceTest {
+
+    private static final int ACCOUNTS = 250;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 20;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE account (id BIGINT AUTO_INCREMENT PRIMARY KEY, customer_id VARCHAR(255), balance NUMERIC(38, 2))");
+        jdbcTemplate.execute("CREATE TABLE transaction (id BIGINT AUTO_INCREMENT PRIMARY KEY, account_id BIGINT, amount NUMERIC(38, 2), " +
+                "balance_after NUMERIC(38, 2), timestamp TIMESTAMP, transaction_id VARCHAR(36))");
+        jdbcTemplate.execute("CREATE TABLE reconciliation_run (id BIGINT AUTO_INCREMENT PRIMARY KEY, mode VARCHAR(16), status VARCHAR(16), " +
+                "started_at TIMESTAMP, finished_at TIMESTAMP, checked_since TIMESTAMP, accounts_checked BIGINT, " +
+                "transactions_checked BIGINT, mismatches BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE reconciliation_mismatch (id BIGINT AUTO_INCREMENT PRIMARY KEY, run_id BIGINT, account_id BIGINT, " +
+                "customer_id VARCHAR(255), mismatch_type VARCHAR(32), transaction_row_id BIGINT, expected_amount NUMERIC(38, 2), " +
+                "actual_amount NUMERIC(38, 2), detected_at TIMESTAMP)");
+
+        ReconciliationProperties properties = new ReconciliationProperties();
+        properties.setParallelism(4);
+        properties.setRangeSize(16);
+        properties.setFetchSize(100);
+        properties.setIncrementalOverlap(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new ReconciliationService(database, new DataSourceTransactionManager(database), properties, meterRegistry);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            BigDecimal balance = BigDecimal.valueOf(1_000);
+            jdbcTemplate.update("INSERT INTO account (customer_id, balance) VALUES (?, ?)", "user" + a, balance);
+            long accountId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM account", Long.class);
+            for (int t = 0; t < TRANSACTIONS_PER_ACCOUNT; t++) {
+                BigDecimal amount = BigDecimal.valueOf(t % 2 == 0 ? 25 : -10);
+                balance = balance.add(amount);
+                insertTransaction(accountId, amount, balance, start.plusMinutes(t));
+            }
+            jdbcTemplate.update("UPDATE account SET balance = ? WHERE id = ?", balance, accountId);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void consistentLedgerHasNoMismatches() {
+        ReconciliationRun run = service.reconcile(ReconciliationMode.FULL);
+
+        assertThat(run.getStatus()).isEqualTo(ReconciliationRunStatus.COMPLETED);
+        assertThat(run.getAccountsChecked()).isEqualTo(ACCOUNTS);
+        assertThat(run.getTransactionsChecked()).isEqualTo((long) ACCOUNTS * TRANSACTIONS_PER_ACCOUNT);
+        assertThat(run.getMismatches()).isZero();
+    }
+
+    @Test
+    void lostUpdateIsReportedAsChainBreakAndBalanceMismatch() {
+        long accountId = accountId("user42");
+        // Two concurrent debits of 50 that both read the same starting balance.
+        BigDecimal balance = jdbcTemplate.queryForObject("SELECT balance FROM account WHERE id = ?", BigDecimal.class, accountId);
+        BigDecimal afterDebit = balance.subtract(BigDecimal.valueOf(50));
+        insertTransaction(accountId, BigDecimal.valueOf(-50), afterDebit, LocalDateTime.now().minusMinutes(2));
+        insertTransaction(accountId, BigDecimal.valueOf(-50), afterDebit, LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.update("UPDATE account SET balance = ? WHERE id = ?", afterDebit, accountId);
+
+        ReconciliationRun run = service.reconcile(ReconciliationMode.FULL);
+
+        assertThat(run.getMismatches()).isEqualTo(2);
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT mismatch_type FROM reconciliation_mismatch WHERE run_id = ? AND customer_id = 'user42' ORDER BY mismatch_type",
+                String.class, run.getId());
+        assertThat(types).containsExactly("BALANCE_MISMATCH", "CHAIN_BREAK");
+        assertThat(meterRegistry.get("banking.reconciliation.mismatches").tag("type", "CHAIN_BREAK").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void incrementalRunOnlyChecksAccountsTouchedSinceLastCompletedRun() {
+        service.reconcile(ReconciliationMode.FULL);
+
+        // Corrupt one untouched account and one account that then receives a new transaction.
+        jdbcTemplate.update("UPDATE account SET balance = balance + 1 WHERE id = ?", accountId("user7"));
+        long touched = accountId("user8");
+        BigDecimal balance = jdbcTemplate.queryForObject("SELECT balance FROM account WHERE id = ?", BigDecimal.class, touched);
+        insertTransaction(touched, BigDecimal.TEN, balance.add(BigDecimal.TEN), LocalDateTime.now().plusSeconds(1));
+
+        ReconciliationRun run = service.reconcile(ReconciliationMode.INCREMENTAL);
+
+        assertThat(run.getMode()).isEqualTo(ReconciliationMode.INCREMENTAL);
+        assertThat(run.getAccountsChecked()).isEqualTo(1);
+        assertThat(run.getMismatches()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT customer_id FROM reconciliation_mismatch WHERE run_id = ?",
+                String.class, run.getId())).isEqualTo("user8");
+    }
+
+    private long accountId(String customerId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM account WHERE customer_id = ?", Long.class, customerId);
+    }
+
+    private void insertTransaction(long accountId, BigDecimal amount, BigDecimal balanceAfter, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO transaction (account_id, amount, balance_after, timestamp, transaction_id) VALUES (?, ?, ?, ?, ?)",
+                accountId, amount, balanceAfter, Timestamp.valueOf(timestamp), UUID.randomUUID().toString());
+    }
+}
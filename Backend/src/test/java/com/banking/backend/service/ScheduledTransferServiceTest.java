@@ -0,0 +1,281 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.customer.CustomerFilterProperties;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.config.schedule.ScheduledTransferProperties;
+import com.banking.backend.dto.ScheduledTransferDTO;
+import com.banking.backend.dto.ScheduledTransferRequestDTO;
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.enums.ScheduledTransferRecurrence;
+import com.banking.backend.enums.ScheduledTransferStatus;
+import com.banking.backend.model.Account;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.service.interfaces.INotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Each occurrence commits its own transaction, which the test must see.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScheduledTransferServiceTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionService transactionService;
+    private final List<ScheduledTransferService> instances = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionService = transactionService(mock(INotificationService.class), new LimitLeaseProperties());
+        createAccount("alice", 1_000_000);
+        createAccount("bob", 0);
+        createAccount("carol", 0);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (ScheduledTransferService instance : instances) {
+            instance.shutdown();
+        }
+        jdbcTemplate.execute("DELETE FROM scheduled_transfer");
+        jdbcTemplate.execute("DELETE FROM account_monthly_total");
+        jdbcTemplate.execute("DELETE FROM transaction");
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void runsEachOccurrenceOnceAcrossReplicasAndRestarts() throws InterruptedException {
+        ScheduledTransferService api = start(transactionService);
+        LocalDateTime due = LocalDateTime.now().minusSeconds(5).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 50; i++) {
+            api.create(schedule("alice", "bob", due, ScheduledTransferRecurrence.ONCE));
+        }
+        ScheduledTransferDTO standingOrder = api.create(schedule("alice", "bob", due, ScheduledTransferRecurrence.DAILY));
+
+        // Two replicas load the same due schedules and fire them at the same time.
+        ScheduledTransferService first = start(transactionService);
+        ScheduledTransferService second = start(transactionService);
+        first.loadHorizon();
+        second.loadHorizon();
+        first.fireDue();
+        second.fireDue();
+        assertThat(first.awaitIdle(Duration.ofSeconds(30))).isTrue();
+        assertThat(second.awaitIdle(Duration.ofSeconds(30))).isTrue();
+        assertThat(ledgerEntries()).isEqualTo(2 * 51);
+
+        ScheduledTransferDTO daily = api.get(standingOrder.getId()).orElseThrow();
+        assertThat(daily.getStatus()).isEqualTo(ScheduledTransferStatus.ACTIVE);
+        assertThat(daily.getRunCount()).isEqualTo(1);
+        assertThat(daily.getNextRunAt()).isEqualTo(due.plusDays(1));
+        assertThat(countSchedules(ScheduledTransferStatus.COMPLETED)).isEqualTo(50);
+
+        // A restarted instance reloads everything due, and finds nothing left to run.
+        ScheduledTransferService restarted = start(transactionService);
+        restarted.loadHorizon();
+        restarted.fireDue();
+        assertThat(restarted.awaitIdle(Duration.ofSeconds(30))).isTrue();
+        assertThat(ledgerEntries()).isEqualTo(2 * 51);
+    }
+
+    @Test
+    void failedOccurrenceDoesNotHoldBackItsBatch() throws InterruptedException {
+        ScheduledTransferService service = start(transactionService);
+        service.loadHorizon();
+        LocalDateTime due = LocalDateTime.now().minusSeconds(1);
+        for (int i = 0; i < 10; i++) {
+            service.create(schedule("alice", "bob", due, ScheduledTransferRecurrence.ONCE));
+        }
+        ScheduledTransferDTO unknownSender = service.create(schedule("nobody", "bob", due, ScheduledTransferRecurrence.ONCE));
+        ScheduledTransferDTO emptyAccount = service.create(schedule("carol", "bob", due, ScheduledTransferRecurrence.WEEKLY));
+        ScheduledTransferDTO cancelled = service.create(schedule("alice", "bob", due, ScheduledTransferRecurrence.ONCE));
+        assertThat(service.cancel(cancelled.getId()).orElseThrow().getStatus()).isEqualTo(ScheduledTransferStatus.CANCELLED);
+
+        service.fireDue();
+        assertThat(service.awaitIdle(Duration.ofSeconds(30))).isTrue();
+
+        assertThat(ledgerEntries()).isEqualTo(2 * 10);
+        assertThat(service.get(unknownSender.getId()).orElseThrow())
+                .satisfies(schedule -> {
+                    assertThat(schedule.getStatus()).isEqualTo(ScheduledTransferStatus.FAILED);
+                    assertThat(schedule.getLastError()).startsWith("Sender account not found");
+                });
+        assertThat(service.get(emptyAccount.getId()).orElseThrow())
+                .satisfies(schedule -> {
+                    assertThat(schedule.getStatus()).isEqualTo(ScheduledTransferStatus.ACTIVE);
+                    assertThat(schedule.getLastError()).isEqualTo("Insufficient Balance");
+                    assertThat(schedule.getNextRunAt()).isEqualTo(due.truncatedTo(ChronoUnit.SECONDS).plusWeeks(1));
+                });
+    }
+
+    @Test
+    void failedBatchGivesBackItsReservationsAndNotifiesOnlyWhatCommitted() throws InterruptedException {
+        INotificationService notificationService = mock(INotificationService.class);
+        // Without leases every reservation and release is written to the account, where the test can see it.
+        LimitLeaseProperties noLeases = new LimitLeaseProperties();
+        noLeases.setEnabled(false);
+        ScheduledTransferService service = start(transactionService(notificationService, noLeases));
+        service.loadHorizon();
+        LocalDateTime due = LocalDateTime.now().minusSeconds(1);
+        for (int i = 0; i < 3; i++) {
+            service.create(schedule("alice", "bob", due, ScheduledTransferRecurrence.ONCE));
+        }
+        // Rolls the whole batch back, after the transfers before it have been applied.
+        service.create(schedule("carol", "bob", due, ScheduledTransferRecurrence.ONCE));
+        for (int i = 0; i < 3; i++) {
+            service.create(schedule("alice", "bob", due, ScheduledTransferRecurrence.ONCE));
+        }
+
+        service.fireDue();
+        assertThat(service.awaitIdle(Duration.ofSeconds(30))).isTrue();
+
+        assertThat(ledgerEntries()).isEqualTo(2 * 6);
+        assertThat(dailyAmount("alice")).isEqualByComparingTo("60");
+        assertThat(dailyAmount("carol")).isEqualByComparingTo("0");
+        verify(notificationService, times(6)).sendTransferNotifications(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @Tag("perf")
+    void drainsAMillionSchedulesDueInTheSameMinute(TestReporter reporter) throws InterruptedException {
+        int schedules = 1_000_000;
+        LocalDateTime minute = LocalDateTime.now().minusMinutes(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < schedules; i++) {
+            Timestamp due = Timestamp.valueOf(minute.plusSeconds(i % 60));
+            rows.add(new Object[]{"user" + i, "user" + (i + 1), due, due});
+            if (rows.size() == 10_000) {
+                insertSchedules(rows);
+                rows.clear();
+            }
+        }
+
+        // The ledger is left out: this measures loading, the wheel, batching and the claims.
+        LongAdder transfers = new LongAdder();
+        TransactionService countingTransfers = new TransactionService(accountRepository, mock(INotificationService.class),
+                null, null, null, null, null, transactionManager) {
+            @Override
+            void reserve(TransactionRequestDTO request) {
+            }
+
+            @Override
+            void release(TransactionRequestDTO request) {
+            }
+
+            @Override
+            TransferLegs transferInCurrentTransaction(TransactionRequestDTO request) {
+                transfers.increment();
+                return null;
+            }
+        };
+        ScheduledTransferService service = start(countingTransfers);
+
+        long started = System.nanoTime();
+        service.loadHorizon();
+        long loaded = System.nanoTime();
+        service.fireDue();
+        assertThat(service.awaitIdle(Duration.ofMinutes(5))).isTrue();
+        long drained = System.nanoTime();
+
+        reporter.publishEntry("scheduled transfers", String.format("loaded %d in %d ms, executed them in %d ms (%.0f per second)",
+                schedules, (loaded - started) / 1_000_000, (drained - loaded) / 1_000_000,
+                schedules / ((drained - loaded) / 1e9)));
+        assertThat(transfers.sum()).isEqualTo(schedules);
+        assertThat(countSchedules(ScheduledTransferStatus.COMPLETED)).isEqualTo(schedules);
+    }
+
+    private TransactionService transactionService(INotificationService notificationService, LimitLeaseProperties limitLeaseProperties) {
+        return new TransactionService(accountRepository, notificationService,
+                new LimitLeaseService(jdbcTemplate, limitLeaseProperties, transactionManager, new SimpleMeterRegistry()),
+                new HotAccountService(new HotAccountProperties(), new SimpleMeterRegistry()),
+                new FxRateService(new FileFxRateProvider(new ClassPathResource("fx-rates.properties")), new FxProperties(),
+                        new SimpleMeterRegistry()),
+                new CustomerFilterService(dataSource, new CustomerFilterProperties(), transactionManager, new SimpleMeterRegistry()),
+                new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties()), transactionManager);
+    }
+
+    private ScheduledTransferService start(TransactionService transfers) {
+        ScheduledTransferService service = new ScheduledTransferService(dataSource, transfers,
+                new ScheduledTransferProperties(), transactionManager, new SimpleMeterRegistry());
+        instances.add(service);
+        return service;
+    }
+
+    private void createAccount(String customerId, long balance) {
+        Account account = new Account();
+        account.setAccountNumber("ACC-" + customerId);
+        account.setCustomerId(customerId);
+        account.setCustomerName(customerId);
+        account.setBalance(BigDecimal.valueOf(balance));
+        accountRepository.save(account);
+    }
+
+    private static ScheduledTransferRequestDTO schedule(String from, String to, LocalDateTime startAt,
+                                                        ScheduledTransferRecurrence recurrence) {
+        ScheduledTransferRequestDTO request = new ScheduledTransferRequestDTO();
+        request.setFromUserId(from);
+        request.setToUserId(to);
+        request.setAmount(BigDecimal.TEN);
+        request.setStartAt(startAt);
+        request.setRecurrence(recurrence);
+        return request;
+    }
+
+    private void insertSchedules(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO scheduled_transfer (from_user_id, to_user_id, amount, recurrence, start_at, " +
+                "next_run_at, status, run_count, created_at) VALUES (?, ?, 10, 'ONCE', ?, ?, 'ACTIVE', 0, CURRENT_TIMESTAMP)", rows);
+    }
+
+    private BigDecimal dailyAmount(String customerId) {
+        return jdbcTemplate.queryForObject("SELECT daily_transaction_amount FROM account WHERE customer_id = ?",
+                BigDecimal.class, customerId);
+    }
+
+    private long ledgerEntries() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction", Long.class);
+    }
+
+    private long countSchedules(ScheduledTransferStatus status) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM scheduled_transfer WHERE status = ?", Long.class, status.name());
+    }
+}
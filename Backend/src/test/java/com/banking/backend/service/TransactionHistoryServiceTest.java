@@ -0,0 +1,207 @@
+package com.banking.backend.service;
+
+import com.banking.backend.config.archive.ArchiveProperties;
+import com.banking.backend.config.partition.PartitionMaintenanceProperties;
+import com.banking.backend.config.sql.SqlMonitoringConfig;
+import com.banking.backend.dto.BalanceAsOfDTO;
+import com.banking.backend.model.Account;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.repository.TransactionRepository;
+import com.banking.backend.support.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SqlMonitoringConfig.class)
+// The ledger is written with plain JDBC and archived in transactions of the archive service's own.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionHistoryServiceTest {
+
+    private static final int ACCOUNTS = 40;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 150;
+    // Months before the current one the ledger goes back. With three months online, the five oldest are archived
+    // and the one after them is left in the database unarchived.
+    private static final int MONTHS = 8;
+    private static final int RETENTION_MONTHS = 3;
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @TempDir
+    Path archiveDirectory;
+
+    private final Random random = new Random(42);
+    private final LocalDateTime start = YearMonth.now().minusMonths(MONTHS).atDay(1).atStartOfDay();
+    private final LocalDateTime end = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MICROS);
+    private final List<Ledger> ledgers = new ArrayList<>();
+    private TransactionHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long nextId = 1;
+        for (int a = 0; a < ACCOUNTS; a++) {
+            // The last account has no transactions, and the one before it only has some in the online months.
+            int transactions = a == ACCOUNTS - 1 ? 0 : TRANSACTIONS_PER_ACCOUNT;
+            LocalDateTime first = a == ACCOUNTS - 2 ? YearMonth.now().minusMonths(1).atDay(1).atStartOfDay() : start;
+            Ledger ledger = new Ledger("user" + a, BigDecimal.valueOf(random.nextInt(100_000), 2));
+            for (int t = 0; t < transactions; t++) {
+                LocalDateTime timestamp = t % 10 == 9
+                        ? ledger.entries.get(t - 1).timestamp() // Shares a timestamp, so the id decides the order.
+                        : first.plus(random.nextLong(ChronoUnit.MICROS.between(first, end)), ChronoUnit.MICROS);
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(20_000) - 8_000, 2);
+                ledger.entries.add(new Entry(nextId++, timestamp, amount, null));
+            }
+            ledgers.add(ledger);
+        }
+
+        for (Ledger ledger : ledgers) {
+            ledger.entries.sort(Comparator.comparing(Entry::timestamp).thenComparing(Entry::id));
+            BigDecimal balance = ledger.opening;
+            for (int i = 0; i < ledger.entries.size(); i++) {
+                Entry entry = ledger.entries.get(i);
+                balance = balance.add(entry.amount());
+                ledger.entries.set(i, new Entry(entry.id(), entry.timestamp(), entry.amount(), balance));
+            }
+            Account account = new Account();
+            account.setCustomerId(ledger.customerId);
+            account.setAccountNumber("ACC" + ledger.customerId);
+            account.setCustomerName(ledger.customerId);
+            account.setBalance(balance);
+            ledger.accountId = accountRepository.save(account).getId();
+            jdbcTemplate.batchUpdate("INSERT INTO transaction (id, account_id, transaction_id, transaction_type, amount, " +
+                            "timestamp, balance_after) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    ledger.entries.stream().map(entry -> new Object[]{entry.id(), ledger.accountId, "TX" + entry.id(),
+                            entry.amount().signum() < 0 ? "TRANSFER_OUT" : "TRANSFER_IN", entry.amount(),
+                            Timestamp.valueOf(entry.timestamp()), entry.balanceAfter()}).toList());
+        }
+
+        ArchiveProperties archiveProperties = new ArchiveProperties();
+        archiveProperties.setDirectory(archiveDirectory);
+        archiveProperties.setBlockSize(1024);
+        TransactionArchiveService archiveService = new TransactionArchiveService(dataSource, transactionManager,
+                archiveProperties, new SimpleMeterRegistry());
+        PartitionMaintenanceProperties partitionProperties = new PartitionMaintenanceProperties();
+        partitionProperties.setRetentionMonths(RETENTION_MONTHS);
+        YearMonth firstUnarchived = YearMonth.now().minusMonths(RETENTION_MONTHS);
+        for (YearMonth month = YearMonth.from(start); month.isBefore(firstUnarchived); month = month.plusMonths(1)) {
+            archiveService.archiveMonth(month);
+        }
+        // Archived months are detached and gone from the database, so they can only be read from their segments.
+        jdbcTemplate.update("DELETE FROM transaction WHERE timestamp < ?", Timestamp.valueOf(firstUnarchived.atDay(1).atStartOfDay()));
+
+        service = new TransactionHistoryService(accountRepository, transactionRepository, archiveService, partitionProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DELETE FROM transaction");
+        jdbcTemplate.execute("DELETE FROM account");
+    }
+
+    @Test
+    void balancesMatchAFullReplayOfTheLedger() {
+        List<String> customerIds = ledgers.stream().map(ledger -> ledger.customerId).toList();
+        List<LocalDateTime> instants = new ArrayList<>(List.of(start.minusDays(1), end,
+                YearMonth.now().minusMonths(RETENTION_MONTHS - 1).atDay(1).atStartOfDay(),
+                YearMonth.now().minusMonths(RETENTION_MONTHS).atDay(1).atStartOfDay().minusNanos(1000)));
+        for (int i = 0; i < 60; i++) {
+            instants.add(start.plus(random.nextLong(ChronoUnit.MICROS.between(start, end)), ChronoUnit.MICROS));
+            // Exactly at a transaction, which it includes.
+            Ledger ledger = ledgers.get(random.nextInt(ACCOUNTS - 1));
+            instants.add(ledger.entries.get(random.nextInt(ledger.entries.size())).timestamp());
+        }
+
+        for (LocalDateTime asOf : instants) {
+            List<BalanceAsOfDTO> balances = service.getBalancesAsOf(customerIds, asOf);
+            assertThat(balances).hasSize(ACCOUNTS);
+            for (int a = 0; a < ACCOUNTS; a++) {
+                assertThat(balances.get(a).getCustomerId()).isEqualTo(ledgers.get(a).customerId);
+                assertThat(balances.get(a).getBalance()).as("%s as of %s", ledgers.get(a).customerId, asOf)
+                        .isEqualByComparingTo(ledgers.get(a).replay(asOf));
+            }
+        }
+        Ledger ledger = ledgers.get(3);
+        LocalDateTime asOf = ledger.entries.get(70).timestamp();
+        assertThat(service.getBalanceAsOf(ledger.customerId, asOf).getBalance()).isEqualByComparingTo(ledger.replay(asOf));
+    }
+
+    @Test
+    void onlineBalancesOfManyAccountsTakeOneQuery() {
+        // All but the account without transactions have one in the last month.
+        List<String> customerIds = ledgers.stream().map(ledger -> ledger.customerId).limit(ACCOUNTS - 1).toList();
+        assertThat(SqlStatementCounter.count(() -> service.getBalancesAsOf(customerIds, end)))
+                .as("one query for the accounts and one for their balances").isEqualTo(2);
+    }
+
+    @Test
+    void rejectsUnknownAccounts() {
+        assertThatThrownBy(() -> service.getBalancesAsOf(List.of("user1", "nobody"), end))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("nobody");
+    }
+
+    private record Entry(long id, LocalDateTime timestamp, BigDecimal amount, BigDecimal balanceAfter) {
+    }
+
+    private static final class Ledger {
+        private final String customerId;
+        private final BigDecimal opening;
+        private final List<Entry> entries = new ArrayList<>();
+        private long accountId;
+
+        private Ledger(String customerId, BigDecimal opening) {
+            this.customerId = customerId;
+            this.opening = opening;
+        }
+
+        /**
+         * The balance at {@code asOf} computed from the opening balance and every amount up to it.
+         */
+        private BigDecimal replay(LocalDateTime asOf) {
+            BigDecimal balance = opening;
+            for (Entry entry : entries) {
+                if (!entry.timestamp().isAfter(asOf)) {
+                    balance = balance.add(entry.amount());
+                }
+            }
+            return balance;
+        }
+    }
+}
@@ -1,4 +1,196 @@
 package com.banking.backend.service;
 
-public class TransactionServiceTest {
+import com.banking.backend.config.customer.CustomerFilterProperties;
+import com.banking.backend.config.endofday.EndOfDayProperties;
+import com.banking.backend.config.fx.FxProperties;
+import com.banking.backend.config.hotaccount.HotAccountProperties;
+import com.banking.backend.config.limit.LimitLeaseProperties;
+import com.banking.backend.config.monthlytotals.MonthlyTotalsProperties;
+import com.banking.backend.config.sql.SqlMonitoringConfig;
+import com.banking.backend.dto.TransactionRequestDTO;
+import com.banking.backend.model.Account;
+import com.banking.backend.repository.AccountRepository;
+import com.banking.backend.service.interfaces.INotificationService;
+import com.banking.backend.support.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("embedded")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SqlMonitoringConfig.class)
+// Transfers commit their own transactions, and the limit lease uses a second connection.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionServiceTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionService transactionService;
+    private MonthlyTotalsService monthlyTotalsService;
+
+    @BeforeEach
+    void setUp() {
+        LimitLeaseService limitLeaseService = new LimitLeaseService(new JdbcTemplate(dataSource), new LimitLeaseProperties(),
+                transactionManager, new SimpleMeterRegistry());
+        HotAccountService hotAccountService = new HotAccountService(new HotAccountProperties(), new SimpleMeterRegistry());
+        FxRateService fxRateService = new FxRateService(new FileFxRateProvider(new ClassPathResource("fx-rates.properties")),
+                new FxProperties(), new SimpleMeterRegistry());
+        fxRateService.loadInitialRates();
+        monthlyTotalsService = new MonthlyTotalsService(dataSource, transactionManager, new MonthlyTotalsProperties());
+        transactionService = new TransactionService(accountRepository, mock(INotificationService.class),
+                limitLeaseService, hotAccountService, fxRateService,
+                new CustomerFilterService(dataSource, new CustomerFilterProperties(), transactionManager, new SimpleMeterRegistry()),
+                monthlyTotalsService, transactionManager);
+        createAccount("alice", "KES");
+        createAccount("bob", "KES");
+        createAccount("carol", "USD");
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).execute("DELETE FROM end_of_day_partition");
+        new JdbcTemplate(dataSource).execute("DELETE FROM end_of_day_run");
+        new JdbcTemplate(dataSource).execute("DELETE FROM account_monthly_total");
+        new JdbcTemplate(dataSource).execute("DELETE FROM transaction");
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    void transferRunsAFixedNumberOfStatements() {
+        // The first transfer also leases the sender's daily allowance, creates the month's total rows and,
+        // depending on the tests run before it, allocates ledger ids, so it is left out of the count.
+        transactionService.transferFunds(transfer("bob"));
+
+        // Lock both accounts in one query, then one batched update of the monthly totals, one batched insert of the two ledger legs
+        // and one batched update of the balances.
+        // Appending to Account.transactions must not load the history, so the count stays flat as it grows.
+        // Twenty-five transfers use 50 ledger ids, exactly one block of the sequence, so one sequence call is added.
+        SqlStatementCounter.assertStatements(25 * 4 + 1, () -> {
+            for (int i = 0; i < 25; i++) {
+                transactionService.transferFunds(transfer("bob"));
+            }
+        });
+    }
+
+    @Test
+    void transfersRacingTheEndOfDayBatchLoseNoBalanceUpdate() throws Exception {
+        List<String> customers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            customers.add("racer" + i);
+            createAccount("racer" + i, "KES");
+        }
+        EndOfDayProperties properties = new EndOfDayProperties();
+        properties.setParallelism(2);
+        properties.setPartitions(4);
+        properties.setChunkSize(2);
+        properties.setMonthlyFees(Map.of());
+        EndOfDayService endOfDay = new EndOfDayService(dataSource, transactionManager, properties, monthlyTotalsService,
+                new SimpleMeterRegistry());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<Future<?>> senders = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < 3; thread++) {
+                senders.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 100; i++) {
+                        int from = random.nextInt(customers.size());
+                        int to = (from + 1 + random.nextInt(customers.size() - 1)) % customers.size();
+                        TransactionRequestDTO request = transfer(customers.get(to));
+                        request.setFromUserId(customers.get(from));
+                        request.setAmount(BigDecimal.valueOf(1 + random.nextInt(500)));
+                        transactionService.transferFunds(request);
+                    }
+                }));
+            }
+            // Each run pays interest on every balance with a set-based update while the transfers hold their rows.
+            for (int day = 1; day <= 5; day++) {
+                endOfDay.run(LocalDate.of(2025, 3, day));
+            }
+            for (Future<?> sender : senders) {
+                sender.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // Every account ends on its opening balance plus its entries, so no update was overwritten.
+        assertThat(jdbcTemplate.queryForList("SELECT a.customer_id FROM account a WHERE a.balance <> 1000000 + " +
+                "(SELECT COALESCE(SUM(t.amount), 0) FROM transaction t WHERE t.account_id = a.id)", String.class)).isEmpty();
+        // Transfers move money between accounts; only interest adds to the total.
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(balance) FROM account", BigDecimal.class))
+                .isEqualByComparingTo(BigDecimal.valueOf(1_000_000L).multiply(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account", BigDecimal.class)).add(jdbcTemplate.queryForObject(
+                        "SELECT SUM(amount) FROM transaction WHERE transaction_type = 'INTEREST'", BigDecimal.class)));
+    }
+
+    @Test
+    void crossCurrencyTransferCreditsConvertedAmountAndRecordsRateVersion() {
+        TransactionRequestDTO request = transfer("carol");
+        request.setAmount(BigDecimal.valueOf(1_000));
+        transactionService.transferFunds(request);
+
+        assertThat(accountRepository.findByCustomerId("alice").orElseThrow().getBalance()).isEqualByComparingTo("999000");
+        // fx-rates.properties, version 1: 1 KES buys 0.0077 USD.
+        assertThat(accountRepository.findByCustomerId("carol").orElseThrow().getBalance()).isEqualByComparingTo("1000007.70");
+        List<Map<String, Object>> legs = new JdbcTemplate(dataSource).queryForList(
+                "SELECT amount, fx_rate, fx_rate_version FROM transaction ORDER BY amount");
+        assertThat(legs).hasSize(2);
+        assertThat((BigDecimal) legs.get(0).get("amount")).isEqualByComparingTo("-1000");
+        assertThat((BigDecimal) legs.get(1).get("amount")).isEqualByComparingTo("7.70");
+        assertThat(legs).allSatisfy(leg -> {
+            assertThat((BigDecimal) leg.get("fx_rate")).isEqualByComparingTo("0.0077");
+            assertThat(((Number) leg.get("fx_rate_version")).longValue()).isEqualTo(1);
+        });
+    }
+
+    private void createAccount(String customerId, String currency) {
+        Account account = new Account();
+        account.setAccountNumber("ACC-" + customerId);
+        account.setCustomerId(customerId);
+        account.setCustomerName(customerId);
+        account.setBalance(BigDecimal.valueOf(1_000_000));
+        account.setCurrency(currency);
+        accountRepository.save(account);
+    }
+
+    private static TransactionRequestDTO transfer(String toUserId) {
+        TransactionRequestDTO request = new TransactionRequestDTO();
+        request.setFromUserId("alice");
+        request.setToUserId(toUserId);
+        request.setAmount(BigDecimal.TEN);
+        request.setDescription("rent");
+        return request;
+    }
 }
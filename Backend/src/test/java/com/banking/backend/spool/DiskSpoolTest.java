@@ -0,0 +1,196 @@
+package com.banking.backend.spool;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiskSpoolTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRecordsBackInOrderAcrossSegments() throws IOException {
+        try (DiskSpool spool = DiskSpool.open(directory, SEGMENT_BYTES, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                assertThat(spool.append(payload(i))).isTrue();
+            }
+            assertThat(spool.segmentCount()).isGreaterThan(5);
+            assertThat(spool.pending()).isEqualTo(1000);
+
+            List<SpoolRecord> read = readAll(spool);
+            assertThat(read).hasSize(1000);
+            for (int i = 0; i < 1000; i++) {
+                assertThat(read.get(i).sequence()).isEqualTo(i);
+                assertThat(read.get(i).payload()).isEqualTo(payload(i));
+            }
+            assertThat(spool.read(10)).isEmpty();
+
+            spool.rewind();
+            assertThat(spool.read(1).get(0).sequence()).isZero();
+        }
+    }
+
+    @Test
+    void acknowledgingDeletesDeliveredSegmentsAndSurvivesReopening() throws IOException {
+        try (DiskSpool spool = DiskSpool.open(directory, SEGMENT_BYTES, 64)) {
+            for (int i = 0; i < 1000; i++) {
+                spool.append(payload(i));
+            }
+            int segments = spool.segmentCount();
+            spool.read(600);
+            spool.acknowledge(599);
+            assertThat(spool.pending()).isEqualTo(400);
+            assertThat(spool.segmentCount()).isLessThan(segments);
+            assertThat(segmentFiles()).hasSize(spool.segmentCount());
+        }
+
+        try (DiskSpool spool = DiskSpool.open(directory, SEGMENT_BYTES, 64)) {
+            assertThat(spool.pending()).isEqualTo(400);
+            List<SpoolRecord> read = readAll(spool);
+            assertThat(read).extracting(SpoolRecord::sequence).containsExactlyElementsOf(sequences(600, 1000));
+            spool.acknowledge(999);
+            assertThat(spool.pending()).isZero();
+            assertThat(spool.segmentCount()).isEqualTo(1);
+
+            // Numbering carries on where it left off.
+            spool.append(payload(1000));
+            assertThat(spool.read(10)).extracting(SpoolRecord::sequence).containsExactly(1000L);
+        }
+    }
+
+    @Test
+    void recoveryDropsTheTornTailAndAppendsAfterTheLastGoodRecord() throws IOException {
+        try (DiskSpool spool = DiskSpool.open(directory, 64 * 1024, 4)) {
+            for (int i = 0; i < 10; i++) {
+                spool.append(payload(i));
+            }
+        }
+        // Flip a payload byte of record 7, as if the crash hit while it was being written.
+        Path segment = segmentFiles().get(0);
+        int offset = DiskSpool.HEADER_BYTES;
+        for (int i = 0; i < 7; i++) {
+            offset += DiskSpool.recordBytes(payload(i).length);
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, offset + DiskSpool.RECORD_HEADER_BYTES);
+            b.put(0, (byte) (b.get(0) ^ 0xFF));
+            channel.write(b.rewind(), offset + DiskSpool.RECORD_HEADER_BYTES);
+        }
+
+        try (DiskSpool spool = DiskSpool.open(directory, 64 * 1024, 4)) {
+            assertThat(spool.pending()).isEqualTo(7);
+            spool.append(payload(7));
+            List<SpoolRecord> read = readAll(spool);
+            assertThat(read).extracting(SpoolRecord::sequence).containsExactlyElementsOf(sequences(0, 8));
+            assertThat(read.get(7).payload()).isEqualTo(payload(7));
+        }
+    }
+
+    @Test
+    void refusesRecordsOnceEverySegmentIsInUse() throws IOException {
+        try (DiskSpool spool = DiskSpool.open(directory, SEGMENT_BYTES, 2)) {
+            int appended = 0;
+            while (spool.append(payload(appended))) {
+                appended++;
+            }
+            assertThat(spool.segmentCount()).isEqualTo(2);
+            assertThat(spool.pending()).isEqualTo(appended);
+
+            // Delivering the older segment makes room again.
+            spool.read(appended);
+            spool.acknowledge(appended - 1);
+            assertThat(spool.segmentCount()).isEqualTo(1);
+            assertThat(spool.append(payload(appended))).isTrue();
+            assertThatThrownBy(() -> spool.append(new byte[SEGMENT_BYTES]))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @Tag("perf")
+    void keepsEveryAppendedRecordWhenTheJvmIsKilled() throws Exception {
+        Process writer = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"), SpoolWriter.class.getName(), directory.toString())
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        long lastAppended = -1;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(writer.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (lastAppended < 20_000 && (line = out.readLine()) != null) {
+                lastAppended = Long.parseLong(line);
+            }
+        } finally {
+            writer.destroyForcibly();
+            assertThat(writer.waitFor(30, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(lastAppended).isGreaterThanOrEqualTo(20_000);
+
+        try (DiskSpool spool = DiskSpool.open(directory, SEGMENT_BYTES * 16, 1024)) {
+            // The writer may have appended more than it reported before it died, never less.
+            List<SpoolRecord> read = readAll(spool);
+            assertThat(read.size()).isGreaterThan((int) lastAppended);
+            for (int i = 0; i < read.size(); i++) {
+                assertThat(read.get(i).sequence()).isEqualTo(i);
+                assertThat(read.get(i).payload()).isEqualTo(payload(i));
+            }
+        }
+    }
+
+    /**
+     * Appends records until killed, printing the sequence of each once {@link DiskSpool#append} has returned.
+     */
+    static class SpoolWriter {
+
+        public static void main(String[] args) throws IOException {
+            DiskSpool spool = DiskSpool.open(Path.of(args[0]), SEGMENT_BYTES * 16, 1024);
+            for (int i = 0; ; i++) {
+                spool.append(payload(i));
+                System.out.println(i);
+            }
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return ("{\"transactionId\":\"TX" + i + "\",\"amount\":" + (i * 7 % 1000) + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<SpoolRecord> readAll(DiskSpool spool) {
+        List<SpoolRecord> all = new ArrayList<>();
+        List<SpoolRecord> batch;
+        while (!(batch = spool.read(128)).isEmpty()) {
+            all.addAll(batch);
+        }
+        return all;
+    }
+
+    private static List<Long> sequences(long from, long to) {
+        return Stream.iterate(from, s -> s < to, s -> s + 1).toList();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+}
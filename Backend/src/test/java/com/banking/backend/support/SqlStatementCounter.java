@@ -0,0 +1,27 @@
+package com.banking.backend.support;
+
+import com.banking.backend.util.SqlScope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts how many SQL statements a piece of code runs, so an N+1 query fails the build instead of
+ * surfacing under load. Only statements run on the calling thread through a data source wrapped by
+ * {@link com.banking.backend.config.sql.SqlMonitoringConfig} are counted.
+ */
+public final class SqlStatementCounter {
+
+    private SqlStatementCounter() {
+    }
+
+    public static int count(Runnable work) {
+        try (SqlScope scope = SqlScope.open("test")) {
+            work.run();
+            return scope.statements();
+        }
+    }
+
+    public static void assertStatements(int expected, Runnable work) {
+        assertThat(count(work)).as("SQL statements executed").isEqualTo(expected);
+    }
+}
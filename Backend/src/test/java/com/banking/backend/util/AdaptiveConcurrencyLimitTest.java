@@ -0,0 +1,126 @@
+package com.banking.backend.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void shedsAtTheLimitAndBacksOffWhenRequestsTimeOut() {
+        AdaptiveConcurrencyLimit limit = limit(10, 2, 100);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(10);
+
+        limit.onDropped();
+        assertThat(limit.getLimit()).isEqualTo(9);
+        assertThat(limit.getInFlight()).isEqualTo(9);
+        assertThat(limit.tryAcquire()).isFalse();
+        for (int i = 0; i < 30; i++) {
+            limit.onDropped();
+            limit.tryAcquire();
+        }
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @Tag("perf")
+    void followsTheDatabaseDownAndBackUp(TestReporter reporter) {
+        Simulation simulation = new Simulation(limit(20, 4, 500));
+        // 2000 transfers/s against a pool of 20 connections, with the database slowing down tenfold
+        // from 10 s to 20 s: the pool can then serve only 400/s.
+        Phase normal = simulation.run(0, 10_000, 5, 2);
+        Phase slow = simulation.run(10_000, 20_000, 50, 2);
+        Phase recovered = simulation.run(20_000, 30_000, 5, 2);
+
+        reporter.publishEntry("adaptive limit", String.format("normal: %s, slow: %s, recovered: %s", normal, slow, recovered));
+        assertThat(normal.shed()).isZero();
+        // Overloaded: the excess is shed, while the pool stays busy and admitted transfers stay fast.
+        assertThat(slow.shed()).isPositive();
+        assertThat(slow.completedPerSecond()).isGreaterThan(400 * 0.9);
+        assertThat(slow.p99Millis()).isLessThan(4 * 50);
+        assertThat(recovered.shed()).isZero();
+        assertThat(recovered.p99Millis()).isLessThan(4 * 5);
+    }
+
+    @Test
+    @Tag("perf")
+    void withoutALimitTheQueueGrowsForAsLongAsTheOverloadLasts(TestReporter reporter) {
+        Simulation simulation = new Simulation(new AdaptiveConcurrencyLimit(1_000_000, 1_000_000, 1_000_000,
+                1.5, 0.2, 0.9, 100 * MILLI, 10, 0));
+        Phase slow = simulation.run(0, 10_000, 50, 2);
+
+        reporter.publishEntry("unlimited", "slow: " + slow);
+        assertThat(slow.p99Millis()).isGreaterThan(5_000);
+    }
+
+    private static AdaptiveConcurrencyLimit limit(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimit(initial, min, max, 1.5, 0.2, 0.9, 100 * MILLI, 10, 0);
+    }
+
+    /**
+     * A transfer endpoint in front of a connection pool of 20, advanced in 1 ms steps: each admitted request
+     * waits for a free connection in arrival order and then holds it for the service time. Requests still
+     * queued at the end of a phase carry over into the next one.
+     */
+    private static final class Simulation {
+        private final AdaptiveConcurrencyLimit limit;
+        private final Queue<Long> waiting = new ArrayDeque<>();
+        private final PriorityQueue<long[]> busy = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+
+        private Simulation(AdaptiveConcurrencyLimit limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Runs one phase. Statistics cover requests completed or shed in its second half, once the limit
+         * has settled.
+         */
+        private Phase run(long fromMillis, long toMillis, long serviceMillis, int arrivalsPerMilli) {
+            long measureFrom = fromMillis + (toMillis - fromMillis) / 2;
+            List<Long> latencies = new ArrayList<>();
+            long shed = 0;
+            for (long now = fromMillis; now < toMillis; now++) {
+                while (!busy.isEmpty() && busy.peek()[0] <= now) {
+                    long admittedAt = busy.poll()[1];
+                    limit.onSuccess((now - admittedAt) * MILLI, now * MILLI);
+                    if (now >= measureFrom) {
+                        latencies.add(now - admittedAt);
+                    }
+                }
+                while (busy.size() < 20 && !waiting.isEmpty()) {
+                    busy.add(new long[]{now + serviceMillis, waiting.poll()});
+                }
+                for (int i = 0; i < arrivalsPerMilli; i++) {
+                    if (limit.tryAcquire()) {
+                        waiting.add(now);
+                    } else if (now >= measureFrom) {
+                        shed++;
+                    }
+                }
+            }
+            Collections.sort(latencies);
+            long p99 = latencies.isEmpty() ? 0 : latencies.get((int) (latencies.size() * 0.99));
+            return new Phase(shed, latencies.size() / ((toMillis - measureFrom) / 1000.0), p99, limit.getLimit());
+        }
+    }
+
+    private record Phase(long shed, double completedPerSecond, long p99Millis, int limit) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.banking.backend.util;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FanOutHubTest {
+
+    @Test
+    void deliversInOrderAndDropsSlowOrFailingSubscribers() throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            FanOutHub<Integer> hub = new FanOutHub<>(16, 3, executor);
+            List<Integer> received = new ArrayList<>();
+            hub.subscribe("alice", new RecordingSink(event -> {
+                synchronized (received) {
+                    received.add(event);
+                }
+            }));
+
+            // A subscriber that never finishes sending falls behind and is closed once its buffer is full.
+            CountDownLatch stuck = new CountDownLatch(1);
+            RecordingSink slow = new RecordingSink(event -> stuck.await());
+            hub.subscribe("alice", slow);
+            RecordingSink failing = new RecordingSink(event -> {
+                throw new IllegalStateException("client went away");
+            });
+            hub.subscribe("bob", failing);
+            assertThat(hub.subscribe("carol", new RecordingSink(event -> { }))).as("over the limit").isNull();
+
+            // Published ten at a time, so the subscriber that keeps up never has more than ten waiting.
+            for (int i = 0; i < 100; i++) {
+                hub.publish("alice", i);
+                if (i % 10 == 9) {
+                    int expected = i + 1;
+                    waitFor(() -> {
+                        synchronized (received) {
+                            return received.size() == expected;
+                        }
+                    });
+                }
+            }
+            hub.publish("bob", 1);
+            stuck.countDown();
+
+            assertThat(received).containsExactlyElementsOf(IntStream.range(0, 100).boxed().toList());
+            assertThat(slow.closed.get()).isTrue();
+            assertThat(hub.evictions()).isEqualTo(1);
+            waitFor(() -> failing.closed.get() && hub.size() == 1);
+            assertThat(hub.hasSubscribers("bob")).isFalse();
+            assertThat(hub.publish("nobody", 1)).isZero();
+        }
+    }
+
+    @Test
+    @Tag("perf")
+    void holdsFiftyThousandIdleSubscribersCheaplyAndDeliversPromptly(TestReporter reporter) throws InterruptedException {
+        int subscribers = 50_000;
+        int events = 20_000;
+        long[] latencies = new long[events];
+        AtomicInteger delivered = new AtomicInteger();
+        CountDownLatch allDelivered = new CountDownLatch(events);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            FanOutHub<Long> hub = new FanOutHub<>(64, subscribers, executor);
+            FanOutHub.Sink<Long> sink = new FanOutHub.Sink<>() {
+                @Override
+                public void send(Long publishedAt) {
+                    latencies[delivered.getAndIncrement()] = System.nanoTime() - publishedAt;
+                    allDelivered.countDown();
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+
+            long before = usedHeap();
+            List<FanOutHub.Subscription<Long>> held = new ArrayList<>(subscribers);
+            for (int i = 0; i < subscribers; i++) {
+                held.add(hub.subscribe("customer" + i, sink));
+            }
+            long after = usedHeap();
+            double bytesPerSubscriber = (after - before) / (double) subscribers;
+
+            // Publish to one subscriber at a time, at up to about 10,000 events per second as transfers would,
+            // while all the others stay idle.
+            for (int i = 0; i < events; i++) {
+                hub.publish("customer" + (i * 7919 % subscribers), System.nanoTime());
+                if (i % 10 == 9) {
+                    Thread.sleep(1);
+                }
+            }
+            assertThat(allDelivered.await(30, TimeUnit.SECONDS)).isTrue();
+            Arrays.sort(latencies);
+            reporter.publishEntry("fan-out hub", String.format("%d idle subscribers take %.0f bytes each (customer id key " +
+                            "included); delivery latency p50 %.1f us, p99 %.1f us, max %.1f us", subscribers, bytesPerSubscriber,
+                    latencies[events / 2] / 1e3, latencies[events * 99 / 100] / 1e3, latencies[events - 1] / 1e3));
+
+            assertThat(hub.size()).isEqualTo(subscribers);
+            assertThat(bytesPerSubscriber).isLessThan(300);
+            assertThat(held).doesNotContainNull();
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private interface EventHandler {
+        void handle(Integer event) throws Exception;
+    }
+
+    private static final class RecordingSink implements FanOutHub.Sink<Integer> {
+        private final EventHandler handler;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private RecordingSink(EventHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void send(Integer event) throws Exception {
+            handler.handle(event);
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.banking.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HeavyHitterSketchTest {
+
+    private static final long WINDOW = 1_000_000_000L;
+
+    @Test
+    void findsTheHeaviestKeysOfASkewedStream() {
+        int accounts = 100_000;
+        int topK = 10;
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, 2048, topK, 6, WINDOW, 0);
+
+        // Zipf(1.1) over 100k accounts, spread over the six slots of the window.
+        double[] cumulative = new double[accounts];
+        double sum = 0;
+        for (int i = 0; i < accounts; i++) {
+            sum += 1 / Math.pow(i + 1, 1.1);
+            cumulative[i] = sum;
+        }
+        Random random = new Random(42);
+        Map<String, Long> exact = new HashMap<>();
+        int events = 500_000;
+        for (int e = 0; e < events; e++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            String key = "user" + (rank < 0 ? -rank - 1 : rank);
+            exact.merge(key, 1L, Long::sum);
+            sketch.record(key, 1_000, (long) e * 6 * WINDOW / events);
+        }
+
+        List<HeavyHitterSketch.HeavyHitter> top = sketch.top(6 * WINDOW - 1);
+        Set<String> expected = exact.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topK)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        assertThat(top).hasSize(topK);
+        assertThat(top).extracting(HeavyHitterSketch.HeavyHitter::key).containsExactlyInAnyOrderElementsOf(expected);
+        for (HeavyHitterSketch.HeavyHitter hitter : top) {
+            long actual = exact.get(hitter.key());
+            // Count-Min never undercounts; with width 2048 the error stays within e/2048 of the stream.
+            assertThat(hitter.count()).isBetween(actual, actual + (long) (Math.E / 2048 * events));
+            assertThat(hitter.weight()).isGreaterThanOrEqualTo(actual * 1_000);
+        }
+    }
+
+    @Test
+    void forgetsKeysThatWentQuietForTheWholeWindow() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, 256, 3, 3, WINDOW, 0);
+        for (int i = 0; i < 100; i++) {
+            sketch.record("early", 0, 0);
+        }
+        sketch.record("late", 0, 2 * WINDOW);
+
+        assertThat(sketch.top(2 * WINDOW)).extracting(HeavyHitterSketch.HeavyHitter::key).containsExactly("early", "late");
+        assertThat(sketch.top(3 * WINDOW)).extracting(HeavyHitterSketch.HeavyHitter::key).containsExactly("late");
+
+        // Recording into a reused slot starts it from zero.
+        sketch.record("late", 0, 3 * WINDOW);
+        assertThat(sketch.top(3 * WINDOW)).singleElement()
+                .satisfies(hitter -> assertThat(hitter.count()).isEqualTo(2));
+        assertThat(sketch.top(6 * WINDOW)).isEmpty();
+    }
+}
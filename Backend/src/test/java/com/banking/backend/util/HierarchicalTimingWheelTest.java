@@ -0,0 +1,61 @@
+package com.banking.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEveryItemInItsOwnTickAcrossLevelsAndOverflow() {
+        long start = 1_000_000;
+        // Two levels of 8 one-second slots reach 64 seconds ahead; the rest starts in the overflow list.
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1_000, 8, 2, start);
+        Random random = new Random(42);
+        Map<Integer, Long> dueTicks = new HashMap<>();
+        for (int item = 0; item < 2_000; item++) {
+            long due = start + random.nextInt(300_000);
+            wheel.add(item, due);
+            dueTicks.put(item, due / 1_000);
+        }
+        wheel.add(-1, start - 5_000);
+        dueTicks.put(-1, start / 1_000);
+
+        for (long now = start; now <= start + 300_000; now += 1_000) {
+            long tick = now / 1_000;
+            List<Integer> fired = new ArrayList<>();
+            wheel.advance(now, fired::add);
+            for (int item : fired) {
+                assertThat(dueTicks.remove(item)).as("tick of item %d", item).isEqualTo(tick);
+            }
+            // Items added while running are placed relative to the current tick.
+            if (tick % 50 == 0) {
+                wheel.add(10_000 + (int) tick, now + 70_000);
+                dueTicks.put(10_000 + (int) tick, tick + 70);
+            }
+        }
+        wheel.advance(start + 400_000, item -> assertThat(dueTicks.remove(item)).isNotNull());
+        assertThat(dueTicks).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void catchesUpAfterAMissedTickWithoutFiringEarly() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 64, 3, 0);
+        wheel.add("soon", 2_500);
+        wheel.add("later", 3_600_000);
+
+        List<String> fired = new ArrayList<>();
+        assertThat(wheel.advance(1_999, fired::add)).isZero();
+        assertThat(wheel.advance(10_000, fired::add)).isEqualTo(1);
+        assertThat(wheel.advance(3_599_999, fired::add)).isZero();
+        assertThat(wheel.advance(3_600_000, fired::add)).isEqualTo(1);
+        assertThat(fired).containsExactly("soon", "later");
+    }
+}
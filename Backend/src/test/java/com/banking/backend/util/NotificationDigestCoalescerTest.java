@@ -0,0 +1,142 @@
+package com.banking.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationDigestCoalescerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 9, 0);
+
+    @Test
+    void passesThroughLowVolumeRecipientsAndDigestsBusyOnes() {
+        List<NotificationDigestCoalescer.Digest> digests = new ArrayList<>();
+        NotificationDigestCoalescer coalescer = new NotificationDigestCoalescer(0.1, 3, Duration.ofMinutes(1), 500,
+                1_000, digests::add);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(offer(coalescer, "merchant", "payer" + i, i, i * SECOND)).isFalse();
+        }
+        for (int i = 3; i < 10; i++) {
+            assertThat(offer(coalescer, "merchant", "payer" + i, i, i * SECOND)).isTrue();
+        }
+        assertThat(offer(coalescer, "quiet", "payer", 100, 5 * SECOND)).isFalse();
+
+        assertThat(coalescer.flushDue(30 * SECOND)).isZero();
+        assertThat(coalescer.flushDue(63 * SECOND)).isEqualTo(1);
+
+        NotificationDigestCoalescer.Digest digest = digests.get(0);
+        assertThat(digest.recipientId()).isEqualTo("merchant");
+        assertThat(digest.count()).isEqualTo(7);
+        assertThat(digest.total()).isEqualByComparingTo("70");
+        assertThat(digest.lastTransactionId()).isEqualTo("TX9");
+        assertThat(digest.senderName()).isNull();
+        assertThat(coalescer.pendingDigests()).isZero();
+    }
+
+    @Test
+    void flushesEarlyAtSizeCap() {
+        List<NotificationDigestCoalescer.Digest> digests = new ArrayList<>();
+        NotificationDigestCoalescer coalescer = new NotificationDigestCoalescer(0.1, 1, Duration.ofMinutes(1), 5,
+                1_000, digests::add);
+
+        for (int i = 0; i < 12; i++) {
+            offer(coalescer, "merchant", "payer", i, i);
+        }
+
+        assertThat(digests).hasSize(2).allSatisfy(digest -> {
+            assertThat(digest.count()).isEqualTo(5);
+            assertThat(digest.senderName()).isEqualTo("payer");
+        });
+        assertThat(coalescer.flushAll()).isEqualTo(1);
+        assertThat(digests.get(2).count()).isEqualTo(1);
+    }
+
+    /**
+     * One simulated hour of credits spread over recipients by a Zipf distribution, so a handful of
+     * merchants receive most of the traffic. Compares the number of recipient messages sent with and
+     * without coalescing and checks that no credit is lost on the way.
+     */
+    @Test
+    void reducesMessageVolumeOnSkewedWorkload() {
+        int recipients = 20_000;
+        int transfers = 200_000;
+        long duration = TimeUnit.HOURS.toNanos(1);
+        long flushInterval = SECOND / 2;
+
+        Map<String, BigDecimal> digested = new HashMap<>();
+        Map<String, BigDecimal> immediate = new HashMap<>();
+        long[] digestMessages = {0};
+        NotificationDigestCoalescer coalescer = new NotificationDigestCoalescer(6 / 60.0, 3, Duration.ofMinutes(1), 500,
+                100_000, digest -> {
+                    digestMessages[0]++;
+                    digested.merge(digest.recipientId(), digest.total(), BigDecimal::add);
+                });
+
+        double[] cumulative = zipf(recipients, 1.1);
+        int[] perRecipient = new int[recipients];
+        Random random = new Random(42);
+        long immediateMessages = 0;
+        long nextFlush = flushInterval;
+        for (int i = 0; i < transfers; i++) {
+            long now = duration * i / transfers;
+            while (now >= nextFlush) {
+                coalescer.flushDue(nextFlush);
+                nextFlush += flushInterval;
+            }
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            int recipient = rank >= 0 ? rank : Math.min(-rank - 1, recipients - 1);
+            perRecipient[recipient]++;
+            String recipientId = "C" + recipient;
+            if (!offer(coalescer, recipientId, "payer" + i, i, now)) {
+                immediateMessages++;
+                immediate.merge(recipientId, BigDecimal.TEN, BigDecimal::add);
+            }
+        }
+        coalescer.flushAll();
+
+        long sent = immediateMessages + digestMessages[0];
+        double reduction = 1.0 - (double) sent / transfers;
+
+        assertThat(reduction).isGreaterThan(0.45);
+        for (int r = 0; r < recipients; r++) {
+            String recipientId = "C" + r;
+            BigDecimal total = immediate.getOrDefault(recipientId, BigDecimal.ZERO)
+                    .add(digested.getOrDefault(recipientId, BigDecimal.ZERO));
+            assertThat(total).isEqualByComparingTo(BigDecimal.TEN.multiply(BigDecimal.valueOf(perRecipient[r])));
+            if (perRecipient[r] <= 3) {
+                assertThat(digested).doesNotContainKey(recipientId);
+            }
+        }
+    }
+
+    private static boolean offer(NotificationDigestCoalescer coalescer, String recipientId, String senderName, int sequence, long nowNanos) {
+        return coalescer.tryCoalesce(recipientId, recipientId, "KES", senderName, "TX" + sequence, BigDecimal.TEN,
+                BigDecimal.valueOf(1_000 + sequence), START.plusNanos(nowNanos), nowNanos);
+    }
+
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+}
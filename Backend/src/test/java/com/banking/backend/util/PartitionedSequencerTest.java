@@ -0,0 +1,89 @@
+package com.banking.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PartitionedSequencerTest {
+
+    private record Item(String key, int sequence) {
+    }
+
+    @Test
+    void handlesEachKeyInOrderOnASingleThread() throws InterruptedException {
+        int keys = 50;
+        int itemsPerKey = 2_000;
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        Map<String, String> threads = new ConcurrentHashMap<>();
+        AtomicInteger batches = new AtomicInteger();
+        PartitionedSequencer<Item> sequencer = new PartitionedSequencer<>("test", 4, 100_000, 64, batch -> {
+            batches.incrementAndGet();
+            for (Item item : batch) {
+                seen.computeIfAbsent(item.key(), key -> new ArrayList<>()).add(item.sequence());
+                String previous = threads.putIfAbsent(item.key(), Thread.currentThread().getName());
+                assertThat(previous).isIn(null, Thread.currentThread().getName());
+            }
+        });
+        sequencer.start();
+
+        // One producer per key keeps each key's submission order well defined.
+        try (ExecutorService producers = Executors.newFixedThreadPool(8)) {
+            for (int k = 0; k < keys; k++) {
+                String key = "account-" + k;
+                producers.submit(() -> {
+                    for (int i = 0; i < itemsPerKey; i++) {
+                        assertThat(sequencer.offer(key, new Item(key, i))).isTrue();
+                    }
+                });
+            }
+        }
+        assertThat(sequencer.stop(Duration.ofSeconds(30))).isEmpty();
+
+        assertThat(seen).hasSize(keys);
+        seen.values().forEach(sequence -> {
+            assertThat(sequence).hasSize(itemsPerKey);
+            for (int i = 0; i < itemsPerKey; i++) {
+                assertThat(sequence.get(i)).isEqualTo(i);
+            }
+        });
+        assertThat(batches.get()).isLessThan(keys * itemsPerKey);
+    }
+
+    @Test
+    void rejectsWhenPartitionIsFullAndReturnsLeftoversOnStop() throws InterruptedException {
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PartitionedSequencer<Item> sequencer = new PartitionedSequencer<>("test", 1, 2, 1, batch -> {
+            handling.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sequencer.start();
+
+        assertThat(sequencer.offer("a", new Item("a", 0))).isTrue();
+        assertThat(handling.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sequencer.offer("a", new Item("a", 1))).isTrue();
+        assertThat(sequencer.offer("a", new Item("a", 2))).isTrue();
+        assertThat(sequencer.offer("a", new Item("a", 3))).isFalse();
+        assertThat(sequencer.queued()).isEqualTo(2);
+
+        List<Item> leftover = sequencer.stop(Duration.ofMillis(200));
+        release.countDown();
+        assertThat(leftover).extracting(Item::sequence).containsExactly(1, 2);
+        assertThat(sequencer.offer("a", new Item("a", 4))).isFalse();
+    }
+}
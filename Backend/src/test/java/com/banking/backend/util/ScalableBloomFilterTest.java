@@ -0,0 +1,46 @@
+package com.banking.backend.util;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void growsPastItsInitialCapacityWithoutFalseNegativesOrLosingItsFalsePositiveBound() {
+        // Started at a hundredth of what it ends up holding, so several filters get chained.
+        ScalableBloomFilter filter = new ScalableBloomFilter(2_000, 0.01);
+        int added = 0;
+        for (int i = 0; i < 200_000; i++) {
+            // A new element that looks present already is skipped; lookups find it all the same.
+            if (filter.put("customer" + i)) {
+                added++;
+            }
+        }
+        assertThat(filter.put("customer42")).isFalse();
+        assertThat(filter.size()).isEqualTo(added).isGreaterThan(196_000);
+
+        for (int i = 0; i < 200_000; i++) {
+            assertThat(filter.mightContain("customer" + i)).as("customer%d", i).isTrue();
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 200_000; i++) {
+            if (filter.mightContain("stranger" + i)) {
+                falsePositives++;
+            }
+        }
+        double measured = falsePositives / 200_000.0;
+        assertThat(measured).isLessThan(0.01);
+        assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.01).isCloseTo(measured, Offset.offset(0.003));
+    }
+
+    @Test
+    void usesAboutTenBitsPerElementAtOnePercent() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000_000, 0.01);
+        // Sized for the first filter's half of the 1% budget: about 11 bits per element.
+        assertThat(filter.sizeInBytes()).isBetween(1_300_000L, 1_500_000L);
+        assertThat(filter.mightContain("anyone")).isFalse();
+        assertThat(filter.expectedFalsePositiveRate()).isZero();
+    }
+}
@@ -0,0 +1,36 @@
+package com.banking.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsBurstThenRejectsUntilRefilled() {
+        long now = 0L;
+        TokenBucket bucket = new TokenBucket(5, 10, now);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(bucket.tryAcquire(now)).isZero();
+        }
+        long wait = bucket.tryAcquire(now);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(SECOND / 5);
+
+        assertThat(bucket.tryAcquire(now + wait)).isZero();
+        assertThat(bucket.tryAcquire(now + wait)).isPositive();
+    }
+
+    @Test
+    void becomesIdleOnceFullyRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0L);
+        bucket.tryAcquire(0L);
+
+        assertThat(bucket.isIdle(0L, SECOND)).isFalse();
+        assertThat(bucket.isIdle(2 * SECOND, SECOND)).isTrue();
+    }
+}
@@ -0,0 +1,70 @@
+package com.banking.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws account indexes in {@code [0, accounts)} according to the configured popularity skew.
+ * The Zipf sampler precomputes the cumulative distribution once, so each draw is a binary search.
+ */
+public abstract class AccountSampler {
+
+    public abstract int next();
+
+    /**
+     * Draws a sender and a distinct recipient.
+     *
+     * @return a two-element array of {@code {from, to}} account indexes.
+     */
+    public int[] nextPair() {
+        int from = next();
+        int to = next();
+        while (to == from) {
+            to = next();
+        }
+        return new int[]{from, to};
+    }
+
+    public static AccountSampler create(LoadTestConfig config) {
+        return switch (config.skew()) {
+            case UNIFORM -> new Uniform(config.accounts());
+            case ZIPF -> new Zipf(config.accounts(), config.zipfExponent());
+        };
+    }
+
+    static final class Uniform extends AccountSampler {
+        private final int accounts;
+
+        Uniform(int accounts) {
+            this.accounts = accounts;
+        }
+
+        @Override
+        public int next() {
+            return ThreadLocalRandom.current().nextInt(accounts);
+        }
+    }
+
+    static final class Zipf extends AccountSampler {
+        private final double[] cumulative;
+
+        Zipf(int accounts, double exponent) {
+            cumulative = new double[accounts];
+            double sum = 0;
+            for (int rank = 0; rank < accounts; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < accounts; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        @Override
+        public int next() {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+            int rank = index >= 0 ? index : -index - 1;
+            return Math.min(rank, cumulative.length - 1);
+        }
+    }
+}
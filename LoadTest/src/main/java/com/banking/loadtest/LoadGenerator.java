@@ -0,0 +1,363 @@
+package com.banking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for {@code POST /api/transactions/transfer}.
+ * <p>
+ * Requests are started on a fixed arrival schedule regardless of how quickly earlier requests
+ * complete, each on its own virtual thread, so a slow server builds up concurrency instead of
+ * silently lowering the offered load. Latency is measured from the scheduled start time and
+ * recorded into HdrHistogram; the warm-up phase is driven but not recorded.
+ * <p>
+ * With {@code --mode=async} the measured latency is that of acceptance only. Every
+ * {@value #SETTLEMENT_SAMPLE_EVERY}th accepted transfer is remembered and polled through the status
+ * endpoint after the run, which gives the settlement latency and the throughput actually applied.
+ * <p>
+ * With {@code --db-latency} the backend's {@code loadtest} profile is told to delay every SQL statement
+ * {@code --db-latency-after} into the measured phase, and responses are also reported separately for
+ * requests started before and after that moment. The delay is removed again when the run ends.
+ * <p>
+ * Run with: {@code mvn -f LoadTest/pom.xml compile exec:java -Dexec.args="--rate=500 --skew=zipf"}
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    static final int SETTLEMENT_SAMPLE_EVERY = 10;
+    private static final Duration SETTLEMENT_TIMEOUT = Duration.ofMinutes(2);
+
+    private final LoadTestConfig config;
+    private final HttpClient httpClient;
+    private final AccountSampler sampler;
+    private final Recorder allResponses = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder successfulResponses = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder ioErrors = new LongAdder();
+    private final Recorder beforeInjection = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Recorder afterInjection = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder rejectedBeforeInjection = new LongAdder();
+    private final LongAdder rejectedAfterInjection = new LongAdder();
+    private volatile long injectAt = Long.MAX_VALUE;
+    private final AtomicLong accepted = new AtomicLong();
+    private final Queue<String> sampledTransferIds = new ConcurrentLinkedQueue<>();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    public LoadGenerator(LoadTestConfig config) {
+        this.config = config;
+        this.sampler = AccountSampler.create(config);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LoadGenerator generator = new LoadGenerator(config);
+        if (config.seed()) {
+            generator.seedAccounts();
+        }
+        LoadReport report = generator.run();
+
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        if (config.report().getParent() != null) {
+            Files.createDirectories(config.report().getParent());
+        }
+        mapper.writeValue(config.report().toFile(), report);
+        printSummary(report);
+        System.out.println("Report written to " + config.report().toAbsolutePath());
+    }
+
+    /**
+     * Creates the accounts used by the run through the backend's {@code loadtest} profile.
+     */
+    void seedAccounts() throws IOException, InterruptedException {
+        String body = String.format("{\"count\": %d, \"initialBalance\": %s, \"customerIdPrefix\": \"%s\"}",
+                config.accounts(), config.initialBalance(), customerIdPrefix());
+        HttpRequest request = HttpRequest.newBuilder(config.baseUrl().resolve("/api/loadtest/accounts"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofMinutes(10))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding accounts failed with HTTP " + response.statusCode() + ": " + response.body());
+        }
+        System.out.printf("Seeded %d accounts%n", config.accounts());
+    }
+
+    LoadReport run() throws InterruptedException {
+        Instant startedAt = Instant.now();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rate());
+        long start = System.nanoTime();
+        long recordFrom = start + config.warmup().toNanos();
+        long end = recordFrom + config.duration().toNanos();
+        boolean injecting = config.dbLatency().isPositive();
+        if (injecting) {
+            injectAt = recordFrom + config.dbLatencyAfter().toNanos();
+        }
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (injecting) {
+                workers.execute(() -> {
+                    LockSupport.parkNanos(injectAt - System.nanoTime());
+                    setDatabaseLatency(config.dbLatency());
+                });
+            }
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long delay = intendedStart - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+                boolean recorded = intendedStart >= recordFrom;
+                workers.execute(() -> sendTransfer(intendedStart, recorded));
+            }
+        } finally {
+            if (injecting) {
+                setDatabaseLatency(Duration.ZERO);
+            }
+        }
+
+        Histogram all = allResponses.getIntervalHistogram();
+        Histogram successful = successfulResponses.getIntervalHistogram();
+        double seconds = config.duration().toNanos() / 1e9;
+        LoadReport.Settlement settlement = config.mode() == LoadTestConfig.Mode.ASYNC ? settle() : null;
+        LoadReport.Injection injection = injecting ? new LoadReport.Injection(config.dbLatency().toMillis(),
+                config.dbLatencyAfter().toNanos() / 1e9, rejectedBeforeInjection.sum(), rejectedAfterInjection.sum(),
+                LoadReport.Latency.of(beforeInjection.getIntervalHistogram()),
+                LoadReport.Latency.of(afterInjection.getIntervalHistogram())) : null;
+        return new LoadReport(startedAt, LoadReport.Settings.of(config), seconds, sent.sum() / seconds,
+                new LoadReport.Counts(sent.sum(), succeeded.sum(), rejected.sum(), failed.sum(), serverErrors.sum(), ioErrors.sum()),
+                LoadReport.Latency.of(all), LoadReport.Latency.of(successful), settlement, injection);
+    }
+
+    /**
+     * Sets the latency the backend adds to every SQL statement through its {@code loadtest} profile.
+     */
+    private void setDatabaseLatency(Duration latency) {
+        HttpRequest request = HttpRequest.newBuilder(config.baseUrl().resolve("/api/loadtest/db-latency?millis=" + latency.toMillis()))
+                .timeout(Duration.ofSeconds(30))
+                .PUT(HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Injecting database latency failed with HTTP " + response.statusCode() + ": " + response.body());
+            }
+            System.out.printf("Database latency set to %d ms%n", latency.toMillis());
+        } catch (IOException e) {
+            throw new IllegalStateException("Injecting database latency failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Polls the sampled asynchronous transfers until each has completed or failed, or the timeout expires.
+     */
+    private LoadReport.Settlement settle() throws InterruptedException {
+        List<String> pending = new ArrayList<>(sampledTransferIds);
+        long sampled = pending.size();
+        Histogram settlementMicros = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        LongAdder completed = new LongAdder();
+        LongAdder failedSettlements = new LongAdder();
+        LocalDateTime[] window = new LocalDateTime[2];
+        long deadline = System.nanoTime() + SETTLEMENT_TIMEOUT.toNanos();
+
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            Queue<String> unsettled = new ConcurrentLinkedQueue<>();
+            try (ExecutorService pollers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (String transferId : pending) {
+                    pollers.execute(() -> {
+                        JsonNode status = fetchStatus(transferId);
+                        String state = status == null ? "ACCEPTED" : status.path("status").asText();
+                        if ("ACCEPTED".equals(state)) {
+                            unsettled.add(transferId);
+                            return;
+                        }
+                        if ("COMPLETED".equals(state)) {
+                            completed.increment();
+                        } else {
+                            failedSettlements.increment();
+                        }
+                        LocalDateTime acceptedAt = LocalDateTime.parse(status.path("acceptedAt").asText());
+                        LocalDateTime completedAt = LocalDateTime.parse(status.path("completedAt").asText());
+                        synchronized (window) {
+                            settlementMicros.recordValue(Math.min(
+                                    Duration.between(acceptedAt, completedAt).toNanos() / 1_000, HIGHEST_TRACKABLE_MICROS));
+                            if (window[0] == null || acceptedAt.isBefore(window[0])) {
+                                window[0] = acceptedAt;
+                            }
+                            if (window[1] == null || completedAt.isAfter(window[1])) {
+                                window[1] = completedAt;
+                            }
+                        }
+                    });
+                }
+            }
+            pending = new ArrayList<>(unsettled);
+            if (!pending.isEmpty()) {
+                Thread.sleep(500);
+            }
+        }
+
+        double settledSeconds = window[0] == null ? 0 : Duration.between(window[0], window[1]).toNanos() / 1e9;
+        double settledRate = settledSeconds > 0 ? accepted.get() / settledSeconds : 0;
+        return new LoadReport.Settlement(sampled, completed.sum(), failedSettlements.sum(), pending.size(),
+                settledRate, LoadReport.Latency.of(settlementMicros));
+    }
+
+    private JsonNode fetchStatus(String transferId) {
+        HttpRequest request = HttpRequest.newBuilder(config.baseUrl().resolve("/api/transactions/transfer/" + transferId))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void sendTransfer(long intendedStart, boolean recorded) {
+        int[] pair = sampler.nextPair();
+        String body = String.format("{\"fromUserId\": \"%s%d\", \"toUserId\": \"%s%d\", \"amount\": %s, \"description\": \"load test\"}",
+                customerIdPrefix(), pair[0], customerIdPrefix(), pair[1], config.amount());
+        HttpRequest request = HttpRequest.newBuilder(transferUri())
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        int status;
+        String responseBody = null;
+        try {
+            if (config.mode() == LoadTestConfig.Mode.ASYNC) {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                responseBody = response.body();
+            } else {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            }
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (!recorded) {
+            return;
+        }
+
+        long latencyMicros = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart), HIGHEST_TRACKABLE_MICROS);
+        sent.increment();
+        if (status == -1) {
+            ioErrors.increment();
+            return;
+        }
+        allResponses.recordValue(latencyMicros);
+        boolean injected = intendedStart >= injectAt;
+        (injected ? afterInjection : beforeInjection).recordValue(latencyMicros);
+        if (status / 100 == 2) {
+            succeeded.increment();
+            successfulResponses.recordValue(latencyMicros);
+            if (status == 202 && accepted.getAndIncrement() % SETTLEMENT_SAMPLE_EVERY == 0) {
+                sampleTransferId(responseBody);
+            }
+        } else if (status == 429 || status == 503) {
+            rejected.increment();
+            (injected ? rejectedAfterInjection : rejectedBeforeInjection).increment();
+        } else if (status / 100 == 4) {
+            failed.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    private void sampleTransferId(String responseBody) {
+        try {
+            String transferId = objectMapper.readTree(responseBody).path("transferId").asText(null);
+            if (transferId != null) {
+                sampledTransferIds.add(transferId);
+            }
+        } catch (IOException e) {
+            // An unparseable acceptance only shrinks the settlement sample.
+        }
+    }
+
+    private URI transferUri() {
+        return config.baseUrl().resolve(config.mode() == LoadTestConfig.Mode.ASYNC
+                ? "/api/transactions/transfer?mode=async" : "/api/transactions/transfer");
+    }
+
+    static String customerIdPrefix() {
+        return "lt-";
+    }
+
+    private static void printSummary(LoadReport report) {
+        LoadReport.Counts counts = report.counts();
+        LoadReport.Latency latency = report.allResponses();
+        System.out.printf("Sent %d requests at %.1f req/s: %d succeeded, %d rejected, %d failed, %d server errors, %d I/O errors%n",
+                counts.sent(), report.achievedRatePerSecond(), counts.succeeded(), counts.rejected(), counts.failed(),
+                counts.serverErrors(), counts.ioErrors());
+        System.out.printf("Latency (us): p50=%d p99=%d p99.9=%d max=%d%n",
+                latency.p50Micros(), latency.p99Micros(), latency.p999Micros(), latency.maxMicros());
+        LoadReport.Injection injection = report.injection();
+        if (injection != null) {
+            System.out.printf("Before %d ms of database latency: %d rejected, p50=%d p99=%d us; after: %d rejected, p50=%d p99=%d us%n",
+                    injection.dbLatencyMillis(), injection.rejectedBefore(), injection.before().p50Micros(),
+                    injection.before().p99Micros(), injection.rejectedAfter(), injection.after().p50Micros(),
+                    injection.after().p99Micros());
+        }
+        LoadReport.Settlement settlement = report.settlement();
+        if (settlement != null) {
+            System.out.printf("Settlement of %d sampled transfers: %d completed, %d failed, %d unsettled; %.1f transfers/s applied%n",
+                    settlement.sampled(), settlement.completed(), settlement.failed(), settlement.unsettled(),
+                    settlement.settledRatePerSecond());
+            System.out.printf("Accepted-to-settled (us): p50=%d p99=%d p99.9=%d max=%d%n",
+                    settlement.acceptedToSettled().p50Micros(), settlement.acceptedToSettled().p99Micros(),
+                    settlement.acceptedToSettled().p999Micros(), settlement.acceptedToSettled().maxMicros());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Instant;
+
+/**
+ * Machine-readable summary of a load run, written as JSON so that results from different
+ * builds can be diffed or fed into a regression check.
+ */
+public record LoadReport(Instant startedAt,
+                         Settings settings,
+                         double durationSeconds,
+                         double achievedRatePerSecond,
+                         Counts counts,
+                         Latency allResponses,
+                         Latency successfulResponses,
+                         Settlement settlement,
+                         Injection injection) {
+
+    public record Settings(String baseUrl, int accounts, String skew, double zipfExponent,
+                           double targetRatePerSecond, String amount, String mode) {
+
+        static Settings of(LoadTestConfig config) {
+            return new Settings(config.baseUrl().toString(), config.accounts(), config.skew().name(),
+                    config.zipfExponent(), config.rate(), config.amount(), config.mode().name());
+        }
+    }
+
+    /**
+     * Outcome of asynchronously accepted transfers, from polling a sample of them after the run;
+     * null for synchronous runs. Latency is measured server-side from acceptance to completion.
+     * {@code settledRatePerSecond} is the number of accepted transfers divided by the time from the first
+     * sampled acceptance to the last sampled settlement, i.e. the throughput the backend actually sustained.
+     */
+    public record Settlement(long sampled, long completed, long failed, long unsettled,
+                             double settledRatePerSecond, Latency acceptedToSettled) {
+    }
+
+    /**
+     * Responses to requests started before and after database latency was injected; null when none was.
+     * Comparing the two shows how the backend sheds load when the database slows down.
+     */
+    public record Injection(long dbLatencyMillis, double afterSeconds, long rejectedBefore, long rejectedAfter,
+                            Latency before, Latency after) {
+    }
+
+    /**
+     * Response outcomes. {@code rejected} covers admission control and load shedding (429/503),
+     * {@code failed} covers business rejections such as insufficient balance (other 4xx).
+     */
+    public record Counts(long sent, long succeeded, long rejected, long failed, long serverErrors, long ioErrors) {
+    }
+
+    /**
+     * Latency percentiles in microseconds, measured from each request's intended start time
+     * so that queueing inside the harness is not hidden (coordinated omission).
+     */
+    public record Latency(long count, double meanMicros, long p50Micros, long p90Micros, long p99Micros,
+                          long p999Micros, long maxMicros) {
+
+        static Latency of(Histogram histogram) {
+            return new Latency(histogram.getTotalCount(), histogram.getMean(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue());
+        }
+    }
+}
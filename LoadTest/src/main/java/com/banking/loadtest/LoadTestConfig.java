@@ -0,0 +1,108 @@
+package com.banking.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line configuration for a load run. Every option is passed as {@code --name=value};
+ * options that are not given fall back to the defaults below.
+ *
+ * <pre>
+ *   --base-url=http://localhost:8080   Backend under test
+ *   --accounts=10000                   Number of accounts to seed and draw senders/recipients from
+ *   --seed=true                        Seed accounts through the loadtest profile before the run
+ *   --initial-balance=1000000          Opening balance of every seeded account
+ *   --rate=200                         Arrival rate in requests per second (open model)
+ *   --duration=60s                     Length of the measured phase
+ *   --warmup=10s                       Length of the unrecorded warm-up phase
+ *   --skew=uniform|zipf                Account popularity distribution
+ *   --zipf-exponent=1.0                Exponent used when skew=zipf
+ *   --amount=10.00                     Amount of every transfer
+ *   --mode=sync|async                  Transfer mode; async measures acceptance latency and polls a sample for settlement
+ *   --report=target/loadtest-report.json  Where to write the machine-readable report
+ *   --db-latency=0ms                   Latency to add to every SQL statement partway through the run (loadtest profile)
+ *   --db-latency-after=30s             When to start adding it, counted from the start of the measured phase
+ * </pre>
+ */
+public record LoadTestConfig(URI baseUrl,
+                             int accounts,
+                             boolean seed,
+                             String initialBalance,
+                             double rate,
+                             Duration duration,
+                             Duration warmup,
+                             Skew skew,
+                             double zipfExponent,
+                             String amount,
+                             Mode mode,
+                             Path report,
+                             Duration dbLatency,
+                             Duration dbLatencyAfter) {
+
+    public enum Skew {
+        UNIFORM,
+        ZIPF
+    }
+
+    public enum Mode {
+        SYNC,
+        ASYNC
+    }
+
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                URI.create(options.getOrDefault("base-url", "http://localhost:8080")),
+                Integer.parseInt(options.getOrDefault("accounts", "10000")),
+                Boolean.parseBoolean(options.getOrDefault("seed", "true")),
+                options.getOrDefault("initial-balance", "1000000"),
+                Double.parseDouble(options.getOrDefault("rate", "200")),
+                parseDuration(options.getOrDefault("duration", "60s")),
+                parseDuration(options.getOrDefault("warmup", "10s")),
+                Skew.valueOf(options.getOrDefault("skew", "uniform").toUpperCase()),
+                Double.parseDouble(options.getOrDefault("zipf-exponent", "1.0")),
+                options.getOrDefault("amount", "10.00"),
+                Mode.valueOf(options.getOrDefault("mode", "sync").toUpperCase()),
+                Path.of(options.getOrDefault("report", "target/loadtest-report.json")),
+                parseDuration(options.getOrDefault("db-latency", "0ms")),
+                parseDuration(options.getOrDefault("db-latency-after", "30s")));
+
+        if (config.accounts() < 2) {
+            throw new IllegalArgumentException("At least two accounts are needed to transfer between");
+        }
+        if (config.rate() <= 0) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        if (config.dbLatency().isPositive() && config.dbLatencyAfter().compareTo(config.duration()) >= 0) {
+            throw new IllegalArgumentException("Database latency must be injected before the measured phase ends");
+        }
+        return config;
+    }
+
+    /**
+     * Parses durations written as {@code 500ms}, {@code 30s} or {@code 5m}.
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,261 @@
+package com.banking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a plain heap {@code transaction} table with the monthly range-partitioned layout
+ * introduced by the {@code V2} migration on a multi-year synthetic dataset in PostgreSQL.
+ * <p>
+ * Both layouts get the same columns, indexes and rows, generated server-side with
+ * {@code generate_series}, in the schemas {@code bench_heap} and {@code bench_partitioned}
+ * (dropped and recreated on every run). The benchmark then measures single-row insert latency
+ * into the current month, an account's 30-day history query, and a one-month aggregate that
+ * benefits most from partition pruning.
+ * <p>
+ * Options are passed as {@code --name=value}:
+ * <pre>
+ *   --jdbc-url=jdbc:postgresql://localhost:5432/banking_bench   Database to create the benchmark schemas in
+ *   --user=postgres --password=postgres                         Credentials
+ *   --years=3                                                   Months of history = years * 12
+ *   --rows-per-month=500000                                     Transactions generated per month
+ *   --accounts=100000                                           Distinct account ids in the data
+ *   --inserts=20000 --queries=2000                              Measured operations per layout
+ *   --report=target/partition-report.json                       Where to write the report
+ * </pre>
+ * Run with: {@code mvn -f LoadTest/pom.xml compile exec:java -Dexec.mainClass=com.banking.loadtest.PartitionBenchmark}
+ */
+public class PartitionBenchmark {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int HISTORY_LIMIT = 100;
+
+    public record Report(Instant startedAt, int months, long rowsPerMonth, int accounts, List<LayoutResult> layouts) {
+    }
+
+    public record LayoutResult(String layout, double loadSeconds, long totalBytes,
+                               LoadReport.Latency insert, LoadReport.Latency accountHistory30Days,
+                               LoadReport.Latency monthAggregate) {
+    }
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+    private final int months;
+    private final long rowsPerMonth;
+    private final int accounts;
+    private final int inserts;
+    private final int queries;
+    private final YearMonth firstMonth;
+
+    PartitionBenchmark(Map<String, String> options) {
+        this.jdbcUrl = options.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/banking_bench");
+        this.user = options.getOrDefault("user", "postgres");
+        this.password = options.getOrDefault("password", "postgres");
+        this.months = Integer.parseInt(options.getOrDefault("years", "3")) * 12;
+        this.rowsPerMonth = Long.parseLong(options.getOrDefault("rows-per-month", "500000"));
+        this.accounts = Integer.parseInt(options.getOrDefault("accounts", "100000"));
+        this.inserts = Integer.parseInt(options.getOrDefault("inserts", "20000"));
+        this.queries = Integer.parseInt(options.getOrDefault("queries", "2000"));
+        // History ends with the current month, which is where the measured inserts go.
+        this.firstMonth = YearMonth.now().minusMonths(months - 1L);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        Path reportPath = Path.of(options.getOrDefault("report", "target/partition-report.json"));
+        PartitionBenchmark benchmark = new PartitionBenchmark(options);
+
+        Instant startedAt = Instant.now();
+        List<LayoutResult> results = List.of(benchmark.run("bench_heap", false), benchmark.run("bench_partitioned", true));
+        Report report = new Report(startedAt, benchmark.months, benchmark.rowsPerMonth, benchmark.accounts, results);
+
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        mapper.writeValue(reportPath.toFile(), report);
+        for (LayoutResult result : results) {
+            System.out.printf("%-18s load=%.1fs size=%dMB insert p50/p99=%d/%dus history p50/p99=%d/%dus month-aggregate p50/p99=%d/%dus%n",
+                    result.layout(), result.loadSeconds(), result.totalBytes() / (1024 * 1024),
+                    result.insert().p50Micros(), result.insert().p99Micros(),
+                    result.accountHistory30Days().p50Micros(), result.accountHistory30Days().p99Micros(),
+                    result.monthAggregate().p50Micros(), result.monthAggregate().p99Micros());
+        }
+        System.out.println("Report written to " + reportPath.toAbsolutePath());
+    }
+
+    LayoutResult run(String schema, boolean partitioned) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password)) {
+            connection.setAutoCommit(true);
+            createSchema(connection, schema, partitioned);
+            long loadStart = System.nanoTime();
+            load(connection, schema);
+            double loadSeconds = (System.nanoTime() - loadStart) / 1e9;
+            System.out.printf("Loaded %s in %.1fs%n", schema, loadSeconds);
+
+            return new LayoutResult(schema, loadSeconds, totalBytes(connection, schema, partitioned),
+                    LoadReport.Latency.of(measureInserts(connection, schema)),
+                    LoadReport.Latency.of(measureAccountHistory(connection, schema)),
+                    LoadReport.Latency.of(measureMonthAggregate(connection, schema)));
+        }
+    }
+
+    private void createSchema(Connection connection, String schema, boolean partitioned) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+            statement.execute("CREATE SCHEMA " + schema);
+            statement.execute("CREATE SEQUENCE " + schema + ".transaction_seq");
+            statement.execute("CREATE TABLE " + schema + ".transaction (" +
+                    "id BIGINT NOT NULL DEFAULT nextval('" + schema + ".transaction_seq'), " +
+                    "transaction_id VARCHAR(36) NOT NULL, transaction_type VARCHAR(255) NOT NULL, " +
+                    "amount NUMERIC(38, 2) NOT NULL, description VARCHAR(255), timestamp TIMESTAMP(6) NOT NULL, " +
+                    "balance_after NUMERIC(38, 2) NOT NULL, account_id BIGINT NOT NULL, " +
+                    (partitioned ? "PRIMARY KEY (id, timestamp)) PARTITION BY RANGE (timestamp)" : "PRIMARY KEY (id))"));
+            if (partitioned) {
+                for (int m = 0; m <= months; m++) {
+                    YearMonth month = firstMonth.plusMonths(m);
+                    statement.execute(String.format("CREATE TABLE %s.transaction_%d_%02d PARTITION OF %s.transaction FOR VALUES FROM ('%s') TO ('%s')",
+                            schema, month.getYear(), month.getMonthValue(), schema, month.atDay(1), month.plusMonths(1).atDay(1)));
+                }
+            }
+            statement.execute("CREATE INDEX ON " + schema + ".transaction (transaction_id)");
+            statement.execute("CREATE INDEX ON " + schema + ".transaction (account_id, timestamp, id)");
+            statement.execute("CREATE INDEX ON " + schema + ".transaction (timestamp)");
+        }
+    }
+
+    private void load(Connection connection, String schema) throws SQLException {
+        // Rows are generated month by month, as they would have arrived, with indexes in place.
+        String sql = "INSERT INTO " + schema + ".transaction (transaction_id, transaction_type, amount, description, timestamp, balance_after, account_id) " +
+                "SELECT md5(g::text || ?), CASE WHEN g % 2 = 0 THEN 'TRANSFER_IN' ELSE 'TRANSFER_OUT' END, " +
+                "round((random() * 1000)::numeric, 2), 'benchmark', ?::timestamp + random() * (?::timestamp - ?::timestamp), " +
+                "round((random() * 100000)::numeric, 2), 1 + floor(random() * ?)::bigint FROM generate_series(1, ?) g";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int m = 0; m < months; m++) {
+                YearMonth month = firstMonth.plusMonths(m);
+                Timestamp start = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+                Timestamp end = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+                statement.setString(1, month.toString());
+                statement.setTimestamp(2, start);
+                statement.setTimestamp(3, end);
+                statement.setTimestamp(4, start);
+                statement.setInt(5, accounts);
+                statement.setLong(6, rowsPerMonth);
+                statement.executeUpdate();
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE " + schema + ".transaction");
+        }
+    }
+
+    private Histogram measureInserts(Connection connection, String schema) throws SQLException {
+        Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        String sql = "INSERT INTO " + schema + ".transaction (transaction_id, transaction_type, amount, description, timestamp, balance_after, account_id) " +
+                "VALUES (?, 'TRANSFER_OUT', 10.00, 'benchmark insert', ?, 0, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < inserts; i++) {
+                statement.setString(1, UUID.randomUUID().toString());
+                statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                statement.setLong(3, 1 + ThreadLocalRandom.current().nextInt(accounts));
+                long start = System.nanoTime();
+                statement.executeUpdate();
+                record(histogram, start);
+            }
+        }
+        return histogram;
+    }
+
+    private Histogram measureAccountHistory(Connection connection, String schema) throws SQLException {
+        Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        String sql = "SELECT id, transaction_id, transaction_type, amount, description, timestamp, balance_after FROM " + schema +
+                ".transaction WHERE account_id = ? AND timestamp >= ? AND timestamp < ? ORDER BY timestamp DESC, id DESC LIMIT " + HISTORY_LIMIT;
+        LocalDateTime dataStart = firstMonth.atDay(1).atStartOfDay();
+        long spanDays = ChronoUnit.DAYS.between(dataStart, LocalDateTime.now()) - 30;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < queries; i++) {
+                LocalDateTime from = dataStart.plusDays(ThreadLocalRandom.current().nextLong(Math.max(spanDays, 1)));
+                statement.setLong(1, 1 + ThreadLocalRandom.current().nextInt(accounts));
+                statement.setTimestamp(2, Timestamp.valueOf(from));
+                statement.setTimestamp(3, Timestamp.valueOf(from.plusDays(30)));
+                long start = System.nanoTime();
+                drain(statement);
+                record(histogram, start);
+            }
+        }
+        return histogram;
+    }
+
+    private Histogram measureMonthAggregate(Connection connection, String schema) throws SQLException {
+        Histogram histogram = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        String sql = "SELECT count(*), sum(amount) FROM " + schema + ".transaction WHERE timestamp >= ? AND timestamp < ?";
+        // Whole-month scans are expensive on the heap table, so fewer of them are run.
+        int aggregates = Math.max(1, queries / 100);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < aggregates; i++) {
+                YearMonth month = firstMonth.plusMonths(ThreadLocalRandom.current().nextInt(months));
+                statement.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+                statement.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+                long start = System.nanoTime();
+                drain(statement);
+                record(histogram, start);
+            }
+        }
+        return histogram;
+    }
+
+    private long totalBytes(Connection connection, String schema, boolean partitioned) throws SQLException {
+        String sql = partitioned
+                ? "SELECT coalesce(sum(pg_total_relation_size(inhrelid)), 0) FROM pg_inherits WHERE inhparent = '" + schema + ".transaction'::regclass"
+                : "SELECT pg_total_relation_size('" + schema + ".transaction')";
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static void drain(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getObject(1);
+            }
+        }
+    }
+
+    private static void record(Histogram histogram, long startNanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+}
@@ -0,0 +1,125 @@
+package com.banking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-first-request of the backend: the wall-clock time from launching the JVM
+ * until the first successful response from a readiness URL. Each run starts a fresh process,
+ * so the numbers include JVM start, class loading and Spring context refresh.
+ * <p>
+ * Options are passed as {@code --name=value}:
+ * <pre>
+ *   --command="java -jar ../Backend/target/backend-0.0.1-SNAPSHOT.jar"   Command that starts the backend
+ *   --url=http://localhost:8080/actuator/health/liveness                 URL polled until it answers 2xx
+ *   --runs=5                                                            Number of cold starts
+ *   --timeout=120s                                                      Give up on a run after this long
+ *   --report=target/startup-report.json                                 Where to write the report
+ * </pre>
+ * Compare a plain jar against the {@code fast-startup} build, for example:
+ * {@code --command="java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true
+ * -Dspring.profiles.active=fast-startup -jar ../Backend/target/cds/backend-0.0.1-SNAPSHOT.jar"}
+ */
+public class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    public record Report(Instant startedAt, String command, String url, List<Long> runsMillis,
+                         long minMillis, long medianMillis, long maxMillis) {
+
+        static Report of(Instant startedAt, String command, String url, List<Long> runsMillis) {
+            long[] sorted = runsMillis.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Report(startedAt, command, url, runsMillis,
+                    sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        String command = options.getOrDefault("command", "java -jar ../Backend/target/backend-0.0.1-SNAPSHOT.jar");
+        URI url = URI.create(options.getOrDefault("url", "http://localhost:8080/actuator/health/liveness"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Duration timeout = LoadTestConfig.parseDuration(options.getOrDefault("timeout", "120s"));
+        Path reportPath = Path.of(options.getOrDefault("report", "target/startup-report.json"));
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        Instant startedAt = Instant.now();
+        List<Long> results = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            long millis = measureOnce(command, url, timeout, httpClient);
+            results.add(millis);
+            System.out.printf("Run %d: first successful request after %d ms%n", run, millis);
+        }
+
+        Report report = Report.of(startedAt, command, url.toString(), results);
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(SerializationFeature.INDENT_OUTPUT);
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        mapper.writeValue(reportPath.toFile(), report);
+        System.out.printf("Time to first request (ms): min=%d median=%d max=%d%n",
+                report.minMillis(), report.medianMillis(), report.maxMillis());
+        System.out.println("Report written to " + reportPath.toAbsolutePath());
+    }
+
+    private static long measureOnce(String command, URI url, Duration timeout, HttpClient httpClient)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        Process process = new ProcessBuilder(Arrays.asList(command.trim().split("\\s+")))
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(1)).GET().build();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Backend exited with code " + process.exitValue() + " before answering");
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException("Backend did not answer " + url + " within " + timeout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}